@@ -67,6 +67,7 @@ public class AiAttackController {
     private List<Card> myList; // holds computer creatures
     
     private final Player ai;
+    private final AiCombatMatrix matrix; // what the attackers and blockers do to each other
     private Player defendingOpponent;
     
     private int aiAggression = 0; // added by Masher, how aggressive the ai is attack will be depending on circumstances
@@ -84,6 +85,7 @@ public class AiAttackController {
      */
     public AiAttackController(final Player ai) {
         this.ai = ai;
+        this.matrix = AiCombatMatrix.of(ai);
         this.defendingOpponent = choosePreferredDefenderPlayer();       
         this.oppList = getOpponentCreatures(this.defendingOpponent);
         this.myList = ai.getCreaturesInPlay();
@@ -98,6 +100,7 @@ public class AiAttackController {
 
     public AiAttackController(final Player ai, Card attacker) {
         this.ai = ai;
+        this.matrix = AiCombatMatrix.of(ai);
         this.defendingOpponent = choosePreferredDefenderPlayer();       
         this.oppList = getOpponentCreatures(this.defendingOpponent);
         this.myList = ai.getCreaturesInPlay();
@@ -197,7 +200,7 @@ public class AiAttackController {
     public final boolean isEffectiveAttacker(final Player ai, final Card attacker, final Combat combat) {
 
         // if the attacker will die when attacking don't attack
-        if ((attacker.getNetToughness() + ComputerUtilCombat.predictToughnessBonusOfAttacker(attacker, null, combat, true)) <= 0) {
+        if ((attacker.getNetToughness() + matrix.predictToughnessBonusOfAttacker(ai, attacker, null, combat, true)) <= 0) {
             return false;
         }
         
@@ -644,7 +647,21 @@ public class AiAttackController {
             // no more creatures to attack
             return;
         }
-        
+
+        // Search the sets of attackers as a whole, if the profile asks for it
+        if (defender == this.defendingOpponent && ai.getController().isAI()) {
+            final AiController aic = ((PlayerControllerAi) ai.getController()).getAi();
+            if (aic.getBooleanProperty(AiProps.SEARCH_ATTACKS)) {
+                final AiAttackPlanner planner = new AiAttackPlanner(ai, this.defendingOpponent, combat.getAttackers(),
+                        attackersLeft, this.oppList, aic.getIntProperty(AiProps.ATTACK_SEARCH_TIME_BUDGET));
+                for (final Card attacker : planner.plan()) {
+                    if (!combat.isAttacking(attacker)) {
+                        combat.addAttacker(attacker, defender);
+                    }
+                }
+                return;
+            }
+        }
 
         // *******************
         // Evaluate the creature forces
@@ -977,7 +994,7 @@ public class AiAttackController {
             if ((isWorthLessThanAllKillers || canKillAllDangerous || numberOfPossibleBlockers < 2)
                     && CombatUtil.canBlock(attacker, defender)) {
                 numberOfPossibleBlockers += 1;
-                if (isWorthLessThanAllKillers && ComputerUtilCombat.canDestroyAttacker(ai, attacker, defender, combat, false)
+                if (isWorthLessThanAllKillers && matrix.canDestroyAttacker(ai, attacker, defender, combat, false)
                         && !(attacker.hasKeyword("Undying") && attacker.getCounters(CounterType.P1P1) == 0)) {
                     canBeKilledByOne = true; // there is a single creature on the battlefield that can kill the creature
                     // see if the defending creature is of higher or lower
@@ -989,7 +1006,7 @@ public class AiAttackController {
                 }
                 // see if this attacking creature can destroy this defender, if
                 // not record that it can't kill everything
-                if (canKillAllDangerous && !ComputerUtilCombat.canDestroyBlocker(ai, defender, attacker, combat, false)) {
+                if (canKillAllDangerous && !matrix.canDestroyBlocker(ai, defender, attacker, combat, false)) {
                     canKillAll = false;
                     if (defender.getSVar("HasCombatEffect").equals("TRUE") || defender.getSVar("HasBlockEffect").equals("TRUE")) {
                         canKillAllDangerous = false;
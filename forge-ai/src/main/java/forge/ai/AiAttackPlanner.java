@@ -0,0 +1,487 @@
+package forge.ai;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import forge.game.card.Card;
+import forge.game.card.CardLists;
+import forge.game.combat.CombatUtil;
+import forge.game.player.Player;
+
+/**
+ * Plans an attack by trying out whole sets of attackers, instead of deciding
+ * for each creature on its own the way {@link AiAttackController} does.
+ * <p>
+ * For each set the defending player's blocks are predicted, the combat is
+ * played out and the result is scored: creatures killed on either side,
+ * damage dealt, life gained and how hard the opponent can strike back next
+ * turn. With few candidates every set is tried, otherwise a beam search adds
+ * one attacker at a time to the best sets found so far. The search stops
+ * when the time budget runs out and goes with the best set it has seen.
+ * <p>
+ * Combats are played out on numbers taken from the cards once: power,
+ * toughness left, value, who can block whom, and first strike, double
+ * strike, trample, deathtouch, lifelink, indestructible and vigilance. Each
+ * creature blocks or is blocked by at most one other, and attackers that
+ * need more than one blocker are taken to be unblocked, so this is a rough
+ * guess next to {@link ComputerUtilCombat}, but quick enough to try
+ * thousands of attacks.
+ */
+final class AiAttackPlanner {
+    private static final int FIRST_STRIKE = 1;
+    private static final int DOUBLE_STRIKE = 1 << 1;
+    private static final int TRAMPLE = 1 << 2;
+    private static final int DEATHTOUCH = 1 << 3;
+    private static final int LIFELINK = 1 << 4;
+    private static final int INDESTRUCTIBLE = 1 << 5;
+    private static final int VIGILANCE = 1 << 6;
+
+    // sets of attackers are bit masks
+    private static final int MAX_ATTACKERS = 62;
+    // try every set of up to this many candidates
+    private static final int EXHAUSTIVE_LIMIT = 10;
+    private static final int BEAM_WIDTH = 8;
+
+    private static final int WIN = Integer.MAX_VALUE / 2;
+    private static final int LOSS = -WIN;
+
+    private final Card[] attackers;
+    private final long mustAttack;
+    private final int[] atkPower;
+    private final int[] atkToughness;
+    private final int[] atkFlags;
+    private final int[] atkValue;
+    private final boolean[] atkCanBlock; // next turn, if it survives and doesn't tap
+    private final boolean[] atkNeedsMany;
+    // the attackers, most valuable first
+    private final int[] atkOrder;
+
+    private final int[] blkPower;
+    private final int[] blkToughness;
+    private final int[] blkFlags;
+    private final int[] blkValue;
+    private final int[] blkNextTurnPower;
+    private final boolean[][] canBlock; // [attacker][blocker]
+
+    // what a single block comes to, played out once for every pair
+    private final boolean[][] attackerDies;
+    private final boolean[][] blockerDies;
+    private final int[][] trampleDamage;
+    private final int[][] lifeGained;
+
+    private final int oppLife;
+    private final boolean oppCanLose;
+    private final int aiLife;
+    private final int homeBlockers;
+
+    private final long deadline;
+
+    /**
+     * @param ai the attacking player
+     * @param opp the defending player
+     * @param declared the attackers already declared, which stay in every set
+     * @param candidates the creatures that may attack
+     * @param possibleBlockers the creatures of the defending player
+     * @param timeBudget milliseconds to search for, or 0 to search as long as it takes
+     */
+    AiAttackPlanner(final Player ai, final Player opp, final List<Card> declared, final List<Card> candidates,
+            final List<Card> possibleBlockers, final long timeBudget) {
+        deadline = timeBudget > 0 ? System.currentTimeMillis() + timeBudget : Long.MAX_VALUE;
+        final List<Card> all = new ArrayList<Card>(declared);
+        final List<Card> choices = new ArrayList<Card>(candidates);
+        choices.removeAll(declared);
+        CardLists.sortByPowerDesc(choices);
+        all.addAll(choices);
+        final int n = Math.min(all.size(), MAX_ATTACKERS);
+        attackers = all.subList(0, n).toArray(new Card[n]);
+        mustAttack = declared.size() >= n ? (1L << n) - 1 : (1L << declared.size()) - 1;
+
+        atkPower = new int[n];
+        atkToughness = new int[n];
+        atkFlags = new int[n];
+        atkValue = new int[n];
+        atkCanBlock = new boolean[n];
+        atkNeedsMany = new boolean[n];
+        for (int a = 0; a < n; a++) {
+            final Card c = attackers[a];
+            atkPower[a] = Math.max(0, c.getNetCombatDamage());
+            atkToughness[a] = c.getLethalDamage();
+            atkFlags[a] = flags(c);
+            atkValue[a] = ComputerUtilCard.evaluateCreature(c);
+            atkCanBlock[a] = CombatUtil.canBlock(c, true);
+            atkNeedsMany[a] = CombatUtil.needsBlockers(c) > 1;
+        }
+        atkOrder = byValue(atkValue);
+
+        final int m = possibleBlockers.size();
+        blkPower = new int[m];
+        blkToughness = new int[m];
+        blkFlags = new int[m];
+        blkValue = new int[m];
+        blkNextTurnPower = new int[m];
+        for (int b = 0; b < m; b++) {
+            final Card c = possibleBlockers.get(b);
+            blkPower[b] = Math.max(0, c.getNetCombatDamage());
+            blkToughness[b] = c.getLethalDamage();
+            blkFlags[b] = flags(c);
+            blkValue[b] = ComputerUtilCard.evaluateCreature(c);
+            if (ComputerUtilCombat.canAttackNextTurn(c)) {
+                blkNextTurnPower[b] = (blkFlags[b] & DOUBLE_STRIKE) != 0 ? 2 * blkPower[b] : blkPower[b];
+            }
+        }
+
+        canBlock = new boolean[n][m];
+        attackerDies = new boolean[n][m];
+        blockerDies = new boolean[n][m];
+        trampleDamage = new int[n][m];
+        lifeGained = new int[n][m];
+        for (int a = 0; a < n; a++) {
+            for (int b = 0; b < m; b++) {
+                canBlock[a][b] = !atkNeedsMany[a] && CombatUtil.canBlock(attackers[a], possibleBlockers.get(b));
+                if (canBlock[a][b]) {
+                    resolve(a, b);
+                }
+            }
+        }
+
+        int home = 0;
+        for (final Card c : ai.getCreaturesInPlay()) {
+            if (!all.contains(c) && CombatUtil.canBlock(c, true)) {
+                home++;
+            }
+        }
+        homeBlockers = home;
+
+        oppLife = opp.getLife();
+        oppCanLose = opp.canLoseLife() && !opp.cantLoseForZeroOrLessLife();
+        aiLife = ai.getLife();
+    }
+
+    private static int flags(final Card c) {
+        int flags = 0;
+        if (c.hasFirstStrike()) {
+            flags |= FIRST_STRIKE;
+        }
+        if (c.hasDoubleStrike()) {
+            flags |= DOUBLE_STRIKE;
+        }
+        if (c.hasKeyword("Trample")) {
+            flags |= TRAMPLE;
+        }
+        if (c.hasKeyword("Deathtouch")) {
+            flags |= DEATHTOUCH;
+        }
+        if (c.hasKeyword("Lifelink")) {
+            flags |= LIFELINK;
+        }
+        if (c.hasKeyword("Indestructible")) {
+            flags |= INDESTRUCTIBLE;
+        }
+        if (c.hasKeyword("Vigilance")) {
+            flags |= VIGILANCE;
+        }
+        return flags;
+    }
+
+    private static int[] byValue(final int[] values) {
+        final Integer[] order = new Integer[values.length];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, new Comparator<Integer>() {
+            @Override
+            public int compare(final Integer i, final Integer j) {
+                return Integer.compare(values[j], values[i]);
+            }
+        });
+        final int[] result = new int[order.length];
+        for (int i = 0; i < order.length; i++) {
+            result[i] = order[i];
+        }
+        return result;
+    }
+
+    // Plays out attacker a blocked by blocker b alone: the first strike damage step, if either
+    // has first strike, and the regular one.
+    private void resolve(final int a, final int b) {
+        final int aFlags = atkFlags[a];
+        final int bFlags = blkFlags[b];
+        final boolean aFirst = (aFlags & (FIRST_STRIKE | DOUBLE_STRIKE)) != 0;
+        final boolean bFirst = (bFlags & (FIRST_STRIKE | DOUBLE_STRIKE)) != 0;
+        final boolean firstStep = aFirst || bFirst;
+        int aLeft = atkToughness[a];
+        int bLeft = blkToughness[b];
+        boolean aDead = false;
+        boolean bDead = false;
+        int toPlayer = 0;
+        int dealt = 0;
+
+        for (int step = firstStep ? 0 : 1; step < 2; step++) {
+            final boolean aDeals = !aDead && atkPower[a] > 0
+                    && (step == 0 ? aFirst : !aFirst || (aFlags & DOUBLE_STRIKE) != 0);
+            final boolean bDeals = !bDead && blkPower[b] > 0
+                    && (step == 0 ? bFirst : !bFirst || (bFlags & DOUBLE_STRIKE) != 0);
+            int toBlocker = 0;
+            if (aDeals) {
+                final int power = atkPower[a];
+                if (bDead) {
+                    // the blocker is gone, only trample gets through
+                    if ((aFlags & TRAMPLE) != 0) {
+                        toPlayer += power;
+                        dealt += power;
+                    }
+                } else if ((aFlags & TRAMPLE) != 0) {
+                    final int lethal = (aFlags & DEATHTOUCH) != 0 ? 1 : Math.max(bLeft, 0);
+                    toBlocker = Math.min(power, lethal);
+                    toPlayer += power - toBlocker;
+                    dealt += power;
+                } else {
+                    toBlocker = power;
+                    dealt += power;
+                }
+            }
+            final int toAttacker = bDeals ? blkPower[b] : 0;
+
+            if (toBlocker > 0 && !bDead) {
+                bLeft -= toBlocker;
+                bDead = (bLeft <= 0 || (aFlags & DEATHTOUCH) != 0) && (bFlags & INDESTRUCTIBLE) == 0;
+            }
+            if (toAttacker > 0) {
+                aLeft -= toAttacker;
+                aDead = (aLeft <= 0 || (bFlags & DEATHTOUCH) != 0) && (aFlags & INDESTRUCTIBLE) == 0;
+            }
+        }
+
+        attackerDies[a][b] = aDead;
+        blockerDies[a][b] = bDead;
+        trampleDamage[a][b] = toPlayer;
+        lifeGained[a][b] = (aFlags & LIFELINK) != 0 ? dealt : 0;
+    }
+
+    private int unblockedDamage(final int a) {
+        return (atkFlags[a] & DOUBLE_STRIKE) != 0 ? 2 * atkPower[a] : atkPower[a];
+    }
+
+    /**
+     * Predicts how the defending player blocks a set of attackers, and
+     * scores what comes of it for the attacking player. The defender blocks
+     * where a blocker kills the attacker and lives, then where a blocker
+     * lives, then trades creatures worth less for creatures worth more, and
+     * chump blocks for as long as the attackers left would kill.
+     */
+    private int score(final long attack) {
+        final int n = attackers.length;
+        final int m = blkPower.length;
+        final int[] blockOf = new int[n];
+        Arrays.fill(blockOf, -1);
+        final boolean[] used = new boolean[m];
+
+        int unblocked = 0;
+        for (int a = 0; a < n; a++) {
+            if ((attack & 1L << a) != 0) {
+                unblocked += unblockedDamage(a);
+            }
+        }
+
+        // 1. blocks that kill the attacker and survive, 2. blocks that survive, 3. trades
+        for (int pass = 0; pass < 3; pass++) {
+            for (final int a : atkOrder) {
+                if ((attack & 1L << a) == 0 || blockOf[a] >= 0) {
+                    continue;
+                }
+                int best = -1;
+                for (int b = 0; b < m; b++) {
+                    if (used[b] || !canBlock[a][b]) {
+                        continue;
+                    }
+                    final boolean good;
+                    if (pass == 0) {
+                        good = attackerDies[a][b] && !blockerDies[a][b];
+                    } else if (pass == 1) {
+                        good = !blockerDies[a][b];
+                    } else {
+                        good = attackerDies[a][b] && blkValue[b] < atkValue[a];
+                    }
+                    if (good && (best < 0 || blkValue[b] < blkValue[best])) {
+                        best = b;
+                    }
+                }
+                if (best >= 0) {
+                    blockOf[a] = best;
+                    used[best] = true;
+                    unblocked -= unblockedDamage(a) - trampleDamage[a][best];
+                }
+            }
+        }
+
+        // 4. chump blocks while the damage would be lethal
+        if (oppCanLose) {
+            for (final int a : atkOrder) {
+                if (unblocked < oppLife) {
+                    break;
+                }
+                if ((attack & 1L << a) == 0 || blockOf[a] >= 0) {
+                    continue;
+                }
+                int best = -1;
+                for (int b = 0; b < m; b++) {
+                    if (!used[b] && canBlock[a][b] && trampleDamage[a][b] < unblockedDamage(a)
+                            && (best < 0 || blkValue[b] < blkValue[best])) {
+                        best = b;
+                    }
+                }
+                if (best >= 0) {
+                    blockOf[a] = best;
+                    used[best] = true;
+                    unblocked -= unblockedDamage(a) - trampleDamage[a][best];
+                }
+            }
+        }
+
+        // play it out
+        int damage = 0;
+        int gained = 0;
+        int value = 0;
+        int home = homeBlockers;
+        final boolean[] blockerDead = new boolean[m];
+        for (int a = 0; a < n; a++) {
+            final boolean attacking = (attack & 1L << a) != 0;
+            boolean dead = false;
+            if (!attacking) {
+                if (atkCanBlock[a]) {
+                    home++;
+                }
+                continue;
+            }
+            final int b = blockOf[a];
+            if (b < 0) {
+                damage += unblockedDamage(a);
+                if ((atkFlags[a] & LIFELINK) != 0) {
+                    gained += unblockedDamage(a);
+                }
+            } else {
+                damage += trampleDamage[a][b];
+                gained += lifeGained[a][b];
+                dead = attackerDies[a][b];
+                if (blockerDies[a][b]) {
+                    blockerDead[b] = true;
+                    value += blkValue[b];
+                }
+            }
+            if (dead) {
+                value -= atkValue[a];
+            } else if ((atkFlags[a] & VIGILANCE) != 0 && atkCanBlock[a]) {
+                home++;
+            }
+        }
+
+        if (oppCanLose && damage >= oppLife) {
+            return WIN;
+        }
+
+        // what the opponent can strike back with, each creature kept home blocking one of the biggest
+        final int[] strikeBack = new int[m];
+        int survivors = 0;
+        for (int b = 0; b < m; b++) {
+            if (!blockerDead[b] && blkNextTurnPower[b] > 0) {
+                strikeBack[survivors++] = blkNextTurnPower[b];
+            }
+        }
+        Arrays.sort(strikeBack, 0, survivors);
+        int counterDamage = 0;
+        for (int i = survivors - 1 - home; i >= 0; i--) {
+            counterDamage += strikeBack[i];
+        }
+        final int lifeAfter = aiLife + gained;
+        if (counterDamage >= lifeAfter) {
+            return LOSS + value;
+        }
+
+        // a point of life is worth more the fewer are left, and the
+        // opponent may not strike back with everything it could
+        return value + 200 * damage / Math.max(1, oppLife) + 100 * gained / Math.max(1, lifeAfter)
+                - 100 * counterDamage / Math.max(1, lifeAfter);
+    }
+
+    /**
+     * The best set of attackers found within the time budget, including the
+     * ones already declared.
+     */
+    List<Card> plan() {
+        final int free = attackers.length - Long.bitCount(mustAttack);
+        final long best = free <= EXHAUSTIVE_LIMIT ? searchAll(free) : searchBeam();
+        final List<Card> result = new ArrayList<Card>();
+        for (int a = 0; a < attackers.length; a++) {
+            if ((best & 1L << a) != 0) {
+                result.add(attackers[a]);
+            }
+        }
+        return result;
+    }
+
+    // the free attackers follow the declared ones, so a set of them shifted up is a set of attackers
+    private long searchAll(final int free) {
+        final int shift = Long.bitCount(mustAttack);
+        long best = mustAttack;
+        int bestScore = score(best);
+        for (long choice = 1; choice < 1L << free; choice++) {
+            if (System.currentTimeMillis() > deadline) {
+                break;
+            }
+            final long attack = mustAttack | choice << shift;
+            final int score = score(attack);
+            if (score > bestScore || score == bestScore && Long.bitCount(attack) < Long.bitCount(best)) {
+                best = attack;
+                bestScore = score;
+            }
+        }
+        return best;
+    }
+
+    private long searchBeam() {
+        long best = mustAttack;
+        int bestScore = score(best);
+        long[] beam = { mustAttack };
+        final Set<Long> seen = new HashSet<Long>();
+        while (beam.length > 0 && System.currentTimeMillis() <= deadline) {
+            final long[] next = new long[BEAM_WIDTH];
+            final int[] nextScores = new int[BEAM_WIDTH];
+            int size = 0;
+            for (final long attack : beam) {
+                for (int a = 0; a < attackers.length; a++) {
+                    final long grown = attack | 1L << a;
+                    if (grown == attack || !seen.add(grown)) {
+                        continue;
+                    }
+                    final int score = score(grown);
+                    if (score > bestScore) {
+                        best = grown;
+                        bestScore = score;
+                    }
+                    // keep the best few, the worst last
+                    int i = size < BEAM_WIDTH ? size++ : BEAM_WIDTH;
+                    while (i > 0 && nextScores[i - 1] < score) {
+                        if (i < BEAM_WIDTH) {
+                            next[i] = next[i - 1];
+                            nextScores[i] = nextScores[i - 1];
+                        }
+                        i--;
+                    }
+                    if (i < BEAM_WIDTH) {
+                        next[i] = grown;
+                        nextScores[i] = score;
+                    }
+                }
+                if (System.currentTimeMillis() > deadline) {
+                    break;
+                }
+            }
+            beam = Arrays.copyOf(next, size);
+        }
+        return best;
+    }
+}
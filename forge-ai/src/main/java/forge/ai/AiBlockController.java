@@ -52,6 +52,7 @@ import java.util.Map;
 public class AiBlockController {
 
     private final Player ai;
+    private final AiCombatMatrix matrix; // what the attackers and blockers do to each other
     /** Constant <code>attackers</code>. */
     private List<Card> attackers = new ArrayList<>(); // all attackers
     /** Constant <code>attackersLeft</code>. */
@@ -66,6 +67,7 @@ public class AiBlockController {
 
     public AiBlockController(Player aiPlayer) {
         ai = aiPlayer;
+        matrix = AiCombatMatrix.of(aiPlayer);
     }
 
     // finds the creatures able to block the attacker
@@ -90,7 +92,7 @@ public class AiBlockController {
         final List<Card> blockers = new ArrayList<>();
 
         for (final Card b : blockersLeft) {
-            if (!ComputerUtilCombat.canDestroyBlocker(ai, b, attacker, combat, false)) {
+            if (!matrix.canDestroyBlocker(ai, b, attacker, combat, false)) {
                 blockers.add(b);
             }
         }
@@ -103,7 +105,7 @@ public class AiBlockController {
         final List<Card> blockers = new ArrayList<>();
 
         for (final Card b : blockersLeft) {
-            if (ComputerUtilCombat.canDestroyAttacker(ai, attacker, b, combat, false)) {
+            if (matrix.canDestroyAttacker(ai, attacker, b, combat, false)) {
                 blockers.add(b);
             }
         }
@@ -207,7 +209,7 @@ public class AiBlockController {
                         for (Card other : attackersLeft) {
                             if (other.equals(attacker) || !CombatUtil.canBlock(other, blocker)
                             		|| other.hasKeyword("Trample")
-                                    || ComputerUtilCombat.canDestroyBlocker(ai, blocker, other, combat, false)
+                                    || matrix.canDestroyBlocker(ai, blocker, other, combat, false)
                                     || other.hasKeyword("You may have CARDNAME assign its combat damage as though it weren't blocked.")) {
                                 continue;
                             }
@@ -241,7 +243,7 @@ public class AiBlockController {
                 for (Card b : blockers) {
                     if (b.hasSVar("SacMe") && Integer.parseInt(b.getSVar("SacMe")) > 3) {
                         blocker = b;
-                        if (!ComputerUtilCombat.canDestroyAttacker(ai, attacker, blocker, combat, false)) {
+                        if (!matrix.canDestroyAttacker(ai, attacker, blocker, combat, false)) {
                         	blockedButUnkilled.add(attacker);
                         }
                         break;
@@ -305,7 +307,7 @@ public class AiBlockController {
                 		|| (b.hasStartOfKeyword("Fading") && b.getCounters(CounterType.FADE) == 0)
                 		|| b.hasSVar("EndOfTurnLeavePlay")) {
                     blocker = b;
-                    if (!ComputerUtilCombat.canDestroyAttacker(ai, attacker, blocker, combat, false)) {
+                    if (!matrix.canDestroyAttacker(ai, attacker, blocker, combat, false)) {
                     	blockedButUnkilled.add(attacker);
                     }
                     break;
@@ -344,7 +346,7 @@ public class AiBlockController {
                 final List<Card> firstStrikeBlockers = new ArrayList<>();
                 final List<Card> blockGang = new ArrayList<>();
                 for (Card blocker : blockers) {
-                	if (ComputerUtilCombat.canDestroyBlockerBeforeFirstStrike(blocker, attacker, false)) {
+                	if (matrix.canDestroyBlockerBeforeFirstStrike(ai, blocker, attacker, combat, false)) {
                 		continue;
                 	}
                     if (blocker.hasFirstStrike() || blocker.hasDoubleStrike()) {
@@ -356,7 +358,7 @@ public class AiBlockController {
                     CardLists.sortByPowerDesc(firstStrikeBlockers);
                     for (final Card blocker : firstStrikeBlockers) {
                         final int damageNeeded = ComputerUtilCombat.getDamageToKill(attacker)
-                                + ComputerUtilCombat.predictToughnessBonusOfAttacker(attacker, blocker, combat, false);
+                                + matrix.predictToughnessBonusOfAttacker(ai, attacker, blocker, combat, false);
                         // if the total damage of the blockgang was not enough
                         // without but is enough with this blocker finish the
                         // blockgang
@@ -434,7 +436,7 @@ public class AiBlockController {
                 final int absorbedDamage2 = ComputerUtilCombat.getEnoughDamageToKill(blocker, attacker.getNetCombatDamage(), attacker, true);
                 final int addedValue = ComputerUtilCard.evaluateCreature(blocker);
                 final int damageNeeded = ComputerUtilCombat.getDamageToKill(attacker)
-                        + ComputerUtilCombat.predictToughnessBonusOfAttacker(attacker, blocker, combat, false);
+                        + matrix.predictToughnessBonusOfAttacker(ai, attacker, blocker, combat, false);
                 if ((damageNeeded > currentDamage || CombatUtil.needsBlockers(attacker) > blockGang.size())
                         && !(damageNeeded > currentDamage + additionalDamage)
                         // The attacker will be killed
@@ -475,7 +477,7 @@ public class AiBlockController {
                 final int absorbedDamage2 = ComputerUtilCombat.getEnoughDamageToKill(secondBlocker, attacker.getNetCombatDamage(), attacker, true);
                 final int addedValue2 = ComputerUtilCard.evaluateCreature(secondBlocker);
                 final int damageNeeded = ComputerUtilCombat.getDamageToKill(attacker)
-                        + ComputerUtilCombat.predictToughnessBonusOfAttacker(attacker, secondBlocker, combat, false);
+                        + matrix.predictToughnessBonusOfAttacker(ai, attacker, secondBlocker, combat, false);
 
                 List<Card> usableBlockersAsThird = new ArrayList<>();
                 usableBlockersAsThird.addAll(usableBlockers);
@@ -704,7 +706,7 @@ public class AiBlockController {
                 safeBlockers = getSafeBlockers(combat, attacker, blockers);
 	            for (final Card blocker : safeBlockers) {
 	                final int damageNeeded = ComputerUtilCombat.getDamageToKill(attacker)
-	                        + ComputerUtilCombat.predictToughnessBonusOfAttacker(attacker, blocker, combat, false);
+	                        + matrix.predictToughnessBonusOfAttacker(ai, attacker, blocker, combat, false);
 	                // Add an additional blocker if the current blockers are not
 	                // enough and the new one would deal additional damage
 	                if (damageNeeded > ComputerUtilCombat.totalDamageOfBlockers(attacker, combat.getBlockers(attacker))
@@ -731,7 +733,7 @@ public class AiBlockController {
 
             for (final Card blocker : safeBlockers) {
                 final int damageNeeded = ComputerUtilCombat.getDamageToKill(attacker)
-                        + ComputerUtilCombat.predictToughnessBonusOfAttacker(attacker, blocker, combat, false);
+                        + matrix.predictToughnessBonusOfAttacker(ai, attacker, blocker, combat, false);
                 // Add an additional blocker if the current blockers are not
                 // enough and the new one would deal the remaining damage
                 final int currentDamage = ComputerUtilCombat.totalDamageOfBlockers(attacker, combat.getBlockers(attacker));
@@ -740,7 +742,7 @@ public class AiBlockController {
                         && damageNeeded <= currentDamage + additionalDamage
                         && ComputerUtilCard.evaluateCreature(blocker) + diff < ComputerUtilCard.evaluateCreature(attacker)
                         && CombatUtil.canBlock(attacker, blocker, combat)
-                        && !ComputerUtilCombat.canDestroyBlockerBeforeFirstStrike(blocker, attacker, false)) {
+                        && !matrix.canDestroyBlockerBeforeFirstStrike(ai, blocker, attacker, combat, false)) {
                     combat.addBlocker(attacker, blocker);
                     blockersLeft.remove(blocker);
                 }
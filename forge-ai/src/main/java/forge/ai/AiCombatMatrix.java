@@ -0,0 +1,193 @@
+package forge.ai;
+
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+import forge.game.Game;
+import forge.game.card.Card;
+import forge.game.combat.Combat;
+import forge.game.player.Player;
+
+/**
+ * Remembers how attackers and blockers would fare against each other in a
+ * combat, for as long as neither the game nor the attackers change.
+ * <p>
+ * While declaring attackers or blockers the AI asks whether one creature
+ * would kill another many times over for the same pairs, and each answer
+ * walks the keywords, static abilities and triggers of the whole
+ * battlefield again. Here every attacker gets a row and every blocker a
+ * column, the first time they are asked about, and each cell keeps the
+ * answers found for that pair: whether either of them dies, whether the
+ * blocker dies before first strike damage and how much tougher the attacker
+ * gets. The matrix is emptied when {@link Game#getBoardVersion()} or
+ * {@link Combat#getAttackersVersion()} moves on, or a different combat is
+ * asked about.
+ * <p>
+ * Blocks tried out don't empty the matrix, as the answers for a pair don't
+ * depend on the other blocks, with one exception: the damage a blocker takes
+ * from the other attackers it blocks. Those answers are worked out afresh.
+ * Neither is an answer kept if the board changed while it was worked out.
+ */
+final class AiCombatMatrix {
+    // bits of a cell, once for abilities considered and again shifted by ABILITIES_SHIFT for without
+    private static final int ATTACKER_DIES_KNOWN = 1;
+    private static final int ATTACKER_DIES = 1 << 1;
+    private static final int BLOCKER_DIES_KNOWN = 1 << 2;
+    private static final int BLOCKER_DIES = 1 << 3;
+    private static final int BLOCKER_DIES_FIRST_KNOWN = 1 << 4;
+    private static final int BLOCKER_DIES_FIRST = 1 << 5;
+    private static final int TOUGHNESS_BONUS_KNOWN = 1 << 6;
+    private static final int ABILITIES_SHIFT = 8;
+
+    private Game game;
+    private int version = -1;
+    private Player ai;
+    private Combat combat;
+    private int attackersVersion = -1;
+
+    private final Map<Card, Integer> rows = new IdentityHashMap<>();
+    private final Map<Card, Integer> columns = new IdentityHashMap<>();
+    private int stride = 8;
+    private int[] cells = new int[8 * 8];
+    private int[] toughnessBonus = new int[2 * 8 * 8];
+
+    /**
+     * The matrix of an AI player, or a new one if the player isn't controlled
+     * by the AI; that one is only kept by whoever asked for it.
+     */
+    static AiCombatMatrix of(final Player ai) {
+        if (!(ai.getController() instanceof PlayerControllerAi)) {
+            return new AiCombatMatrix();
+        }
+        return ((PlayerControllerAi) ai.getController()).getAi().getCombatMatrix();
+    }
+
+    /** @see ComputerUtilCombat#canDestroyAttacker(Player, Card, Card, Combat, boolean) */
+    boolean canDestroyAttacker(final Player ai, final Card attacker, final Card blocker, final Combat combat,
+            final boolean withoutAbilities) {
+        final int cell = cell(ai, attacker, blocker, combat);
+        final int shift = withoutAbilities ? ABILITIES_SHIFT : 0;
+        if ((cells[cell] & ATTACKER_DIES_KNOWN << shift) != 0) {
+            return (cells[cell] & ATTACKER_DIES << shift) != 0;
+        }
+        final boolean dies = ComputerUtilCombat.canDestroyAttacker(ai, attacker, blocker, combat, withoutAbilities);
+        store(cell, (ATTACKER_DIES_KNOWN | (dies ? ATTACKER_DIES : 0)) << shift);
+        return dies;
+    }
+
+    /** @see ComputerUtilCombat#canDestroyBlocker(Player, Card, Card, Combat, boolean) */
+    boolean canDestroyBlocker(final Player ai, final Card blocker, final Card attacker, final Combat combat,
+            final boolean withoutAbilities) {
+        if (blocksOthers(blocker, attacker, combat)) {
+            return ComputerUtilCombat.canDestroyBlocker(ai, blocker, attacker, combat, withoutAbilities);
+        }
+        final int cell = cell(ai, attacker, blocker, combat);
+        final int shift = withoutAbilities ? ABILITIES_SHIFT : 0;
+        if ((cells[cell] & BLOCKER_DIES_KNOWN << shift) != 0) {
+            return (cells[cell] & BLOCKER_DIES << shift) != 0;
+        }
+        final boolean dies = ComputerUtilCombat.canDestroyBlocker(ai, blocker, attacker, combat, withoutAbilities);
+        store(cell, (BLOCKER_DIES_KNOWN | (dies ? BLOCKER_DIES : 0)) << shift);
+        return dies;
+    }
+
+    /** @see ComputerUtilCombat#canDestroyBlockerBeforeFirstStrike(Card, Card, boolean) */
+    boolean canDestroyBlockerBeforeFirstStrike(final Player ai, final Card blocker, final Card attacker,
+            final Combat combat, final boolean withoutAbilities) {
+        final int cell = cell(ai, attacker, blocker, combat);
+        final int shift = withoutAbilities ? ABILITIES_SHIFT : 0;
+        if ((cells[cell] & BLOCKER_DIES_FIRST_KNOWN << shift) != 0) {
+            return (cells[cell] & BLOCKER_DIES_FIRST << shift) != 0;
+        }
+        final boolean dies = ComputerUtilCombat.canDestroyBlockerBeforeFirstStrike(blocker, attacker, withoutAbilities);
+        store(cell, (BLOCKER_DIES_FIRST_KNOWN | (dies ? BLOCKER_DIES_FIRST : 0)) << shift);
+        return dies;
+    }
+
+    /** @see ComputerUtilCombat#predictToughnessBonusOfAttacker(Card, Card, Combat, boolean) */
+    int predictToughnessBonusOfAttacker(final Player ai, final Card attacker, final Card blocker, final Combat combat,
+            final boolean withoutAbilities) {
+        final int cell = cell(ai, attacker, blocker, combat);
+        final int shift = withoutAbilities ? ABILITIES_SHIFT : 0;
+        final int slot = 2 * cell + (withoutAbilities ? 1 : 0);
+        if ((cells[cell] & TOUGHNESS_BONUS_KNOWN << shift) != 0) {
+            return toughnessBonus[slot];
+        }
+        final int bonus = ComputerUtilCombat.predictToughnessBonusOfAttacker(attacker, blocker, combat, withoutAbilities);
+        toughnessBonus[slot] = bonus;
+        store(cell, TOUGHNESS_BONUS_KNOWN << shift);
+        return bonus;
+    }
+
+    // canDestroyBlocker adds the damage of the other attackers the blocker already blocks
+    private static boolean blocksOthers(final Card blocker, final Card attacker, final Combat combat) {
+        if (combat == null) {
+            return false;
+        }
+        for (final Card other : combat.getAttackersBlockedBy(blocker)) {
+            if (!other.equals(attacker)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private int cell(final Player ai0, final Card attacker, final Card blocker, final Combat combat0) {
+        final Game g = attacker.getGame();
+        // without a combat of its own a prediction looks at the one of the game
+        final Combat attacking = combat0 != null ? combat0 : g.getCombat();
+        final int combatVersion = attacking == null ? -1 : attacking.getAttackersVersion();
+        if (g != game || g.getBoardVersion() != version || ai0 != ai || combat0 != combat
+                || combatVersion != attackersVersion) {
+            game = g;
+            version = g.getBoardVersion();
+            ai = ai0;
+            combat = combat0;
+            attackersVersion = combatVersion;
+            rows.clear();
+            columns.clear();
+            Arrays.fill(cells, 0);
+        }
+        final int row = index(attacker, rows);
+        final int column = index(blocker, columns);
+        return row * stride + column;
+    }
+
+    private int index(final Card card, final Map<Card, Integer> indices) {
+        final Integer known = indices.get(card);
+        if (known != null) {
+            return known;
+        }
+        final int index = indices.size();
+        indices.put(card, index);
+        if (index >= stride) {
+            grow();
+        }
+        return index;
+    }
+
+    // keeps the cells of the pairs already known at their row and column
+    private void grow() {
+        final int newStride = 2 * stride;
+        final int[] newCells = new int[newStride * newStride];
+        final int[] newToughness = new int[2 * newStride * newStride];
+        for (int row = 0; row < stride; row++) {
+            System.arraycopy(cells, row * stride, newCells, row * newStride, stride);
+            System.arraycopy(toughnessBonus, 2 * row * stride, newToughness, 2 * row * newStride, 2 * stride);
+        }
+        stride = newStride;
+        cells = newCells;
+        toughnessBonus = newToughness;
+    }
+
+    // An answer is only kept if working it out left the board as it was.
+    // If the board moved on meanwhile, the cells known so far may no longer
+    // hold either; the version is left behind, so the next question empties
+    // the matrix.
+    private void store(final int cell, final int bits) {
+        if (game.getBoardVersion() == version) {
+            cells[cell] |= bits;
+        }
+    }
+}
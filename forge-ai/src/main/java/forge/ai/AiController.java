@@ -105,6 +105,8 @@ public class AiController {
     private final Player player;
     private final Game game;
     private final AiCardMemory memory;
+    private final AiManaSolver manaSolver = new AiManaSolver();
+    private final AiCombatMatrix combatMatrix = new AiCombatMatrix();
     private boolean cheatShuffle;
     private boolean useSimulation;
     private SpellAbilityPicker simPicker;
@@ -133,6 +135,14 @@ public class AiController {
         return memory;
     }
 
+    AiManaSolver getManaSolver() {
+        return manaSolver;
+    }
+
+    AiCombatMatrix getCombatMatrix() {
+        return combatMatrix;
+    }
+
     public AiController(final Player computerPlayer, final Game game0) {
         player = computerPlayer;
         game = game0;
@@ -1316,6 +1326,8 @@ public class AiController {
             return null;
         
         if (useSimulation) {
+            simPicker.setParallelism(getIntProperty(AiProps.SIMULATION_PARALLELISM));
+            simPicker.setTimeBudget(getIntProperty(AiProps.SIMULATION_TIME_BUDGET));
             return simPicker.chooseSpellAbilityToPlay(null, all, skipCounter);
         }
         
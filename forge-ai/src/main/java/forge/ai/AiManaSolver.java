@@ -0,0 +1,391 @@
+package forge.ai;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.commons.lang3.StringUtils;
+
+import com.google.common.collect.ListMultimap;
+
+import forge.card.mana.ManaCostShard;
+import forge.game.Game;
+import forge.game.GameActionUtil;
+import forge.game.ability.ApiType;
+import forge.game.card.Card;
+import forge.game.mana.ManaCostBeingPaid;
+import forge.game.player.Player;
+import forge.game.spellability.AbilityManaPart;
+import forge.game.spellability.SpellAbility;
+import forge.util.TextUtil;
+
+/**
+ * Works out how the AI can pay mana costs, and remembers it for as long as
+ * the game doesn't change.
+ * <p>
+ * {@link ComputerUtilMana} pays a cost one shard at a time, taking the
+ * first source that fits each shard, which can use up a land that a later
+ * shard needed. Here the unpaid shards and the sources that can pay them are
+ * matched as a bipartite graph, each source taking as many shards as it
+ * makes mana. If not every shard can be matched the cost can't be paid at
+ * all; otherwise the matching tells the payment which source to use for
+ * which shard.
+ * <p>
+ * The AI asks whether it can pay for every spell it considers on every
+ * priority pass, so the mana sources, the matchings and the outcome of test
+ * payments are kept until {@link Game#getStateVersion()} moves on.
+ */
+final class AiManaSolver {
+    private Game game;
+    private int version = -1;
+
+    private ListMultimap<Integer, SpellAbility> playableSources;
+    private ListMultimap<Integer, SpellAbility> allSources;
+    private final Map<Card, Integer> scores = new HashMap<>();
+    private final Map<SpellAbility, Integer> amounts = new HashMap<>();
+    private final Map<SpellAbility, Map<String, Plan>> plans = new IdentityHashMap<>();
+    private final Map<SpellAbility, Map<String, Outcome>> outcomes = new IdentityHashMap<>();
+
+    /**
+     * The solver of an AI player, or null if the player isn't controlled by
+     * the AI; nothing is remembered for those.
+     */
+    static AiManaSolver of(final Player ai) {
+        if (!(ai.getController() instanceof PlayerControllerAi)) {
+            return null;
+        }
+        return ((PlayerControllerAi) ai.getController()).getAi().getManaSolver();
+    }
+
+    private void checkVersion(final Player ai) {
+        final Game g = ai.getGame();
+        if (g == game && g.getStateVersion() == version) {
+            return;
+        }
+        game = g;
+        version = g.getStateVersion();
+        playableSources = null;
+        allSources = null;
+        scores.clear();
+        amounts.clear();
+        plans.clear();
+        outcomes.clear();
+    }
+
+    // Whatever was just worked out is for the game as it is now; looking
+    // at the sources may have touched views without changing anything.
+    private void stamp() {
+        version = game.getStateVersion();
+    }
+
+    ListMultimap<Integer, SpellAbility> getSourcesByColor(final Player ai, final boolean checkPlayable) {
+        checkVersion(ai);
+        return checkPlayable ? playableSources : allSources;
+    }
+
+    void putSourcesByColor(final boolean checkPlayable, final ListMultimap<Integer, SpellAbility> sources) {
+        if (checkPlayable) {
+            playableSources = sources;
+        } else {
+            allSources = sources;
+        }
+        stamp();
+    }
+
+    Integer getScore(final Player ai, final Card source) {
+        checkVersion(ai);
+        return scores.get(source);
+    }
+
+    void putScore(final Card source, final int score) {
+        scores.put(source, score);
+        stamp();
+    }
+
+    /**
+     * The outcome of an earlier test payment of the cost with the given key
+     * for a spell, or null if it hasn't been tried since the game changed.
+     */
+    Outcome getOutcome(final Player ai, final SpellAbility sa, final String costKey) {
+        checkVersion(ai);
+        final Map<String, Outcome> forSa = outcomes.get(sa);
+        return forSa == null ? null : forSa.get(costKey);
+    }
+
+    void putOutcome(final SpellAbility sa, final String costKey, final Outcome outcome) {
+        Map<String, Outcome> forSa = outcomes.get(sa);
+        if (forSa == null) {
+            forSa = new HashMap<>();
+            outcomes.put(sa, forSa);
+        }
+        forSa.put(costKey, outcome);
+        stamp();
+    }
+
+    /** What a test payment came to, and what it told the card being paid for. */
+    static final class Outcome {
+        final boolean paid;
+        final byte colorsPaid;
+        final int sunburst;
+
+        Outcome(final boolean paid, final byte colorsPaid, final int sunburst) {
+            this.paid = paid;
+            this.colorsPaid = colorsPaid;
+            this.sunburst = sunburst;
+        }
+    }
+
+    /**
+     * Matches the unpaid shards of a cost with the sources listed for them.
+     *
+     * @param cost the cost left after paying from the mana pool
+     * @param sa the spell or ability being paid for
+     * @param ai the paying player
+     * @param sourcesForShards the mana abilities that can pay each kind of shard
+     * @param checkCosts whether the sources must be able to pay their own costs right now
+     */
+    static Plan plan(final ManaCostBeingPaid cost, final SpellAbility sa, final Player ai,
+            final ListMultimap<ManaCostShard, SpellAbility> sourcesForShards, final boolean checkCosts) {
+        final AiManaSolver solver = of(ai);
+        if (solver == null) {
+            return solve(null, cost, sa, ai, sourcesForShards, checkCosts);
+        }
+
+        solver.checkVersion(ai);
+        final String key = checkCosts + cost.toString() + "|" + cost.getSourceRestriction();
+        Map<String, Plan> forSa = solver.plans.get(sa);
+        if (forSa == null) {
+            forSa = new HashMap<>();
+            solver.plans.put(sa, forSa);
+        }
+        Plan plan = forSa.get(key);
+        if (plan == null) {
+            plan = solve(solver, cost, sa, ai, sourcesForShards, checkCosts);
+            forSa.put(key, plan);
+            solver.stamp();
+        }
+        return plan;
+    }
+
+    private static Plan solve(final AiManaSolver solver, final ManaCostBeingPaid cost, final SpellAbility sa, final Player ai,
+            final ListMultimap<ManaCostShard, SpellAbility> sourcesForShards, final boolean checkCosts) {
+        // the sources, in the order the payment would try them, and how much mana each makes
+        final Map<Card, Integer> sourceIndex = new LinkedHashMap<>();
+        final List<Integer> amounts = new ArrayList<>();
+        final Map<SpellAbility, Boolean> usable = new HashMap<>();
+        final String typeRes = cost.getSourceRestriction();
+
+        // one entry per unpaid shard, with the sources that could pay it
+        final List<ManaCostShard> shards = new ArrayList<>();
+        final List<int[]> candidates = new ArrayList<>();
+        final List<Boolean> lifeInstead = new ArrayList<>();
+
+        for (final ManaCostShard shard : cost.getDistinctShards()) {
+            final List<Integer> forShard = new ArrayList<>();
+            for (final SpellAbility ma : sourcesForShards.get(shard)) {
+                final Card source = ma.getHostCard();
+                if (source == sa.getHostCard()) {
+                    continue;
+                }
+                if (StringUtils.isNotBlank(typeRes) && !source.getType().hasStringType(typeRes)) {
+                    continue;
+                }
+                Boolean canUse = usable.get(ma);
+                if (canUse == null) {
+                    canUse = ComputerUtilMana.canUseManaAbility(ai, ma, sa, checkCosts);
+                    usable.put(ma, canUse);
+                }
+                if (!canUse) {
+                    continue;
+                }
+
+                Integer index = sourceIndex.get(source);
+                if (index == null) {
+                    index = sourceIndex.size();
+                    sourceIndex.put(source, index);
+                    amounts.add(0);
+                }
+                amounts.set(index, Math.max(amounts.get(index), getAmount(solver, ma)));
+                if (!forShard.contains(index)) {
+                    forShard.add(index);
+                }
+            }
+
+            final int[] choices = new int[forShard.size()];
+            for (int i = 0; i < choices.length; i++) {
+                choices[i] = forShard.get(i);
+            }
+            // Phyrexian shards may be paid with life instead
+            final boolean withLife = shard.isPhyrexian() && ai.canPayLife(2);
+            for (int n = cost.getUnpaidShards(shard); n > 0; n--) {
+                shards.add(shard);
+                candidates.add(choices);
+                lifeInstead.add(withLife);
+            }
+        }
+
+        final int[] capacity = new int[amounts.size()];
+        for (int i = 0; i < capacity.length; i++) {
+            capacity[i] = amounts.get(i);
+        }
+
+        // match the shards with the fewest sources first, then generic mana,
+        // and last the shards that can do without; an augmenting path never
+        // leaves a shard unmatched that was matched before
+        final Integer[] order = new Integer[shards.size()];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, new Comparator<Integer>() {
+            @Override
+            public int compare(final Integer a, final Integer b) {
+                final int byLife = Boolean.compare(lifeInstead.get(a), lifeInstead.get(b));
+                if (byLife != 0) {
+                    return byLife;
+                }
+                final boolean genericA = shards.get(a) == ManaCostShard.GENERIC;
+                final boolean genericB = shards.get(b) == ManaCostShard.GENERIC;
+                if (genericA != genericB) {
+                    return genericA ? 1 : -1;
+                }
+                return Integer.compare(candidates.get(a).length, candidates.get(b).length);
+            }
+        });
+
+        final int[] matchedTo = new int[shards.size()];
+        Arrays.fill(matchedTo, -1);
+        final int[] load = new int[capacity.length];
+        for (final int shard : order) {
+            if (!augment(shard, candidates, capacity, matchedTo, load, new boolean[capacity.length])
+                    && !lifeInstead.get(shard)) {
+                return Plan.UNPAYABLE;
+            }
+        }
+
+        final List<Card> sources = new ArrayList<>(sourceIndex.keySet());
+        final Map<Card, Set<ManaCostShard>> assigned = new HashMap<>();
+        for (int i = 0; i < matchedTo.length; i++) {
+            if (matchedTo[i] < 0) {
+                continue;
+            }
+            final Card source = sources.get(matchedTo[i]);
+            Set<ManaCostShard> forSource = assigned.get(source);
+            if (forSource == null) {
+                forSource = EnumSet.noneOf(ManaCostShard.class);
+                assigned.put(source, forSource);
+            }
+            forSource.add(shards.get(i));
+        }
+        return new Plan(assigned);
+    }
+
+    // Kuhn's augmenting path search, with sources that can take as many
+    // shards as they make mana.
+    private static boolean augment(final int shard, final List<int[]> candidates, final int[] capacity,
+            final int[] matchedTo, final int[] load, final boolean[] visited) {
+        for (final int source : candidates.get(shard)) {
+            if (visited[source]) {
+                continue;
+            }
+            visited[source] = true;
+            if (load[source] < capacity[source]) {
+                matchedTo[shard] = source;
+                load[source]++;
+                return true;
+            }
+            // the source is full, unless one of its shards can go elsewhere
+            for (int other = 0; other < matchedTo.length; other++) {
+                if (matchedTo[other] != source) {
+                    continue;
+                }
+                matchedTo[other] = -1;
+                if (augment(other, candidates, capacity, matchedTo, load, visited)) {
+                    matchedTo[shard] = source;
+                    return true;
+                }
+                matchedTo[other] = source;
+            }
+        }
+        return false;
+    }
+
+    // How much mana one activation of a mana ability makes.
+    private static int getAmount(final AiManaSolver solver, final SpellAbility ma) {
+        Integer amount = solver == null ? null : solver.amounts.get(ma);
+        if (amount == null) {
+            final AbilityManaPart mp = ma.getManaPart();
+            int n = GameActionUtil.amountOfManaGenerated(ma, false);
+            if (!mp.getManaReplaceType().isEmpty() || ma.hasParam("ReplaceIfLandPlayed")) {
+                // replaced mana may come to more, so don't hold the source to anything
+                n = Integer.MAX_VALUE;
+            } else if (!mp.isAnyMana() && !mp.isComboMana() && !mp.isSpecialMana() && ma.getApi() != ApiType.ManaReflected) {
+                int each = 0;
+                for (final String part : TextUtil.split(mp.mana(), ' ')) {
+                    each += StringUtils.isNumeric(part) ? Integer.parseInt(part) : 1;
+                }
+                n *= each;
+            }
+            amount = n;
+            if (solver != null) {
+                solver.amounts.put(ma, amount);
+            }
+        }
+        return amount;
+    }
+
+    /** Which shards each source was matched with, if every shard could be. */
+    static final class Plan {
+        static final Plan UNPAYABLE = new Plan(null);
+
+        private final Map<Card, Set<ManaCostShard>> assigned;
+
+        private Plan(final Map<Card, Set<ManaCostShard>> assigned) {
+            this.assigned = assigned;
+        }
+
+        boolean isPayable() {
+            return assigned != null;
+        }
+
+        /**
+         * Puts the sources matched with each kind of shard first in its
+         * list, and those matched with other shards last, so that taking
+         * the first source that fits each shard follows the matching.
+         * Phyrexian shards don't get the sources matched with other shards
+         * at all, as they're left to be paid with life.
+         */
+        void order(final ListMultimap<ManaCostShard, SpellAbility> sourcesForShards) {
+            for (final ManaCostShard shard : new ArrayList<>(sourcesForShards.keySet())) {
+                final List<SpellAbility> abilities = new ArrayList<>(sourcesForShards.get(shard));
+                Collections.sort(abilities, new Comparator<SpellAbility>() {
+                    @Override
+                    public int compare(final SpellAbility a, final SpellAbility b) {
+                        return Integer.compare(rank(shard, a), rank(shard, b));
+                    }
+                });
+                if (shard.isPhyrexian()) {
+                    while (!abilities.isEmpty() && rank(shard, abilities.get(abilities.size() - 1)) == 2) {
+                        abilities.remove(abilities.size() - 1);
+                    }
+                }
+                sourcesForShards.replaceValues(shard, abilities);
+            }
+        }
+
+        private int rank(final ManaCostShard shard, final SpellAbility ma) {
+            final Set<ManaCostShard> forSource = assigned.get(ma.getHostCard());
+            if (forSource == null) {
+                return 1;
+            }
+            return forSource.contains(shard) ? 0 : 2;
+        }
+    }
+}
@@ -34,7 +34,11 @@ public enum AiProps { /** */
     PRIORITIZE_MOVE_EQUIPMENT_IF_USELESS ("true"),
     PREDICT_SPELLS_FOR_MAIN2 ("true"), /** */
     RESERVE_MANA_FOR_MAIN2_CHANCE ("0"), /** */
-    PLAY_AGGRO ("false"); /** */
+    PLAY_AGGRO ("false"), /** */
+    SEARCH_ATTACKS ("false"), /** */
+    ATTACK_SEARCH_TIME_BUDGET ("200"), /** */
+    SIMULATION_PARALLELISM ("1"), /** */
+    SIMULATION_TIME_BUDGET ("0"); /** */
 
     private final String strDefaultVal;
 
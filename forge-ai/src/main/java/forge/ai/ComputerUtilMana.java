@@ -2,6 +2,7 @@ package forge.ai;
 
 import com.google.common.base.Predicate;
 import com.google.common.collect.ArrayListMultimap;
+import com.google.common.collect.ImmutableListMultimap;
 import com.google.common.collect.ListMultimap;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Multimap;
@@ -48,7 +49,7 @@ public class ComputerUtilMana {
 
     public static boolean canPayManaCost(ManaCostBeingPaid cost, final SpellAbility sa, final Player ai) {
         cost = new ManaCostBeingPaid(cost); //check copy of cost so it doesn't modify the exist cost being paid
-        return payManaCost(cost, sa, ai, true, true);
+        return testPayManaCost(cost, sa, ai, true);
     }
 
     public static boolean payManaCost(ManaCostBeingPaid cost, final SpellAbility sa, final Player ai) {
@@ -93,9 +94,40 @@ public class ComputerUtilMana {
 
     private static boolean payManaCost(final SpellAbility sa, final Player ai, final boolean test, final int extraMana, boolean checkPlayable) {
         ManaCostBeingPaid cost = ComputerUtilMana.calculateManaCost(sa, test, extraMana);
+        if (test) {
+            return testPayManaCost(cost, sa, ai, checkPlayable);
+        }
         return payManaCost(cost, sa, ai, test, checkPlayable);
     }
 
+    /**
+     * Test payment of a cost that nothing looks at afterwards. The answer
+     * stays the same until the game changes, so it's remembered until then.
+     */
+    private static boolean testPayManaCost(final ManaCostBeingPaid cost, final SpellAbility sa, final Player ai, boolean checkPlayable) {
+        final AiManaSolver solver = AiManaSolver.of(ai);
+        // the test takes floating mana from the pool and puts it back, and
+        // whether reserved sources may be used is decided at random
+        if (solver == null || !ai.getManaPool().isEmpty() || hasReservedManaSources(ai)) {
+            return payManaCost(cost, sa, ai, true, checkPlayable);
+        }
+
+        final String key = checkPlayable + cost.toString() + "|" + cost.getSourceRestriction();
+        AiManaSolver.Outcome outcome = solver.getOutcome(ai, sa, key);
+        if (outcome == null) {
+            final boolean paid = payManaCost(cost, sa, ai, true, checkPlayable);
+            solver.putOutcome(sa, key, new AiManaSolver.Outcome(paid, cost.getColorsPaid(), cost.getSunburst()));
+            return paid;
+        }
+
+        if (outcome.paid) {
+            sa.getHostCard().setColorsPaid(outcome.colorsPaid);
+            sa.getHostCard().setSunburstValue(outcome.sunburst);
+        }
+        handleOfferingsAI(sa, true, outcome.paid);
+        return outcome.paid;
+    }
+
     private static class ManaProducingCard {
         private int score;
 
@@ -124,23 +156,31 @@ public class ComputerUtilMana {
         }
     }
     
-    private static void sortManaAbilities(final Multimap<ManaCostShard, SpellAbility> manaAbilityMap) {
-        final Map<Card, ManaProducingCard> manaCardMap = new HashMap<>();
+    private static void sortManaAbilities(final Player ai, final Multimap<ManaCostShard, SpellAbility> manaAbilityMap) {
+        final AiManaSolver solver = AiManaSolver.of(ai);
+        final Map<Card, Integer> manaCardMap = new HashMap<>();
         final List<Card> orderedCards = new ArrayList<>();
         
         for (final ManaCostShard shard : manaAbilityMap.keySet()) {
             for (SpellAbility ability : manaAbilityMap.get(shard)) {
-                if (!manaCardMap.containsKey(ability.getHostCard())) {
-                    ManaProducingCard manaProducingCard = new ManaProducingCard(ability.getHostCard());
-                    manaCardMap.put(ability.getHostCard(), manaProducingCard);
-                    orderedCards.add(ability.getHostCard());
+                final Card source = ability.getHostCard();
+                if (!manaCardMap.containsKey(source)) {
+                    Integer score = solver == null ? null : solver.getScore(ai, source);
+                    if (score == null) {
+                        score = new ManaProducingCard(source).score;
+                        if (solver != null) {
+                            solver.putScore(source, score);
+                        }
+                    }
+                    manaCardMap.put(source, score);
+                    orderedCards.add(source);
                 }
             }
         }
         Collections.sort(orderedCards, new Comparator<Card>() {
             @Override
             public int compare(final Card card1, final Card card2) {
-                return Integer.compare(manaCardMap.get(card1).score, manaCardMap.get(card2).score);
+                return Integer.compare(manaCardMap.get(card1), manaCardMap.get(card2));
             }
         });
 
@@ -257,7 +297,7 @@ public class ComputerUtilMana {
         // select which abilities may be used for each shard
         Multimap<ManaCostShard, SpellAbility> sourcesForShards = ComputerUtilMana.groupAndOrderToPayShards(ai, manaAbilityMap, cost);
 
-        sortManaAbilities(sourcesForShards);
+        sortManaAbilities(ai, sourcesForShards);
 
         ManaCostShard toPay;
         // Loop over mana needed
@@ -321,6 +361,17 @@ public class ComputerUtilMana {
         	return false;	// no mana abilities to use for paying
         }
 
+        final AiManaSolver.Plan plan = AiManaSolver.plan(cost, sa, ai, sourcesForShards, checkPlayable || !test);
+        if (!plan.isPayable()) {
+            if (test) {	// no way to use the sources would pay for it
+                refundMana(manaSpentToPay, ai, sa);
+                handleOfferingsAI(sa, test, false);
+                return false;
+            }
+        } else if (!hasConverge) {	// converge pays generic mana with other colors on purpose
+            plan.order(sourcesForShards);
+        }
+
         final ManaPool manapool = ai.getManaPool();
         ManaCostShard toPay = null;
         // Loop over mana needed
@@ -488,7 +539,7 @@ public class ComputerUtilMana {
         		}
         	}
         }
-        sortManaAbilities(sourcesForShards);
+        sortManaAbilities(ai, sourcesForShards);
         if (DEBUG_MANA_PAYMENT) {
             System.out.println("DEBUG_MANA_PAYMENT: sourcesForShards = " + sourcesForShards);
         }
@@ -684,26 +735,11 @@ public class ComputerUtilMana {
             return false;
         }
 
-        AbilityManaPart m = ma.getManaPart();
-        if (!m.meetsManaRestrictions(sa)) {
+        if (!canUseManaAbility(ai, ma, sa, checkCosts)) {
             return false;
         }
 
-        if (checkCosts) {
-            // Check if AI can still play this mana ability
-            ma.setActivatingPlayer(ai);
-            if (ma.getPayCosts() != null) { // if the AI can't pay the additional costs skip the mana ability
-                if (!CostPayment.canPayAdditionalCosts(ma.getPayCosts(), ma)) {
-                    return false;
-                }
-            }
-            else if (sourceCard.isTapped()) {
-                return false;
-            } else if (ma.getRestrictions() != null && ma.getRestrictions().isInstantSpeed()) {
-                return false;
-            }
-        }
-
+        AbilityManaPart m = ma.getManaPart();
         if (m.isComboMana()) {
             for (String s : m.getComboColors().split(" ")) {
                 if ("Any".equals(s) || ai.getManaPool().canPayForShardWithColor(toPay, ManaAtom.fromName(s)))
@@ -726,6 +762,32 @@ public class ComputerUtilMana {
         return true;
     }
 
+    /**
+     * Checks the restrictions of a mana ability on what its mana can be spent
+     * on and, if checkCosts is set, whether it can be activated right now.
+     */
+    static boolean canUseManaAbility(Player ai, SpellAbility ma, SpellAbility sa, boolean checkCosts) {
+        if (!ma.getManaPart().meetsManaRestrictions(sa)) {
+            return false;
+        }
+
+        if (checkCosts) {
+            // Check if AI can still play this mana ability
+            ma.setActivatingPlayer(ai);
+            if (ma.getPayCosts() != null) { // if the AI can't pay the additional costs skip the mana ability
+                if (!CostPayment.canPayAdditionalCosts(ma.getPayCosts(), ma)) {
+                    return false;
+                }
+            }
+            else if (ma.getHostCard().isTapped()) {
+                return false;
+            } else if (ma.getRestrictions() != null && ma.getRestrictions().isInstantSpeed()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     // isManaSourceReserved returns true if sourceCard is reserved as a mana source for payment
     // for the future spell to be cast in Mana 2. However, if "sa" (the spell ability that is
     // being considered for casting) is high priority, then mana source reservation will be
@@ -763,6 +825,14 @@ public class ComputerUtilMana {
         return false;
     }
 
+    private static boolean hasReservedManaSources(Player ai) {
+        if (!(ai.getController() instanceof PlayerControllerAi)) {
+            return false;
+        }
+        AiCardMemory memory = ((PlayerControllerAi)ai.getController()).getAi().getCardMemory();
+        return !memory.isMemorySetEmpty(AiCardMemory.MemorySet.HELD_MANA_SOURCES);
+    }
+
 
     private static ManaCostShard getNextShardToPay(ManaCostBeingPaid cost) {
         // mind the priorities
@@ -1127,6 +1197,20 @@ public class ComputerUtilMana {
 
     //This method is currently used by AI to estimate mana available
     private static ListMultimap<Integer, SpellAbility> groupSourcesByManaColor(final Player ai, boolean checkPlayable) {
+        final AiManaSolver solver = AiManaSolver.of(ai);
+        if (solver == null) {
+            return findSourcesByManaColor(ai, checkPlayable);
+        }
+        ListMultimap<Integer, SpellAbility> manaMap = solver.getSourcesByColor(ai, checkPlayable);
+        if (manaMap == null) {
+            // kept as long as the game doesn't change, so nobody may change it
+            manaMap = ImmutableListMultimap.copyOf(findSourcesByManaColor(ai, checkPlayable));
+            solver.putSourcesByColor(checkPlayable, manaMap);
+        }
+        return manaMap;
+    }
+
+    private static ListMultimap<Integer, SpellAbility> findSourcesByManaColor(final Player ai, boolean checkPlayable) {
         final ListMultimap<Integer, SpellAbility> manaMap = ArrayListMultimap.create();
         final Game game = ai.getGame();
 
@@ -24,7 +24,6 @@ import forge.game.card.CardFactoryUtil;
 import forge.game.card.CounterType;
 import forge.game.player.Player;
 import forge.game.player.RegisteredPlayer;
-import forge.game.spellability.AbilityActivated;
 import forge.game.spellability.SpellAbility;
 import forge.game.spellability.SpellAbilityRestriction;
 import forge.game.spellability.SpellAbilityStackInstance;
@@ -61,6 +60,8 @@ public class GameCopier {
         GameRules currentRules = origGame.getRules();
         Match newMatch = new Match(currentRules, newPlayers, origGame.getView().getTitle());
         Game newGame = new Game(newPlayers, currentRules, newMatch);
+        // nobody reads the log of a simulated game, and without it most events don't need to be built
+        newGame.unsubscribeFromEvents(newGame.getGameLog().getEventVisitor());
         for (int i = 0; i < origGame.getPlayers().size(); i++) {
             Player origPlayer = origGame.getPlayers().get(i);
             Player newPlayer = newGame.getPlayers().get(i);
@@ -182,7 +183,6 @@ public class GameCopier {
         }
     }
     
-    private static final boolean USE_FROM_PAPER_CARD = true;
     private Card createCardCopy(Game newGame, Player newOwner, Card c) {
         if (c.isToken()) {
             String tokenStr = new CardFactory.TokenInfo(c).toString();
@@ -191,36 +191,16 @@ public class GameCopier {
             return CardFactory.makeToken(CardFactory.TokenInfo.fromString(tokenStr), newOwner).get(0);
         }
 
-        if (USE_FROM_PAPER_CARD) {
-            return Card.fromPaperCard(c.getPaperCard(), newOwner);
+        // Clone the card from its actual state, so that it doesn't need to be parsed again from the
+        // paper card. That used to account for the vast majority of GameCopier execution time.
+        Card newCard = CardFactory.copyCardToGame(c, newOwner, newGame);
+        if (newCard != null) {
+            return newCard;
         }
 
-        // TODO: The above is very expensive and accounts for the vast majority of GameCopier execution time.
-        // The issue is that it requires parsing the original card from scratch from the paper card. We should
-        // improve the copier to accurately copy the card from its actual state, so that the paper card shouldn't
-        // be needed. Once the below code accurately copies the card, remove the USE_FROM_PAPER_CARD code path.
-        Card newCard = new Card(newGame.nextCardId(), c.getPaperCard(), newGame);
-        newCard.setOwner(newOwner);
-        newCard.setName(c.getName());
-        for (String type : c.getType()) {
-            newCard.addType(type);
-        }
-        for (SpellAbility sa : c.getSpellAbilities()) {
-            SpellAbility saCopy;
-
-            if (sa instanceof AbilityActivated) {
-                saCopy = ((AbilityActivated)sa).getCopy();
-            } else {
-                saCopy = sa.copy();
-            }
-            if (saCopy != null) {
-                saCopy.setHostCard(newCard);
-                newCard.addSpellAbility(saCopy);
-            } else {
-                System.err.println(sa.toString());
-            }
-        }
-        return newCard;
+        // TODO: Some keyword abilities are anonymous classes bound to their original card and can't
+        // be cloned, so such cards still need to be created from scratch from the paper card.
+        return Card.fromPaperCard(c.getPaperCard(), newOwner);
     }
 
     private void addCard(Game newGame, ZoneType zone, Card c) {
@@ -279,7 +259,8 @@ public class GameCopier {
                     if (restrict.isPwAbility() && restrict.getNumberTurnActivations() > 0) {
                         SpellAbility newSa = findSAInCard(sa, newCard);
                         if (newSa != null) {
-                            for (int i = 0; i < restrict.getNumberTurnActivations(); i++) {
+                            // cloned abilities already carry the activation count
+                            for (int i = newSa.getRestrictions().getNumberTurnActivations(); i < restrict.getNumberTurnActivations(); i++) {
                                 newSa.getRestrictions().abilityActivated();
                             }
                         }
@@ -3,7 +3,9 @@ package forge.ai.simulation;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import forge.ai.ComputerUtil;
@@ -12,6 +14,7 @@ import forge.ai.PlayerControllerAi;
 import forge.ai.simulation.GameStateEvaluator.Score;
 import forge.game.Game;
 import forge.game.GameObject;
+import forge.game.UndoJournal;
 import forge.game.card.Card;
 import forge.game.card.CardCollection;
 import forge.game.player.Player;
@@ -21,36 +24,67 @@ import forge.game.spellability.TargetRestrictions;
 
 public class GameSimulator {
     public static boolean COPY_STACK = false;
+    // When set, the simulated game is rolled back with an undo journal between
+    // simulations instead of being copied again, and nested simulations run
+    // in place on their parent's simulated game.
+    public static boolean USE_UNDO_JOURNAL = true;
+    // When set, positions already searched at the same depth are looked up
+    // in the controller's transposition table instead of being searched again.
+    public static boolean USE_TRANSPOSITIONS = true;
     final private SimulationController controller;
+    private final Game origGame;
+    private final Player origAiPlayer;
     private GameCopier copier;
     private Game simGame;
     private Player aiPlayer;
     private GameStateEvaluator eval;
     private List<String> origLines;
     private Score origScore;
-    
+    private boolean simulated;
+
+    // Set when running on a game that is already journaled by an outer simulator.
+    private final boolean inPlace;
+    private UndoJournal journal;
+    private int baseMark;
+    private long baseHash;
+    private final Map<SpellAbility, TargetChoices> savedTargets = new IdentityHashMap<SpellAbility, TargetChoices>();
+
     public GameSimulator(final SimulationController controller, final Game origGame, final Player origAiPlayer) {
         this.controller = controller;
+        this.origGame = origGame;
+        this.origAiPlayer = origAiPlayer;
+        eval = new GameStateEvaluator(controller);
+
+        inPlace = USE_UNDO_JOURNAL && origGame.getUndoJournal() != null;
+        if (inPlace) {
+            simGame = origGame;
+            aiPlayer = origAiPlayer;
+            journal = origGame.getUndoJournal();
+            baseMark = journal.mark();
+            baseHash = GameStateHash.of(simGame);
+            origScore = eval.getScoreForGameState(origGame, origAiPlayer);
+            return;
+        }
+
         copier = new GameCopier(origGame);
         simGame = copier.makeCopy();
 
         aiPlayer = (Player) copier.find(origAiPlayer);
-        eval = new GameStateEvaluator();
         
         origLines = new ArrayList<String>();
-        debugLines = origLines;
+        controller.setDebugLines(origLines);
 
-        debugPrint = false;
+        controller.setDebugPrint(false);
         origScore = eval.getScoreForGameState(origGame, origAiPlayer);
 
         eval.setDebugging(true);
         List<String> simLines = new ArrayList<String>();
-        debugLines = simLines;
+        controller.setDebugLines(simLines);
         Score simScore = eval.getScoreForGameState(simGame, aiPlayer);
         if (!simScore.equals(origScore)) {
             // Re-eval orig with debug printing.
             origLines = new ArrayList<String>();
-            debugLines = origLines;
+            controller.setDebugLines(origLines);
             eval.getScoreForGameState(origGame, origAiPlayer);
             // Print debug info.
             printDiff(origLines, simLines);
@@ -63,15 +97,73 @@ public class GameSimulator {
         // want to compare to the eval score after simulating.
         if (COPY_STACK && !origGame.getStackZone().isEmpty()) {
             origLines = new ArrayList<String>();
-            debugLines = origLines;
+            controller.setDebugLines(origLines);
             Game copyOrigGame = copier.makeCopy();
             Player copyOrigAiPlayer = copyOrigGame.getPlayers().get(1);
             resolveStack(copyOrigGame, copyOrigGame.getPlayers().get(0));
             origScore = eval.getScoreForGameState(copyOrigGame, copyOrigAiPlayer);
         }
 
-        debugPrint = false;
-        debugLines = null;
+        controller.setDebugPrint(false);
+        controller.setDebugLines(null);
+
+        if (USE_UNDO_JOURNAL) {
+            startJournal();
+        }
+    }
+
+    private void startJournal() {
+        journal = new UndoJournal();
+        simGame.setUndoJournal(journal);
+        baseMark = journal.mark();
+        baseHash = GameStateHash.of(simGame);
+    }
+
+    /**
+     * Puts the simulated game back into the state it was in before the last
+     * call to {@link #simulateSpellAbility(SpellAbility)}, so that the next
+     * candidate can be simulated without copying the game again.
+     */
+    public void resetSimulatedGame() {
+        if (!simulated) {
+            return;
+        }
+        simulated = false;
+        if (journal == null) {
+            copier = new GameCopier(origGame);
+            simGame = copier.makeCopy();
+            aiPlayer = (Player) copier.find(origAiPlayer);
+            return;
+        }
+
+        journal.rollbackTo(baseMark);
+        simGame.getTriggerHandler().resetActiveTriggers();
+        for (Map.Entry<SpellAbility, TargetChoices> e : savedTargets.entrySet()) {
+            e.getKey().setTargets(e.getValue());
+        }
+        savedTargets.clear();
+
+        if (GameStateHash.of(simGame) == baseHash) {
+            return;
+        }
+        if (inPlace) {
+            // The outermost simulator checks its own game and will fall back
+            // to a fresh copy, so there is nothing more to do here.
+            controller.debugPrint("Undo journal did not fully restore nested simulation state");
+            return;
+        }
+        controller.debugPrint("Undo journal did not fully restore simulation state, copying game again");
+        simGame.setUndoJournal(null);
+        copier = new GameCopier(origGame);
+        simGame = copier.makeCopy();
+        aiPlayer = (Player) copier.find(origAiPlayer);
+        startJournal();
+    }
+
+    private void saveTargets(SpellAbility sa) {
+        for (SpellAbility s = sa; s != null; s = s.getSubAbility()) {
+            savedTargets.put(s, s.getTargets());
+        }
     }
 
     private void printDiff(List<String> lines1, List<String> lines2) {
@@ -101,18 +193,10 @@ public class GameSimulator {
         }
     }
 
-    public static boolean debugPrint;
-    public static List<String> debugLines;
-    public static void debugPrint(String str) {
-        if (debugPrint) {
-            System.out.println(str);
-        }
-        if (debugLines!=null) {
-            debugLines.add(str);
-        }
-    }
-    
     private SpellAbility findSaInSimGame(SpellAbility sa) {
+        if (inPlace) {
+            return sa;
+        }
         Card origHostCard = sa.getHostCard();
         Card hostCard = (Card) copier.find(origHostCard);
         // FIXME: This is a hack that makes testManifest pass - figure out why it's needed.
@@ -129,16 +213,20 @@ public class GameSimulator {
         return simulateSpellAbility(origSa, this.eval);
     }
     public Score simulateSpellAbility(SpellAbility origSa, GameStateEvaluator eval) {
-        // TODO: optimize: prune identical SA (e.g. two of the same card in hand)
+        resetSimulatedGame();
+        simulated = true;
         SpellAbility sa = findSaInSimGame(origSa);
         if (sa == null) {
             System.err.println("SA not found! " + sa);
             return new Score(Integer.MIN_VALUE, Integer.MIN_VALUE);
         }
 
-        debugPrint("Found SA " + sa + " on host card " + sa.getHostCard() + " with owner:"+ sa.getHostCard().getOwner());
+        controller.debugPrint("Found SA " + sa + " on host card " + sa.getHostCard() + " with owner:"+ sa.getHostCard().getOwner());
         sa.setActivatingPlayer(aiPlayer);
-        if (origSa.usesTargeting()) {
+        if (journal != null) {
+            saveTargets(sa);
+        }
+        if (!inPlace && origSa.usesTargeting()) {
             final boolean divided = sa.hasParam("DividedAsYouChoose");
             final TargetRestrictions origTgtRes = origSa.getTargetRestrictions();
             final TargetRestrictions tgtRes = sa.getTargetRestrictions();
@@ -154,8 +242,8 @@ public class GameSimulator {
         if (sa == origSa.getHostCard().getGame().PLAY_LAND_SURROGATE) {
             aiPlayer.playLand(sa.getHostCard(), false);
         } else {
-            if (debugPrint && !sa.getAllTargetChoices().isEmpty()) {
-                debugPrint("Targets: ");
+            if (controller.isDebugPrint() && !sa.getAllTargetChoices().isEmpty()) {
+                controller.debugPrint("Targets: ");
                 for (TargetChoices target : sa.getAllTargetChoices()) {
                     System.out.print(target.getTargetedString());
                 }
@@ -169,20 +257,34 @@ public class GameSimulator {
 
         resolveStack(simGame, opponent);
 
+        // TODO: optimize: prune identical SA (e.g. two of the same card in hand)
+        // before simulating them. The transposition table below only saves
+        // evaluating and recursing from the position they lead to.
+        long positionKey = 0;
+        if (USE_TRANSPOSITIONS) {
+            positionKey = controller.getPositionKey(GameStateHash.of(simGame));
+            Score known = controller.getTranspositions().get(positionKey);
+            if (known != null) {
+                controller.debugPrint("Position already searched, score " + known.value);
+                controller.printState(known, origSa);
+                return known;
+            }
+        }
+
         // TODO: If this is during combat, before blockers are declared,
         // we should simulate how combat will resolve and evaluate that
         // state instead!
         List<String> simLines = null;
-        if (debugPrint) {
-            debugPrint("SimGame:");
+        if (controller.isDebugPrint()) {
+            controller.debugPrint("SimGame:");
             simLines = new ArrayList<String>();
-            debugLines = simLines;
-            debugPrint = false;
+            controller.setDebugLines(simLines);
+            controller.setDebugPrint(false);
         }
         Score score = eval.getScoreForGameState(simGame, aiPlayer);
         if (simLines != null) {
-            debugLines = null;
-            debugPrint = true;
+            controller.setDebugLines(null);
+            controller.setDebugPrint(true);
             printDiff(origLines, simLines);
         }
         controller.printState(score, origSa);
@@ -198,10 +300,13 @@ public class GameSimulator {
             controller.pop(score, nextSa);
         }
 
+        if (USE_TRANSPOSITIONS) {
+            controller.getTranspositions().put(positionKey, score);
+        }
         return score;
     }
 
-    private static void resolveStack(final Game game, final Player opponent) {
+    private void resolveStack(final Game game, final Player opponent) {
         // TODO: This needs to set an AI controller for all opponents, in case of multiplayer.
         opponent.runWithController(new Runnable() {
             @Override
@@ -209,7 +314,7 @@ public class GameSimulator {
                 final Set<Card> allAffectedCards = new HashSet<Card>();
                 game.getStack().addAllTriggeredAbilitiesToStack();
                 while (!game.getStack().isEmpty() && !game.isGameOver()) {
-                    debugPrint("Resolving:" + game.getStack().peekAbility());
+                    controller.debugPrint("Resolving:" + game.getStack().peekAbility());
                     // Resolve the top effect on the stack.
                     game.getStack().resolveStack();
                     // Evaluate state based effects as a result of resolving stack.
@@ -15,14 +15,25 @@ public class GameStateEvaluator {
     private boolean debugging = false;
     private boolean ignoreTempBoosts = false;
     private SimulationCreatureEvaluator eval = new SimulationCreatureEvaluator();
+    private final SimulationController controller;
+
+    public GameStateEvaluator() {
+        this(null);
+    }
+
+    public GameStateEvaluator(SimulationController controller) {
+        this.controller = controller;
+    }
 
     public void setDebugging(boolean debugging) {
         this.debugging = debugging;
     }
     
-    private static void debugPrint(String s) {
+    private void debugPrint(String s) {
         //System.err.println(s);
-        GameSimulator.debugPrint(s);
+        if (controller != null) {
+            controller.debugPrint(s);
+        }
     }
     
     private Combat simulateUpcomingCombatThisTurn(Game game) {
@@ -141,7 +152,7 @@ public class GameStateEvaluator {
         @Override
         protected int addValue(int value, String text) {
             if (debugging && value != 0) {
-                GameSimulator.debugPrint(value + " via " + text);
+                debugPrint(value + " via " + text);
             }
             return super.addValue(value, text);
         }
@@ -0,0 +1,198 @@
+package forge.ai.simulation;
+
+import java.util.Map;
+
+import forge.game.CardTraitBase;
+import forge.game.Game;
+import forge.game.card.Card;
+import forge.game.card.CounterType;
+import forge.game.phase.PhaseHandler;
+import forge.game.player.Player;
+import forge.game.replacement.ReplacementEffect;
+import forge.game.spellability.SpellAbility;
+import forge.game.spellability.SpellAbilityRestriction;
+import forge.game.spellability.SpellAbilityStackInstance;
+import forge.game.staticability.StaticAbility;
+import forge.game.trigger.Trigger;
+import forge.game.zone.ZoneType;
+
+/**
+ * Zobrist-style 64 bit hash of the parts of a game that the simulation AI
+ * looks at. Each feature (a card being in a zone, a counter on a player,
+ * and so on) is mixed into its own pseudo-random 64 bit key and the keys are
+ * combined with xor, so the order cards are visited in does not matter
+ * except where the game cares about it (the library and the stack).
+ * <p>
+ * Cards are told apart by id. {@link GameCopier} numbers cards in the same
+ * order every time, so all copies of a game (and the simulations played out
+ * on them) can be compared with each other, but not with the original game.
+ */
+public final class GameStateHash {
+    // Each feature gets its own kind, so that two features of the same
+    // object that happen to have the same value don't cancel out.
+    private static final int TURN = 1;
+    private static final int ACTIVE_PLAYER = 2;
+    private static final int LIFE = 3;
+    private static final int LANDS_AND_MANA = 4;
+    private static final int PLAYER_COUNTER = 5;
+    private static final int ZONE = 6;
+    private static final int CONTROLLER = 7;
+    private static final int CARD_STATE = 8;
+    private static final int CARD_COUNTER = 9;
+    private static final int STATUS = 10;
+    private static final int POWER_TOUGHNESS = 11;
+    private static final int KEYWORDS = 12;
+    private static final int LIBRARY_POSITION = 13;
+    private static final int STACK = 14;
+    private static final int REMEMBERED = 15;
+    private static final int IMPRINTED = 16;
+    private static final int SVARS = 17;
+    private static final int PENDING = 18;
+    private static final int ATTACHED_TO = 19;
+    private static final int ACTIVATIONS = 20;
+    private static final int TRAITS = 21;
+
+    private GameStateHash() {
+    }
+
+    public static long of(final Game game) {
+        final PhaseHandler ph = game.getPhaseHandler();
+        long hash = key(TURN, ph.getTurn(), ph.getPhase() == null ? -1 : ph.getPhase().ordinal());
+        hash ^= key(ACTIVE_PLAYER, ph.getPlayerTurn() == null ? -1 : ph.getPlayerTurn().getId(), game.isGameOver() ? 1 : 0);
+
+        for (final Player p : game.getPlayers()) {
+            hash ^= key(LIFE, p.getId(), p.getLife());
+            hash ^= key(LANDS_AND_MANA, p.getId(), mix(p.getLandsPlayedThisTurn()) ^ p.getManaPool().totalMana());
+            hash ^= counters(PLAYER_COUNTER, p.getId(), p.getCounters());
+        }
+
+        for (final Card c : game.getCardsInGame()) {
+            hash ^= card(c);
+        }
+        int libraryPosition = 0;
+        for (final Player p : game.getPlayers()) {
+            for (final Card c : p.getCardsIn(ZoneType.Library)) {
+                hash ^= key(LIBRARY_POSITION, c.getId(), libraryPosition++);
+            }
+        }
+
+        int stackPosition = 0;
+        for (final SpellAbilityStackInstance si : game.getStack()) {
+            hash ^= key(STACK, stackPosition++, si.getSourceCard() == null ? -1 : si.getSourceCard().getId());
+        }
+
+        // delayed triggers and "until" commands, which effects leave behind
+        // without changing anything else that is looked at here
+        hash ^= key(PENDING, 0, game.getTriggerHandler().getDelayedTriggerCount());
+        hash ^= key(PENDING, 1, game.getUntap().getCommandCount());
+        hash ^= key(PENDING, 2, game.getUpkeep().getCommandCount());
+        hash ^= key(PENDING, 3, game.getEndOfCombat().getCommandCount());
+        hash ^= key(PENDING, 4, game.getEndOfTurn().getCommandCount());
+        hash ^= key(PENDING, 5, game.getCleanup().getCommandCount());
+        return hash;
+    }
+
+    private static long card(final Card c) {
+        final int id = c.getId();
+        long h = key(ZONE, id, c.getZone() == null ? -1 : c.getZone().getZoneType().ordinal());
+        h ^= key(CONTROLLER, id, c.getController() == null ? -1 : c.getController().getId());
+        h ^= key(CARD_STATE, id, c.getCurrentStateName().ordinal());
+        h ^= counters(CARD_COUNTER, id, c.getCounters());
+        h ^= key(SVARS, id, c.getSVars().hashCode());
+        for (final Object o : c.getRemembered()) {
+            h ^= key(REMEMBERED, id, idOf(o));
+        }
+        for (final Card imprinted : c.getImprintedCards()) {
+            h ^= key(IMPRINTED, id, imprinted.getId());
+        }
+        if (c.isInZone(ZoneType.Battlefield)) {
+            int flags = (c.isTapped() ? 1 : 0) | (c.isSick() ? 2 : 0) | (c.isPhasedOut() ? 4 : 0);
+            h ^= key(STATUS, id, mix(flags) ^ c.getDamage());
+            h ^= key(POWER_TOUGHNESS, id, mix(c.getNetPower()) ^ c.getNetToughness());
+            h ^= key(KEYWORDS, id, c.getKeywords().hashCode());
+            h ^= key(ATTACHED_TO, id, mix(mix(idOf(c.getEquipping())) ^ idOf(c.getFortifying())) ^ idOf(c.getEnchanting()));
+        }
+        h ^= activations(id, c);
+        h ^= traits(id, c);
+        return h;
+    }
+
+    // the abilities a card has, which effects like animating it add and take
+    // away; summed rather than combined with xor, so that two copies of the
+    // same ability don't cancel out
+    private static long traits(final int id, final Card c) {
+        long sum = 0;
+        for (final SpellAbility sa : c.getSpellAbilities()) {
+            sum += trait(1, sa);
+        }
+        for (final Trigger t : c.getTriggers()) {
+            sum += trait(2, t);
+        }
+        for (final ReplacementEffect re : c.getReplacementEffects()) {
+            sum += trait(3, re);
+        }
+        for (final StaticAbility st : c.getStaticAbilities()) {
+            sum += trait(4, st);
+        }
+        return key(TRAITS, id, sum);
+    }
+
+    // by class and parameters, as the objects themselves differ between copies of a game
+    private static long trait(final int type, final CardTraitBase trait) {
+        return mix(mix(type ^ ((long) trait.getClass().getName().hashCode() << 8)) ^ trait.getMapParams().hashCode());
+    }
+
+    // abilities and triggers that can only be used so often, by their place on the card
+    private static long activations(final int id, final Card c) {
+        long h = 0;
+        int index = 0;
+        for (final SpellAbility sa : c.getSpellAbilities()) {
+            final SpellAbilityRestriction restrictions = sa.getRestrictions();
+            if (restrictions != null && (restrictions.getNumberTurnActivations() != 0 || restrictions.getNumberGameActivations() != 0)) {
+                h ^= key(ACTIVATIONS, id, mix(index) ^ mix(restrictions.getNumberTurnActivations() + 0x10000L) ^ restrictions.getNumberGameActivations());
+            }
+            index++;
+        }
+        for (final Trigger t : c.getTriggers()) {
+            if (t.getActivationsThisTurn() != 0) {
+                h ^= key(ACTIVATIONS, id, mix(-1 - index) ^ t.getActivationsThisTurn());
+            }
+            index++;
+        }
+        return h;
+    }
+
+    // cards and players by id, as they are the same in every copy of a game
+    private static long idOf(final Object o) {
+        if (o instanceof Card) {
+            return ((Card) o).getId();
+        }
+        if (o instanceof Player) {
+            return -1 - ((Player) o).getId();
+        }
+        return o == null ? 0 : mix(o.getClass().getName().hashCode()) ^ String.valueOf(o).hashCode();
+    }
+
+    private static long counters(final int kind, final int id, final Map<CounterType, Integer> counters) {
+        long h = 0;
+        for (final Map.Entry<CounterType, Integer> e : counters.entrySet()) {
+            if (e.getValue() == null || e.getValue() == 0) {
+                continue;
+            }
+            h ^= key(kind, id, mix(e.getKey().ordinal()) ^ e.getValue());
+        }
+        return h;
+    }
+
+    private static long key(final int kind, final long a, final long b) {
+        return mix(mix(((long) kind << 32) ^ a) ^ b);
+    }
+
+    /** The SplitMix64 finalizer. */
+    private static long mix(long z) {
+        z += 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -1,29 +1,97 @@
 package forge.ai.simulation;
 
+import java.util.List;
+
 import forge.ai.simulation.GameStateEvaluator.Score;
 import forge.game.spellability.SpellAbility;
 
 public class SimulationController {
     private static int MAX_DEPTH = 2;
+    private static final int TRANSPOSITION_TABLE_SIZE = 10000;
     
+    private final int maxDepth;
+    private final long deadline;
     private int recursionDepth;
+    private final TranspositionTable transpositions = new TranspositionTable(TRANSPOSITION_TABLE_SIZE);
+
+    // Debug output is kept per controller rather than globally, so that
+    // simulations running on different threads don't mix their lines.
+    private boolean debugPrint;
+    private List<String> debugLines;
     
     public SimulationController() {
+        this(MAX_DEPTH, 0);
+    }
+
+    /**
+     * @param maxDepth how many abilities may be simulated after the first one
+     * @param deadline time in milliseconds after which no further recursion
+     *            is started, or 0 for no limit
+     */
+    public SimulationController(int maxDepth, long deadline) {
+        this.maxDepth = maxDepth;
+        this.deadline = deadline;
+    }
+
+    public int getMaxDepth() {
+        return maxDepth;
+    }
+
+    public long getDeadline() {
+        return deadline;
+    }
+
+    public boolean isOutOfTime() {
+        return deadline > 0 && System.currentTimeMillis() >= deadline;
+    }
+
+    public TranspositionTable getTranspositions() {
+        return transpositions;
+    }
+
+    /**
+     * Returns the transposition table key for a position reached at the
+     * current depth. A position's score depends on how much deeper the
+     * search goes from it, so the depth is part of the key.
+     */
+    public long getPositionKey(long stateHash) {
+        return stateHash * 31 + recursionDepth;
+    }
+
+    public boolean isDebugPrint() {
+        return debugPrint;
+    }
+
+    public void setDebugPrint(boolean debugPrint) {
+        this.debugPrint = debugPrint;
+    }
+
+    public void setDebugLines(List<String> debugLines) {
+        this.debugLines = debugLines;
+    }
+
+    public void debugPrint(String str) {
+        if (debugPrint) {
+            System.out.println(str);
+        }
+        if (debugLines != null) {
+            debugLines.add(str);
+        }
     }
     
     public boolean shouldRecurse() {
-        return recursionDepth < MAX_DEPTH;
+        return recursionDepth < maxDepth && !isOutOfTime();
     }
     
     public void push(SpellAbility sa) {
-        GameSimulator.debugPrint("Recursing DEPTH=" + recursionDepth);
-        GameSimulator.debugPrint("  With: " + sa);
+        debugPrint("Recursing DEPTH=" + recursionDepth);
+        debugPrint("  With: " + sa);
         recursionDepth++;
     }
 
     public void pop(Score score, SpellAbility nextSa) {
         recursionDepth--;
-        GameSimulator.debugPrint("DEPTH"+recursionDepth+" best score " + score + " " + nextSa);
+        debugPrint("DEPTH"+recursionDepth+" best score " + score + " " + nextSa);
     }
 
     public void printState(Score score, SpellAbility origSa) {
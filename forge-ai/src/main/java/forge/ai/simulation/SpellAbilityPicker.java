@@ -1,7 +1,15 @@
 package forge.ai.simulation;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
 
 import forge.ai.AiPlayDecision;
 import forge.ai.ComputerUtilAbility;
@@ -14,17 +22,55 @@ import forge.game.player.Player;
 import forge.game.spellability.SpellAbility;
 import forge.game.spellability.SpellAbilityCondition;
 import forge.game.spellability.TargetChoices;
+import forge.game.spellability.TargetRestrictions;
+import forge.util.MyRandom;
 
 public class SpellAbilityPicker {
+    // Deepest search tried by iterative deepening before giving up early.
+    private static final int MAX_SEARCH_DEPTH = 5;
+    private static ForkJoinPool pool;
+
     private Game game;
     private Player player;
     private Score bestScore;
     private boolean printOutput;
+    private int parallelism = 1;
+    private long timeBudget = 0;
 
     public SpellAbilityPicker(Game game, Player player) {
         this.game = game;
         this.player = player;
     }
+
+    /**
+     * Sets how many candidates are simulated at the same time by a top level
+     * call to {@link #chooseSpellAbilityToPlay}. A value of 0 or less uses
+     * one thread per available processor.
+     */
+    public void setParallelism(int parallelism) {
+        this.parallelism = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+    }
+
+    /**
+     * Sets the number of milliseconds a top level call to
+     * {@link #chooseSpellAbilityToPlay} may spend searching. With a budget,
+     * the search is deepened one level at a time until the budget runs out,
+     * and the result of the deepest finished level is used. A value of 0 or
+     * less searches to the fixed default depth instead.
+     */
+    public void setTimeBudget(long timeBudget) {
+        this.timeBudget = timeBudget;
+    }
+
+    private static synchronized ForkJoinPool getPool(int parallelism) {
+        if (pool == null || pool.getParallelism() != parallelism) {
+            if (pool != null) {
+                pool.shutdown();
+            }
+            pool = new ForkJoinPool(parallelism);
+        }
+        return pool;
+    }
     
     private void print(String str) {
         if (printOutput) {
@@ -34,6 +80,7 @@ public class SpellAbilityPicker {
     
     public SpellAbility chooseSpellAbilityToPlay(SimulationController controller, final List<SpellAbility> all, boolean skipCounter) {
         printOutput = false;
+        final boolean topLevel = controller == null;
         if (controller == null) {
             controller = new SimulationController();
             printOutput = true;
@@ -64,18 +111,24 @@ public class SpellAbilityPicker {
         if (candidateSAs.isEmpty()) {
             return null;
         }
-        SpellAbility bestSa = null;
         print("Evaluating...");
-        GameSimulator simulator = new GameSimulator(controller, game, player);
-        // FIXME: This is wasteful, we should re-use the same simulator...
-        Score origGameScore = simulator.getScoreForOrigGame();
+        Evaluation evaluation;
+        if (topLevel && timeBudget > 0) {
+            evaluation = searchWithinBudget(candidateSAs);
+        } else {
+            evaluation = evaluateCandidates(controller, candidateSAs, topLevel);
+        }
+
+        // Candidates are compared in the order they were evaluated in, so that
+        // ties are always broken the same way.
+        SpellAbility bestSa = null;
+        Score origGameScore = evaluation.origGameScore;
         Score bestSaValue = origGameScore;
-        for (final SpellAbility sa : candidateSAs) {
-            print(abilityToString(sa));;
-            Score value = evaluateSa(controller, sa);
+        for (int i = 0; i < evaluation.values.size(); i++) {
+            Score value = evaluation.values.get(i);
             if (value.value > bestSaValue.value) {
                 bestSaValue = value;
-                bestSa = sa;
+                bestSa = evaluation.candidates.get(i);
             }
         }
 
@@ -151,28 +204,220 @@ public class SpellAbilityPicker {
         return AiPlayDecision.WillPlay;
     }
 
-    private Score evaluateSa(SimulationController controller, SpellAbility sa) {
-        GameSimulator.debugPrint("Evaluate SA: " + sa);
+    /**
+     * Simulates one candidate on its own copy of the game, with its own
+     * controller, so that candidates can be evaluated on separate threads.
+     * The copy, the targets to try and the seed are all made on the calling
+     * thread, so that the task only works on its own copy of the game.
+     */
+    private class CandidateEvaluation extends RecursiveTask<Score> {
+        private static final long serialVersionUID = 1L;
+
+        private final SpellAbility sa;
+        private final List<TargetSelection> selections;
+        private final SimulationController controller;
+        private final GameSimulator simulator;
+        private final long seed;
+
+        private CandidateEvaluation(SpellAbility sa, SimulationController controller, long seed) {
+            this.sa = sa;
+            this.selections = selectTargets(sa);
+            this.controller = controller;
+            this.simulator = new GameSimulator(controller, game, player);
+            this.seed = seed;
+        }
+
+        @Override
+        protected Score compute() {
+            final Random poolRandom = MyRandom.getRandom();
+            MyRandom.setSeed(seed);
+            try {
+                return evaluateSa(controller, simulator, sa, selections);
+            } finally {
+                MyRandom.setRandom(poolRandom);
+            }
+        }
+    }
+
+    /** Targets to try for a candidate, chosen before it is simulated. */
+    private static class TargetSelection {
+        private final TargetChoices targets;
+        private final Map<Object, Integer> dividedValues;
+
+        private TargetSelection(SpellAbility sa) {
+            targets = sa.getTargets();
+            dividedValues = new HashMap<Object, Integer>(sa.getTargetRestrictions().getDividedMap());
+        }
+
+        private void applyTo(SpellAbility sa) {
+            sa.setTargets(targets);
+            if (sa.hasParam("DividedAsYouChoose")) {
+                final TargetRestrictions tgtRes = sa.getTargetRestrictions();
+                tgtRes.getDividedMap().clear();
+                tgtRes.getDividedMap().putAll(dividedValues);
+            }
+        }
+    }
+
+    /** Scores of a list of candidates, possibly cut short by the time budget. */
+    private static class Evaluation {
+        private final List<SpellAbility> candidates;
+        private final List<Score> values = new ArrayList<Score>();
+        private Score origGameScore;
+        private boolean complete = true;
+
+        private Evaluation(List<SpellAbility> candidates) {
+            this.candidates = candidates;
+        }
+
+        private boolean hasWin() {
+            for (Score value : values) {
+                if (value.value == Integer.MAX_VALUE) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    private Evaluation evaluateCandidates(SimulationController controller, List<SpellAbility> candidates, boolean allowParallel) {
+        final Evaluation evaluation = new Evaluation(candidates);
+        // Each candidate is simulated with its own seed, drawn in the same
+        // order whether or not they are simulated in parallel, so that both
+        // ways make the same random choices.
+        final Random callerRandom = MyRandom.getRandom();
+        if (allowParallel && parallelism > 1 && candidates.size() > 1) {
+            final List<CandidateEvaluation> tasks = new ArrayList<CandidateEvaluation>();
+            for (final SpellAbility sa : candidates) {
+                tasks.add(new CandidateEvaluation(sa,
+                        new SimulationController(controller.getMaxDepth(), controller.getDeadline()),
+                        callerRandom.nextLong()));
+            }
+            getPool(parallelism).invoke(new RecursiveTask<Void>() {
+                private static final long serialVersionUID = 1L;
+
+                @Override
+                protected Void compute() {
+                    ForkJoinTask.invokeAll(tasks);
+                    return null;
+                }
+            });
+            evaluation.origGameScore = tasks.get(0).simulator.getScoreForOrigGame();
+            for (CandidateEvaluation task : tasks) {
+                evaluation.values.add(task.join());
+            }
+            evaluation.complete = !controller.isOutOfTime();
+            return evaluation;
+        }
+
+        GameSimulator simulator = new GameSimulator(controller, game, player);
+        evaluation.origGameScore = simulator.getScoreForOrigGame();
+        try {
+            for (final SpellAbility sa : candidates) {
+                print(abilityToString(sa));
+                final List<TargetSelection> selections = selectTargets(sa);
+                MyRandom.setSeed(callerRandom.nextLong());
+                Score value = evaluateSa(controller, simulator, sa, selections);
+                if (controller.isOutOfTime()) {
+                    // This candidate may not have been searched fully, so leave it out.
+                    evaluation.complete = false;
+                    break;
+                }
+                evaluation.values.add(value);
+                if (value.value == Integer.MAX_VALUE) {
+                    // Nothing can beat a win, so there's no need to look further.
+                    break;
+                }
+            }
+        } finally {
+            MyRandom.setRandom(callerRandom);
+        }
+        return evaluation;
+    }
+
+    /**
+     * Searches one level deeper on each pass, trying the candidates that
+     * scored best on the previous pass first, until the time budget runs out.
+     * Returns the evaluation of the deepest pass that finished, or whatever
+     * the first pass managed if even that one ran out of time.
+     */
+    private Evaluation searchWithinBudget(List<SpellAbility> candidates) {
+        final long startTime = System.currentTimeMillis();
+        final long deadline = startTime + timeBudget;
+        List<SpellAbility> order = candidates;
+        Evaluation best = null;
+        for (int depth = 0; depth <= MAX_SEARCH_DEPTH; depth++) {
+            Evaluation pass = evaluateCandidates(new SimulationController(depth, deadline), order, true);
+            if (best != null && !pass.complete) {
+                break;
+            }
+            best = pass;
+            print("Depth " + depth + " searched in " + (System.currentTimeMillis() - startTime) + "ms");
+            if (!pass.complete || pass.hasWin()) {
+                break;
+            }
+            order = orderByScore(pass);
+        }
+        return best;
+    }
+
+    private static List<SpellAbility> orderByScore(final Evaluation evaluation) {
+        final List<SpellAbility> order = new ArrayList<SpellAbility>(evaluation.candidates);
+        // Stable sort, so equally scored candidates keep their relative order.
+        Collections.sort(order, new Comparator<SpellAbility>() {
+            @Override
+            public int compare(SpellAbility a, SpellAbility b) {
+                int scoreA = evaluation.values.get(evaluation.candidates.indexOf(a)).value;
+                int scoreB = evaluation.values.get(evaluation.candidates.indexOf(b)).value;
+                return Integer.compare(scoreB, scoreA);
+            }
+        });
+        return order;
+    }
+
+    /**
+     * Lists the targets to try for a candidate, or returns null if it doesn't
+     * target. This looks at the game being searched, so it's always done on
+     * the thread searching it.
+     */
+    private List<TargetSelection> selectTargets(SpellAbility sa) {
         if (!sa.usesTargeting()) {
-            GameSimulator simulator = new GameSimulator(controller, game, player);
-            return simulator.simulateSpellAbility(sa);
+            return null;
         }
-        GameSimulator.debugPrint("Checking out targets");
+        List<TargetSelection> selections = new ArrayList<TargetSelection>();
         PossibleTargetSelector selector = new PossibleTargetSelector(game, player, sa);
-        Score bestScore = new Score(Integer.MIN_VALUE);
-        TargetChoices tgt = null;
         while (selector.selectNextTargets()) {
-            GameSimulator.debugPrint("Trying targets: " + sa.getTargets().getTargetedString());
-            GameSimulator simulator = new GameSimulator(controller, game, player);
+            selections.add(new TargetSelection(sa));
+        }
+        return selections;
+    }
+
+    private static Score evaluateSa(SimulationController controller, GameSimulator simulator, SpellAbility sa,
+            List<TargetSelection> selections) {
+        controller.debugPrint("Evaluate SA: " + sa);
+        if (selections == null) {
+            Score score = simulator.simulateSpellAbility(sa);
+            simulator.resetSimulatedGame();
+            return score;
+        }
+        controller.debugPrint("Checking out targets");
+        Score bestScore = new Score(Integer.MIN_VALUE);
+        TargetSelection best = null;
+        for (TargetSelection selection : selections) {
+            if (controller.isOutOfTime()) {
+                break;
+            }
+            selection.applyTo(sa);
+            controller.debugPrint("Trying targets: " + sa.getTargets().getTargetedString());
             Score score = simulator.simulateSpellAbility(sa);
+            simulator.resetSimulatedGame();
             if (score.value > bestScore.value) {
                 bestScore = score;
-                tgt = sa.getTargets();
-                sa.resetTargets();
+                best = selection;
             }
         }
-        if (tgt != null) {
-            sa.setTargets(tgt);
+        if (best != null) {
+            best.applyTo(sa);
         }
         return bestScore;
     }
@@ -0,0 +1,49 @@
+package forge.ai.simulation;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import forge.ai.simulation.GameStateEvaluator.Score;
+
+/**
+ * Remembers the scores of positions the simulation has already searched,
+ * keyed by {@link GameStateHash}, so that reaching the same position again
+ * (by playing the second copy of a card in hand, or the same plays in a
+ * different order) doesn't search it again. The least recently used
+ * entries are dropped once the table is full.
+ */
+public class TranspositionTable {
+    private final Map<Long, Score> entries;
+    private int hits;
+
+    public TranspositionTable(final int capacity) {
+        entries = new LinkedHashMap<Long, Score>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Score> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    public Score get(long key) {
+        Score score = entries.get(key);
+        if (score != null) {
+            hits++;
+        }
+        return score;
+    }
+
+    public void put(long key, Score score) {
+        entries.put(key, score);
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public int getHits() {
+        return hits;
+    }
+}
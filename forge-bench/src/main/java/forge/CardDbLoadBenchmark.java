@@ -0,0 +1,70 @@
+package forge;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import forge.properties.ForgeConstants;
+
+/**
+ * Measures loading the card database the way the game does at startup:
+ * reading the card scripts, or the snapshot of their parsed rules, and
+ * building the card and edition indexes from them.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class CardDbLoadBenchmark {
+    @Param({"scripts", "snapshot"})
+    public String source;
+
+    private File snapshotFile;
+
+    @Setup
+    public void setUp() throws IOException {
+        GuiBase.setInterface(new GuiDesktop());
+        if (source.equals("snapshot")) {
+            snapshotFile = File.createTempFile("cards", ".snapshot");
+            snapshotFile.delete();
+            load(); // writes the snapshot
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        if (snapshotFile != null) {
+            snapshotFile.delete();
+        }
+    }
+
+    @Benchmark
+    public StaticData load() {
+        final CardStorageReader reader = snapshotFile == null
+                ? new CardStorageReader(ForgeConstants.CARD_DATA_DIR, null, null)
+                : new CardStorageReader(ForgeConstants.CARD_DATA_DIR, null, null, snapshotFile.getPath());
+        return new StaticData(reader, ForgeConstants.EDITIONS_DIR, ForgeConstants.BLOCK_DATA_DIR);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(CardDbLoadBenchmark.class.getSimpleName()).build()).run();
+    }
+}
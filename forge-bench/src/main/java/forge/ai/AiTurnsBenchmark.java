@@ -0,0 +1,102 @@
+package forge.ai;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.google.common.eventbus.Subscribe;
+
+import forge.bench.BenchmarkGames;
+import forge.deck.Deck;
+import forge.game.Game;
+import forge.game.GameEndReason;
+import forge.game.GameRules;
+import forge.game.GameType;
+import forge.game.Match;
+import forge.game.event.GameEventTurnBegan;
+import forge.util.MyRandom;
+
+/**
+ * Measures whole AI versus AI games, from shuffling and mulligans through
+ * the given number of turns, after which the game is called a draw. Every
+ * game is started from the same seed, so the AI makes the same plays in
+ * every run as long as the code doesn't change what it decides.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class AiTurnsBenchmark {
+    private static final Object[] DECK_WB = {
+        "Plains", 12, "Swamp", 12,
+        "Herald of Anafenza", 4, "Gray Merchant of Asphodel", 4, "Sidewinder Sliver", 4,
+        "Skull Fracture", 4, "Soul Summons", 4, "Spear of Heliod", 4,
+        "Ornithopter", 4, "Whispersilk Cloak", 4, "Serra Angel", 4
+    };
+    private static final Object[] DECK_RG = {
+        "Mountain", 12, "Forest", 12,
+        "Runeclaw Bear", 4, "Llanowar Elves", 4, "Grizzly Bears", 4,
+        "Lightning Bolt", 4, "Giant Growth", 4, "Rancor", 4,
+        "Prodigal Pyromancer", 4, "Fleecemane Lion", 4, "Shivan Dragon", 4
+    };
+
+    @Param({"6"})
+    public int turns;
+
+    private Deck deck1;
+    private Deck deck2;
+
+    @Setup
+    public void setUp() {
+        BenchmarkGames.initialize();
+        deck1 = BenchmarkGames.deck("WB", DECK_WB);
+        deck2 = BenchmarkGames.deck("RG", DECK_RG);
+    }
+
+    @Benchmark
+    public Game playTurns() {
+        MyRandom.setSeed(BenchmarkGames.SEED);
+        final Match match = new Match(new GameRules(GameType.Constructed), BenchmarkGames.aiPlayers(deck1, deck2), "Benchmark");
+        final Game game = match.createGame();
+        game.subscribeToEvents(new TurnLimit(game, turns));
+        match.startGame(game);
+        return game;
+    }
+
+    /** Ends the game as a draw once it gets past the last turn to play. */
+    public static final class TurnLimit {
+        private final Game game;
+        private final int turns;
+
+        TurnLimit(final Game game, final int turns) {
+            this.game = game;
+            this.turns = turns;
+        }
+
+        @Subscribe
+        public void turnBegan(final GameEventTurnBegan ev) {
+            if (ev.turnNumber > turns && !game.isGameOver()) {
+                game.setGameOver(GameEndReason.Draw);
+            }
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(AiTurnsBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,78 @@
+package forge.ai;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import forge.bench.BenchmarkGames;
+import forge.game.Game;
+import forge.game.card.Card;
+import forge.game.combat.Combat;
+import forge.game.phase.PhaseType;
+import forge.game.player.Player;
+import forge.game.zone.ZoneType;
+import forge.gamesimulationtests.util.gamestate.GameStateSpecificationBuilder;
+import forge.gamesimulationtests.util.player.PlayerSpecification;
+
+/**
+ * Measures {@link AiBlockController#assignBlockersForCombat} with every
+ * creature of the first player attacking into a board of mixed blockers,
+ * the same way the AI weighs up an attack while deciding what to cast.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class BlockBenchmark {
+    static final String[] ATTACKERS = {
+        "Serra Angel", "White Knight", "Hill Giant", "Grizzly Bears", "Fleecemane Lion",
+        "Shivan Dragon", "Vampire Nighthawk", "Elite Vanguard"
+    };
+    static final String[] BLOCKERS = {
+        "Giant Spider", "Wall of Stone", "Craw Wurm", "Grizzly Bears", "Llanowar Elves",
+        "Prodigal Pyromancer", "Serra Angel", "Hill Giant"
+    };
+
+    private Player attacker;
+    private Player defender;
+
+    @Setup
+    public void setUp() {
+        GameStateSpecificationBuilder spec = new GameStateSpecificationBuilder();
+        BenchmarkGames.put(spec, PlayerSpecification.PLAYER_1, ZoneType.Battlefield, ATTACKERS);
+        BenchmarkGames.put(spec, PlayerSpecification.PLAYER_2, ZoneType.Battlefield, BLOCKERS);
+        Game game = BenchmarkGames.newGame(spec.build());
+
+        attacker = BenchmarkGames.player(game, PlayerSpecification.PLAYER_1);
+        defender = BenchmarkGames.player(game, PlayerSpecification.PLAYER_2);
+        game.getPhaseHandler().devModeSet(PhaseType.COMBAT_DECLARE_ATTACKERS, attacker);
+    }
+
+    @Benchmark
+    public Combat assignBlockers() {
+        final Combat combat = new Combat(attacker);
+        for (Card c : attacker.getCreaturesInPlay()) {
+            combat.addAttacker(c, defender);
+        }
+        new AiBlockController(defender).assignBlockersForCombat(combat);
+        return combat;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(BlockBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,92 @@
+package forge.ai;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import forge.bench.BenchmarkGames;
+import forge.game.Game;
+import forge.game.card.Card;
+import forge.game.player.Player;
+import forge.game.spellability.SpellAbility;
+import forge.game.zone.ZoneType;
+import forge.gamesimulationtests.util.gamestate.GameStateSpecificationBuilder;
+import forge.gamesimulationtests.util.player.PlayerSpecification;
+
+/**
+ * Measures how the AI pays for a spell with lands and mana creatures of
+ * several colors: {@link ComputerUtilMana#canPayManaCost} only works out
+ * whether the cost can be paid, {@link ComputerUtilMana#payManaCost} taps
+ * the sources for real. The sources are untapped again after each payment,
+ * outside of the measured time.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class ManaPaymentBenchmark {
+    static final String[] SOURCES = {
+        "Mountain", "Mountain", "Mountain", "Forest", "Forest", "Forest", "Island", "Plains", "Swamp",
+        "Llanowar Elves", "Birds of Paradise", "Sol Ring"
+    };
+
+    @Param({"Lightning Bolt", "Woolly Thoctar", "Shivan Dragon"})
+    public String spell;
+
+    private Player ai;
+    private SpellAbility sa;
+
+    @Setup
+    public void setUp() {
+        GameStateSpecificationBuilder spec = new GameStateSpecificationBuilder();
+        BenchmarkGames.put(spec, PlayerSpecification.PLAYER_1, ZoneType.Battlefield, SOURCES);
+        BenchmarkGames.put(spec, PlayerSpecification.PLAYER_1, ZoneType.Hand, spell);
+        Game game = BenchmarkGames.newGame(spec.build());
+
+        ai = BenchmarkGames.player(game, PlayerSpecification.PLAYER_1);
+        sa = ai.getCardsIn(ZoneType.Hand).get(0).getFirstSpellAbility();
+        sa.setActivatingPlayer(ai);
+    }
+
+    @Benchmark
+    public boolean canPayManaCost() {
+        return ComputerUtilMana.canPayManaCost(sa, ai, 0);
+    }
+
+    @Benchmark
+    public boolean payManaCost() {
+        return ComputerUtilMana.payManaCost(ai, sa);
+    }
+
+    @TearDown(Level.Invocation)
+    public void untap() {
+        for (Card c : ai.getCardsIn(ZoneType.Battlefield)) {
+            c.setTapped(false);
+        }
+        ai.getManaPool().clearPool(false);
+        sa.clearManaPaid();
+        sa.getPayingManaAbilities().clear();
+        sa.resetPaidHash();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(ManaPaymentBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,143 @@
+package forge.ai.simulation;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.google.common.collect.Lists;
+
+import forge.GuiBase;
+import forge.GuiDesktop;
+import forge.ai.LobbyPlayerAi;
+import forge.deck.Deck;
+import forge.game.Game;
+import forge.game.GameRules;
+import forge.game.GameStage;
+import forge.game.GameType;
+import forge.game.Match;
+import forge.game.card.Card;
+import forge.game.phase.PhaseType;
+import forge.game.player.Player;
+import forge.game.player.RegisteredPlayer;
+import forge.game.zone.ZoneType;
+import forge.item.IPaperCard;
+import forge.model.FModel;
+
+/**
+ * Measures {@link GameCopier#makeCopy()} on a mid-game state with a full
+ * 60 card deck on each side. Run the main method (or the JMH runner) from
+ * the forge-bench directory so the card database can be found.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class GameCopierBenchmark {
+    private static final Object[] DECK_WB = {
+        "Plains", 12, "Swamp", 12,
+        "Herald of Anafenza", 4, "Gray Merchant of Asphodel", 4, "Sidewinder Sliver", 4,
+        "Skull Fracture", 4, "Soul Summons", 4, "Spear of Heliod", 4,
+        "Ornithopter", 4, "Whispersilk Cloak", 4, "Serra Angel", 4
+    };
+    private static final Object[] DECK_RG = {
+        "Mountain", 12, "Forest", 12,
+        "Runeclaw Bear", 4, "Llanowar Elves", 4, "Grizzly Bears", 4,
+        "Lightning Bolt", 4, "Giant Growth", 4, "Rancor", 4,
+        "Prodigal Pyromancer", 4, "Fleecemane Lion", 4, "Shivan Dragon", 4
+    };
+
+    private Game game;
+
+    @Setup
+    public void setUp() {
+        GuiBase.setInterface(new GuiDesktop());
+        FModel.initialize(null);
+
+        List<RegisteredPlayer> players = Lists.newArrayList();
+        Deck d1 = new Deck();
+        players.add(new RegisteredPlayer(d1).setPlayer(new LobbyPlayerAi("p1", null)));
+        players.add(new RegisteredPlayer(d1).setPlayer(new LobbyPlayerAi("p2", null)));
+        GameRules rules = new GameRules(GameType.Constructed);
+        Match match = new Match(rules, players, "Benchmark");
+        game = new Game(players, rules, match);
+        game.setAge(GameStage.Play);
+
+        Player p1 = game.getPlayers().get(0);
+        Player p2 = game.getPlayers().get(1);
+        fillZones(p1, DECK_WB);
+        fillZones(p2, DECK_RG);
+        p1.setLife(13, null);
+        p2.setLife(9, null);
+        game.getPhaseHandler().devModeSet(PhaseType.MAIN1, p1);
+        game.getAction().checkStateEffects(true);
+    }
+
+    /**
+     * Spreads a decklist over the zones the way a game looks around turn
+     * seven: lands and a few spells in play, a hand, a graveyard and the
+     * rest still in the library.
+     */
+    private static void fillZones(Player p, Object[] decklist) {
+        List<String> lands = Lists.newArrayList();
+        List<String> spells = Lists.newArrayList();
+        for (int i = 0; i < decklist.length; i += 2) {
+            String name = (String) decklist[i];
+            boolean isLand = i < 4;
+            for (int n = (Integer) decklist[i + 1]; n > 0; n--) {
+                (isLand ? lands : spells).add(name);
+            }
+        }
+
+        for (int i = 0; i < 7; i++) {
+            addCard(lands.remove(i % 2 == 0 ? 0 : lands.size() - 1), p, ZoneType.Battlefield).setSickness(false);
+        }
+        for (int i = 0; i < 5; i++) {
+            addCard(spells.remove(i * 4), p, ZoneType.Battlefield).setSickness(false);
+        }
+        for (int i = 0; i < 4; i++) {
+            addCard(spells.remove(i * 3), p, ZoneType.Hand);
+        }
+        addCard(lands.remove(0), p, ZoneType.Hand);
+        for (int i = 0; i < 6; i++) {
+            addCard(spells.remove(i * 2), p, ZoneType.Graveyard);
+        }
+        addCard(spells.remove(0), p, ZoneType.Exile);
+
+        List<String> library = Lists.newArrayList(lands);
+        library.addAll(spells);
+        for (String name : library) {
+            addCard(name, p, ZoneType.Library);
+        }
+    }
+
+    private static Card addCard(String name, Player p, ZoneType zone) {
+        IPaperCard paperCard = FModel.getMagicDb().getCommonCards().getCard(name);
+        Card c = Card.fromPaperCard(paperCard, p);
+        p.getZone(zone).add(c);
+        return c;
+    }
+
+    @Benchmark
+    public Game makeCopy() {
+        return new GameCopier(game).makeCopy();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(GameCopierBenchmark.class.getSimpleName()).build()).run();
+    }
+}
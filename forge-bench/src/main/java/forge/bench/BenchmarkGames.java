@@ -0,0 +1,151 @@
+package forge.bench;
+
+import java.util.List;
+
+import com.google.common.collect.Lists;
+
+import forge.GuiBase;
+import forge.GuiDesktop;
+import forge.ai.LobbyPlayerAi;
+import forge.deck.Deck;
+import forge.game.Game;
+import forge.game.GameRules;
+import forge.game.GameStage;
+import forge.game.GameType;
+import forge.game.Match;
+import forge.game.card.Card;
+import forge.game.phase.PhaseType;
+import forge.game.player.Player;
+import forge.game.player.RegisteredPlayer;
+import forge.game.zone.ZoneType;
+import forge.gamesimulationtests.util.card.CardSpecification;
+import forge.gamesimulationtests.util.card.CardSpecificationBuilder;
+import forge.gamesimulationtests.util.card.CardSpecificationHandler;
+import forge.gamesimulationtests.util.gamestate.GameStateSpecification;
+import forge.gamesimulationtests.util.gamestate.GameStateSpecificationBuilder;
+import forge.gamesimulationtests.util.player.PlayerSpecification;
+import forge.gamesimulationtests.util.player.PlayerSpecificationBuilder;
+import forge.gamesimulationtests.util.player.PlayerSpecificationHandler;
+import forge.model.FModel;
+import forge.util.MyRandom;
+
+/**
+ * Sets up the games the benchmarks run on: two AI players, with the cards
+ * of a {@link GameStateSpecification} put straight into their zones, the way
+ * the game simulation tests do it. The random numbers are seeded the same
+ * way for every game, so a benchmark sees the same game on every run.
+ * <p>
+ * The card database is read from the res folder of forge-gui, so run the
+ * benchmarks from the forge-bench directory.
+ */
+public final class BenchmarkGames {
+    public static final long SEED = 20170701L;
+
+    private static boolean initialized = false;
+
+    private BenchmarkGames() {
+    }
+
+    public static synchronized void initialize() {
+        if (initialized) {
+            return;
+        }
+        GuiBase.setInterface(new GuiDesktop());
+        FModel.initialize(null);
+        initialized = true;
+    }
+
+    /**
+     * Registers two AI players named after {@link PlayerSpecification#PLAYER_1}
+     * and {@link PlayerSpecification#PLAYER_2}, with the given decks.
+     */
+    public static List<RegisteredPlayer> aiPlayers(final Deck deck1, final Deck deck2) {
+        final List<RegisteredPlayer> players = Lists.newArrayList();
+        players.add(new RegisteredPlayer(deck1).setPlayer(new LobbyPlayerAi(PlayerSpecification.PLAYER_1_NAME, null)));
+        players.add(new RegisteredPlayer(deck2).setPlayer(new LobbyPlayerAi(PlayerSpecification.PLAYER_2_NAME, null)));
+        return players;
+    }
+
+    /**
+     * A deck from a list alternating card names and the number of copies.
+     */
+    public static Deck deck(final String name, final Object... cardsAndCounts) {
+        final Deck deck = new Deck(name);
+        for (int i = 0; i < cardsAndCounts.length; i += 2) {
+            deck.getMain().add((String) cardsAndCounts[i], (Integer) cardsAndCounts[i + 1]);
+        }
+        return deck;
+    }
+
+    /**
+     * Adds cards owned and controlled by a player in a zone to a game state.
+     */
+    public static GameStateSpecificationBuilder put(final GameStateSpecificationBuilder state, final PlayerSpecification player,
+            final ZoneType zone, final String... names) {
+        for (final String name : names) {
+            state.addCard(new CardSpecificationBuilder(name).owner(player).zone(zone));
+        }
+        return state;
+    }
+
+    /**
+     * A game in the first main phase of the first player's turn, with the
+     * cards and player facts of a specification. Creatures on the battlefield
+     * can attack and tap right away.
+     */
+    public static Game newGame(final GameStateSpecification state) {
+        initialize();
+        MyRandom.setSeed(SEED);
+
+        final List<RegisteredPlayer> players = aiPlayers(new Deck(), new Deck());
+        final GameRules rules = new GameRules(GameType.Constructed);
+        final Match match = new Match(rules, players, "Benchmark");
+        final Game game = new Game(players, rules, match);
+        game.setAge(GameStage.Play);
+
+        for (final CardSpecification spec : state.getCards()) {
+            final PlayerSpecification ownerSpec = spec.getOwner() != null ? spec.getOwner() : spec.getController();
+            final PlayerSpecification controllerSpec = spec.getController() != null ? spec.getController() : ownerSpec;
+            if (ownerSpec == null || spec.getZoneType() == null) {
+                throw new IllegalStateException("Cards must specify owner and zone for game state specification");
+            }
+            final Player owner = PlayerSpecificationHandler.INSTANCE.find(game, ownerSpec);
+            final Player controller = PlayerSpecificationHandler.INSTANCE.find(game, controllerSpec);
+
+            final Card card = Card.fromPaperCard(FModel.getMagicDb().getCommonCards().getCard(spec.getName()), owner);
+            controller.getZone(spec.getZoneType()).add(card);
+            if (spec.getZoneType() == ZoneType.Battlefield) {
+                card.setSickness(false);
+            }
+
+            if (spec.getTarget() != null) {
+                final Card target = CardSpecificationHandler.INSTANCE.find(game, spec.getTarget());
+                if (card.isEnchantment()) {
+                    card.enchantEntity(target);
+                } else if (card.isEquipment()) {
+                    card.equipCard(target);
+                } else {
+                    throw new IllegalStateException("Don't know how to make " + card + " target anything");
+                }
+            }
+        }
+
+        for (final PlayerSpecification fact : state.getPlayerFacts()) {
+            final Player player = PlayerSpecificationHandler.INSTANCE.find(game, new PlayerSpecificationBuilder(fact.getName()).build());
+            if (fact.getLife() != null) {
+                player.setLife(fact.getLife(), null);
+            }
+            if (fact.getPoison() != null) {
+                player.setPoisonCounters(fact.getPoison(), null);
+            }
+        }
+
+        game.getPhaseHandler().devModeSet(PhaseType.MAIN1, game.getPlayers().get(0));
+        game.getAction().checkStateEffects(true);
+        return game;
+    }
+
+    public static Player player(final Game game, final PlayerSpecification spec) {
+        return PlayerSpecificationHandler.INSTANCE.find(game, spec);
+    }
+}
@@ -0,0 +1,78 @@
+package forge.game;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import forge.bench.BenchmarkGames;
+import forge.game.zone.ZoneType;
+import forge.gamesimulationtests.util.gamestate.GameStateSpecificationBuilder;
+import forge.gamesimulationtests.util.player.PlayerSpecification;
+
+/**
+ * Measures {@link GameAction#checkStateEffects(boolean)} with a crowded
+ * battlefield of creatures, lords and anthems on both sides. With "changed"
+ * the static abilities are applied again on every check, as after any
+ * change to the game; with "unchanged" the check finds nothing to redo.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class StateEffectsBenchmark {
+    static final String[] LANDS = {
+        "Plains", "Plains", "Plains", "Island", "Island", "Swamp", "Swamp", "Mountain", "Forest", "Forest"
+    };
+    static final String[] CREATURES_1 = {
+        "Glorious Anthem", "Crusade", "Benalish Knight", "Elite Vanguard", "Savannah Lions", "White Knight",
+        "Serra Angel", "Soldier of the Pantheon", "Lord of Atlantis", "Merfolk of the Pearl Trident",
+        "Grizzly Bears", "Llanowar Elves", "Elvish Archdruid", "Elvish Mystic", "Wild Nacatl"
+    };
+    static final String[] CREATURES_2 = {
+        "Bad Moon", "Gravedigger", "Vampire Nighthawk", "Zombie Master", "Walking Corpse", "Scathe Zombies",
+        "Goblin King", "Goblin Piker", "Raging Goblin", "Shivan Dragon", "Hill Giant",
+        "Ornithopter", "Juggernaut", "Rancor", "Giant Spider"
+    };
+
+    @Param({"unchanged", "changed"})
+    public String state;
+
+    private Game game;
+
+    @Setup
+    public void setUp() {
+        GameStateSpecificationBuilder spec = new GameStateSpecificationBuilder();
+        BenchmarkGames.put(spec, PlayerSpecification.PLAYER_1, ZoneType.Battlefield, LANDS);
+        BenchmarkGames.put(spec, PlayerSpecification.PLAYER_1, ZoneType.Battlefield, CREATURES_1);
+        BenchmarkGames.put(spec, PlayerSpecification.PLAYER_2, ZoneType.Battlefield, LANDS);
+        BenchmarkGames.put(spec, PlayerSpecification.PLAYER_2, ZoneType.Battlefield, CREATURES_2);
+        game = BenchmarkGames.newGame(spec.build());
+    }
+
+    @Benchmark
+    public void checkStateEffects() {
+        if (state.equals("changed")) {
+            game.getAction().invalidateStaticAbilities();
+        }
+        game.getAction().checkStateEffects(true);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(StateEffectsBenchmark.class.getSimpleName()).build()).run();
+    }
+}
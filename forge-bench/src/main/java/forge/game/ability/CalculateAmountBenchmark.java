@@ -0,0 +1,147 @@
+package forge.game.ability;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.google.common.collect.Lists;
+
+import forge.GuiBase;
+import forge.GuiDesktop;
+import forge.ai.LobbyPlayerAi;
+import forge.deck.Deck;
+import forge.game.Game;
+import forge.game.GameRules;
+import forge.game.GameStage;
+import forge.game.GameType;
+import forge.game.Match;
+import forge.game.card.Card;
+import forge.game.phase.PhaseType;
+import forge.game.player.Player;
+import forge.game.player.RegisteredPlayer;
+import forge.game.zone.ZoneType;
+import forge.item.PaperCard;
+import forge.model.FModel;
+import forge.util.ParseCache;
+
+/**
+ * Measures {@link AbilityUtils#calculateAmount} over every SVar expression
+ * (like "Count$Valid Creature.YouCtrl/Plus.2") of every card in the card
+ * database, evaluated for a card in a game that either has no other cards
+ * or a few in play, in hand and in the graveyard. With no other cards it
+ * mostly measures reading the expressions rather than counting cards.
+ * {@link #calculateAllParsingEachTime} is the baseline to compare with,
+ * parsing each expression on every evaluation like the code did before. Run
+ * the main method (or the JMH runner) from the forge-bench directory
+ * so the card database can be found.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class CalculateAmountBenchmark {
+    private static final String[] BATTLEFIELD = {
+        "Plains", "Swamp", "Forest", "Grizzly Bears", "Llanowar Elves", "Serra Angel", "Rancor", "Ornithopter"
+    };
+    private static final String[] HAND = { "Lightning Bolt", "Giant Growth", "Mountain" };
+
+    @Param({"empty", "midgame"})
+    public String board;
+
+    private final List<Card> cards = Lists.newArrayList();
+    private final List<String> svars = Lists.newArrayList();
+
+    @Setup
+    public void setUp() {
+        GuiBase.setInterface(new GuiDesktop());
+        FModel.initialize(null);
+
+        List<RegisteredPlayer> players = Lists.newArrayList();
+        Deck d1 = new Deck();
+        players.add(new RegisteredPlayer(d1).setPlayer(new LobbyPlayerAi("p1", null)));
+        players.add(new RegisteredPlayer(d1).setPlayer(new LobbyPlayerAi("p2", null)));
+        GameRules rules = new GameRules(GameType.Constructed);
+        Match match = new Match(rules, players, "Benchmark");
+        Game game = new Game(players, rules, match);
+        game.setAge(GameStage.Play);
+
+        if (board.equals("midgame")) {
+            for (Player p : game.getPlayers()) {
+                for (String name : BATTLEFIELD) {
+                    addCard(name, p, ZoneType.Battlefield);
+                }
+                for (String name : HAND) {
+                    addCard(name, p, ZoneType.Hand);
+                    addCard(name, p, ZoneType.Graveyard);
+                }
+            }
+        }
+        game.getPhaseHandler().devModeSet(PhaseType.MAIN1, game.getPlayers().get(0));
+        game.getAction().checkStateEffects(true);
+
+        Player p1 = game.getPlayers().get(0);
+        for (PaperCard pc : FModel.getMagicDb().getCommonCards().getUniqueCards()) {
+            Card c = Card.fromPaperCard(pc, p1);
+            for (Map.Entry<String, String> svar : c.getSVars().entrySet()) {
+                String value = svar.getValue();
+                if (value == null || value.indexOf('$') <= 0 || value.contains("|")) {
+                    continue; // not an expression, but a number or an ability
+                }
+                try {
+                    AbilityUtils.calculateAmount(c, svar.getKey(), null);
+                } catch (RuntimeException e) {
+                    continue; // needs an ability or something else a card on its own doesn't have
+                }
+                cards.add(c);
+                svars.add(svar.getKey());
+            }
+        }
+    }
+
+    private static Card addCard(String name, Player p, ZoneType zone) {
+        Card c = Card.fromPaperCard(FModel.getMagicDb().getCommonCards().getCard(name), p);
+        p.getZone(zone).add(c);
+        return c;
+    }
+
+    @Benchmark
+    public int calculateAll() {
+        int sum = 0;
+        for (int i = 0; i < svars.size(); i++) {
+            sum += AbilityUtils.calculateAmount(cards.get(i), svars.get(i), null);
+        }
+        return sum;
+    }
+
+    /** The baseline: the same, but splitting up every expression again each time, as before they were compiled. */
+    @Benchmark
+    public int calculateAllParsingEachTime() {
+        ParseCache.setEnabled(false);
+        try {
+            return calculateAll();
+        } finally {
+            ParseCache.setEnabled(true);
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(CalculateAmountBenchmark.class.getSimpleName()).build()).run();
+    }
+}
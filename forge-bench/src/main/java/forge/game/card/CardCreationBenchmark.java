@@ -0,0 +1,74 @@
+package forge.game.card;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.google.common.collect.Lists;
+
+import forge.bench.BenchmarkGames;
+import forge.game.player.Player;
+import forge.gamesimulationtests.util.gamestate.GameStateSpecificationBuilder;
+import forge.item.PaperCard;
+import forge.model.FModel;
+
+/**
+ * Measures {@link Card#fromPaperCard} over a sample of the card database,
+ * which is how every card of every deck gets into a game. A new game is
+ * set up for each iteration, as the game keeps the cards created in it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class CardCreationBenchmark {
+    private static final int SAMPLE_SIZE = 500;
+
+    private final List<PaperCard> sample = Lists.newArrayList();
+    private Player owner;
+
+    @Setup
+    public void setUp() {
+        BenchmarkGames.initialize();
+        // every n-th card, so the sample has all kinds of cards and is the same on every run
+        List<PaperCard> all = Lists.newArrayList(FModel.getMagicDb().getCommonCards().getUniqueCards());
+        int step = Math.max(1, all.size() / SAMPLE_SIZE);
+        for (int i = 0; i < all.size() && sample.size() < SAMPLE_SIZE; i += step) {
+            sample.add(all.get(i));
+        }
+    }
+
+    @Setup(Level.Iteration)
+    public void newGame() {
+        owner = BenchmarkGames.newGame(new GameStateSpecificationBuilder().build()).getPlayers().get(0);
+    }
+
+    @Benchmark
+    public Card fromPaperCard() {
+        Card last = null;
+        for (PaperCard pc : sample) {
+            last = Card.fromPaperCard(pc, owner);
+        }
+        return last;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(CardCreationBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,72 @@
+package forge.game.trigger;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import forge.bench.BenchmarkGames;
+import forge.game.Game;
+import forge.game.ability.AbilityKey;
+import forge.game.ability.RunParams;
+import forge.game.card.Card;
+import forge.game.zone.ZoneType;
+import forge.gamesimulationtests.util.gamestate.GameStateSpecificationBuilder;
+import forge.gamesimulationtests.util.player.PlayerSpecification;
+
+/**
+ * Measures {@link TriggerHandler#runTrigger} for a creature entering the
+ * battlefield, with a board full of cards that watch for creatures coming
+ * and going. The triggered abilities are collected on the simultaneous
+ * stack and dropped again, without resolving them.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class TriggerBenchmark {
+    static final String[] WATCHERS = {
+        "Soul Warden", "Essence Warden", "Blood Artist", "Zulaport Cutthroat", "Soul's Attendant",
+        "Suture Priest", "Ajani's Pridemate", "Elvish Archdruid", "Glorious Anthem", "Serra Angel"
+    };
+
+    private Game game;
+    private final RunParams runParams = new RunParams();
+
+    @Setup
+    public void setUp() {
+        GameStateSpecificationBuilder spec = new GameStateSpecificationBuilder();
+        BenchmarkGames.put(spec, PlayerSpecification.PLAYER_1, ZoneType.Battlefield, WATCHERS);
+        BenchmarkGames.put(spec, PlayerSpecification.PLAYER_1, ZoneType.Battlefield, "Grizzly Bears");
+        BenchmarkGames.put(spec, PlayerSpecification.PLAYER_2, ZoneType.Battlefield, WATCHERS);
+        game = BenchmarkGames.newGame(spec.build());
+
+        Card bears = game.getPlayers().get(0).getCardsIn(ZoneType.Battlefield, "Grizzly Bears").get(0);
+        runParams.put(AbilityKey.Card, bears);
+        runParams.put(AbilityKey.Origin, ZoneType.Hand.name());
+        runParams.put(AbilityKey.Destination, ZoneType.Battlefield.name());
+    }
+
+    @Benchmark
+    public void runChangesZoneTrigger() {
+        game.getTriggerHandler().runTrigger(TriggerType.ChangesZone, runParams, false);
+        game.getStack().clearSimultaneousStack();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(TriggerBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -42,6 +42,7 @@ import java.util.zip.ZipFile;
 import org.apache.commons.lang3.time.StopWatch;
 
 import forge.card.CardRules;
+import forge.card.CardRulesSnapshot;
 import forge.util.FileUtil;
 import forge.util.Localizer;
 import forge.util.ThreadUtil;
@@ -88,10 +89,33 @@ public class CardStorageReader {
 
     private final Observer observer;
 
+    private final File snapshotFile;
+    private final int lazyCacheSize;
+
     public CardStorageReader(final String cardDataDir, final CardStorageReader.ProgressObserver progressObserver, final Observer observer) {
+        this(cardDataDir, progressObserver, observer, null);
+    }
+
+    public CardStorageReader(final String cardDataDir, final CardStorageReader.ProgressObserver progressObserver, final Observer observer, final String snapshotFile) {
+        this(cardDataDir, progressObserver, observer, snapshotFile, 0);
+    }
+
+    /**
+     * @param snapshotFile
+     *            where to keep a {@link CardRulesSnapshot} of the cards read,
+     *            to read them from there on later starts, or null to always
+     *            read the card scripts. Not used when there is an observer,
+     *            as it needs the scripts.
+     * @param lazyCacheSize
+     *            if not 0, the cards' rules are read lazily from the snapshot
+     *            and at most this many are kept in memory at once
+     */
+    public CardStorageReader(final String cardDataDir, final CardStorageReader.ProgressObserver progressObserver, final Observer observer, final String snapshotFile, final int lazyCacheSize) {
         this.progressObserver = progressObserver != null ? progressObserver : CardStorageReader.ProgressObserver.emptyObserver;
         this.cardsfolder = new File(cardDataDir);
         this.observer = observer;
+        this.snapshotFile = snapshotFile != null && observer == null ? new File(snapshotFile) : null;
+        this.lazyCacheSize = lazyCacheSize;
 
         // These read data for lightweight classes.
         if (!cardsfolder.exists()) {
@@ -165,6 +189,20 @@ public class CardStorageReader {
         });
 
         final List<File> allFiles = collectCardFiles(new ArrayList<File>(), this.cardsfolder);
+
+        byte[] fingerprint = null;
+        if (snapshotFile != null) {
+            final StopWatch sw = new StopWatch();
+            sw.start();
+            fingerprint = CardRulesSnapshot.fingerprint(cardsfolder, allFiles, new File(cardsfolder, "cardsfolder.zip"));
+            final List<CardRules> snapshot = CardRulesSnapshot.read(snapshotFile, fingerprint, lazyCacheSize);
+            sw.stop();
+            if (snapshot != null) {
+                System.out.printf("Read cards: %s cards from %s in %d ms%n", snapshot.size(), snapshotFile, sw.getTime());
+                return snapshot;
+            }
+        }
+
         if(!allFiles.isEmpty()) {
             int fileParts = zip == null ? NUMBER_OF_PARTS : 1 + NUMBER_OF_PARTS / 3;
             if( allFiles.size() < fileParts * 100)
@@ -210,6 +248,16 @@ public class CardStorageReader {
             System.out.printf("Read cards: %s archived files in %d ms (%d parts) %s%n", this.zip.size(), timeOnParse, taskZip.size(), useThreadPool ? "using thread pool" : "in same thread");
         }
 
+        if (fingerprint != null) {
+            CardRulesSnapshot.write(snapshotFile, fingerprint, result);
+            if (lazyCacheSize > 0) {
+                // read back the snapshot just written so the parsed rules don't stay in memory
+                final List<CardRules> snapshot = CardRulesSnapshot.read(snapshotFile, fingerprint, lazyCacheSize);
+                if (snapshot != null) {
+                    return snapshot;
+                }
+            }
+        }
         return result;
     } // loadCardsUntilYouFind(String)
 
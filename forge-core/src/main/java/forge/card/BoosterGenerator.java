@@ -19,6 +19,9 @@ package forge.card;
 
 import com.google.common.base.Predicate;
 import com.google.common.base.Predicates;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
 import com.google.common.collect.Iterables;
 import com.google.common.collect.Lists;
 import forge.StaticData;
@@ -57,59 +60,62 @@ public class BoosterGenerator {
         return StaticData.instance().getCommonCards().getFoiled(sheet.random(1, true).get(0));
     }
 
-    private static PaperCard generateFoilCard(List<PaperCard> cardList) {
-        Collections.shuffle(cardList);
-        return StaticData.instance().getCommonCards().getFoiled(cardList.get(0));
+    private static PaperCard generateFoilCard(Collection<PaperCard> cardList) {
+        return StaticData.instance().getCommonCards().getFoiled(Aggregates.random(cardList));
+    }
+
+    /**
+     * Opens a number of boosters of the same template at once, like the 8 packs of a draft round.
+     */
+    public static List<List<PaperCard>> getBoosterPacks(SealedProduct.Template template, int count) {
+        ResolvedTemplate resolved = resolvedTemplates.getUnchecked(template);
+        List<List<PaperCard>> result = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            result.add(getBoosterPack(resolved));
+        }
+        return result;
     }
 
     public static List<PaperCard> getBoosterPack(SealedProduct.Template template) {
-        List<PaperCard> result = new ArrayList<>();
-        List<PrintSheet> sheetsUsed = new ArrayList<>();
+        return getBoosterPack(resolvedTemplates.getUnchecked(template));
+    }
 
-        CardEdition edition = StaticData.instance().getEditions().get(template.getEdition());
-        boolean hasFoil = edition != null && !template.getSlots().isEmpty() && MyRandom.getRandom().nextDouble() < edition.getFoilChanceInBooster() && edition.getFoilType() != FoilType.NOT_SUPPORTED;
+    private static List<PaperCard> getBoosterPack(ResolvedTemplate template) {
+        List<PaperCard> result = new ArrayList<>(template.numCards + 1);
+        CardEdition edition = template.edition;
+        boolean hasFoil = template.canHaveFoil && MyRandom.getRandom().nextDouble() < edition.getFoilChanceInBooster();
         boolean foilAtEndOfPack = hasFoil && edition.getFoilAlwaysInCommonSlot();
-        String foilSlot = !hasFoil ? null : foilAtEndOfPack ? BoosterSlots.COMMON : Aggregates.random(template.getSlots()).getKey();
-        String extraFoilSheetKey = edition != null ? edition.getAdditionalSheetForFoils() : "";
-        boolean replaceCommon = edition != null && !template.getSlots().isEmpty() && MyRandom.getRandom().nextDouble() < edition.getChanceReplaceCommonWith();
-
-        for(Pair<String, Integer> slot : template.getSlots()) {
-            String slotType = slot.getLeft(); // add expansion symbol here?
-            int numCards = slot.getRight();
+        String foilSlot = !hasFoil ? null : foilAtEndOfPack ? BoosterSlots.COMMON : Aggregates.random(template.slots).slotType;
+        boolean replaceCommon = template.canReplaceCommon && MyRandom.getRandom().nextDouble() < edition.getChanceReplaceCommonWith();
+        Set<PrintSheet> sheetsUsed = foilAtEndOfPack ? new LinkedHashSet<PrintSheet>() : null;
 
-            String[] sType = TextUtil.splitWithParenthesis(slotType, ' ');
-            String setCode = sType.length == 1 && template.getEdition() != null ?  template.getEdition() : null;
-            String sheetKey = StaticData.instance().getEditions().contains(setCode) ? slotType.trim() + " " + setCode : slotType.trim();
+        for (ResolvedSlot slot : template.slots) {
+            String slotType = slot.slotType;
+            int numCards = slot.numCards;
 
             boolean foilInThisSlot = hasFoil && slotType.startsWith(foilSlot);
             if (foilInThisSlot)
                 numCards--;
 
-            if (replaceCommon && slotType.startsWith(BoosterSlots.COMMON)) {
+            if (replaceCommon && slot.replaceCommonSheet != null) {
                 numCards--;
-                String replaceKey = StaticData.instance().getEditions().contains(setCode) ?
-                        edition.getSlotReplaceCommonWith().trim() + " " + setCode : edition.getSlotReplaceCommonWith().trim();
-                PrintSheet replaceSheet = getPrintSheet(replaceKey);
-                result.addAll(replaceSheet.random(1, true));
-                sheetsUsed.add(replaceSheet);
+                result.addAll(slot.replaceCommonSheet.random(1, true));
+                if (sheetsUsed != null)
+                    sheetsUsed.add(slot.replaceCommonSheet);
                 replaceCommon = false;
             }
 
-            PrintSheet ps = getPrintSheet(sheetKey);
+            PrintSheet ps = slot.sheet;
             result.addAll(ps.random(numCards, true));
-            sheetsUsed.add(ps);
+            if (sheetsUsed != null)
+                sheetsUsed.add(ps);
 
             if (foilInThisSlot && !foilAtEndOfPack) {
-                if (!extraFoilSheetKey.isEmpty()) {
+                if (!template.extraFoilSheetKey.isEmpty()) {
                     // TODO: extra foil sheets are currently reliably supported only for boosters with FoilAlwaysInCommonSlot=True.
                     // If FoilAlwaysInCommonSlot is false, a card from the extra sheet may still replace a card in any slot.
-                    List<PaperCard> foilCards = new ArrayList<>();
-                    for (PaperCard card : ps.toFlatList()) {
-                        if (!foilCards.contains(card)) {
-                            foilCards.add(card);
-                        }
-                    }
-                    addCardsFromExtraSheet(foilCards, sheetKey);
+                    Set<PaperCard> foilCards = new LinkedHashSet<>(ps.getDistinctCards());
+                    addCardsFromExtraSheet(foilCards, slot.sheetKey);
                     result.add(generateFoilCard(foilCards));
                 } else {
                     result.add(generateFoilCard(ps));
@@ -118,16 +124,12 @@ public class BoosterGenerator {
         }
 
         if (hasFoil && foilAtEndOfPack) {
-            List<PaperCard> foilCards = new ArrayList<>();
+            Set<PaperCard> foilCards = new LinkedHashSet<>();
             for (PrintSheet printSheet : sheetsUsed) {
-                for (PaperCard card : printSheet.toFlatList()) {
-                    if (!foilCards.contains(card)) {
-                        foilCards.add(card);
-                    }
-                }
+                foilCards.addAll(printSheet.getDistinctCards());
             }
-            if (!extraFoilSheetKey.isEmpty()) {
-                addCardsFromExtraSheet(foilCards, extraFoilSheetKey);
+            if (!template.extraFoilSheetKey.isEmpty()) {
+                addCardsFromExtraSheet(foilCards, template.extraFoilSheetKey);
             }
             result.add(generateFoilCard(foilCards));
         }
@@ -135,15 +137,79 @@ public class BoosterGenerator {
         return result;
     }
 
-    public static void addCardsFromExtraSheet(List<PaperCard> dest, String printSheetKey) {
+    public static void addCardsFromExtraSheet(Collection<PaperCard> dest, String printSheetKey) {
         PrintSheet extraSheet = getPrintSheet(printSheetKey);
-        for (PaperCard card : extraSheet.toFlatList()) {
+        for (PaperCard card : extraSheet.getDistinctCards()) {
             if (!dest.contains(card)) {
                 dest.add(card);
             }
         }
     }
 
+    /**
+     * Templates with their sheet keys worked out and print sheets looked up, which used to be done for every pack.
+     * Templates are compared by identity, as they are the ones read into the static data.
+     */
+    private final static LoadingCache<SealedProduct.Template, ResolvedTemplate> resolvedTemplates = CacheBuilder.newBuilder()
+            .weakKeys()
+            .build(new CacheLoader<SealedProduct.Template, ResolvedTemplate>() {
+                @Override
+                public ResolvedTemplate load(SealedProduct.Template template) {
+                    return new ResolvedTemplate(template);
+                }
+            });
+
+    private static final class ResolvedTemplate {
+        private final CardEdition edition;
+        private final List<ResolvedSlot> slots = new ArrayList<>();
+        private final int numCards;
+        private final boolean canHaveFoil;
+        private final boolean canReplaceCommon;
+        private final String extraFoilSheetKey;
+
+        private ResolvedTemplate(SealedProduct.Template template) {
+            edition = StaticData.instance().getEditions().get(template.getEdition());
+            canHaveFoil = edition != null && !template.getSlots().isEmpty() && edition.getFoilType() != FoilType.NOT_SUPPORTED;
+            canReplaceCommon = edition != null && !template.getSlots().isEmpty() && edition.getChanceReplaceCommonWith() > 0;
+            extraFoilSheetKey = edition != null ? edition.getAdditionalSheetForFoils() : "";
+
+            int sum = 0;
+            for (Pair<String, Integer> slot : template.getSlots()) {
+                String slotType = slot.getLeft(); // add expansion symbol here?
+                String[] sType = TextUtil.splitWithParenthesis(slotType, ' ');
+                String setCode = sType.length == 1 && template.getEdition() != null ?  template.getEdition() : null;
+                boolean isSetCode = StaticData.instance().getEditions().contains(setCode);
+                String sheetKey = isSetCode ? slotType.trim() + " " + setCode : slotType.trim();
+
+                PrintSheet replaceCommonSheet = null;
+                if (canReplaceCommon && slotType.startsWith(BoosterSlots.COMMON)) {
+                    String replaceKey = isSetCode ? edition.getSlotReplaceCommonWith().trim() + " " + setCode : edition.getSlotReplaceCommonWith().trim();
+                    replaceCommonSheet = getPrintSheet(replaceKey);
+                }
+
+                slots.add(new ResolvedSlot(slotType, slot.getRight(), sheetKey, getPrintSheet(sheetKey), replaceCommonSheet));
+                sum += slot.getRight();
+            }
+            numCards = sum;
+        }
+    }
+
+    private static final class ResolvedSlot {
+        private final String slotType;
+        private final int numCards;
+        private final String sheetKey;
+        private final PrintSheet sheet;
+        private final PrintSheet replaceCommonSheet;
+
+        private ResolvedSlot(String slotType0, int numCards0, String sheetKey0, PrintSheet sheet0, PrintSheet replaceCommonSheet0) {
+            slotType = slotType0;
+            numCards = numCards0;
+            sheetKey = sheetKey0;
+            sheet = sheet0;
+            replaceCommonSheet = replaceCommonSheet0;
+        }
+    }
+
     @SuppressWarnings("unchecked")
     public static PrintSheet makeSheet(String sheetKey, Iterable<PaperCard> src) {
 
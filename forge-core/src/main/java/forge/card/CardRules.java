@@ -40,6 +40,15 @@ public final class CardRules implements ICardCharacteristics {
     private ColorSet colorIdentity;
     private String meldWith;
 
+    // Rules read lazily from a snapshot only keep what's needed to index them,
+    // and get the rest from their source whenever it's needed.
+    interface Source {
+        CardRules load(String name);
+    }
+    private volatile Source source = null;
+    private String name = null;
+    private boolean variant;
+
     private CardRules(ICardFace[] faces, CardSplitType altMode, CardAiHints cah) {
         splitType = altMode;
         mainPart = faces[0];
@@ -66,6 +75,13 @@ public final class CardRules implements ICardCharacteristics {
         aiHints = newRules.aiHints;
         colorIdentity = newRules.colorIdentity;
         meldWith = newRules.meldWith;
+        name = null;
+        source = null;
+    }
+
+    private CardRules loaded() {
+        final Source s = source;
+        return s == null ? this : s.load(name);
     }
 
     private static byte calculateColorIdentity(final ICardFace face) {
@@ -98,6 +114,9 @@ public final class CardRules implements ICardCharacteristics {
     }
 
     public boolean isVariant() {
+        if (source != null) {
+            return variant;
+        }
         CardType t = getType();
         return t.isVanguard() || t.isScheme() || t.isPlane() || t.isPhenomenon() || t.isConspiracy();
     }
@@ -107,33 +126,36 @@ public final class CardRules implements ICardCharacteristics {
     }
 
     public ICardFace getMainPart() {
-        return mainPart;
+        return loaded().mainPart;
     }
 
     public ICardFace getOtherPart() {
-        return otherPart;
+        return loaded().otherPart;
     }
 
     public String getName() {
+        if (name != null) {
+            return name;
+        }
         switch(splitType.getAggregationMethod()) {
             case COMBINE:
-                return mainPart.getName() + " // " + otherPart.getName();
+                return getMainPart().getName() + " // " + getOtherPart().getName();
             default:
-                return mainPart.getName();
+                return getMainPart().getName();
         }
     }
 
     public CardAiHints getAiHints() {
-        return aiHints;
+        return loaded().aiHints;
     }
 
     @Override
     public CardType getType() {
         switch(splitType.getAggregationMethod()) {
             case COMBINE: // no cards currently have different types
-                return CardType.combine(mainPart.getType(), otherPart.getType());
+                return CardType.combine(getMainPart().getType(), getOtherPart().getType());
             default:
-                return mainPart.getType();
+                return getMainPart().getType();
         }
     }
 
@@ -141,9 +163,9 @@ public final class CardRules implements ICardCharacteristics {
     public ManaCost getManaCost() {
         switch(splitType.getAggregationMethod()) {
         case COMBINE:
-            return ManaCost.combine(mainPart.getManaCost(), otherPart.getManaCost());
+            return ManaCost.combine(getMainPart().getManaCost(), getOtherPart().getManaCost());
         default:
-            return mainPart.getManaCost();
+            return getMainPart().getManaCost();
         }
     }
 
@@ -151,9 +173,9 @@ public final class CardRules implements ICardCharacteristics {
     public ColorSet getColor() {
         switch(splitType.getAggregationMethod()) {
         case COMBINE:
-            return ColorSet.fromMask(mainPart.getColor().getColor() | otherPart.getColor().getColor());
+            return ColorSet.fromMask(getMainPart().getColor().getColor() | getOtherPart().getColor().getColor());
         default:
-            return mainPart.getColor();
+            return getMainPart().getColor();
         }
     }
 
@@ -168,38 +190,38 @@ public final class CardRules implements ICardCharacteristics {
     public boolean canCastWithAvailable(byte colorCode) {
         switch(splitType.getAggregationMethod()) {
         case COMBINE:
-            return canCastFace(mainPart, colorCode) || canCastFace(otherPart, colorCode);
+            return canCastFace(getMainPart(), colorCode) || canCastFace(getOtherPart(), colorCode);
         default:
-            return canCastFace(mainPart, colorCode);
+            return canCastFace(getMainPart(), colorCode);
         }
     }
 
-    @Override public int getIntPower() { return mainPart.getIntPower(); }
-    @Override public int getIntToughness() { return mainPart.getIntToughness(); }
-    @Override public String getPower() { return mainPart.getPower(); }
-    @Override public String getToughness() { return mainPart.getToughness(); }
-    @Override public int getInitialLoyalty() { return mainPart.getInitialLoyalty(); }
+    @Override public int getIntPower() { return getMainPart().getIntPower(); }
+    @Override public int getIntToughness() { return getMainPart().getIntToughness(); }
+    @Override public String getPower() { return getMainPart().getPower(); }
+    @Override public String getToughness() { return getMainPart().getToughness(); }
+    @Override public int getInitialLoyalty() { return getMainPart().getInitialLoyalty(); }
 
     @Override
     public String getOracleText() {
         switch(splitType.getAggregationMethod()) {
         case COMBINE:
-            return mainPart.getOracleText() + "\r\n\r\n" + otherPart.getOracleText();
+            return getMainPart().getOracleText() + "\r\n\r\n" + getOtherPart().getOracleText();
         default:
-            return mainPart.getOracleText();
+            return getMainPart().getOracleText();
         }
     }
 
     public boolean canBeCommander() {
-        CardType type = mainPart.getType();
+        CardType type = getMainPart().getType();
         if (type.isLegendary() && type.isCreature()) {
             return true;
         }
-        return mainPart.getOracleText().contains("can be your commander");
+        return getMainPart().getOracleText().contains("can be your commander");
     }
 
     public String getMeldWith() {
-        return meldWith;
+        return loaded().meldWith;
     }
 
 //    public Set<String> getSets() { return this.setsPrinted.keySet(); }
@@ -212,8 +234,8 @@ public final class CardRules implements ICardCharacteristics {
     private int deltaHand;
     private int deltaLife;
 
-    public int getHand() { return deltaHand; }
-    public int getLife() { return deltaLife; }
+    public int getHand() { return loaded().deltaHand; }
+    public int getLife() { return loaded().deltaLife; }
     public void setVanguardProperties(String pt) {
         final int slashPos = pt == null ? -1 : pt.indexOf('/');
         if (slashPos == -1) {
@@ -226,7 +248,7 @@ public final class CardRules implements ICardCharacteristics {
     // Downloadable image
     private String dlUrl;
     private String dlUrlOtherSide;
-    public String getPictureUrl(boolean backface ) { return backface ? dlUrlOtherSide : dlUrl; }
+    public String getPictureUrl(boolean backface ) { return backface ? loaded().dlUrlOtherSide : loaded().dlUrl; }
     public void setDlUrls(String[] dlUrls) { this.dlUrl = dlUrls[0]; this.dlUrlOtherSide = dlUrls[1]; }
 
     public ColorSet getColorIdentity() {
@@ -497,6 +519,33 @@ public final class CardRules implements ICardCharacteristics {
         }
     }
 
+    /**
+     * Creates rules that only know the card's name, split type, color identity
+     * and whether it's a variant, and load everything else from the source.
+     */
+    static CardRules lazy(String name0, CardSplitType altMode, ColorSet colorIdentity0, boolean variant0, Source source0) {
+        final CardRules result = new CardRules(altMode, colorIdentity0);
+        result.name = name0;
+        result.variant = variant0;
+        result.source = source0;
+        return result;
+    }
+
+    private CardRules(CardSplitType altMode, ColorSet colorIdentity0) {
+        splitType = altMode;
+        colorIdentity = colorIdentity0;
+    }
+
+    /** Rebuilds card rules read back from a {@link CardRulesSnapshot}. */
+    static CardRules fromSnapshot(ICardFace[] faces, CardSplitType altMode, CardAiHints cah, String meldWith, String[] dlUrls, int hand, int life) {
+        final CardRules result = new CardRules(faces, altMode, cah);
+        result.meldWith = meldWith;
+        result.setDlUrls(dlUrls);
+        result.deltaHand = hand;
+        result.deltaLife = life;
+        return result;
+    }
+
     public static CardRules getUnsupportedCardNamed(String name) {
         CardAiHints cah = new CardAiHints(true, true, null, null, null);
         CardFace[] faces = { new CardFace(name), null};
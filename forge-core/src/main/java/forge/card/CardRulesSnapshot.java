@@ -0,0 +1,404 @@
+package forge.card;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+
+import forge.card.mana.IParserManaCost;
+import forge.card.mana.ManaCost;
+import forge.card.mana.ManaCostShard;
+
+/**
+ * A binary copy of the card rules read from all card scripts, so later
+ * starts can read a single memory-mapped file instead of parsing thousands
+ * of scripts.
+ * <p>
+ * A snapshot is only read back if it was written in the current format and
+ * for a card folder with the same fingerprint, made from the names, sizes and
+ * modification times of the scripts and of cardsfolder.zip. Reading the
+ * contents of every script to hash them would take as long as parsing them.
+ * <p>
+ * The snapshot can also be read lazily: then only the names and a few
+ * properties needed to index the cards are read, and the rest of each card's
+ * rules is read from the mapped file when it's first needed and kept in a
+ * bounded cache.
+ */
+public final class CardRulesSnapshot {
+    private static final int MAGIC = 0x46524453; // "FRDS"
+    // increase whenever the format changes or card rules get something new to remember
+    private static final int VERSION = 2;
+    private static final Charset UTF8 = Charset.forName("UTF-8");
+
+    private CardRulesSnapshot() {
+    }
+
+    public static byte[] fingerprint(final File cardsFolder, final List<File> cardFiles, final File zipFile) {
+        final MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-1");
+        } catch (final NoSuchAlgorithmException e) {
+            throw new RuntimeException(e);
+        }
+
+        final int prefixLength = cardsFolder.getAbsolutePath().length();
+        final List<File> files = new ArrayList<File>(cardFiles);
+        Collections.sort(files, new Comparator<File>() {
+            @Override
+            public int compare(final File f1, final File f2) {
+                return f1.getAbsolutePath().compareTo(f2.getAbsolutePath());
+            }
+        });
+        final ByteBuffer sizeAndTime = ByteBuffer.allocate(16);
+        for (final File f : files) {
+            digest.update(f.getAbsolutePath().substring(prefixLength).getBytes(UTF8));
+            sizeAndTime.clear();
+            sizeAndTime.putLong(f.length()).putLong(f.lastModified());
+            digest.update(sizeAndTime.array());
+        }
+        if (zipFile != null && zipFile.exists()) {
+            sizeAndTime.clear();
+            sizeAndTime.putLong(zipFile.length()).putLong(zipFile.lastModified());
+            digest.update(sizeAndTime.array());
+        }
+        return digest.digest();
+    }
+
+    /**
+     * @return the card rules in the snapshot, or null if there is no snapshot
+     * for this fingerprint that can be read
+     */
+    public static List<CardRules> read(final File file, final byte[] fingerprint) {
+        return read(file, fingerprint, 0);
+    }
+
+    /**
+     * @param cacheSize
+     *            how many cards' full rules to keep in memory when reading
+     *            lazily, or 0 to read all rules now
+     * @return the card rules in the snapshot, or null if there is no snapshot
+     * for this fingerprint that can be read
+     */
+    public static List<CardRules> read(final File file, final byte[] fingerprint, final int cacheSize) {
+        if (!file.isFile()) {
+            return null;
+        }
+        try (FileInputStream in = new FileInputStream(file); FileChannel channel = in.getChannel()) {
+            // the mapping stays valid after the channel is closed, which lazy rules rely on
+            final ByteBuffer buf = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buf.getInt() != MAGIC || buf.getInt() != VERSION) {
+                return null;
+            }
+            final byte[] savedFingerprint = new byte[buf.getInt()];
+            buf.get(savedFingerprint);
+            if (!Arrays.equals(savedFingerprint, fingerprint)) {
+                return null;
+            }
+
+            final int count = buf.getInt();
+            final List<CardRules> result = new ArrayList<CardRules>(count);
+            final LazySource source = cacheSize > 0 ? new LazySource(buf, count, cacheSize) : null;
+            for (int i = 0; i < count; i++) {
+                final int length = buf.getInt();
+                final int end = buf.position() + length;
+                final String name = readString(buf);
+                final boolean variant = buf.get() != 0;
+                final ColorSet colorIdentity = ColorSet.fromMask(buf.get());
+                if (source == null) {
+                    result.add(readRules(buf));
+                } else {
+                    final int rulesStart = buf.position();
+                    final CardSplitType splitType = CardSplitType.valueOf(readString(buf));
+                    source.offsets.put(name, rulesStart);
+                    result.add(CardRules.lazy(name, splitType, colorIdentity, variant, source));
+                }
+                buf.position(end);
+            }
+            return result;
+        } catch (final IOException | RuntimeException e) {
+            // a snapshot that can't be read is written again after the scripts are parsed
+            System.err.println("Could not read card snapshot " + file + ": " + e);
+            return null;
+        }
+    }
+
+    public static void write(final File file, final byte[] fingerprint, final Collection<CardRules> rules) {
+        final File tmp = new File(file.getPath() + ".tmp");
+        try {
+            final File dir = file.getAbsoluteFile().getParentFile();
+            if (dir != null) {
+                dir.mkdirs();
+            }
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmp), 1 << 16))) {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                out.writeInt(fingerprint.length);
+                out.write(fingerprint);
+                out.writeInt(rules.size());
+                // each card is written with its length and what's needed to index it, so lazy reading can skip the rest
+                final ByteArrayOutputStream record = new ByteArrayOutputStream();
+                final DataOutputStream recordOut = new DataOutputStream(record);
+                for (final CardRules cr : rules) {
+                    record.reset();
+                    writeString(recordOut, cr.getName());
+                    recordOut.writeBoolean(cr.isVariant());
+                    recordOut.writeByte(cr.getColorIdentity().getColor());
+                    writeRules(recordOut, cr);
+                    recordOut.flush();
+                    out.writeInt(record.size());
+                    record.writeTo(out);
+                }
+            }
+            // replace the old snapshot only once the new one is complete
+            if ((file.exists() && !file.delete()) || !tmp.renameTo(file)) {
+                throw new IOException("could not replace " + file);
+            }
+        } catch (final IOException e) {
+            System.err.println("Could not write card snapshot " + file + ": " + e);
+            tmp.delete();
+        }
+    }
+
+    private static void writeRules(final DataOutputStream out, final CardRules cr) throws IOException {
+        writeString(out, cr.getSplitType().name());
+        writeFace(out, cr.getMainPart());
+        out.writeBoolean(cr.getOtherPart() != null);
+        if (cr.getOtherPart() != null) {
+            writeFace(out, cr.getOtherPart());
+        }
+
+        final CardAiHints ai = cr.getAiHints();
+        out.writeBoolean(ai.getRemAIDecks());
+        out.writeBoolean(ai.getRemRandomDecks());
+        writeString(out, ai.getDeckHints() == null ? null : ai.getDeckHints().getText());
+        writeString(out, ai.getDeckNeeds() == null ? null : ai.getDeckNeeds().getText());
+        writeString(out, ai.getDeckHas() == null ? null : ai.getDeckHas().getText());
+
+        writeString(out, cr.getMeldWith());
+        writeString(out, cr.getPictureUrl(false));
+        writeString(out, cr.getPictureUrl(true));
+        out.writeInt(cr.getHand());
+        out.writeInt(cr.getLife());
+    }
+
+    private static CardRules readRules(final ByteBuffer buf) {
+        final CardSplitType splitType = CardSplitType.valueOf(readString(buf));
+        final ICardFace[] faces = { readFace(buf), null };
+        if (buf.get() != 0) {
+            faces[1] = readFace(buf);
+        }
+
+        final boolean remAi = buf.get() != 0;
+        final boolean remRandom = buf.get() != 0;
+        final DeckHints hints = readDeckHints(buf);
+        final DeckHints needs = readDeckHints(buf);
+        final DeckHints has = readDeckHints(buf);
+        final CardAiHints cah = new CardAiHints(remAi, remRandom, hints, needs, has);
+
+        final String meldWith = readString(buf);
+        final String[] dlUrls = { readString(buf), readString(buf) };
+        final int hand = buf.getInt();
+        final int life = buf.getInt();
+        return CardRules.fromSnapshot(faces, splitType, cah, meldWith, dlUrls, hand, life);
+    }
+
+    private static void writeFace(final DataOutputStream out, final ICardFace face) throws IOException {
+        writeString(out, face.getName());
+        writeStrings(out, face.getType());
+
+        final ManaCost cost = face.getManaCost();
+        out.writeBoolean(cost.isNoCost());
+        if (!cost.isNoCost()) {
+            out.writeInt(cost.getGenericCost());
+            final List<String> shards = new ArrayList<String>();
+            for (final ManaCostShard shard : cost) {
+                shards.add(shard.name());
+            }
+            writeStrings(out, shards);
+        }
+
+        out.writeByte(face.getColor().getColor());
+        writeString(out, face.getOracleText());
+        writeString(out, face.getPower());
+        writeString(out, face.getToughness());
+        out.writeInt(face.getInitialLoyalty());
+        writeString(out, face.getNonAbilityText());
+        writeStrings(out, face.getKeywords());
+        writeStrings(out, face.getAbilities());
+        writeStrings(out, face.getStaticAbilities());
+        writeStrings(out, face.getTriggers());
+        writeStrings(out, face.getReplacements());
+
+        final List<String> variables = new ArrayList<String>();
+        for (final Entry<String, String> v : face.getVariables()) {
+            variables.add(v.getKey());
+            variables.add(v.getValue());
+        }
+        writeStrings(out, variables);
+    }
+
+    private static CardFace readFace(final ByteBuffer buf) {
+        final CardFace face = new CardFace(readString(buf));
+        face.setType(new CardType(readStrings(buf)));
+
+        if (buf.get() != 0) {
+            face.setManaCost(ManaCost.NO_COST);
+        } else {
+            final int generic = buf.getInt();
+            face.setManaCost(new ManaCost(new ShardReader(generic, readStrings(buf))));
+        }
+
+        face.setColor(ColorSet.fromMask(buf.get()));
+        face.setOracleText(readString(buf));
+        final String power = readString(buf);
+        final String toughness = readString(buf);
+        if (power != null) {
+            face.setPtText(power + "/" + toughness);
+        }
+        face.setInitialLoyalty(buf.getInt());
+        face.setNonAbilityText(readString(buf));
+        for (final String s : readStrings(buf)) {
+            face.addKeyword(s);
+        }
+        for (final String s : readStrings(buf)) {
+            face.addAbility(s);
+        }
+        for (final String s : readStrings(buf)) {
+            face.addStaticAbility(s);
+        }
+        for (final String s : readStrings(buf)) {
+            face.addTrigger(s);
+        }
+        for (final String s : readStrings(buf)) {
+            face.addReplacementEffect(s);
+        }
+        final List<String> variables = readStrings(buf);
+        for (int i = 0; i < variables.size(); i += 2) {
+            face.addSVar(variables.get(i), variables.get(i + 1));
+        }
+        face.assignMissingFields();
+        return face;
+    }
+
+    private static DeckHints readDeckHints(final ByteBuffer buf) {
+        final String text = readString(buf);
+        return text == null ? null : new DeckHints(text);
+    }
+
+    private static void writeStrings(final DataOutputStream out, final Iterable<String> strings) throws IOException {
+        final List<String> list = new ArrayList<String>();
+        for (final String s : strings) {
+            list.add(s);
+        }
+        out.writeInt(list.size());
+        for (final String s : list) {
+            writeString(out, s);
+        }
+    }
+
+    private static List<String> readStrings(final ByteBuffer buf) {
+        final int size = buf.getInt();
+        final List<String> result = new ArrayList<String>(size);
+        for (int i = 0; i < size; i++) {
+            result.add(readString(buf));
+        }
+        return result;
+    }
+
+    private static void writeString(final DataOutputStream out, final String s) throws IOException {
+        if (s == null) {
+            out.writeInt(-1);
+            return;
+        }
+        final byte[] bytes = s.getBytes(UTF8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(final ByteBuffer buf) {
+        final int length = buf.getInt();
+        if (length < 0) {
+            return null;
+        }
+        final byte[] bytes = new byte[length];
+        buf.get(bytes);
+        return new String(bytes, UTF8);
+    }
+
+    // Reads the full rules of lazily read cards from the mapped snapshot
+    private static final class LazySource implements CardRules.Source {
+        private final ByteBuffer buf;
+        private final Map<String, Integer> offsets;
+        private final LoadingCache<String, CardRules> cache;
+
+        LazySource(final ByteBuffer buf0, final int count, final int cacheSize) {
+            buf = buf0;
+            offsets = new HashMap<String, Integer>(count * 2);
+            cache = CacheBuilder.newBuilder().maximumSize(cacheSize).build(new CacheLoader<String, CardRules>() {
+                @Override
+                public CardRules load(final String name) {
+                    final ByteBuffer b = buf.duplicate(); // each with its own position, for loading from several threads
+                    b.position(offsets.get(name));
+                    return readRules(b);
+                }
+            });
+        }
+
+        @Override
+        public CardRules load(final String name) {
+            return cache.getUnchecked(name);
+        }
+    }
+
+    // Gives the shards of a mana cost to the ManaCost constructor again
+    private static class ShardReader implements IParserManaCost {
+        private final int genericCost;
+        private final List<String> shards;
+        private int next = 0;
+
+        ShardReader(final int genericCost0, final List<String> shards0) {
+            genericCost = genericCost0;
+            shards = shards0;
+        }
+
+        @Override
+        public int getTotalGenericCost() {
+            return genericCost;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next < shards.size();
+        }
+
+        @Override
+        public ManaCostShard next() {
+            return ManaCostShard.valueOf(shards.get(next++));
+        }
+
+        @Override
+        public void remove() {
+        } // unsupported
+    }
+}
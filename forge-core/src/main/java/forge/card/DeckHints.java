@@ -38,6 +38,7 @@ public class DeckHints {
         NONE
     }
 
+    private final String text;
     private boolean valid = false;
     private List<Pair<Type, String>> filters = null;
 
@@ -48,6 +49,7 @@ public class DeckHints {
      *            SVar for DeckHints
      */
     public DeckHints(String hints) {
+        text = hints;
         String[] pieces = hints.split("\\&");
         if (pieces.length > 0) {
             for (String piece : pieces) {
@@ -63,6 +65,11 @@ public class DeckHints {
         }
     }
 
+    /** @return the hints as written in the card script */
+    public String getText() {
+        return text;
+    }
+
     public boolean isValid() {
         return valid;
     }
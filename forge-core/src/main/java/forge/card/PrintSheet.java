@@ -9,9 +9,12 @@ import forge.util.storage.StorageReaderFileSections;
 
 import java.io.File;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map.Entry;
+import java.util.Random;
 
 
 /**
@@ -25,6 +28,7 @@ public class PrintSheet {
 
 
     private final ItemPool<PaperCard> cardsWithWeights;
+    private volatile AliasTable aliasTable; // built on the first draw, dropped when the sheet changes
 
 
     private final String name;
@@ -43,6 +47,7 @@ public class PrintSheet {
 
     public void add(PaperCard card, int weight) {
         cardsWithWeights.add(card, weight);
+        aliasTable = null;
     }
 
     public void addAll(Iterable<PaperCard> cards) {
@@ -52,6 +57,7 @@ public class PrintSheet {
     public void addAll(Iterable<PaperCard> cards, int weight) {
         for(PaperCard card : cards)
             cardsWithWeights.add(card, weight);
+        aliasTable = null;
     }
 
     /** Cuts cards out of a sheet - they won't be printed again.
@@ -59,6 +65,7 @@ public class PrintSheet {
     public void removeAll(Iterable<PaperCard> cards) {
         for(PaperCard card : cards)
             cardsWithWeights.remove(card);
+        aliasTable = null;
     }
 
     private PaperCard fetchRoulette(int start, int roulette, Collection<PaperCard> toSkip) {
@@ -96,17 +103,117 @@ public class PrintSheet {
             number -= uniqueCards;
         }
 
-        List<PaperCard> uniques = wantUnique ? new ArrayList<PaperCard>() : null;
+        if (number == 0)
+            return result;
+
+        AliasTable table = getAliasTable();
+        Random random = MyRandom.getRandom();
+        if (!wantUnique) {
+            for(int iC = 0; iC < number; iC++) {
+                result.add(table.cards[table.next(random)]);
+            }
+            return result;
+        }
+
+        // Draw without replacement by drawing again when a card was already taken.
+        // If a few heavy cards keep coming up, finish the pick with the roulette, which skips them.
+        List<PaperCard> uniques = new ArrayList<>(number);
+        boolean[] taken = new boolean[table.cards.length];
         for(int iC = 0; iC < number; iC++) {
-            int index = MyRandom.getRandom().nextInt(totalWeight);
-            PaperCard toAdd = fetchRoulette(0, index, wantUnique ? uniques : null);
+            int idx = table.next(random);
+            for(int attempt = 0; taken[idx] && attempt < MAX_REDRAWS; attempt++) {
+                idx = table.next(random);
+            }
+            PaperCard toAdd;
+            if (taken[idx]) {
+                toAdd = fetchRoulette(0, random.nextInt(totalWeight), uniques);
+                idx = table.indexOf(toAdd);
+            } else {
+                toAdd = table.cards[idx];
+            }
+            taken[idx] = true;
             result.add(toAdd);
-            if( wantUnique )
-                uniques.add(toAdd);
+            uniques.add(toAdd);
         }
         return result;
     }
 
+    private static final int MAX_REDRAWS = 16;
+
+    private AliasTable getAliasTable() {
+        AliasTable table = aliasTable;
+        if (table == null) {
+            table = new AliasTable(cardsWithWeights);
+            aliasTable = table;
+        }
+        return table;
+    }
+
+    /**
+     * Walker's alias table over the distinct cards of a sheet (built with Vose's method),
+     * so that a weighted draw takes one random index and one coin flip, whatever the size of the sheet.
+     */
+    private static final class AliasTable {
+        private final PaperCard[] cards;
+        private final double[] prob;
+        private final int[] alias;
+
+        private AliasTable(ItemPool<PaperCard> pool) {
+            int n = pool.countDistinct();
+            double total = pool.countAll();
+            cards = new PaperCard[n];
+            prob = new double[n];
+            alias = new int[n];
+
+            double[] scaled = new double[n];
+            int i = 0;
+            for(Entry<PaperCard, Integer> kv : pool) {
+                cards[i] = kv.getKey();
+                scaled[i] = kv.getValue() * n / total;
+                i++;
+            }
+
+            int[] small = new int[n];
+            int[] large = new int[n];
+            int nSmall = 0, nLarge = 0;
+            for(i = 0; i < n; i++) {
+                if (scaled[i] < 1)
+                    small[nSmall++] = i;
+                else
+                    large[nLarge++] = i;
+            }
+            while (nSmall > 0 && nLarge > 0) {
+                int s = small[--nSmall];
+                int l = large[--nLarge];
+                prob[s] = scaled[s];
+                alias[s] = l;
+                scaled[l] = scaled[l] + scaled[s] - 1;
+                if (scaled[l] < 1)
+                    small[nSmall++] = l;
+                else
+                    large[nLarge++] = l;
+            }
+            // whatever is left is at 1, give or take rounding errors
+            while (nLarge > 0)
+                prob[large[--nLarge]] = 1;
+            while (nSmall > 0)
+                prob[small[--nSmall]] = 1;
+        }
+
+        private int next(Random random) {
+            int i = random.nextInt(cards.length);
+            return random.nextDouble() < prob[i] ? i : alias[i];
+        }
+
+        private int indexOf(PaperCard card) {
+            for(int i = 0; i < cards.length; i++) {
+                if (cards[i] == card)
+                    return i;
+            }
+            return -1;
+        }
+    }
+
     public boolean isEmpty() {
         return cardsWithWeights.isEmpty();
     }
@@ -115,6 +222,13 @@ public class PrintSheet {
         return cardsWithWeights.toFlatList();
     }
 
+    /** Every card of the sheet once, whatever its weight. */
+    public List<PaperCard> getDistinctCards() {
+        if (cardsWithWeights.isEmpty())
+            return Collections.emptyList();
+        return Collections.unmodifiableList(Arrays.asList(getAliasTable().cards));
+    }
+
     public static class Reader extends StorageReaderFileSections<PrintSheet> {
         public Reader(File file) {
             super(file, PrintSheet.FN_GET_KEY);
@@ -61,6 +61,17 @@ public class UnOpenedProduct implements IUnOpenedProduct {
         return sheets == null ? BoosterGenerator.getBoosterPack(tpl) : getBoosterPack();
     }
 
+    public List<List<PaperCard>> get(int count) {
+        if (sheets == null) {
+            return BoosterGenerator.getBoosterPacks(tpl, count);
+        }
+        List<List<PaperCard>> result = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            result.add(getBoosterPack());
+        }
+        return result;
+    }
+
     // If they request cards from an arbitrary pool, there's no use to cache printsheets.
     private List<PaperCard> getBoosterPack() {
         List<PaperCard> result = new ArrayList<>();
@@ -30,8 +30,17 @@ import java.util.Random;
  * @version $Id$
  */
 public class MyRandom {
-    /** Constant <code>random</code>. */
-    private static Random random = new SecureRandom();
+    /**
+     * Each thread gets its own generator, so games played on different
+     * threads don't all wait on one lock, and a thread can seed its own
+     * generator to make a game repeatable.
+     */
+    private static final ThreadLocal<Random> random = new ThreadLocal<Random>() {
+        @Override
+        protected Random initialValue() {
+            return new SecureRandom();
+        }
+    };
 
     /**
      * <p>
@@ -53,14 +62,34 @@ public class MyRandom {
      * @return the random
      */
     public static Random getRandom() {
-        return MyRandom.random;
+        return MyRandom.random.get();
+    }
+
+    /**
+     * Replaces the generator of the current thread with one started from the
+     * given seed, so the random choices made on it can be repeated.
+     * 
+     * @param seed the seed
+     */
+    public static void setSeed(final long seed) {
+        MyRandom.random.set(new Random(seed));
+    }
+
+    /**
+     * Replaces the generator of the current thread, to put back one taken
+     * with {@link #getRandom()} after {@link #setSeed(long)}.
+     * 
+     * @param generator the generator
+     */
+    public static void setRandom(final Random generator) {
+        MyRandom.random.set(generator);
     }
 
     public static int[] splitIntoRandomGroups(final int value, final int numGroups) {
         int[] groups = new int[numGroups];
         
         for (int i = 0; i < value; i++) {
-            groups[random.nextInt(numGroups)]++;
+            groups[getRandom().nextInt(numGroups)]++;
         }
 
         return groups;
@@ -0,0 +1,52 @@
+package forge.util;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Remembers what strings from card scripts were parsed into, for things that
+ * are parsed far more often than there are different strings to parse.
+ * <p>
+ * Looking up a string that was already parsed is a single hash lookup, so
+ * this can be used where a {@link com.google.common.cache.LoadingCache} would
+ * cost more than the parsing saves. Some strings are only made up while
+ * playing, so the cache is emptied when it reaches its maximum size rather
+ * than keeping track of which entries were used last.
+ */
+public abstract class ParseCache<T> {
+    private static volatile boolean enabled = true;
+
+    private final int maximumSize;
+    private final ConcurrentMap<String, T> cache = new ConcurrentHashMap<String, T>();
+
+    public ParseCache(final int maximumSize0) {
+        maximumSize = maximumSize0;
+    }
+
+    /**
+     * Turns all parse caches off or back on. With them off every string is
+     * parsed again each time it's used, as before they were added, so
+     * benchmarks can measure what they save.
+     */
+    public static void setEnabled(final boolean enabled0) {
+        enabled = enabled0;
+    }
+
+    protected abstract T parse(String s);
+
+    public final T get(final String s) {
+        if (!enabled) {
+            return parse(s);
+        }
+        T result = cache.get(s);
+        if (result == null) {
+            if (cache.size() >= maximumSize) {
+                cache.clear();
+            }
+            // parsing the same string twice at once gives the same result, so it doesn't matter which is kept
+            result = parse(s);
+            cache.put(s, result);
+        }
+        return result;
+    }
+}
@@ -4,16 +4,18 @@ import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Iterables;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Ordering;
-import com.google.common.collect.Sets;
 
 import org.apache.commons.lang3.ArrayUtils;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
 import java.io.Serializable;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.ConcurrentModificationException;
 import java.util.Iterator;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.ListIterator;
 import java.util.NoSuchElementException;
@@ -23,13 +25,19 @@ import java.util.Set;
  * Collection with unique elements ({@link Set}) that maintains the order in
  * which the elements are added to it ({@link List}).
  *
+ * The elements are kept in order in an array, so indexed access and iteration
+ * are cheap. Once the collection holds more than a few elements, they are
+ * also indexed in an open-addressed hash table to check whether an element is
+ * present; for game objects, whose hash code is their id, this is a table of
+ * ids.
+ *
  * This object is serializable if all elements it contains are.
  *
  * @param <T> the type of the elements this collection contains.
  * @see FCollectionView
  */
 public class FCollection<T> implements List<T>, Set<T>, FCollectionView<T>, Cloneable, Serializable {
-    private static final long serialVersionUID = -1664555336364294106L;
+    private static final long serialVersionUID = -1664555336364294107L;
 
     private static final FCollection<?> EMPTY = new EmptyFCollection<Object>();
 
@@ -39,14 +47,37 @@ public class FCollection<T> implements List<T>, Set<T>, FCollectionView<T>, Clon
     }
 
     /**
-     * The {@link Set} representation of this collection.
+     * Collections up to this size are searched element by element rather than
+     * through the hash index.
+     */
+    private static final int LINEAR_SCAN_MAX = 8;
+
+    /**
+     * Stands for {@code null} in the hash index, where {@code null} marks a
+     * free slot.
+     */
+    private static final Object NULL_KEY = new Object();
+
+    /**
+     * The elements of this collection, in order, followed by unused slots.
+     */
+    private Object[] elements = ArrayUtils.EMPTY_OBJECT_ARRAY;
+
+    /**
+     * The number of elements in this collection.
      */
-    private final Set<T> set = Sets.newHashSet();
+    private int size = 0;
 
     /**
-     * The {@link List} representation of this collection.
+     * The hash index of the elements, with linear probing, or {@code null}
+     * while the collection is small enough to be scanned.
      */
-    private final LinkedList<T> list = Lists.newLinkedList();
+    private transient Object[] hashIndex = null;
+
+    /**
+     * The number of structural changes, to let iterators fail fast.
+     */
+    private transient int modCount = 0;
 
     /**
      * Create an empty {@link FCollection}.
@@ -87,9 +118,7 @@ public class FCollection<T> implements List<T>, Set<T>, FCollectionView<T>, Clon
      *            creation.
      */
     public FCollection(final Iterable<? extends T> i) {
-        for (final T e : i) {
-            add(e);
-        }
+        addAll(i);
     }
 
     /**
@@ -135,13 +164,19 @@ public class FCollection<T> implements List<T>, Set<T>, FCollectionView<T>, Clon
     }
 
     /**
-     * <p>This implementation uses the hash code of the backing list.</p>
+     * <p>This implementation computes the hash code of the elements as a
+     * {@link List} would.</p>
      *
      * {@inheritDoc}
      */
     @Override
     public int hashCode() {
-        return list.hashCode();
+        int hashCode = 1;
+        for (int i = 0; i < size; i++) {
+            final Object e = elements[i];
+            hashCode = 31 * hashCode + (e == null ? 0 : e.hashCode());
+        }
+        return hashCode;
     }
 
     /**
@@ -151,7 +186,14 @@ public class FCollection<T> implements List<T>, Set<T>, FCollectionView<T>, Clon
      */
     @Override
     public String toString() {
-        return list.toString();
+        final StringBuilder sb = new StringBuilder("[");
+        for (int i = 0; i < size; i++) {
+            if (i > 0) {
+                sb.append(", ");
+            }
+            sb.append(elements[i]);
+        }
+        return sb.append(']').toString();
     }
 
     /**
@@ -160,7 +202,7 @@ public class FCollection<T> implements List<T>, Set<T>, FCollectionView<T>, Clon
      */
     @Override
     public final FCollection<T> clone() {
-        return new FCollection<>(list);
+        return new FCollection<>(this);
     }
 
     /**
@@ -171,7 +213,10 @@ public class FCollection<T> implements List<T>, Set<T>, FCollectionView<T>, Clon
      */
     @Override
     public T getFirst() {
-        return list.getFirst();
+        if (size == 0) {
+            throw new NoSuchElementException();
+        }
+        return elementAt(0);
     }
 
     /**
@@ -182,7 +227,10 @@ public class FCollection<T> implements List<T>, Set<T>, FCollectionView<T>, Clon
      */
     @Override
     public T getLast() {
-        return list.getLast();
+        if (size == 0) {
+            throw new NoSuchElementException();
+        }
+        return elementAt(size - 1);
     }
 
     /**
@@ -190,7 +238,7 @@ public class FCollection<T> implements List<T>, Set<T>, FCollectionView<T>, Clon
      */
     @Override
     public int size() {
-        return set.size();
+        return size;
     }
 
     /**
@@ -198,7 +246,7 @@ public class FCollection<T> implements List<T>, Set<T>, FCollectionView<T>, Clon
      */
     @Override
     public boolean isEmpty() {
-        return set.isEmpty();
+        return size == 0;
     }
 
     /**
@@ -209,7 +257,10 @@ public class FCollection<T> implements List<T>, Set<T>, FCollectionView<T>, Clon
      */
     @Override
     public boolean contains(final Object o) {
-        return set.contains(o);
+        if (hashIndex == null) {
+            return scan(o) >= 0;
+        }
+        return findSlot(o) >= 0;
     }
 
     /**
@@ -217,7 +268,7 @@ public class FCollection<T> implements List<T>, Set<T>, FCollectionView<T>, Clon
      */
     @Override
     public Iterator<T> iterator() {
-        return list.iterator();
+        return new Itr(0);
     }
 
     /**
@@ -225,16 +276,23 @@ public class FCollection<T> implements List<T>, Set<T>, FCollectionView<T>, Clon
      */
     @Override
     public Object[] toArray() {
-        return list.toArray();
+        return Arrays.copyOf(elements, size);
     }
 
     /**
      * {@inheritDoc}
      */
     @Override
-    @SuppressWarnings("hiding")
+    @SuppressWarnings({ "hiding", "unchecked" })
     public <T> T[] toArray(final T[] a) {
-        return list.toArray(a);
+        if (a.length < size) {
+            return (T[]) Arrays.copyOf(elements, size, a.getClass());
+        }
+        System.arraycopy(elements, 0, a, 0, size);
+        if (a.length > size) {
+            a[size] = null;
+        }
+        return a;
     }
 
     /**
@@ -246,11 +304,13 @@ public class FCollection<T> implements List<T>, Set<T>, FCollectionView<T>, Clon
      */
     @Override
     public boolean add(final T e) {
-        if (set.add(e)) {
-            list.add(e);
-            return true;
+        if (contains(e)) {
+            return false;
         }
-        return false;
+        ensureCapacity(size + 1);
+        elements[size++] = e;
+        added(e);
+        return true;
     }
 
     /**
@@ -262,11 +322,19 @@ public class FCollection<T> implements List<T>, Set<T>, FCollectionView<T>, Clon
      */
     @Override
     public boolean remove(final Object o) {
-        if (set.remove(o)) {
-            list.remove(o);
-            return true;
+        if (hashIndex != null) {
+            final int slot = findSlot(o);
+            if (slot < 0) {
+                return false;
+            }
+            clearSlot(slot);
+        }
+        final int i = scan(o);
+        if (i < 0) {
+            return false;
         }
-        return false;
+        removeAt(i);
+        return true;
     }
 
     /**
@@ -274,7 +342,12 @@ public class FCollection<T> implements List<T>, Set<T>, FCollectionView<T>, Clon
      */
     @Override
     public boolean containsAll(final Collection<?> c) {
-        return set.containsAll(c);
+        for (final Object o : c) {
+            if (!contains(o)) {
+                return false;
+            }
+        }
+        return true;
     }
 
     /**
@@ -295,6 +368,18 @@ public class FCollection<T> implements List<T>, Set<T>, FCollectionView<T>, Clon
      * @see #addAll(Collection)
      */
     public boolean addAll(final Iterable<? extends T> i) {
+        if (size == 0 && i instanceof FCollection) {
+            // copying another collection needs no checks for duplicates
+            final FCollection<?> other = (FCollection<?>) i;
+            if (other.size == 0) {
+                return false;
+            }
+            elements = Arrays.copyOf(other.elements, other.size);
+            hashIndex = other.hashIndex == null ? null : other.hashIndex.clone();
+            size = other.size;
+            modCount++;
+            return true;
+        }
         boolean changed = false;
         for (final T e : i) {
             changed |= add(e);
@@ -370,11 +455,20 @@ public class FCollection<T> implements List<T>, Set<T>, FCollectionView<T>, Clon
      */
     @Override
     public boolean retainAll(final Collection<?> c) {
-        if (set.retainAll(c)) {
-            list.retainAll(c);
-            return true;
+        int kept = 0;
+        for (int i = 0; i < size; i++) {
+            if (c.contains(elements[i])) {
+                elements[kept++] = elements[i];
+            }
+        }
+        if (kept == size) {
+            return false;
         }
-        return false;
+        Arrays.fill(elements, kept, size, null);
+        size = kept;
+        modCount++;
+        rebuildIndex();
+        return true;
     }
 
     /**
@@ -382,9 +476,11 @@ public class FCollection<T> implements List<T>, Set<T>, FCollectionView<T>, Clon
      */
     @Override
     public void clear() {
-        if (set.isEmpty()) { return; }
-        set.clear();
-        list.clear();
+        if (size == 0) { return; }
+        Arrays.fill(elements, 0, size, null);
+        size = 0;
+        hashIndex = null;
+        modCount++;
     }
 
     /**
@@ -392,17 +488,26 @@ public class FCollection<T> implements List<T>, Set<T>, FCollectionView<T>, Clon
      */
     @Override
     public T get(final int index) {
-        return list.get(index);
+        checkIndex(index);
+        return elementAt(index);
     }
 
     /**
      * Set the element at an index to a value. WARNING: this method doesn't
-     * update the set and should only be used in a situation where the set of
-     * elements in this collection is invariant.
+     * check whether the element is already elsewhere in the collection and
+     * should only be used in a situation where the set of elements in this
+     * collection is invariant.
      */
     @Override
-    public T set(final int index, final T element) { //assume this isn't called except when changing list order, so don't worry about updating set
-        return list.set(index, element);
+    public T set(final int index, final T element) { //assume this isn't called except when changing list order
+        checkIndex(index);
+        final T old = elementAt(index);
+        elements[index] = element;
+        if (hashIndex != null && old != element) {
+            clearSlot(findSlot(old));
+            addToIndex(element);
+        }
+        return old;
     }
 
     /**
@@ -423,12 +528,19 @@ public class FCollection<T> implements List<T>, Set<T>, FCollectionView<T>, Clon
      * @return whether this collection changed as a result of this method call.
      */
     private boolean insert(int index, final T element) {
-        if (set.add(element)) {
-            list.add(index, element);
+        final int oldIndex = indexOf(element);
+        if (oldIndex < 0) {
+            if (index < 0 || index > size) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+            }
+            ensureCapacity(size + 1);
+            System.arraycopy(elements, index, elements, index + 1, size - index);
+            elements[index] = element;
+            size++;
+            added(element);
             return true;
         }
         //re-position in list if needed
-        final int oldIndex = list.indexOf(element);
         if (index == oldIndex) {
             return false;
         }
@@ -436,8 +548,14 @@ public class FCollection<T> implements List<T>, Set<T>, FCollectionView<T>, Clon
         if (index > oldIndex) {
             index--; //account for being removed
         }
-        list.remove(oldIndex);
-        list.add(index, element);
+        checkIndex(index);
+        if (index < oldIndex) {
+            System.arraycopy(elements, index, elements, index + 1, oldIndex - index);
+        } else {
+            System.arraycopy(elements, oldIndex + 1, elements, oldIndex, index - oldIndex);
+        }
+        elements[index] = element;
+        modCount++;
         return true;
     }
 
@@ -446,10 +564,12 @@ public class FCollection<T> implements List<T>, Set<T>, FCollectionView<T>, Clon
      */
     @Override
     public T remove(final int index) {
-        final T removedItem = list.remove(index);
-        if (removedItem != null) {
-            set.remove(removedItem);
+        checkIndex(index);
+        final T removedItem = elementAt(index);
+        if (hashIndex != null) {
+            clearSlot(findSlot(removedItem));
         }
+        removeAt(index);
         return removedItem;
     }
 
@@ -458,7 +578,10 @@ public class FCollection<T> implements List<T>, Set<T>, FCollectionView<T>, Clon
      */
     @Override
     public int indexOf(final Object o) {
-        return list.indexOf(o);
+        if (hashIndex != null && findSlot(o) < 0) {
+            return -1;
+        }
+        return scan(o);
     }
 
     /**
@@ -466,7 +589,7 @@ public class FCollection<T> implements List<T>, Set<T>, FCollectionView<T>, Clon
      */
     @Override
     public int lastIndexOf(final Object o) {
-        return list.lastIndexOf(o);
+        return indexOf(o); //elements are unique
     }
 
     /**
@@ -474,7 +597,7 @@ public class FCollection<T> implements List<T>, Set<T>, FCollectionView<T>, Clon
      */
     @Override
     public ListIterator<T> listIterator() {
-        return list.listIterator();
+        return new Itr(0);
     }
 
     /**
@@ -482,7 +605,10 @@ public class FCollection<T> implements List<T>, Set<T>, FCollectionView<T>, Clon
      */
     @Override
     public ListIterator<T> listIterator(final int index) {
-        return list.listIterator(index);
+        if (index < 0 || index > size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        return new Itr(index);
     }
 
     /**
@@ -494,8 +620,12 @@ public class FCollection<T> implements List<T>, Set<T>, FCollectionView<T>, Clon
      * {@inheritDoc}
      */
     @Override
+    @SuppressWarnings("unchecked")
     public List<T> subList(final int fromIndex, final int toIndex) {
-        return ImmutableList.copyOf(list.subList(fromIndex, toIndex));
+        if (fromIndex < 0 || toIndex > size || fromIndex > toIndex) {
+            throw new IndexOutOfBoundsException("From: " + fromIndex + ", To: " + toIndex + ", Size: " + size);
+        }
+        return ImmutableList.copyOf((T[]) Arrays.copyOfRange(elements, fromIndex, toIndex));
     }
 
     /**
@@ -513,17 +643,250 @@ public class FCollection<T> implements List<T>, Set<T>, FCollectionView<T>, Clon
     /**
      * {@inheritDoc}
      */
+    @SuppressWarnings("unchecked")
     public void sort(final Comparator<? super T> comparator) {
-        Collections.sort(list, comparator);
+        Arrays.sort((T[]) elements, 0, size, comparator);
     }
 
     /**
      * {@inheritDoc}
      */
     @Override
+    @SuppressWarnings("unchecked")
     public Iterable<T> threadSafeIterable() {
-        //create a new linked list for iterating to make it thread safe and avoid concurrent modification exceptions
-        return Iterables.unmodifiableIterable(new LinkedList<T>(list));
+        //copy the elements for iterating to make it thread safe and avoid concurrent modification exceptions
+        return Iterables.unmodifiableIterable(Arrays.asList((T[]) toArray()));
+    }
+
+    @SuppressWarnings("unchecked")
+    private T elementAt(final int i) {
+        return (T) elements[i];
+    }
+
+    private void checkIndex(final int i) {
+        if (i < 0 || i >= size) {
+            throw new IndexOutOfBoundsException("Index: " + i + ", Size: " + size);
+        }
+    }
+
+    private void ensureCapacity(final int minCapacity) {
+        if (elements.length < minCapacity) {
+            elements = Arrays.copyOf(elements, Math.max(minCapacity, elements.length + (elements.length >> 1) + 2));
+        }
+    }
+
+    /**
+     * Find the position of an element by going through the elements in order.
+     */
+    private int scan(final Object o) {
+        if (o == null) {
+            for (int i = 0; i < size; i++) {
+                if (elements[i] == null) {
+                    return i;
+                }
+            }
+        } else {
+            for (int i = 0; i < size; i++) {
+                if (o == elements[i] || o.equals(elements[i])) {
+                    return i;
+                }
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Remove the element at a position from the array, once it's out of the
+     * index.
+     */
+    private void removeAt(final int i) {
+        System.arraycopy(elements, i + 1, elements, i, size - i - 1);
+        elements[--size] = null;
+        modCount++;
+    }
+
+    /**
+     * Account for an element appended to or inserted into the array.
+     */
+    private void added(final T e) {
+        modCount++;
+        if (hashIndex != null) {
+            if (size * 2 > hashIndex.length) {
+                rebuildIndex();
+            } else {
+                addToIndex(e);
+            }
+        } else if (size > LINEAR_SCAN_MAX) {
+            rebuildIndex();
+        }
+    }
+
+    private static int hash(final Object key, final int mask) {
+        // ids are handed out in sequence, so spread them over the table
+        final int h = key.hashCode() * 0x9E3779B9;
+        return (h ^ (h >>> 16)) & mask;
+    }
+
+    /**
+     * Find the slot of the index holding an element, or -1 if it's not there.
+     */
+    private int findSlot(final Object o) {
+        final Object key = o == null ? NULL_KEY : o;
+        final int mask = hashIndex.length - 1;
+        int i = hash(key, mask);
+        Object k;
+        while ((k = hashIndex[i]) != null) {
+            if (k == key || key.equals(k)) {
+                return i;
+            }
+            i = (i + 1) & mask;
+        }
+        return -1;
+    }
+
+    private void addToIndex(final Object o) {
+        final Object key = o == null ? NULL_KEY : o;
+        final int mask = hashIndex.length - 1;
+        int i = hash(key, mask);
+        while (hashIndex[i] != null) {
+            i = (i + 1) & mask;
+        }
+        hashIndex[i] = key;
+    }
+
+    /**
+     * Empty a slot of the index, moving back the keys that probed past it so
+     * that they can still be found.
+     */
+    private void clearSlot(int i) {
+        final int mask = hashIndex.length - 1;
+        hashIndex[i] = null;
+        int j = i;
+        while (true) {
+            j = (j + 1) & mask;
+            final Object k = hashIndex[j];
+            if (k == null) {
+                return;
+            }
+            final int h = hash(k, mask);
+            if (i <= j ? (i < h && h <= j) : (i < h || h <= j)) {
+                continue; // still reachable from its home slot
+            }
+            hashIndex[i] = k;
+            hashIndex[j] = null;
+            i = j;
+        }
+    }
+
+    private void rebuildIndex() {
+        if (size <= LINEAR_SCAN_MAX) {
+            hashIndex = null;
+            return;
+        }
+        int capacity = 16;
+        while (capacity < size * 4) {
+            capacity <<= 1;
+        }
+        hashIndex = new Object[capacity];
+        for (int i = 0; i < size; i++) {
+            addToIndex(elements[i]);
+        }
+    }
+
+    private void readObject(final ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        rebuildIndex();
+    }
+
+    /**
+     * Iterator over the array of elements, failing fast like the iterators
+     * of the standard collections.
+     */
+    private final class Itr implements ListIterator<T> {
+        private int cursor;
+        private int lastRet = -1;
+        private int expectedModCount = modCount;
+
+        private Itr(final int index) {
+            cursor = index;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return cursor < size;
+        }
+
+        @Override
+        public T next() {
+            checkForComodification();
+            if (cursor >= size) {
+                throw new NoSuchElementException();
+            }
+            lastRet = cursor++;
+            return elementAt(lastRet);
+        }
+
+        @Override
+        public boolean hasPrevious() {
+            return cursor > 0;
+        }
+
+        @Override
+        public T previous() {
+            checkForComodification();
+            if (cursor <= 0) {
+                throw new NoSuchElementException();
+            }
+            lastRet = --cursor;
+            return elementAt(lastRet);
+        }
+
+        @Override
+        public int nextIndex() {
+            return cursor;
+        }
+
+        @Override
+        public int previousIndex() {
+            return cursor - 1;
+        }
+
+        @Override
+        public void remove() {
+            if (lastRet < 0) {
+                throw new IllegalStateException();
+            }
+            checkForComodification();
+            FCollection.this.remove(lastRet);
+            cursor = lastRet;
+            lastRet = -1;
+            expectedModCount = modCount;
+        }
+
+        @Override
+        public void set(final T e) {
+            if (lastRet < 0) {
+                throw new IllegalStateException();
+            }
+            checkForComodification();
+            FCollection.this.set(lastRet, e);
+        }
+
+        @Override
+        public void add(final T e) {
+            checkForComodification();
+            if (insert(cursor, e)) {
+                cursor = indexOf(e) + 1;
+            }
+            lastRet = -1;
+            expectedModCount = modCount;
+        }
+
+        private void checkForComodification() {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+        }
     }
 
     /**
@@ -24,10 +24,11 @@ import com.google.common.base.Predicates;
 import com.google.common.collect.ArrayListMultimap;
 import com.google.common.collect.Iterables;
 import com.google.common.collect.Multimap;
-import com.google.common.eventbus.EventBus;
 
 import forge.card.CardRarity;
 import forge.card.CardType.Supertype;
+import forge.game.ability.AbilityKey;
+import forge.game.ability.RunParams;
 import forge.game.card.Card;
 import forge.game.card.CardCollection;
 import forge.game.card.CardCollectionView;
@@ -38,6 +39,8 @@ import forge.game.card.CardView;
 import forge.game.combat.Combat;
 import forge.game.cost.Cost;
 import forge.game.event.Event;
+import forge.game.event.EventDispatcher;
+import forge.game.event.GameEventCardStatsChanged;
 import forge.game.event.GameEventGameOutcome;
 import forge.game.phase.Phase;
 import forge.game.phase.PhaseHandler;
@@ -58,6 +61,7 @@ import forge.game.trigger.TriggerType;
 import forge.game.zone.*;
 import forge.trackable.Tracker;
 import forge.util.Aggregates;
+import forge.util.MyRandom;
 import forge.util.collect.FCollection;
 import forge.util.collect.FCollectionView;
 import forge.util.Visitor;
@@ -80,10 +84,10 @@ public class Game {
     public final MagicStack stack;
     public final CostPaymentStack costPaymentStack = new CostPaymentStack();
     private final PhaseHandler phaseHandler;
-    private final StaticEffects staticEffects = new StaticEffects();
+    private final StaticEffects staticEffects = new StaticEffects(this);
     private final TriggerHandler triggerHandler = new TriggerHandler(this);
     private final ReplacementHandler replacementHandler = new ReplacementHandler(this);
-    private final EventBus events = new EventBus("game events");
+    private final EventDispatcher events = new EventDispatcher("Game events");
     private final GameLog gameLog = new GameLog();
 
     private final Zone stackZone = new Zone(ZoneType.Stack, this);
@@ -97,9 +101,12 @@ public class Game {
     private final Match match;
     private GameStage age = GameStage.BeforeMulligan;
     private GameOutcome outcome;
+    private UndoJournal undoJournal = null;
 
     private final GameView view; 
     private final Tracker tracker = new Tracker();
+    private int eventCount = 0;
+    private int combatViewChanges = 0;
 
 
     public CardCollectionView getLastStateBattlefield() {
@@ -131,7 +138,7 @@ public class Game {
         return playerCache.get(playerView);
     }
     public void addPlayer(int id, Player player) {
-        playerCache.put(Integer.valueOf(id), player);
+        playerCache.put(id, player);
     }
 
     private final GameEntityCache<Card, CardView> cardCache = new GameEntityCache<>();
@@ -139,7 +146,7 @@ public class Game {
         return cardCache.get(cardView);
     }
     public void addCard(int id, Card card) {
-        cardCache.put(Integer.valueOf(id), card);
+        cardCache.put(id, card);
     }
     public CardCollection getCardList(Iterable<CardView> cardViews) {
         CardCollection list = new CardCollection();
@@ -170,7 +177,7 @@ public class Game {
         return spabCache.get(view);
     }
     public void addSpellAbility(int id, SpellAbility spellAbility) {
-        spabCache.put(Integer.valueOf(id), spellAbility);
+        spabCache.put(id, spellAbility);
     }
 
     public Game(List<RegisteredPlayer> players0, GameRules rules0, Match match0) { /* no more zones to map here */
@@ -215,9 +222,9 @@ public class Game {
 
         untap = new Untap(this);
         upkeep = new Upkeep(this);
-        cleanup = new Phase(PhaseType.CLEANUP);
-        endOfCombat = new Phase(PhaseType.COMBAT_END);
-        endOfTurn = new Phase(PhaseType.END_OF_TURN);
+        cleanup = new Phase(PhaseType.CLEANUP, this);
+        endOfCombat = new Phase(PhaseType.COMBAT_END, this);
+        endOfTurn = new Phase(PhaseType.END_OF_TURN, this);
 
         view = new GameView(this);
 
@@ -232,6 +239,34 @@ public class Game {
         return tracker;
     }
 
+    /**
+     * Returns a number that changes whenever something happens in the game,
+     * that is whenever a view changes or an event is fired, so it can be
+     * compared with an earlier one to tell whether the game has changed since.
+     * It only ever grows, rolling changes back with an {@link UndoJournal}
+     * included, so a version is never seen again for a different game state.
+     */
+    public int getStateVersion() {
+        return tracker.getChangeCount() + eventCount;
+    }
+
+    /**
+     * Like {@link #getStateVersion()}, but doesn't change when only the views
+     * of who attacks and blocks whom are updated, as they are for every
+     * attacker and blocker the AI tries out while declaring them.
+     */
+    public int getBoardVersion() {
+        return getStateVersion() - combatViewChanges;
+    }
+
+    /**
+     * Records that updating the views of a combat made some changes, see
+     * {@link #getBoardVersion()}.
+     */
+    public void countCombatViewChanges(final int changes) {
+        combatViewChanges += changes;
+    }
+
     /**
      * Gets the players who are still fighting to win.
      */
@@ -316,11 +351,37 @@ public class Game {
         return triggerHandler;
     }
 
+    /**
+     * Gets the journal changes to this game are recorded in, or null if
+     * they aren't being recorded.
+     */
+    public final UndoJournal getUndoJournal() {
+        return undoJournal;
+    }
+    public final void setUndoJournal(final UndoJournal journal) {
+        undoJournal = journal;
+        if (journal != null) {
+            journal.attachTo(this);
+        }
+    }
+
+    /**
+     * Counts rolling back changes as a change itself, for the undone changes
+     * that aren't seen in the views, see {@link #getStateVersion()}.
+     */
+    final void countRollback() {
+        eventCount++;
+        // static effects are rolled back with the game, but not the zone changes they were last applied at
+        getAction().invalidateStaticAbilities();
+    }
+
     public final Combat getCombat() {
         return getPhaseHandler().getCombat();
     }
     public final void updateCombatForView() {
+        final int changes = tracker.getChangeCount();
         view.updateCombat(getCombat());
+        combatViewChanges += tracker.getChangeCount() - changes;
     }
 
     public final GameLog getGameLog() {
@@ -386,6 +447,17 @@ public class Game {
     }
 
     public synchronized void setGameOver(GameEndReason reason) {
+        if (undoJournal != null) {
+            final GameStage oldAge = age;
+            final GameOutcome oldOutcome = outcome;
+            undoJournal.record(new UndoJournal.Entry() {
+                @Override
+                public void undo() {
+                    age = oldAge;
+                    outcome = oldOutcome;
+                }
+            });
+        }
         age = GameStage.GameOver;
         for (Player p : allPlayers) {
             p.setMindSlaveMaster(null); // for correct totals
@@ -592,10 +664,20 @@ public class Game {
         // Remove leftover items from
         this.getStack().removeInstancesControlledBy(p);
 
+        if (undoJournal != null) {
+            final List<Player> oldPlayers = new ArrayList<Player>(ingamePlayers);
+            undoJournal.record(new UndoJournal.Entry() {
+                @Override
+                public void undo() {
+                    ingamePlayers.clear();
+                    ingamePlayers.addAll(oldPlayers);
+                }
+            });
+        }
         ingamePlayers.remove(p);
 
-        final Map<String, Object> runParams = new TreeMap<String, Object>();
-        runParams.put("Player", p);
+        final RunParams runParams = new RunParams();
+        runParams.put(AbilityKey.Player, p);
         getTriggerHandler().runTrigger(TriggerType.LosesGame, runParams, false);
     }
 
@@ -604,11 +686,33 @@ public class Game {
      * The events are sent to UI, log and sound system. Network listeners are under development.
      */
     public void fireEvent(final Event event) {
+        if (!(event instanceof GameEventCardStatsChanged)) { // only reports changes already counted
+            eventCount++;
+        }
         events.post(event);
     }
+
+    /**
+     * For events fired often: returns whether anything listens for events of
+     * the given class, so the event only needs to be built and fired if it does.
+     * An event that isn't fired is still counted for {@link #getStateVersion}.
+     */
+    public boolean shouldFireEvent(final Class<? extends Event> eventClass) {
+        if (events.hasHandlers(eventClass)) {
+            return true;
+        }
+        if (eventClass != GameEventCardStatsChanged.class) {
+            eventCount++;
+        }
+        return false;
+    }
+
     public void subscribeToEvents(final Object subscriber) {
         events.register(subscriber);
     }
+    public void unsubscribeFromEvents(final Object subscriber) {
+        events.unregister(subscriber);
+    }
 
     public GameRules getRules() {
         return rules;
@@ -699,7 +803,7 @@ public class Game {
                 onePlayerHasTimeShifted = false;
             }
             
-            CardRarity anteRarity = validRarities.get(new Random().nextInt(validRarities.size()));
+            CardRarity anteRarity = validRarities.get(MyRandom.getRandom().nextInt(validRarities.size()));
             
             System.out.println("Rarity chosen for ante: " + anteRarity.name());
             
@@ -729,7 +833,7 @@ public class Game {
                 library.removeAll((Collection<?>)toRemove);
                 
                 if (library.size() > 0) { //Make sure that matches were found. If not, use the original method to choose antes
-                    Card ante = library.get(new Random().nextInt(library.size()));
+                    Card ante = library.get(MyRandom.getRandom().nextInt(library.size()));
                     anteed.put(player, ante);
                 } else {
                     chooseRandomCardsForAnte(player, anteed);
@@ -26,8 +26,10 @@ import forge.GameCommand;
 import forge.card.CardStateName;
 import forge.card.CardType;
 import forge.game.ability.AbilityFactory;
+import forge.game.ability.AbilityKey;
 import forge.game.ability.AbilityUtils;
 import forge.game.ability.ApiType;
+import forge.game.ability.RunParams;
 import forge.game.ability.effects.AttachEffect;
 import forge.game.card.Card;
 import forge.game.card.CardCollection;
@@ -58,6 +60,7 @@ import forge.item.PaperCard;
 import forge.util.Aggregates;
 import forge.util.CollectionSuppliers;
 import forge.util.Expressions;
+import forge.util.MyRandom;
 import forge.util.collect.FCollection;
 import forge.util.collect.FCollectionView;
 import forge.util.ThreadUtil;
@@ -69,7 +72,6 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.LinkedList;
@@ -88,6 +90,11 @@ public class GameAction {
     private final Game game;
 
     private boolean holdCheckingStaticAbilities = false;
+    private int staticAbilitiesVersion = -1;
+    private boolean staticAbilitiesInvalid = true;
+    // the changes made to the zones each continuous ability depends on by the time it was last
+    // applied, for the abilities that depend on nothing else, see StaticAbility#getZonesDependedOn
+    private Map<StaticAbility, Integer> zoneChangesPerAbility = Maps.newHashMap();
 
     public GameAction(Game game0) {
         game = game0;
@@ -211,12 +218,12 @@ public class GameAction {
                 copied.getOwner().addInboundToken(copied);
             }
 
-            HashMap<String, Object> repParams = new HashMap<String, Object>();
-            repParams.put("Event", "Moved");
-            repParams.put("Affected", copied);
-            repParams.put("CardLKI", lastKnownInfo);
-            repParams.put("Origin", zoneFrom != null ? zoneFrom.getZoneType() : null);
-            repParams.put("Destination", zoneTo.getZoneType());
+            RunParams repParams = new RunParams();
+            repParams.put(AbilityKey.Event, "Moved");
+            repParams.put(AbilityKey.Affected, copied);
+            repParams.put(AbilityKey.CardLKI, lastKnownInfo);
+            repParams.put(AbilityKey.Origin, zoneFrom != null ? zoneFrom.getZoneType() : null);
+            repParams.put(AbilityKey.Destination, zoneTo.getZoneType());
 
             ReplacementResult repres = game.getReplacementHandler().run(repParams);
             if (repres != ReplacementResult.NotReplaced) {
@@ -288,17 +295,17 @@ public class GameAction {
         // play the change zone sound
         game.fireEvent(new GameEventCardChangeZone(c, zoneFrom, zoneTo));
 
-        final HashMap<String, Object> runParams = new HashMap<String, Object>();
-        runParams.put("Card", lastKnownInfo);
-        runParams.put("Origin", zoneFrom != null ? zoneFrom.getZoneType().name() : null);
-        runParams.put("Destination", zoneTo.getZoneType().name());
-        runParams.put("SpellAbilityStackInstance", game.stack.peek());
-        runParams.put("IndividualCostPaymentInstance", game.costPaymentStack.peek());
+        final RunParams runParams = new RunParams();
+        runParams.put(AbilityKey.Card, lastKnownInfo);
+        runParams.put(AbilityKey.Origin, zoneFrom != null ? zoneFrom.getZoneType().name() : null);
+        runParams.put(AbilityKey.Destination, zoneTo.getZoneType().name());
+        runParams.put(AbilityKey.SpellAbilityStackInstance, game.stack.peek());
+        runParams.put(AbilityKey.IndividualCostPaymentInstance, game.costPaymentStack.peek());
         game.getTriggerHandler().runTrigger(TriggerType.ChangesZone, runParams, false);
         if (zoneFrom != null && zoneFrom.is(ZoneType.Battlefield)) {
-            final HashMap<String, Object> runParams2 = new HashMap<String, Object>();
-            runParams2.put("Card", lastKnownInfo);
-            runParams2.put("OriginalController", zoneFrom.getPlayer());
+            final RunParams runParams2 = new RunParams();
+            runParams2.put(AbilityKey.Card, lastKnownInfo);
+            runParams2.put(AbilityKey.OriginalController, zoneFrom.getPlayer());
             game.getTriggerHandler().runTrigger(TriggerType.ChangesController, runParams2, false);
         }
         // AllZone.getStack().chooseOrderOfSimultaneousStackEntryAll();
@@ -518,9 +525,9 @@ public class GameAction {
         c.setTurnInZone(tiz);
         c.setCameUnderControlSinceLastUpkeep(true);
 
-        final HashMap<String, Object> runParams = new HashMap<String, Object>();
-        runParams.put("Card", c);
-        runParams.put("OriginalController", original);
+        final RunParams runParams = new RunParams();
+        runParams.put(AbilityKey.Card, c);
+        runParams.put(AbilityKey.OriginalController, original);
         game.getTriggerHandler().runTrigger(TriggerType.ChangesController, runParams, false);
 
         game.getTriggerHandler().clearSuppression(TriggerType.ChangesZone);
@@ -637,15 +644,59 @@ public class GameAction {
             return;
         }
 
-        // remove old effects
-        game.getStaticEffects().clearStaticEffects(affectedCards);
-        game.getTriggerHandler().cleanUpTemporaryTriggers();
-        game.getReplacementHandler().cleanUpTemporaryReplacements();
+        // static abilities only have to be applied again if something changed since they were last applied,
+        // as they would be applied the same way to the same game
+        if (staticAbilitiesInvalid || staticAbilitiesVersion != game.getStateVersion()) {
+            final boolean reapplyAll = staticAbilitiesInvalid;
+            staticAbilitiesInvalid = false;
+            applyStaticAbilities(affectedCards, reapplyAll);
+        }
 
-        for (final Player p : game.getPlayers()) {
-            p.getManaPool().restoreColorReplacements();
+        // Exclude cards in hidden zones from update
+        Iterator<Card> it = affectedCards.iterator();
+        while (it.hasNext()) {
+            Card c = it.next();
+            if (c.isInZone(ZoneType.Library)) {
+                it.remove();
+            }
+        }
+
+        for (Player p : game.getPlayers()) {
+            for (Card c : p.getCardsIn(ZoneType.Battlefield).threadSafeIterable()) {
+                if (!c.getController().equals(p)) {
+                    controllerChangeZoneCorrection(c);
+                    affectedCards.add(c);
+                }
+                if (c.isCreature() && c.isPaired()) {
+                    Card partner = c.getPairedWith();
+                    if (!partner.isCreature() || c.getController() != partner.getController() || !c.isInZone(ZoneType.Battlefield)) {
+                        c.setPairedWith(null);
+                        partner.setPairedWith(null);
+                        affectedCards.add(c);
+                    }
+                }
+            }
         }
 
+        final RunParams runParams = new RunParams();
+        game.getTriggerHandler().runTrigger(TriggerType.Always, runParams, false);
+
+        if (runEvents && !affectedCards.isEmpty()) {
+            game.fireEvent(new GameEventCardStatsChanged(affectedCards));
+        }
+    }
+
+    /**
+     * Makes the next check of static abilities apply all of them again, even
+     * if the game hasn't changed, for changes to what they depend on that
+     * aren't seen in the game's views or events, such as abilities or SVars
+     * being added to a card.
+     */
+    public final void invalidateStaticAbilities() {
+        staticAbilitiesInvalid = true;
+    }
+
+    private void applyStaticAbilities(final Set<Card> affectedCards, final boolean reapplyAll) {
         // search for cards with static abilities
         final FCollection<StaticAbility> staticAbilities = new FCollection<StaticAbility>();
         final CardCollection staticList = new CardCollection();
@@ -677,9 +728,22 @@ public class GameAction {
         };
         Collections.sort(staticAbilities, comp);
 
+        // remove old effects, but keep those that would be applied the same way again
+        final Set<StaticAbility> unchanged = reapplyAll ? Collections.<StaticAbility>emptySet() : findUnchangedStaticAbilities(staticAbilities);
+        game.getStaticEffects().clearStaticEffects(affectedCards, unchanged);
+        game.getTriggerHandler().cleanUpTemporaryTriggers();
+        game.getReplacementHandler().cleanUpTemporaryReplacements();
+
+        for (final Player p : game.getPlayers()) {
+            p.getManaPool().restoreColorReplacements();
+        }
+
         final Map<StaticAbility, CardCollectionView> affectedPerAbility = Maps.newHashMap();
         for (final StaticAbilityLayer layer : StaticAbilityLayer.CONTINUOUS_LAYERS) {
             for (final StaticAbility stAb : staticAbilities) {
+                if (unchanged.contains(stAb)) {
+                    continue;
+                }
                 final CardCollectionView previouslyAffected = affectedPerAbility.get(stAb);
                 final CardCollectionView affectedHere;
                 if (previouslyAffected == null) {
@@ -702,6 +766,17 @@ public class GameAction {
 
         final CardCollection lands = CardLists.filter(game.getCardsIn(ZoneType.Battlefield), CardPredicates.Presets.LANDS);
         GameActionUtil.grantBasicLandsManaAbilities(lands);
+        staticAbilitiesVersion = game.getStateVersion();
+
+        // only now, as removing and applying effects changes the cards in the zones as well
+        final Map<StaticAbility, Integer> zoneChanges = Maps.newHashMap();
+        for (final StaticAbility stAb : staticAbilities) {
+            final Set<ZoneType> zones = stAb.getZonesDependedOn();
+            if (zones != null) {
+                zoneChanges.put(stAb, countZoneChanges(zones));
+            }
+        }
+        zoneChangesPerAbility = zoneChanges;
 
         for (final Card c : staticList) {
             for (int i = 0; i < c.getStaticCommandList().size(); i++) {
@@ -722,38 +797,59 @@ public class GameAction {
                 }
             }
         }
-        // Exclude cards in hidden zones from update
-        Iterator<Card> it = affectedCards.iterator();
-        while (it.hasNext()) {
-            Card c = it.next();
-            if (c.isInZone(ZoneType.Library)) {
-                it.remove();
+    }
+
+    /**
+     * Finds the continuous abilities that would be applied the same way as
+     * when they were last applied: those that depend on nothing but the cards
+     * in some zones, if nothing in these zones changed since. That excludes
+     * the abilities whose cards other abilities that are applied again can
+     * change in a way they look at, and those that share their host's
+     * timestamp (by which their effects are removed) with one.
+     */
+    private Set<StaticAbility> findUnchangedStaticAbilities(final List<StaticAbility> staticAbilities) {
+        final Map<StaticAbility, Set<ZoneType>> unchanged = Maps.newHashMap();
+        for (final StaticAbility stAb : staticAbilities) {
+            final Integer lastZoneChanges = zoneChangesPerAbility.get(stAb);
+            final Set<ZoneType> zones = lastZoneChanges == null ? null : stAb.getZonesDependedOn();
+            if (zones != null && lastZoneChanges == countZoneChanges(zones)) {
+                unchanged.put(stAb, zones);
             }
         }
 
-        for (Player p : game.getPlayers()) {
-            for (Card c : p.getCardsIn(ZoneType.Battlefield).threadSafeIterable()) {
-                if (!c.getController().equals(p)) {
-                    controllerChangeZoneCorrection(c);
-                    affectedCards.add(c);
-                }
-                if (c.isCreature() && c.isPaired()) {
-                    Card partner = c.getPairedWith();
-                    if (!partner.isCreature() || c.getController() != partner.getController() || !c.isInZone(ZoneType.Battlefield)) {
-                        c.setPairedWith(null);
-                        partner.setPairedWith(null);
-                        affectedCards.add(c);
-                    }
+        final LinkedList<StaticAbility> reapplied = new LinkedList<StaticAbility>();
+        for (final StaticAbility stAb : staticAbilities) {
+            if (!unchanged.containsKey(stAb)) {
+                reapplied.add(stAb);
+            }
+        }
+        while (!reapplied.isEmpty() && !unchanged.isEmpty()) {
+            final StaticAbility stAb = reapplied.removeFirst();
+            // one that neither had effects nor will have any can't change anything
+            if (!game.getStaticEffects().hasStaticEffect(stAb) && !stAb.isHostInEffectZone()) {
+                continue;
+            }
+            final long timestamp = stAb.getHostCard().getTimestamp();
+            final Set<ZoneType> affectedZones = stAb.changesOnlyPowerAndToughness() ? null : stAb.getAffectedZones();
+            final Iterator<Entry<StaticAbility, Set<ZoneType>>> it = unchanged.entrySet().iterator();
+            while (it.hasNext()) {
+                final Entry<StaticAbility, Set<ZoneType>> e = it.next();
+                if (e.getKey().getHostCard().getTimestamp() == timestamp
+                        || (affectedZones != null && !Collections.disjoint(affectedZones, e.getValue()))) {
+                    reapplied.add(e.getKey());
+                    it.remove();
                 }
             }
         }
+        return unchanged.keySet();
+    }
 
-        final HashMap<String, Object> runParams = new HashMap<String, Object>();
-        game.getTriggerHandler().runTrigger(TriggerType.Always, runParams, false);
-
-        if (runEvents && !affectedCards.isEmpty()) {
-            game.fireEvent(new GameEventCardStatsChanged(affectedCards));
+    private int countZoneChanges(final Set<ZoneType> zones) {
+        int changes = 0;
+        for (final ZoneType zone : zones) {
+            changes += game.getTracker().getChangeCount(zone);
         }
+        return changes;
     }
 
     public final void checkStateEffects(final boolean runEvents) {
@@ -1280,11 +1376,11 @@ public class GameAction {
         }
 
         // Replacement effects
-        final HashMap<String, Object> repRunParams = new HashMap<String, Object>();
-        repRunParams.put("Event", "Destroy");
-        repRunParams.put("Source", sa);
-        repRunParams.put("Card", c);
-        repRunParams.put("Affected", c);
+        final RunParams repRunParams = new RunParams();
+        repRunParams.put(AbilityKey.Event, "Destroy");
+        repRunParams.put(AbilityKey.Source, sa);
+        repRunParams.put(AbilityKey.Card, c);
+        repRunParams.put(AbilityKey.Affected, c);
 
         if (game.getReplacementHandler().run(repRunParams) != ReplacementResult.NotReplaced) {
             return false;
@@ -1299,9 +1395,9 @@ public class GameAction {
         game.fireEvent(new GameEventCardDestroyed());
 
         // Run triggers
-        final HashMap<String, Object> runParams = new HashMap<String, Object>();
-        runParams.put("Card", c);
-        runParams.put("Causer", activator);
+        final RunParams runParams = new RunParams();
+        runParams.put(AbilityKey.Card, c);
+        runParams.put(AbilityKey.Causer, activator);
         game.getTriggerHandler().runTrigger(TriggerType.Destroyed, runParams, false);
 
         final Card sacrificed = sacrificeDestroy(c);
@@ -1453,7 +1549,7 @@ public class GameAction {
             checkStateEffects(true); // why?
 
             // Run Trigger beginning of the game
-            final HashMap<String, Object> runParams = new HashMap<String, Object>();
+            final RunParams runParams = new RunParams();
             game.getTriggerHandler().runTrigger(TriggerType.NewGame, runParams, true);
             //</THIS CODE WILL WORK WITH PHASE = NULL>
 
@@ -1491,7 +1587,7 @@ public class GameAction {
 
         if (!powerPlayers.isEmpty()) {
             List<Player> players = Lists.newArrayList(powerPlayers);
-            Collections.shuffle(players);
+            Collections.shuffle(players, MyRandom.getRandom());
             return players.get(0);
         }
 
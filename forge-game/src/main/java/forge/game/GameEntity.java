@@ -175,6 +175,15 @@ public abstract class GameEntity extends GameObject implements IIdentifiable {
             enchantedBy = new CardCollection();
         }
         if (enchantedBy.add(c)) {
+            final UndoJournal journal = getUndoJournal();
+            if (journal != null) {
+                journal.record(new UndoJournal.Entry() {
+                    @Override
+                    public void undo() {
+                        removeEnchantedBy(c);
+                    }
+                });
+            }
             getView().updateEnchantedBy(this);
             getGame().fireEvent(new GameEventCardAttachment(c, null, this, AttachMethod.Enchant));
         }
@@ -183,6 +192,15 @@ public abstract class GameEntity extends GameObject implements IIdentifiable {
         if (enchantedBy == null) { return; }
 
         if (enchantedBy.remove(c)) {
+            final UndoJournal journal = getUndoJournal();
+            if (journal != null) {
+                journal.record(new UndoJournal.Entry() {
+                    @Override
+                    public void undo() {
+                        addEnchantedBy(c);
+                    }
+                });
+            }
             if (enchantedBy.isEmpty()) {
                 enchantedBy = null;
             }
@@ -216,9 +234,33 @@ public abstract class GameEntity extends GameObject implements IIdentifiable {
     }
 
     public void setCounters(final CounterType counterType, final Integer num) {
+        recordCountersForUndo();
         counters.put(counterType, num);
     }
 
+    /**
+     * Records the current counters in the game's undo journal (if any), to be
+     * called before they are changed.
+     */
+    protected final void recordCountersForUndo() {
+        final UndoJournal journal = getUndoJournal();
+        if (journal == null) {
+            return;
+        }
+        final Map<CounterType, Integer> oldCounters = new TreeMap<>(counters);
+        journal.record(new UndoJournal.Entry() {
+            @Override
+            public void undo() {
+                setCounters(oldCounters);
+            }
+        });
+    }
+
+    protected final UndoJournal getUndoJournal() {
+        final Game game = getGame();
+        return game == null ? null : game.getUndoJournal();
+    }
+
     abstract public void setCounters(final Map<CounterType, Integer> allCounters);
 
     abstract public boolean canReceiveCounters(final CounterType type);
@@ -1,21 +1,60 @@
 package forge.game;
 
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 import forge.trackable.TrackableObject;
 
+/**
+ * Finds the game objects behind their views, by id.
+ * <p>
+ * Ids are handed out in sequence, so the objects are kept in pages of an
+ * array rather than in a map, and looking one up involves no boxing or
+ * hashing. The table only spans the pages between the lowest and the highest
+ * id, as spell ability ids are shared by all games and can start high.
+ * <p>
+ * The game thread adds objects while the UI thread looks them up, so lookups
+ * read a published copy of the table and don't lock.
+ */
 public class GameEntityCache<Entity extends IIdentifiable, View extends TrackableObject> {
-    private HashMap<Integer, Entity> entityCache = new HashMap<Integer, Entity>();
- 
-    public void put(Integer id, Entity entity) {
-        entityCache.put(id, entity);
+    private static final int PAGE_BITS = 8;
+    private static final int PAGE_SIZE = 1 << PAGE_BITS;
+    private static final int PAGE_MASK = PAGE_SIZE - 1;
+
+    private volatile Pages pages = null;
+
+    public synchronized void put(int id, Entity entity) {
+        if (id < 0) {
+            throw new IllegalArgumentException("Cannot cache a game object with negative id " + id);
+        }
+        final int pageIndex = id >>> PAGE_BITS;
+        Pages p = pages;
+        if (p == null || pageIndex < p.first || pageIndex >= p.first + p.table.length) {
+            p = Pages.including(p, pageIndex);
+            pages = p;
+        }
+        AtomicReferenceArray<Object> page = p.table[pageIndex - p.first];
+        if (page == null) {
+            page = new AtomicReferenceArray<Object>(PAGE_SIZE);
+            p.table[pageIndex - p.first] = page;
+        }
+        page.set(id & PAGE_MASK, entity);
+    }
+
+    @SuppressWarnings("unchecked")
+    public Entity get(int id) {
+        final Pages p = pages;
+        if (p == null || id < 0) { return null; }
+        final int pageIndex = (id >>> PAGE_BITS) - p.first;
+        if (pageIndex < 0 || pageIndex >= p.table.length) { return null; }
+        final AtomicReferenceArray<Object> page = p.table[pageIndex];
+        return page == null ? null : (Entity) page.get(id & PAGE_MASK);
     }
 
     public Entity get(View entityView) {
         if (entityView == null) { return null; }
-        return entityCache.get(entityView.getId());
+        return get(entityView.getId());
     }
 
     public void addToList(Iterable<View> views, List<Entity> list) {
@@ -33,7 +72,38 @@ public class GameEntityCache<Entity extends IIdentifiable, View extends Trackabl
         return list;
     }
 
-    public void clear() {
-        entityCache.clear();
+    public synchronized void clear() {
+        pages = null;
+    }
+
+    /**
+     * The pages from {@code first} on. A page is added to the table after the
+     * table is published, which is safe as pages are only ever set once.
+     */
+    private static final class Pages {
+        private final int first;
+        private final AtomicReferenceArray<Object>[] table;
+
+        @SuppressWarnings({ "unchecked", "rawtypes" })
+        private Pages(final int first0, final int length) {
+            first = first0;
+            table = new AtomicReferenceArray[length];
+        }
+
+        private static Pages including(final Pages old, final int pageIndex) {
+            if (old == null) {
+                return new Pages(pageIndex, 4);
+            }
+            final int oldLast = old.first + old.table.length - 1;
+            final Pages grown;
+            if (pageIndex < old.first) {
+                // lower ids than any seen so far, rare enough not to leave room for more
+                grown = new Pages(pageIndex, oldLast - pageIndex + 1);
+            } else {
+                grown = new Pages(old.first, Math.max(pageIndex - old.first + 1, old.table.length * 2));
+            }
+            System.arraycopy(old.table, 0, grown.table, old.first - grown.first, old.table.length);
+            return grown;
+        }
     }
 }
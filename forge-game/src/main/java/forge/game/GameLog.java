@@ -59,6 +59,17 @@ public class GameLog extends Observable implements Serializable {
         this.notifyObservers();
     }
 
+    public int size() {
+        return log.size();
+    }
+
+    /**
+     * Gets the log entries added from the given index on, oldest first.
+     */
+    public List<GameLogEntry> getEntriesFrom(final int from) {
+        return new ArrayList<GameLogEntry>(log.subList(from, log.size()));
+    }
+
     /**
      * Gets the log entries below a certain level as a list.
      *
@@ -20,12 +20,12 @@ import forge.game.spellability.StackItemView;
 import forge.game.zone.MagicStack;
 import forge.trackable.TrackableObject;
 import forge.trackable.TrackableProperty;
+import forge.trackable.Tracker;
 import forge.util.collect.FCollectionView;
 
 public class GameView extends TrackableObject {
     private static final long serialVersionUID = 8522884512960961528L;
 
-    private CombatView combatView;
     private final transient Game game; //TODO: Remove this when possible before network support added
 
     public GameView(final Game game0) {
@@ -46,6 +46,12 @@ public class GameView extends TrackableObject {
         set(TrackableProperty.Players, PlayerView.getCollection(game.getPlayers()));
     }
 
+    //for creating the game view on a network client, its properties are sent separately
+    public GameView(final int id0, final Tracker tracker) {
+        super(id0, tracker);
+        game = null;
+    }
+
     public FCollectionView<PlayerView> getPlayers() {
         return get(TrackableProperty.Players);
     }
@@ -134,15 +140,15 @@ public class GameView extends TrackableObject {
     }
 
     public CombatView getCombat() {
-        return combatView;
+        return get(TrackableProperty.Combat);
     }
     void updateCombat(Combat combat) {
         if (combat == null) {
-            combatView = null;
+            set(TrackableProperty.Combat, null);
             return;
         }
 
-        combatView = new CombatView(combat.getAttackingPlayer().getGame().getTracker());
+        final CombatView combatView = new CombatView(combat.getAttackingPlayer().getGame().getTracker());
         for (final AttackingBand b : combat.getAttackingBands()) {
             if (b == null) continue;
             final GameEntity defender = combat.getDefenderByAttacker(b);
@@ -154,6 +160,7 @@ public class GameView extends TrackableObject {
                     isBlocked ? CardView.getCollection(blockers) : null,
                     CardView.getCollection(blockers));
         }
+        set(TrackableProperty.Combat, combatView);
     }
 
     public void serialize() {
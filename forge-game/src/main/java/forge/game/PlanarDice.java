@@ -1,9 +1,10 @@
 package forge.game;
 
+import forge.game.ability.AbilityKey;
+import forge.game.ability.RunParams;
 import forge.game.player.Player;
 import forge.game.trigger.TriggerType;
 
-import java.util.HashMap;
 
 import com.google.common.collect.ImmutableList;
 
@@ -36,9 +37,9 @@ public enum PlanarDice {
             trigRes = Chaos;
         }
         
-        HashMap<String,Object> runParams = new HashMap<String,Object>();
-        runParams.put("Player", roller);
-        runParams.put("Result", trigRes);
+        RunParams runParams = new RunParams();
+        runParams.put(AbilityKey.Player, roller);
+        runParams.put(AbilityKey.Result, trigRes);
         roller.getGame().getTriggerHandler().runTrigger(TriggerType.PlanarDice, runParams,false);
     
         
@@ -17,7 +17,9 @@
  */
 package forge.game;
 
+import java.util.Collections;
 import java.util.EnumSet;
+import java.util.Iterator;
 import java.util.Map;
 import java.util.Set;
 
@@ -37,22 +39,64 @@ import forge.game.staticability.StaticAbility;
  */
 public class StaticEffects {
 
+    private final Game game;
+
     // **************** StaticAbility system **************************
     private final Map<StaticAbility, StaticEffect> staticEffects = Maps.newHashMap();
     //Global rule changes
     private final Set<GlobalRuleChange> ruleChanges = EnumSet.noneOf(GlobalRuleChange.class);
 
+    public StaticEffects(final Game game0) {
+        game = game0;
+    }
+
     public final void clearStaticEffects(final Set<Card> affectedCards) {
+        clearStaticEffects(affectedCards, Collections.<StaticAbility>emptySet());
+    }
+
+    /**
+     * Remove the effects of all static abilities except the given ones, which
+     * mustn't change global rules.
+     */
+    public final void clearStaticEffects(final Set<Card> affectedCards, final Set<StaticAbility> kept) {
+        final UndoJournal journal = game.getUndoJournal();
+        if (journal != null) {
+            // the effects themselves are left untouched by remove(), so they can simply be put back
+            final Map<StaticAbility, StaticEffect> oldEffects = Maps.newHashMap(staticEffects);
+            final Set<GlobalRuleChange> oldRuleChanges = EnumSet.copyOf(ruleChanges);
+            journal.record(new UndoJournal.Entry() {
+                @Override
+                public void undo() {
+                    staticEffects.clear();
+                    staticEffects.putAll(oldEffects);
+                    ruleChanges.clear();
+                    ruleChanges.addAll(oldRuleChanges);
+                }
+            });
+        }
         ruleChanges.clear();
 
-        // remove all static effects
-        for (final StaticEffect se : staticEffects.values()) {
-            Iterables.addAll(affectedCards, se.remove());
+        // remove the static effects
+        final Iterator<Map.Entry<StaticAbility, StaticEffect>> it = staticEffects.entrySet().iterator();
+        while (it.hasNext()) {
+            final Map.Entry<StaticAbility, StaticEffect> e = it.next();
+            if (!kept.contains(e.getKey())) {
+                Iterables.addAll(affectedCards, e.getValue().remove());
+                it.remove();
+            }
         }
-        this.staticEffects.clear();
     }
 
     public void setGlobalRuleChange(final GlobalRuleChange change) {
+        final UndoJournal journal = game.getUndoJournal();
+        if (journal != null && !ruleChanges.contains(change)) {
+            journal.record(new UndoJournal.Entry() {
+                @Override
+                public void undo() {
+                    ruleChanges.remove(change);
+                }
+            });
+        }
         this.ruleChanges.add(change);
     }
 
@@ -74,9 +118,26 @@ public class StaticEffects {
 
         final StaticEffect newEffect = new StaticEffect(staticAbility);
         this.staticEffects.put(staticAbility, newEffect);
+        final UndoJournal journal = game.getUndoJournal();
+        if (journal != null) {
+            journal.record(new UndoJournal.Entry() {
+                @Override
+                public void undo() {
+                    staticEffects.remove(staticAbility);
+                }
+            });
+        }
         return newEffect;
     }
 
+    /**
+     * Checks whether a static ability has been applied since its effects
+     * were last removed.
+     */
+    public final boolean hasStaticEffect(final StaticAbility staticAbility) {
+        return staticEffects.containsKey(staticAbility);
+    }
+
     public Iterable<StaticEffect> getEffects() {
         return staticEffects.values();
     }
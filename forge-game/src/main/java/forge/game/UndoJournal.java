@@ -0,0 +1,71 @@
+package forge.game;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Records how to reverse changes made to a game's cards, players, zones and
+ * stack, so that a simulation can play something out, look at the result
+ * and then put the game back the way it was without copying it.
+ * <p>
+ * A game only records changes while a journal is attached to it (see
+ * {@link Game#setUndoJournal(UndoJournal)}). Entries are undone in reverse
+ * order; changes made while rolling back are not recorded again.
+ * <p>
+ * Delayed triggers and the "until" commands registered with the phases are
+ * put back as well, but commands that were run are not taken back, so a
+ * rolled back game should not be used to play further turns.
+ */
+public class UndoJournal {
+    public interface Entry {
+        void undo();
+    }
+
+    private final List<Entry> entries = new ArrayList<Entry>();
+    private boolean rollingBack = false;
+    private Game game = null;
+
+    /** Called by the game the journal is attached to, see {@link Game#setUndoJournal}. */
+    final void attachTo(final Game game0) {
+        game = game0;
+    }
+
+    public final void record(final Entry entry) {
+        if (!rollingBack) {
+            entries.add(entry);
+        }
+    }
+
+    /**
+     * Returns a position in the journal that can later be passed to
+     * {@link #rollbackTo(int)}.
+     */
+    public final int mark() {
+        return entries.size();
+    }
+
+    public final void rollbackTo(final int mark) {
+        if (mark >= entries.size()) {
+            return;
+        }
+        rollingBack = true;
+        try {
+            for (int i = entries.size() - 1; i >= mark; i--) {
+                entries.remove(i).undo();
+            }
+        } finally {
+            rollingBack = false;
+            if (game != null) {
+                game.countRollback();
+            }
+        }
+    }
+
+    public final boolean isRollingBack() {
+        return rollingBack;
+    }
+
+    public final int size() {
+        return entries.size();
+    }
+}
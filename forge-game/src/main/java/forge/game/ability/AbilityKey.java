@@ -0,0 +1,99 @@
+package forge.game.ability;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Keys of the run parameters that are passed along with trigger and
+ * replacement events. Each constant is named after the string key used for
+ * it, so {@link RunParams} can store the values by ordinal while code that
+ * still looks them up by string keeps working.
+ */
+public enum AbilityKey {
+    AbilityMana,
+    Activator,
+    Affected,
+    AllVotes,
+    AttachSource,
+    AttachTarget,
+    Attacked,
+    AttackedTarget,
+    Attacker,
+    Attackers,
+    AttackingPlayer,
+    Blocker,
+    Blockers,
+    Card,
+    CardLKI,
+    Cards,
+    CastSA,
+    CastSACMC,
+    Cause,
+    Causer,
+    Championed,
+    Cost,
+    CostStack,
+    CounterNum,
+    CounterType,
+    CumulativeUpkeepPaid,
+    CurrentStormCount,
+    DamageAmount,
+    DamageSource,
+    DamageSources,
+    DamageTarget,
+    DamageTargets,
+    Defender,
+    DefendingPlayer,
+    Destination,
+    Devoured,
+    EchoPaid,
+    EffectOnly,
+    Equipment,
+    Event,
+    Exploited,
+    Fighter,
+    FirstTime,
+    IndividualCostPaymentInstance,
+    IsCombat,
+    IsCombatDamage,
+    IsMadness,
+    LifeAmount,
+    LifeGained,
+    Mana,
+    NewCounterAmount,
+    Num,
+    NumBlockers,
+    Number,
+    Origin,
+    OriginalController,
+    OtherAttackers,
+    PayingMana,
+    Phase,
+    Player,
+    Prevention,
+    Produced,
+    Result,
+    Scheme,
+    Source,
+    SourceSA,
+    SpellAbilityStackInstance,
+    Target,
+    TgtSA,
+    Transformer,
+    Won;
+
+    private static final Map<String, AbilityKey> byName = new HashMap<String, AbilityKey>();
+    static {
+        for (final AbilityKey key : values()) {
+            byName.put(key.name(), key);
+        }
+    }
+
+    /**
+     * Returns the key with the given name, or null if there is none.
+     * Unlike {@link #valueOf(String)}, this doesn't throw for unknown names.
+     */
+    public static AbilityKey fromString(final String name) {
+        return byName.get(name);
+    }
+}
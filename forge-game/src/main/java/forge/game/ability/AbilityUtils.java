@@ -343,7 +343,8 @@ public class AbilityUtils {
         int multiplier = startsWithMinus ? -1 : 1;
 
         // return result soon for plain numbers
-        if (StringUtils.isNumeric(amount)) { return Integer.parseInt(amount) * multiplier; }
+        AmountExpression expr = AmountExpression.compile(amount);
+        if (expr.isNumber()) { return expr.getNumber() * multiplier; }
 
         // Try to fetch variable, try ability first, then card.
         String svarval = null;
@@ -377,20 +378,18 @@ public class AbilityUtils {
         }
 
         // Handle numeric constant coming in svar value
-        if (StringUtils.isNumeric(svarval)) {
-            return multiplier * Integer.parseInt(svarval);
+        expr = AmountExpression.compile(svarval);
+        if (expr.isNumber()) {
+            return multiplier * expr.getNumber();
         }
 
-        // Parse Object$Property string
-        final String[] calcX = svarval.split("\\$", 2);
-
-        // Incorrect parses mean zero.
-        if (calcX.length == 1 || calcX[1].equals("none")) {
+        // Incorrect parses of the Object$Property string mean zero.
+        if (expr.getObject() == null) {
             return 0;
         }
 
         // modify amount string for text changes
-        calcX[1] = AbilityUtils.applyAbilityTextChangeEffects(calcX[1], ability);
+        final String[] calcX = { expr.getObject(), AbilityUtils.applyAbilityTextChangeEffects(expr.getProperty(), ability) };
 
         if (calcX[0].startsWith("Count")) {
             return AbilityUtils.xCount(card, calcX[1], ability) * multiplier;
@@ -494,7 +493,7 @@ public class AbilityUtils {
             return CardFactoryUtil.handlePaid(list, calcX[1], card) * multiplier;
         }
 
-        if (calcX[0].matches("Enchanted")) {
+        if (calcX[0].equals("Enchanted")) {
             // Add whole Enchanted list to handlePaid
             final CardCollection list = new CardCollection();
             if (card.isEnchanting()) {
@@ -1458,6 +1457,10 @@ public class AbilityUtils {
      */
     public static int xCount(final Card c, final String s, final CardTraitBase ctb) {
         final String s2 = AbilityUtils.applyAbilityTextChangeEffects(s, ctb);
+        if (ctb == null || !CountExpression.compile(s2).isAbilitySpecific()) {
+            return CardFactoryUtil.xCount(c, s2);
+        }
+
         final String[] l = s2.split("/");
         final String expr = CardFactoryUtil.extractOperators(s2);
 
@@ -0,0 +1,62 @@
+package forge.game.ability;
+
+import org.apache.commons.lang3.StringUtils;
+
+import forge.util.ParseCache;
+
+/**
+ * An amount or SVar value as read by {@link AbilityUtils#calculateAmount},
+ * either a plain number or an "Object$Property" string like
+ * "Count$CardsInYourHand", split up once and cached by its string.
+ */
+final class AmountExpression {
+    private static final ParseCache<AmountExpression> cache = new ParseCache<AmountExpression>(20000) {
+        @Override
+        protected AmountExpression parse(final String amount) {
+            return new AmountExpression(amount);
+        }
+    };
+
+    private final Integer number;
+    private final String object;
+    private final String property;
+
+    static AmountExpression compile(final String amount) {
+        return cache.get(amount);
+    }
+
+    private AmountExpression(final String amount) {
+        if (StringUtils.isNumeric(amount)) {
+            number = Integer.valueOf(amount);
+            object = property = null;
+            return;
+        }
+        number = null;
+
+        final String[] calcX = amount.split("\\$", 2);
+        // Incorrect parses mean zero.
+        if (calcX.length == 1 || calcX[1].equals("none")) {
+            object = property = null;
+        } else {
+            object = calcX[0];
+            property = calcX[1];
+        }
+    }
+
+    boolean isNumber() {
+        return number != null;
+    }
+
+    int getNumber() {
+        return number;
+    }
+
+    /** @return the part before the "$", or null if there isn't anything to calculate */
+    String getObject() {
+        return object;
+    }
+
+    String getProperty() {
+        return property;
+    }
+}
@@ -0,0 +1,219 @@
+package forge.game.ability;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * The run parameters of a trigger or replacement event.
+ * <p>
+ * Values for the keys listed in {@link AbilityKey} are kept in a plain
+ * array indexed by the key's ordinal, so filling in the parameters of an
+ * event costs a single allocation and no hashing. The class is still a
+ * {@code Map<String, Object>}, so triggers, replacement effects and AI code
+ * that look parameters up by string keep working unchanged; keys that are
+ * not in {@link AbilityKey} are kept in a separate map.
+ */
+public final class RunParams extends AbstractMap<String, Object> {
+    private static final AbilityKey[] KEYS = AbilityKey.values();
+    // Stands in for null values, so that they can be told apart from missing ones.
+    private static final Object NULL = new Object();
+
+    private final Object[] values = new Object[KEYS.length];
+    private Map<String, Object> others;
+    private int count;
+
+    public RunParams() {
+    }
+
+    public RunParams(final Map<String, ?> params) {
+        putAll(params);
+    }
+
+    /**
+     * Look a parameter up by its key: directly if the parameters are a
+     * {@code RunParams}, and by the key's name in a map built by code that
+     * still uses strings, such as the AI predicting what would trigger.
+     */
+    public static Object get(final Map<String, ?> params, final AbilityKey key) {
+        if (params instanceof RunParams) {
+            return ((RunParams) params).get(key);
+        }
+        return params.get(key.name());
+    }
+
+    public static boolean containsKey(final Map<String, ?> params, final AbilityKey key) {
+        if (params instanceof RunParams) {
+            return ((RunParams) params).containsKey(key);
+        }
+        return params.containsKey(key.name());
+    }
+
+    public Object get(final AbilityKey key) {
+        final Object value = values[key.ordinal()];
+        return value == NULL ? null : value;
+    }
+
+    public boolean containsKey(final AbilityKey key) {
+        return values[key.ordinal()] != null;
+    }
+
+    public Object put(final AbilityKey key, final Object value) {
+        final Object old = values[key.ordinal()];
+        values[key.ordinal()] = value == null ? NULL : value;
+        if (old == null) {
+            count++;
+            return null;
+        }
+        return old == NULL ? null : old;
+    }
+
+    public Object remove(final AbilityKey key) {
+        final Object old = values[key.ordinal()];
+        if (old == null) {
+            return null;
+        }
+        values[key.ordinal()] = null;
+        count--;
+        return old == NULL ? null : old;
+    }
+
+    @Override
+    public Object get(final Object key) {
+        final AbilityKey abilityKey = toAbilityKey(key);
+        if (abilityKey != null) {
+            return get(abilityKey);
+        }
+        return others == null ? null : others.get(key);
+    }
+
+    @Override
+    public boolean containsKey(final Object key) {
+        final AbilityKey abilityKey = toAbilityKey(key);
+        if (abilityKey != null) {
+            return containsKey(abilityKey);
+        }
+        return others != null && others.containsKey(key);
+    }
+
+    @Override
+    public Object put(final String key, final Object value) {
+        final AbilityKey abilityKey = AbilityKey.fromString(key);
+        if (abilityKey != null) {
+            return put(abilityKey, value);
+        }
+        if (others == null) {
+            others = new HashMap<String, Object>();
+        }
+        return others.put(key, value);
+    }
+
+    @Override
+    public Object remove(final Object key) {
+        final AbilityKey abilityKey = toAbilityKey(key);
+        if (abilityKey != null) {
+            return remove(abilityKey);
+        }
+        return others == null ? null : others.remove(key);
+    }
+
+    @Override
+    public int size() {
+        return count + (others == null ? 0 : others.size());
+    }
+
+    @Override
+    public void clear() {
+        for (int i = 0; i < values.length; i++) {
+            values[i] = null;
+        }
+        count = 0;
+        others = null;
+    }
+
+    @Override
+    public Set<Map.Entry<String, Object>> entrySet() {
+        return new AbstractSet<Map.Entry<String, Object>>() {
+            @Override
+            public Iterator<Map.Entry<String, Object>> iterator() {
+                return new EntryIterator();
+            }
+
+            @Override
+            public int size() {
+                return RunParams.this.size();
+            }
+        };
+    }
+
+    private static AbilityKey toAbilityKey(final Object key) {
+        return key instanceof String ? AbilityKey.fromString((String) key) : null;
+    }
+
+    private final class EntryIterator implements Iterator<Map.Entry<String, Object>> {
+        private int next = -1;
+        private int current = -1;
+        private Iterator<Map.Entry<String, Object>> othersIterator;
+
+        private EntryIterator() {
+            advance();
+        }
+
+        private void advance() {
+            do {
+                next++;
+            } while (next < values.length && values[next] == null);
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (next < values.length) {
+                return true;
+            }
+            if (othersIterator == null && others != null) {
+                othersIterator = others.entrySet().iterator();
+            }
+            return othersIterator != null && othersIterator.hasNext();
+        }
+
+        @Override
+        public Map.Entry<String, Object> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            if (next < values.length) {
+                current = next;
+                advance();
+                final AbilityKey key = KEYS[current];
+                return new AbstractMap.SimpleEntry<String, Object>(key.name(), get(key)) {
+                    private static final long serialVersionUID = 1L;
+
+                    @Override
+                    public Object setValue(final Object value) {
+                        put(key, value);
+                        return super.setValue(value);
+                    }
+                };
+            }
+            current = values.length;
+            return othersIterator.next();
+        }
+
+        @Override
+        public void remove() {
+            if (current < 0) {
+                throw new IllegalStateException();
+            }
+            if (current < values.length) {
+                RunParams.this.remove(KEYS[current]);
+            } else {
+                othersIterator.remove();
+            }
+            current = -1;
+        }
+    }
+}
@@ -1,6 +1,8 @@
 package forge.game.ability.effects;
 
 import forge.game.Game;
+import forge.game.ability.AbilityKey;
+import forge.game.ability.RunParams;
 import forge.game.ability.SpellAbilityEffect;
 import forge.game.card.Card;
 import forge.game.card.CardFactoryUtil;
@@ -12,7 +14,6 @@ import forge.game.trigger.TriggerType;
 import org.apache.commons.lang3.StringUtils;
 
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
 
 public class BecomesBlockedEffect extends SpellAbilityEffect {
@@ -39,10 +40,10 @@ public class BecomesBlockedEffect extends SpellAbilityEffect {
                 game.getCombat().setBlocked(c, true);
                 if (!c.getDamageHistory().getCreatureGotBlockedThisCombat()) {
                     isCombatChanged = true;
-                    final HashMap<String, Object> runParams = new HashMap<String, Object>();
-                    runParams.put("Attacker", c);
-                    runParams.put("Blockers", new ArrayList<Card>());
-                    runParams.put("NumBlockers", 0);
+                    final RunParams runParams = new RunParams();
+                    runParams.put(AbilityKey.Attacker, c);
+                    runParams.put(AbilityKey.Blockers, new ArrayList<Card>());
+                    runParams.put(AbilityKey.NumBlockers, 0);
                     game.getTriggerHandler().runTrigger(TriggerType.AttackerBlocked, runParams, false);
                 }
             }
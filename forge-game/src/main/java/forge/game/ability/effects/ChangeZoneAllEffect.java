@@ -5,7 +5,9 @@ import com.google.common.collect.Maps;
 
 import forge.card.CardStateName;
 import forge.game.Game;
+import forge.game.ability.AbilityKey;
 import forge.game.ability.AbilityUtils;
+import forge.game.ability.RunParams;
 import forge.game.ability.SpellAbilityEffect;
 import forge.game.card.Card;
 import forge.game.card.CardCollection;
@@ -19,7 +21,6 @@ import forge.game.zone.Zone;
 import forge.game.zone.ZoneType;
 import forge.util.Lang;
 
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -77,9 +78,9 @@ public class ChangeZoneAllEffect extends SpellAbilityEffect {
                 sa.getActivatingPlayer().incLibrarySearched();
             }
             sa.getActivatingPlayer().getController().reveal(libCards, ZoneType.Library, sa.getActivatingPlayer());
-            final HashMap<String, Object> runParams = new HashMap<String, Object>();
-            runParams.put("Player", sa.getActivatingPlayer());
-            runParams.put("Target", tgtPlayers);
+            final RunParams runParams = new RunParams();
+            runParams.put(AbilityKey.Player, sa.getActivatingPlayer());
+            runParams.put(AbilityKey.Target, tgtPlayers);
             game.getTriggerHandler().runTrigger(TriggerType.SearchedLibrary, runParams, false);
         }
         cards = (CardCollection)AbilityUtils.filterListByType(cards, sa.getParam("ChangeType"), sa);
@@ -200,9 +201,9 @@ public class ChangeZoneAllEffect extends SpellAbilityEffect {
         }
 
         if (!triggerList.isEmpty()) {
-            final HashMap<String, Object> runParams = new HashMap<String, Object>();
-            runParams.put("Cards", triggerList);
-            runParams.put("Destination", destination);
+            final RunParams runParams = new RunParams();
+            runParams.put(AbilityKey.Cards, triggerList);
+            runParams.put(AbilityKey.Destination, destination);
             game.getTriggerHandler().runTrigger(TriggerType.ChangesZoneAll, runParams, false);
         }
 
@@ -10,7 +10,9 @@ import forge.card.CardStateName;
 import forge.game.Game;
 import forge.game.GameEntity;
 import forge.game.GameObject;
+import forge.game.ability.AbilityKey;
 import forge.game.ability.AbilityUtils;
+import forge.game.ability.RunParams;
 import forge.game.ability.SpellAbilityEffect;
 import forge.game.card.*;
 import forge.game.combat.Combat;
@@ -32,7 +34,6 @@ import forge.util.Lang;
 import forge.util.MessageUtil;
 
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -605,9 +606,9 @@ public class ChangeZoneEffect extends SpellAbilityEffect {
         }
 
         if (!triggerList.isEmpty()) {
-            final HashMap<String, Object> runParams = new HashMap<String, Object>();
-            runParams.put("Cards", triggerList);
-            runParams.put("Destination", destination);
+            final RunParams runParams = new RunParams();
+            runParams.put(AbilityKey.Cards, triggerList);
+            runParams.put(AbilityKey.Destination, destination);
             game.getTriggerHandler().runTrigger(TriggerType.ChangesZoneAll, runParams, false);
         }
 
@@ -802,9 +803,9 @@ public class ChangeZoneEffect extends SpellAbilityEffect {
                     }
                 }
             }
-            final HashMap<String, Object> runParams = new HashMap<String, Object>();
-            runParams.put("Player", decider);
-            runParams.put("Target", Lists.newArrayList(player));
+            final RunParams runParams = new RunParams();
+            runParams.put(AbilityKey.Player, decider);
+            runParams.put(AbilityKey.Target, Lists.newArrayList(player));
             decider.getGame().getTriggerHandler().runTrigger(TriggerType.SearchedLibrary, runParams, false);
         }
 
@@ -1076,9 +1077,9 @@ public class ChangeZoneEffect extends SpellAbilityEffect {
             triggerList.get(originZone.getZoneType()).add(movedCard);
 
             if (champion) {
-                final HashMap<String, Object> runParams = new HashMap<String, Object>();
-                runParams.put("Card", source);
-                runParams.put("Championed", c);
+                final RunParams runParams = new RunParams();
+                runParams.put(AbilityKey.Card, source);
+                runParams.put(AbilityKey.Championed, c);
                 game.getTriggerHandler().runTrigger(TriggerType.Championed, runParams, false);
             }
             
@@ -1105,9 +1106,9 @@ public class ChangeZoneEffect extends SpellAbilityEffect {
         }
 
         if (!triggerList.isEmpty()) {
-            final HashMap<String, Object> runParams = new HashMap<String, Object>();
-            runParams.put("Cards", triggerList);
-            runParams.put("Destination", destination);
+            final RunParams runParams = new RunParams();
+            runParams.put(AbilityKey.Cards, triggerList);
+            runParams.put(AbilityKey.Destination, destination);
             game.getTriggerHandler().runTrigger(TriggerType.ChangesZoneAll, runParams, false);
         }
         
@@ -2,7 +2,9 @@ package forge.game.ability.effects;
 
 import forge.game.GameAction;
 import forge.game.ability.AbilityFactory;
+import forge.game.ability.AbilityKey;
 import forge.game.ability.AbilityUtils;
+import forge.game.ability.RunParams;
 import forge.game.ability.SpellAbilityEffect;
 import forge.game.card.Card;
 import forge.game.player.Player;
@@ -12,7 +14,6 @@ import forge.game.trigger.TriggerType;
 import forge.game.zone.PlayerZone;
 import forge.game.zone.ZoneType;
 
-import java.util.HashMap;
 
 public class ClashEffect extends SpellAbilityEffect {
 
@@ -32,8 +33,8 @@ public class ClashEffect extends SpellAbilityEffect {
         final boolean victory = clashWithOpponent(sa);
 
         // Run triggers
-        final HashMap<String, Object> runParams = new HashMap<String, Object>();
-        runParams.put("Player", sa.getHostCard().getController());
+        final RunParams runParams = new RunParams();
+        runParams.put(AbilityKey.Player, sa.getHostCard().getController());
 
         if (victory) {
             if (sa.hasParam("WinSubAbility")) {
@@ -48,7 +49,7 @@ public class ClashEffect extends SpellAbilityEffect {
 
                 AbilityUtils.resolve(win);
             }
-            runParams.put("Won", "True");
+            runParams.put(AbilityKey.Won, "True");
         } else {
             if (sa.hasParam("OtherwiseSubAbility")) {
                 final SpellAbility otherwise = AbilityFactory.getAbility(
@@ -62,7 +63,7 @@ public class ClashEffect extends SpellAbilityEffect {
 
                 AbilityUtils.resolve(otherwise);
             }
-            runParams.put("Won", "False");
+            runParams.put(AbilityKey.Won, "False");
         }
 
         
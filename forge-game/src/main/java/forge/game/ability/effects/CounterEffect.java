@@ -1,6 +1,8 @@
 package forge.game.ability.effects;
 
 import forge.game.Game;
+import forge.game.ability.AbilityKey;
+import forge.game.ability.RunParams;
 import forge.game.ability.SpellAbilityEffect;
 import forge.game.card.Card;
 import forge.game.card.CardFactoryUtil;
@@ -12,7 +14,6 @@ import forge.game.trigger.TriggerType;
 
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.HashMap;
 import java.util.List;
 
 public class CounterEffect extends SpellAbilityEffect {
@@ -150,11 +151,11 @@ public class CounterEffect extends SpellAbilityEffect {
             final SpellAbility srcSA, final SpellAbilityStackInstance si) {
         final Game game = tgtSA.getActivatingPlayer().getGame();
         // Run any applicable replacement effects. 
-        final HashMap<String, Object> repParams = new HashMap<String, Object>();
-        repParams.put("Event", "Counter");
-        repParams.put("TgtSA", tgtSA);
-        repParams.put("Affected", tgtSA.getHostCard());
-        repParams.put("Cause", srcSA.getHostCard());
+        final RunParams repParams = new RunParams();
+        repParams.put(AbilityKey.Event, "Counter");
+        repParams.put(AbilityKey.TgtSA, tgtSA);
+        repParams.put(AbilityKey.Affected, tgtSA.getHostCard());
+        repParams.put(AbilityKey.Cause, srcSA.getHostCard());
         if (game.getReplacementHandler().run(repParams) != ReplacementResult.NotReplaced) {
             return;
         }
@@ -198,10 +199,10 @@ public class CounterEffect extends SpellAbilityEffect {
                     + srcSA.getHostCard().getName());
         }
         // Run triggers
-        final HashMap<String, Object> runParams = new HashMap<String, Object>();
-        runParams.put("Player", tgtSA.getActivatingPlayer());
-        runParams.put("Card", tgtSA.getHostCard());
-        runParams.put("Cause", srcSA.getHostCard());
+        final RunParams runParams = new RunParams();
+        runParams.put(AbilityKey.Player, tgtSA.getActivatingPlayer());
+        runParams.put(AbilityKey.Card, tgtSA.getHostCard());
+        runParams.put(AbilityKey.Cause, srcSA.getHostCard());
         srcSA.getActivatingPlayer().getGame().getTriggerHandler().runTrigger(TriggerType.Countered, runParams, false);
         
 
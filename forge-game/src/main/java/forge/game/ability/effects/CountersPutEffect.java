@@ -2,7 +2,9 @@ package forge.game.ability.effects;
 
 import com.google.common.collect.Lists;
 import forge.game.GameObject;
+import forge.game.ability.AbilityKey;
 import forge.game.ability.AbilityUtils;
+import forge.game.ability.RunParams;
 import forge.game.ability.SpellAbilityEffect;
 import forge.game.card.Card;
 import forge.game.card.CardCollection;
@@ -18,7 +20,6 @@ import forge.game.zone.Zone;
 import forge.game.zone.ZoneType;
 import forge.util.Aggregates;
 
-import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 
@@ -136,21 +137,21 @@ public class CountersPutEffect extends SpellAbilityEffect {
                         }
 
                         if (sa.hasParam("Evolve")) {
-                            final HashMap<String, Object> runParams = new HashMap<String, Object>();
-                            runParams.put("Card", tgtCard);
+                            final RunParams runParams = new RunParams();
+                            runParams.put(AbilityKey.Card, tgtCard);
                             tgtCard.getController().getGame().getTriggerHandler().runTrigger(TriggerType.Evolved, runParams, false);
                         }
                         if (sa.hasParam("Monstrosity")) {
                             tgtCard.setMonstrous(true);
                             tgtCard.setMonstrosityNum(counterAmount);
-                            final HashMap<String, Object> runParams = new HashMap<String, Object>();
-                            runParams.put("Card", tgtCard);
+                            final RunParams runParams = new RunParams();
+                            runParams.put(AbilityKey.Card, tgtCard);
                             tgtCard.getController().getGame().getTriggerHandler().runTrigger(TriggerType.BecomeMonstrous, runParams, false);
                         }
                         if (sa.hasParam("Renown")) {
                             tgtCard.setRenowned(true);
-                            final HashMap<String, Object> runParams = new HashMap<String, Object>();
-                            runParams.put("Card", tgtCard);
+                            final RunParams runParams = new RunParams();
+                            runParams.put(AbilityKey.Card, tgtCard);
                             tgtCard.getController().getGame().getTriggerHandler().runTrigger(TriggerType.BecomeRenowned, runParams, false);
                         }
                     } else {
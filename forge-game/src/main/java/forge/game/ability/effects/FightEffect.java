@@ -2,7 +2,9 @@ package forge.game.ability.effects;
 
 import com.google.common.collect.Lists;
 
+import forge.game.ability.AbilityKey;
 import forge.game.ability.AbilityUtils;
+import forge.game.ability.RunParams;
 import forge.game.ability.SpellAbilityEffect;
 import forge.game.card.Card;
 import forge.game.spellability.SpellAbility;
@@ -10,7 +12,6 @@ import forge.game.spellability.TargetRestrictions;
 import forge.game.trigger.TriggerType;
 
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
 
 public class FightEffect extends SpellAbilityEffect {
@@ -56,8 +57,8 @@ public class FightEffect extends SpellAbilityEffect {
         fighters.get(1).addDamage(dmg1, fighters.get(0));
         fighters.get(0).addDamage(dmg2, fighters.get(1));
         for (Card c : fighters) {
-        	final HashMap<String, Object> runParams = new HashMap<String, Object>();
-        	runParams.put("Fighter", c);
+        	final RunParams runParams = new RunParams();
+        	runParams.put(AbilityKey.Fighter, c);
         	sa.getActivatingPlayer().getGame().getTriggerHandler().runTrigger(TriggerType.Fight, runParams, false);
         }
     }
@@ -2,7 +2,9 @@ package forge.game.ability.effects;
 
 import forge.game.GameObject;
 import forge.game.ability.AbilityFactory;
+import forge.game.ability.AbilityKey;
 import forge.game.ability.AbilityUtils;
+import forge.game.ability.RunParams;
 import forge.game.ability.SpellAbilityEffect;
 import forge.game.card.Card;
 import forge.game.event.GameEventFlipCoin;
@@ -13,7 +15,6 @@ import forge.game.spellability.SpellAbility;
 import forge.game.trigger.TriggerType;
 import forge.util.MyRandom;
 
-import java.util.HashMap;
 import java.util.List;
 
 public class FlipCoinEffect extends SpellAbilityEffect {
@@ -113,7 +114,7 @@ public class FlipCoinEffect extends SpellAbilityEffect {
 
                         AbilityUtils.resolve(win);
                     }
-                    // runParams.put("Won","True");
+                    // runParams.put(AbilityKey.Won,"True");
                 } else {
                     if (sa.getParam("RememberLoser") != null) {
                         host.addRemembered(host);
@@ -129,7 +130,7 @@ public class FlipCoinEffect extends SpellAbilityEffect {
 
                         AbilityUtils.resolve(lose);
                     }
-                    // runParams.put("Won","False");
+                    // runParams.put(AbilityKey.Won,"False");
                 }
             }
         }
@@ -186,9 +187,9 @@ public class FlipCoinEffect extends SpellAbilityEffect {
         caller.getGame().getAction().nofityOfValue(sa, caller, result ? "win" : "lose", null);
 
         // Run triggers
-        HashMap<String,Object> runParams = new HashMap<String,Object>();
-        runParams.put("Player", caller);
-        runParams.put("Result", Boolean.valueOf(result));
+        RunParams runParams = new RunParams();
+        runParams.put(AbilityKey.Player, caller);
+        runParams.put(AbilityKey.Result, Boolean.valueOf(result));
         caller.getGame().getTriggerHandler().runTrigger(TriggerType.FlippedCoin, runParams, false);
         return result;
     }
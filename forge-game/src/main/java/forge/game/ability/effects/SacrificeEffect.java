@@ -1,7 +1,9 @@
 package forge.game.ability.effects;
 
 import forge.game.Game;
+import forge.game.ability.AbilityKey;
 import forge.game.ability.AbilityUtils;
+import forge.game.ability.RunParams;
 import forge.game.ability.SpellAbilityEffect;
 import forge.game.card.Card;
 import forge.game.card.CardCollection;
@@ -17,7 +19,6 @@ import forge.game.trigger.TriggerType;
 import forge.game.zone.ZoneType;
 import forge.util.Aggregates;
 
-import java.util.HashMap;
 import java.util.List;
 
 public class SacrificeEffect extends SpellAbilityEffect {
@@ -36,9 +37,9 @@ public class SacrificeEffect extends SpellAbilityEffect {
                 isPaid = activator.getController().payManaOptional(card, new Cost(sa.getParam("Echo"), true),
                     sa, "Pay Echo", ManaPaymentPurpose.Echo);
             }
-            final HashMap<String, Object> runParams = new HashMap<String, Object>();
-            runParams.put("EchoPaid", Boolean.valueOf(isPaid));
-            runParams.put("Card", card);
+            final RunParams runParams = new RunParams();
+            runParams.put(AbilityKey.EchoPaid, Boolean.valueOf(isPaid));
+            runParams.put(AbilityKey.Card, card);
             game.getTriggerHandler().runTrigger(TriggerType.PayEcho, runParams, false);
             if (isPaid || !card.getController().equals(activator)) {
                 return;
@@ -111,14 +112,14 @@ public class SacrificeEffect extends SpellAbilityEffect {
                     // Run Devour Trigger
                     if (devour) {
                         card.addDevoured(lKICopy);
-                        final HashMap<String, Object> runParams = new HashMap<String, Object>();
-                        runParams.put("Devoured", sac);
+                        final RunParams runParams = new RunParams();
+                        runParams.put(AbilityKey.Devoured, sac);
                         game.getTriggerHandler().runTrigger(TriggerType.Devoured, runParams, false);
                     }
                     if (exploit) {
-                        final HashMap<String, Object> runParams = new HashMap<String, Object>();
-                        runParams.put("Exploited", lKICopy);
-                        runParams.put("Card", card);
+                        final RunParams runParams = new RunParams();
+                        runParams.put(AbilityKey.Exploited, lKICopy);
+                        runParams.put(AbilityKey.Card, card);
                         game.getTriggerHandler().runTrigger(TriggerType.Exploited, runParams, false);
                     }
                     if (wasDestroyed || wasSacrificed) {
@@ -2,7 +2,6 @@ package forge.game.ability.effects;
 
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.HashMap;
 import java.util.List;
 
 import org.apache.commons.lang3.StringUtils;
@@ -14,7 +13,9 @@ import com.google.common.collect.Lists;
 
 import forge.game.Game;
 import forge.game.ability.AbilityFactory;
+import forge.game.ability.AbilityKey;
 import forge.game.ability.AbilityUtils;
+import forge.game.ability.RunParams;
 import forge.game.ability.SpellAbilityEffect;
 import forge.game.card.Card;
 import forge.game.card.CardLists;
@@ -79,8 +80,8 @@ public class VoteEffect extends SpellAbilityEffect {
             }
         }
         
-        final HashMap<String, Object> runParams = new HashMap<String, Object>();
-        runParams.put("AllVotes", votes);
+        final RunParams runParams = new RunParams();
+        runParams.put(AbilityKey.AllVotes, votes);
         game.getTriggerHandler().runTrigger(TriggerType.Vote, runParams, false);
 
         List<String> subAbs = Lists.newArrayList();
@@ -30,8 +30,10 @@ import forge.card.mana.ManaCost;
 import forge.card.mana.ManaCostParser;
 import forge.game.*;
 import forge.game.ability.AbilityFactory;
+import forge.game.ability.AbilityKey;
 import forge.game.ability.AbilityUtils;
 import forge.game.ability.ApiType;
+import forge.game.ability.RunParams;
 import forge.game.ability.effects.CharmEffect;
 import forge.game.card.CardPredicates.Presets;
 import forge.game.combat.AttackingBand;
@@ -99,6 +101,8 @@ public class Card extends GameEntity implements Comparable<Card> {
     private List<String> extrinsicKeyword = new ArrayList<>();
     // Hidden keywords won't be displayed on the card
     private final CopyOnWriteArrayList<String> hiddenExtrinsicKeyword = new CopyOnWriteArrayList<>();
+    // bumped whenever any of the keywords above change, so the keywords cached on the states are rebuilt
+    private int keywordsVersion = 0;
 
     // cards attached or otherwise linked to this card
     private CardCollection equippedBy, fortifiedBy, hauntedBy, devouredCards, delvedCards, imprintedCards, encodedCards;
@@ -296,8 +300,8 @@ public class Card extends GameEntity implements Comparable<Card> {
             // Clear old dfc trigger from the trigger handler
             getGame().getTriggerHandler().clearInstrinsicActiveTriggers(this, null);
             getGame().getTriggerHandler().registerActiveTrigger(this, false);
-            HashMap<String, Object> runParams = new HashMap<>();
-            runParams.put("Transformer", this);
+            RunParams runParams = new RunParams();
+            runParams.put(AbilityKey.Transformer, this);
             getGame().getTriggerHandler().runTrigger(TriggerType.Transformed, runParams, false);
             this.incrementTransformedTimestamp();
         }
@@ -361,6 +365,19 @@ public class Card extends GameEntity implements Comparable<Card> {
             return false;
         }
 
+        final UndoJournal journal = getUndoJournal();
+        if (journal != null) {
+            final CardStateName oldState = currentStateName;
+            final boolean wasManifested = manifested;
+            journal.record(new UndoJournal.Entry() {
+                @Override
+                public void undo() {
+                    setState(oldState, true);
+                    setManifested(wasManifested);
+                }
+            });
+        }
+
         // Cleared tests, about to change states
         if (currentStateName.equals(CardStateName.FaceDown) && state.equals(CardStateName.Original)) {
             this.setManifested(false);
@@ -368,6 +385,7 @@ public class Card extends GameEntity implements Comparable<Card> {
 
         currentStateName = state;
         currentState = states.get(state);
+        replacementEffectsChanged();
 
         if (updateView) {
             view.updateState(this);
@@ -534,15 +552,15 @@ public class Card extends GameEntity implements Comparable<Card> {
             boolean result = setState(preFaceDownState, true);
             if (result && runTriggers) {
                 // Run replacement effects
-                HashMap<String, Object> repParams = new HashMap<>();
-                repParams.put("Event", "TurnFaceUp");
-                repParams.put("Affected", this);
+                RunParams repParams = new RunParams();
+                repParams.put(AbilityKey.Event, "TurnFaceUp");
+                repParams.put(AbilityKey.Affected, this);
                 getGame().getReplacementHandler().run(repParams);
 
                 // Run triggers
                 getGame().getTriggerHandler().registerActiveTrigger(this, false);
-                final Map<String, Object> runParams = new TreeMap<>();
-                runParams.put("Card", this);
+                final RunParams runParams = new RunParams();
+                runParams.put(AbilityKey.Card, this);
                 getGame().getTriggerHandler().runTrigger(TriggerType.TurnFaceUp, runParams, false);
             }
             return result;
@@ -555,12 +573,18 @@ public class Card extends GameEntity implements Comparable<Card> {
     }
 
     public void updateAttackingForView() {
+        final Game game = getGame();
+        final int changes = game.getTracker().getChangeCount();
         view.updateAttacking(this);
-        getGame().updateCombatForView();
+        game.countCombatViewChanges(game.getTracker().getChangeCount() - changes);
+        game.updateCombatForView();
     }
     public void updateBlockingForView() {
+        final Game game = getGame();
+        final int changes = game.getTracker().getChangeCount();
         view.updateBlocking(this);
-        getGame().updateCombatForView(); //ensure blocking arrow shown/hidden as needed
+        game.countCombatViewChanges(game.getTracker().getChangeCount() - changes);
+        game.updateCombatForView(); //ensure blocking arrow shown/hidden as needed
     }
 
     @Override
@@ -657,11 +681,15 @@ public class Card extends GameEntity implements Comparable<Card> {
         return rememberedObjects.contains(o);
     }
     public final <T> void addRemembered(final T o) {
+        if (!rememberedObjects.contains(o)) {
+            recordRememberedForUndo();
+        }
         if (rememberedObjects.add(o)) {
             view.updateRemembered(this);
         }
     }
     public final <T> void addRemembered(final Iterable<T> objects) {
+        recordRememberedForUndo();
         boolean changed = false;
         for (T o : objects) {
             if (rememberedObjects.add(o)) {
@@ -673,16 +701,36 @@ public class Card extends GameEntity implements Comparable<Card> {
         }
     }
     public final <T> void removeRemembered(final T o) {
+        if (rememberedObjects.contains(o)) {
+            recordRememberedForUndo();
+        }
         if (rememberedObjects.remove(o)) {
             view.updateRemembered(this);
         }
     }
     public final void clearRemembered() {
         if (rememberedObjects.isEmpty()) { return; }
+        recordRememberedForUndo();
         rememberedObjects.clear();
         view.updateRemembered(this);
     }
 
+    private void recordRememberedForUndo() {
+        final UndoJournal journal = getUndoJournal();
+        if (journal == null) {
+            return;
+        }
+        final List<Object> oldRemembered = new ArrayList<>(rememberedObjects);
+        journal.record(new UndoJournal.Entry() {
+            @Override
+            public void undo() {
+                rememberedObjects.clear();
+                rememberedObjects.addAll(oldRemembered);
+                view.updateRemembered(Card.this);
+            }
+        });
+    }
+
     public final CardCollectionView getImprintedCards() {
         return CardCollection.getView(imprintedCards);
     }
@@ -693,21 +741,43 @@ public class Card extends GameEntity implements Comparable<Card> {
         return FCollection.hasElement(imprintedCards, c);
     }
     public final void addImprintedCard(final Card c) {
+        recordImprintedForUndo();
         imprintedCards = view.addCard(imprintedCards, c, TrackableProperty.ImprintedCards);
     }
     public final void addImprintedCards(final Iterable<Card> cards) {
+        recordImprintedForUndo();
         imprintedCards = view.addCards(imprintedCards, cards, TrackableProperty.ImprintedCards);
     }
     public final void removeImprintedCard(final Card c) {
+        recordImprintedForUndo();
         imprintedCards = view.removeCard(imprintedCards, c, TrackableProperty.ImprintedCards);
     }
     public final void removeImprintedCards(final Iterable<Card> cards) {
+        recordImprintedForUndo();
         imprintedCards = view.removeCards(imprintedCards, cards, TrackableProperty.ImprintedCards);
     }
     public final void clearImprintedCards() {
+        recordImprintedForUndo();
         imprintedCards = view.clearCards(imprintedCards, TrackableProperty.ImprintedCards);
     }
 
+    private void recordImprintedForUndo() {
+        final UndoJournal journal = getUndoJournal();
+        if (journal == null) {
+            return;
+        }
+        final CardCollection oldImprinted = imprintedCards == null ? null : new CardCollection(imprintedCards);
+        journal.record(new UndoJournal.Entry() {
+            @Override
+            public void undo() {
+                imprintedCards = view.clearCards(imprintedCards, TrackableProperty.ImprintedCards);
+                if (oldImprinted != null) {
+                    imprintedCards = view.addCards(imprintedCards, oldImprinted, TrackableProperty.ImprintedCards);
+                }
+            }
+        });
+    }
+
     public final CardCollectionView getEncodedCards() {
         return CardCollection.getView(encodedCards);
     }
@@ -760,7 +830,9 @@ public class Card extends GameEntity implements Comparable<Card> {
     }
     public final Trigger addTrigger(final Trigger t) {
         final Trigger newtrig = t.getCopyForHostCard(this);
-        currentState.addTrigger(newtrig);
+        if (currentState.addTrigger(newtrig)) {
+            recordTriggerForUndo(currentState, newtrig, true);
+        }
         return newtrig;
     }
     public final void moveTrigger(final Trigger t) {
@@ -768,10 +840,33 @@ public class Card extends GameEntity implements Comparable<Card> {
         currentState.addTrigger(t);
     }
     public final void removeTrigger(final Trigger t) {
-        currentState.removeTrigger(t);
+        removeTrigger(t, currentState);
     }
     public final void removeTrigger(final Trigger t, final CardStateName state) {
-        getState(state).removeTrigger(t);
+        removeTrigger(t, getState(state));
+    }
+    private void removeTrigger(final Trigger t, final CardState state) {
+        if (state.removeTrigger(t)) {
+            recordTriggerForUndo(state, t, false);
+        }
+    }
+
+    // an undone removal puts the trait back at the end of its list
+    private void recordTriggerForUndo(final CardState state, final Trigger t, final boolean added) {
+        final UndoJournal journal = getUndoJournal();
+        if (journal == null) {
+            return;
+        }
+        journal.record(new UndoJournal.Entry() {
+            @Override
+            public void undo() {
+                if (added) {
+                    state.removeTrigger(t);
+                } else {
+                    state.addTrigger(t);
+                }
+            }
+        });
     }
     public final void clearTriggersNew() {
         currentState.clearTriggers();
@@ -873,6 +968,16 @@ public class Card extends GameEntity implements Comparable<Card> {
     }
 
     public final void setMustAttackEntity(final GameEntity e) {
+        final UndoJournal journal = getUndoJournal();
+        if (journal != null && mustAttackEntity != e) {
+            final GameEntity oldEntity = mustAttackEntity;
+            journal.record(new UndoJournal.Entry() {
+                @Override
+                public void undo() {
+                    setMustAttackEntity(oldEntity);
+                }
+            });
+        }
         mustAttackEntity = e;
     }
     public final GameEntity getMustAttackEntity() {
@@ -908,11 +1013,11 @@ public class Card extends GameEntity implements Comparable<Card> {
     }
 
     public final boolean hasFirstStrike() {
-        return hasKeyword("First Strike");
+        return hasKeyword(Keyword.FIRST_STRIKE);
     }
 
     public final boolean hasDoubleStrike() {
-        return hasKeyword("Double Strike");
+        return hasKeyword(Keyword.DOUBLE_STRIKE);
     }
 
     public final boolean hasSecondStrike() {
@@ -961,12 +1066,12 @@ public class Card extends GameEntity implements Comparable<Card> {
         if(addAmount < 0) {
             addAmount = 0; // As per rule 107.1b
         }
-        final HashMap<String, Object> repParams = new HashMap<>();
-        repParams.put("Event", "AddCounter");
-        repParams.put("Affected", this);
-        repParams.put("CounterType", counterType);
-        repParams.put("CounterNum", addAmount);
-        repParams.put("EffectOnly", applyMultiplier);
+        final RunParams repParams = new RunParams();
+        repParams.put(AbilityKey.Event, "AddCounter");
+        repParams.put(AbilityKey.Affected, this);
+        repParams.put(AbilityKey.CounterType, counterType);
+        repParams.put(AbilityKey.CounterNum, addAmount);
+        repParams.put(AbilityKey.EffectOnly, applyMultiplier);
         if (getGame().getReplacementHandler().run(repParams) != ReplacementResult.NotReplaced) {
             return;
         }
@@ -993,22 +1098,26 @@ public class Card extends GameEntity implements Comparable<Card> {
                 final int toughnessBonusBefore = getToughnessBonusFromCounters();
                 final int loyaltyBefore = getCurrentLoyalty();
 
+                recordCountersForUndo();
                 counters.put(counterType, newValue);
                 view.updateCounters(this);
 
                 //fire card stats changed event if p/t bonuses or loyalty changed from added counters
-                if (powerBonusBefore != getPowerBonusFromCounters() || toughnessBonusBefore != getToughnessBonusFromCounters() || loyaltyBefore != getCurrentLoyalty()) {
+                if ((powerBonusBefore != getPowerBonusFromCounters() || toughnessBonusBefore != getToughnessBonusFromCounters() || loyaltyBefore != getCurrentLoyalty())
+                        && getGame().shouldFireEvent(GameEventCardStatsChanged.class)) {
                     getGame().fireEvent(new GameEventCardStatsChanged(this));
                 }
 
                 // play the Add Counter sound
-                getGame().fireEvent(new GameEventCardCounters(this, counterType, oldValue == null ? 0 : oldValue, newValue));
+                if (getGame().shouldFireEvent(GameEventCardCounters.class)) {
+                    getGame().fireEvent(new GameEventCardCounters(this, counterType, oldValue == null ? 0 : oldValue, newValue));
+                }
             }
 
             // Run triggers
-            final Map<String, Object> runParams = new TreeMap<>();
-            runParams.put("Card", this);
-            runParams.put("CounterType", counterType);
+            final RunParams runParams = new RunParams();
+            runParams.put(AbilityKey.Card, this);
+            runParams.put(AbilityKey.CounterType, counterType);
             for (int i = 0; i < addAmount; i++) {
                 getGame().getTriggerHandler().runTrigger(TriggerType.CounterAdded, runParams, false);
             }
@@ -1061,6 +1170,7 @@ public class Card extends GameEntity implements Comparable<Card> {
         int toughnessBonusBefore = getToughnessBonusFromCounters();
         int loyaltyBefore = getCurrentLoyalty();
 
+        recordCountersForUndo();
         if (newValue > 0) {
             counters.put(counterName, newValue);
         }
@@ -1070,31 +1180,36 @@ public class Card extends GameEntity implements Comparable<Card> {
         view.updateCounters(this);
 
         //fire card stats changed event if p/t bonuses or loyalty changed from subtracted counters
-        if (powerBonusBefore != getPowerBonusFromCounters() || toughnessBonusBefore != getToughnessBonusFromCounters() || loyaltyBefore != getCurrentLoyalty()) {
+        if ((powerBonusBefore != getPowerBonusFromCounters() || toughnessBonusBefore != getToughnessBonusFromCounters() || loyaltyBefore != getCurrentLoyalty())
+                && getGame().shouldFireEvent(GameEventCardStatsChanged.class)) {
             getGame().fireEvent(new GameEventCardStatsChanged(this));
         }
 
         // Play the Subtract Counter sound
-        getGame().fireEvent(new GameEventCardCounters(this, counterName, oldValue == null ? 0 : oldValue, newValue));
+        if (getGame().shouldFireEvent(GameEventCardCounters.class)) {
+            getGame().fireEvent(new GameEventCardCounters(this, counterName, oldValue == null ? 0 : oldValue, newValue));
+        }
 
         // Run triggers
         int curCounters = oldValue == null ? 0 : oldValue;
         for (int i = 0; i < delta && curCounters != 0; i++) {
-            final Map<String, Object> runParams = new TreeMap<>();
-            runParams.put("Card", this);
-            runParams.put("CounterType", counterName);
-            runParams.put("NewCounterAmount", --curCounters);
+            final RunParams runParams = new RunParams();
+            runParams.put(AbilityKey.Card, this);
+            runParams.put(AbilityKey.CounterType, counterName);
+            runParams.put(AbilityKey.NewCounterAmount, --curCounters);
             getGame().getTriggerHandler().runTrigger(TriggerType.CounterRemoved, runParams, false);
         }
     }
 
     public final void setCounters(final Map<CounterType, Integer> allCounters) {
+        recordCountersForUndo();
         counters = allCounters;
         view.updateCounters(this);
     }
 
     public final void clearCounters() {
         if (counters.isEmpty()) { return; }
+        recordCountersForUndo();
         counters.clear();
         view.updateCounters(this);
     }
@@ -1108,6 +1223,27 @@ public class Card extends GameEntity implements Comparable<Card> {
     }
 
     public final void setSVar(final String var, final String str) {
+        final Map<String, String> sVars = currentState.getSVars();
+        if (!StringUtils.equals(str, sVars.get(var))) {
+            invalidateStaticAbilities();
+        }
+        final UndoJournal journal = getUndoJournal();
+        if (journal != null) {
+            final CardState state = currentState;
+            final boolean hadSVar = sVars.containsKey(var);
+            final String oldValue = sVars.get(var);
+            journal.record(new UndoJournal.Entry() {
+                @Override
+                public void undo() {
+                    if (hadSVar) {
+                        state.setSVar(var, oldValue);
+                    } else {
+                        state.getSVars().remove(var);
+                    }
+                    invalidateStaticAbilities();
+                }
+            });
+        }
         currentState.setSVar(var, str);
     }
 
@@ -1116,7 +1252,20 @@ public class Card extends GameEntity implements Comparable<Card> {
     }
 
     public final void setSVars(final Map<String, String> newSVars) {
+        final UndoJournal journal = getUndoJournal();
+        if (journal != null) {
+            final CardState state = currentState;
+            final Map<String, String> oldSVars = currentState.getSVars();
+            journal.record(new UndoJournal.Entry() {
+                @Override
+                public void undo() {
+                    state.setSVars(oldSVars);
+                    invalidateStaticAbilities();
+                }
+            });
+        }
         currentState.setSVars(newSVars);
+        invalidateStaticAbilities();
     }
 
     public final int sumAllCounters() {
@@ -1132,6 +1281,16 @@ public class Card extends GameEntity implements Comparable<Card> {
     }
 
     public final void setTurnInZone(final int turn) {
+        final UndoJournal journal = getUndoJournal();
+        if (journal != null && turnInZone != turn) {
+            final int oldTurn = turnInZone;
+            journal.record(new UndoJournal.Entry() {
+                @Override
+                public void undo() {
+                    setTurnInZone(oldTurn);
+                }
+            });
+        }
         turnInZone = turn;
     }
 
@@ -1976,15 +2135,37 @@ public class Card extends GameEntity implements Comparable<Card> {
 
     public final void addSpellAbility(final SpellAbility a) {
         a.setHostCard(this);
-        currentState.addSpellAbility(a);
+        if (currentState.addSpellAbility(a)) {
+            recordSpellAbilityForUndo(currentState, a, true);
+        }
         currentState.getView().updateAbilityText(this, currentState);
     }
 
     public final void removeSpellAbility(final SpellAbility a) {
-        currentState.removeSpellAbility(a);
+        if (currentState.removeSpellAbility(a)) {
+            recordSpellAbilityForUndo(currentState, a, false);
+        }
         currentState.getView().updateAbilityText(this, currentState);
     }
 
+    private void recordSpellAbilityForUndo(final CardState state, final SpellAbility a, final boolean added) {
+        final UndoJournal journal = getUndoJournal();
+        if (journal == null) {
+            return;
+        }
+        journal.record(new UndoJournal.Entry() {
+            @Override
+            public void undo() {
+                if (added) {
+                    state.removeSpellAbility(a);
+                } else {
+                    state.addSpellAbility(a);
+                }
+                state.getView().updateAbilityText(Card.this, state);
+            }
+        });
+    }
+
     public final FCollectionView<SpellAbility> getSpellAbilities() {
         return currentState.getSpellAbilities();
     }
@@ -2035,6 +2216,7 @@ public class Card extends GameEntity implements Comparable<Card> {
     }
 
     public final void addShield(final CardShields shield) {
+        recordShieldsForUndo();
         shields.add(shield);
         view.updateShieldCount(this);
     }
@@ -2043,6 +2225,9 @@ public class Card extends GameEntity implements Comparable<Card> {
         if (shield != null && shield.hasTrigger()) {
             getGame().getStack().addSimultaneousStackEntry(shield.getTriggerSA());
         }
+        if (shields.contains(shield)) {
+            recordShieldsForUndo();
+        }
         if (shields.remove(shield)) {
             view.updateShieldCount(this);
         }
@@ -2050,10 +2235,27 @@ public class Card extends GameEntity implements Comparable<Card> {
 
     public final void resetShield() {
         if (shields.isEmpty()) { return; }
+        recordShieldsForUndo();
         shields.clear();
         view.updateShieldCount(this);
     }
 
+    private void recordShieldsForUndo() {
+        final UndoJournal journal = getUndoJournal();
+        if (journal == null) {
+            return;
+        }
+        final List<CardShields> oldShields = new ArrayList<>(shields);
+        journal.record(new UndoJournal.Entry() {
+            @Override
+            public void undo() {
+                shields.clear();
+                shields.addAll(oldShields);
+                view.updateShieldCount(Card.this);
+            }
+        });
+    }
+
     public final void addRegeneratedThisTurn() {
         regeneratedThisTurn++;
     }
@@ -2143,6 +2345,16 @@ public class Card extends GameEntity implements Comparable<Card> {
 
     public final void setSickness(boolean sickness0) {
         if (sickness == sickness0) { return; }
+        final UndoJournal journal = getUndoJournal();
+        if (journal != null) {
+            final boolean oldSickness = sickness;
+            journal.record(new UndoJournal.Entry() {
+                @Override
+                public void undo() {
+                    setSickness(oldSickness);
+                }
+            });
+        }
         sickness = sickness0;
         view.updateSickness(this);
     }
@@ -2210,6 +2422,7 @@ public class Card extends GameEntity implements Comparable<Card> {
     }
 
     public final void setController(final Player player, final long tstamp) {
+        recordControllersForUndo();
         tempControllers.clear();
         controller = player;
         controllerTimestamp = tstamp;
@@ -2217,29 +2430,54 @@ public class Card extends GameEntity implements Comparable<Card> {
     }
 
     public final void addTempController(final Player player, final long tstamp) {
+        recordControllersForUndo();
         tempControllers.put(tstamp, player);
         view.updateController(this);
     }
 
     public final void removeTempController(final long tstamp) {
+        if (!tempControllers.containsKey(tstamp)) { return; }
+        recordControllersForUndo();
         if (tempControllers.remove(tstamp) != null) {
             view.updateController(this);
         }
     }
 
     public final void removeTempController(final Player player) {
+        recordControllersForUndo();
         // Remove each key that yields this player
         this.tempControllers.values().remove(player);
     }
 
     public final void clearTempControllers() {
         if (tempControllers.isEmpty()) { return; }
+        recordControllersForUndo();
         tempControllers.clear();
         view.updateController(this);
     }
 
+    private void recordControllersForUndo() {
+        final UndoJournal journal = getUndoJournal();
+        if (journal == null) {
+            return;
+        }
+        final Player oldController = controller;
+        final long oldTimestamp = controllerTimestamp;
+        final NavigableMap<Long, Player> oldTempControllers = new TreeMap<>(tempControllers);
+        journal.record(new UndoJournal.Entry() {
+            @Override
+            public void undo() {
+                controller = oldController;
+                controllerTimestamp = oldTimestamp;
+                tempControllers = oldTempControllers;
+                view.updateController(Card.this);
+            }
+        });
+    }
+
     public final void clearControllers() {
         if (tempControllers.isEmpty() && controller == null) { return; }
+        recordControllersForUndo();
         tempControllers.clear();
         controller = null;
         view.updateController(this);
@@ -2330,6 +2568,16 @@ public class Card extends GameEntity implements Comparable<Card> {
         return equipping;
     }
     public final void setEquipping(final Card card) {
+        final UndoJournal journal = getUndoJournal();
+        if (journal != null && equipping != card) {
+            final Card oldEquipping = equipping;
+            journal.record(new UndoJournal.Entry() {
+                @Override
+                public void undo() {
+                    setEquipping(oldEquipping);
+                }
+            });
+        }
         equipping = view.setCard(equipping, card, TrackableProperty.Equipping);
     }
     public final boolean isEquipping() {
@@ -2340,6 +2588,16 @@ public class Card extends GameEntity implements Comparable<Card> {
         return fortifying;
     }
     public final void setFortifying(final Card card) {
+        final UndoJournal journal = getUndoJournal();
+        if (journal != null && fortifying != card) {
+            final Card oldFortifying = fortifying;
+            journal.record(new UndoJournal.Entry() {
+                @Override
+                public void undo() {
+                    setFortifying(oldFortifying);
+                }
+            });
+        }
         fortifying = view.setCard(fortifying, card, TrackableProperty.Fortifying);
     }
     public final boolean isFortifying() {
@@ -2375,15 +2633,16 @@ public class Card extends GameEntity implements Comparable<Card> {
         // They use double links... it's doubtful
         setEquipping(c);
         setTimestamp(getGame().getNextTimestamp());
+        c.recordAttachedByForUndo();
         c.equippedBy = c.view.addCard(c.equippedBy, this, TrackableProperty.EquippedBy);
 
         // Play the Equip sound
         getGame().fireEvent(new GameEventCardAttachment(this, oldTarget, c, AttachMethod.Equip));
 
         // run trigger
-        final HashMap<String, Object> runParams = new HashMap<>();
-        runParams.put("AttachSource", this);
-        runParams.put("AttachTarget", c);
+        final RunParams runParams = new RunParams();
+        runParams.put(AbilityKey.AttachSource, this);
+        runParams.put(AbilityKey.AttachTarget, c);
         getController().getGame().getTriggerHandler().runTrigger(TriggerType.Attached, runParams, false);
     }
 
@@ -2396,14 +2655,15 @@ public class Card extends GameEntity implements Comparable<Card> {
 
         setFortifying(c);
         setTimestamp(getGame().getNextTimestamp());
+        c.recordAttachedByForUndo();
         c.fortifiedBy = c.view.addCard(c.fortifiedBy, this, TrackableProperty.FortifiedBy);
 
         // Play the Equip sound
         getGame().fireEvent(new GameEventCardAttachment(this, oldTarget, c, AttachMethod.Fortify));
         // run trigger
-        final HashMap<String, Object> runParams = new HashMap<>();
-        runParams.put("AttachSource", this);
-        runParams.put("AttachTarget", c);
+        final RunParams runParams = new RunParams();
+        runParams.put(AbilityKey.AttachSource, this);
+        runParams.put(AbilityKey.AttachTarget, c);
         getController().getGame().getTriggerHandler().runTrigger(TriggerType.Attached, runParams, false);
     }
 
@@ -2411,14 +2671,15 @@ public class Card extends GameEntity implements Comparable<Card> {
         if (equipping == c) {
             setEquipping(null);
         }
+        c.recordAttachedByForUndo();
         c.equippedBy = c.view.removeCard(c.equippedBy, this, TrackableProperty.EquippedBy);
 
         getGame().fireEvent(new GameEventCardAttachment(this, c, null, AttachMethod.Equip));
 
         // Run triggers
-        final Map<String, Object> runParams = new TreeMap<>();
-        runParams.put("Equipment", this);
-        runParams.put("Card", c);
+        final RunParams runParams = new RunParams();
+        runParams.put(AbilityKey.Equipment, this);
+        runParams.put(AbilityKey.Card, c);
         getGame().getTriggerHandler().runTrigger(TriggerType.Unequip, runParams, false);
     }
 
@@ -2426,11 +2687,28 @@ public class Card extends GameEntity implements Comparable<Card> {
         if (fortifying == c) {
             setFortifying(null);
         }
+        c.recordAttachedByForUndo();
         c.fortifiedBy = c.view.removeCard(c.fortifiedBy, this, TrackableProperty.FortifiedBy);
 
         getGame().fireEvent(new GameEventCardAttachment(this, c, null, AttachMethod.Fortify));
     }
 
+    private void recordAttachedByForUndo() {
+        final UndoJournal journal = getUndoJournal();
+        if (journal == null) {
+            return;
+        }
+        final CardCollection oldEquippedBy = equippedBy == null ? null : new CardCollection(equippedBy);
+        final CardCollection oldFortifiedBy = fortifiedBy == null ? null : new CardCollection(fortifiedBy);
+        journal.record(new UndoJournal.Entry() {
+            @Override
+            public void undo() {
+                setEquippedBy(oldEquippedBy);
+                setFortifiedBy(oldFortifiedBy);
+            }
+        });
+    }
+
     public final void unEquipAllCards() {
         if (isEquipped()) {
             for (Card c : getEquippedBy(true)) {
@@ -2444,6 +2722,16 @@ public class Card extends GameEntity implements Comparable<Card> {
     }
     public final void setEnchanting(final GameEntity e) {
         if (enchanting == e) { return; }
+        final UndoJournal journal = getUndoJournal();
+        if (journal != null) {
+            final GameEntity oldEnchanting = enchanting;
+            journal.record(new UndoJournal.Entry() {
+                @Override
+                public void undo() {
+                    setEnchanting(oldEnchanting);
+                }
+            });
+        }
         enchanting = e;
         view.updateEnchanting(this);
     }
@@ -2489,9 +2777,9 @@ public class Card extends GameEntity implements Comparable<Card> {
         getGame().fireEvent(new GameEventCardAttachment(this, null, entity, AttachMethod.Enchant));
 
         // run trigger
-        final HashMap<String, Object> runParams = new HashMap<>();
-        runParams.put("AttachSource", this);
-        runParams.put("AttachTarget", entity);
+        final RunParams runParams = new RunParams();
+        runParams.put(AbilityKey.AttachSource, this);
+        runParams.put(AbilityKey.AttachTarget, entity);
         getController().getGame().getTriggerHandler().runTrigger(TriggerType.Attached, runParams, false);
     }
 
@@ -2539,6 +2827,7 @@ public class Card extends GameEntity implements Comparable<Card> {
             final boolean removeSuperTypes, final boolean removeCardTypes, final boolean removeSubTypes,
             final boolean removeCreatureTypes, final long timestamp) {
 
+        recordChangedTypeForUndo(timestamp);
         changedCardTypes.put(timestamp, new CardChangedType(addType, removeType, removeSuperTypes, removeCardTypes, removeSubTypes, removeCreatureTypes));
         currentState.getView().updateType(currentState);
     }
@@ -2561,16 +2850,57 @@ public class Card extends GameEntity implements Comparable<Card> {
     }
 
     public final void removeChangedCardTypes(final long timestamp) {
+        recordChangedTypeForUndo(timestamp);
         changedCardTypes.remove(timestamp);
         currentState.getView().updateType(currentState);
     }
 
+    private void recordChangedTypeForUndo(final long timestamp) {
+        final UndoJournal journal = getUndoJournal();
+        if (journal == null) {
+            return;
+        }
+        final CardChangedType oldChange = changedCardTypes.get(timestamp);
+        journal.record(new UndoJournal.Entry() {
+            @Override
+            public void undo() {
+                if (oldChange == null) {
+                    changedCardTypes.remove(timestamp);
+                } else {
+                    changedCardTypes.put(timestamp, oldChange);
+                }
+                currentState.getView().updateType(currentState);
+            }
+        });
+    }
+
     public final void addColor(final String s, final boolean addToColors, final long timestamp) {
+        recordChangedColorForUndo(timestamp);
         changedCardColors.put(timestamp, new CardColor(s, addToColors, timestamp));
         currentState.getView().updateColors(this);
     }
 
+    private void recordChangedColorForUndo(final long timestamp) {
+        final UndoJournal journal = getUndoJournal();
+        if (journal == null) {
+            return;
+        }
+        final CardColor oldColor = changedCardColors.get(timestamp);
+        journal.record(new UndoJournal.Entry() {
+            @Override
+            public void undo() {
+                if (oldColor == null) {
+                    changedCardColors.remove(timestamp);
+                } else {
+                    changedCardColors.put(timestamp, oldColor);
+                }
+                currentState.getView().updateColors(Card.this);
+            }
+        });
+    }
+
     public final void removeColor(final long timestampIn) {
+        recordChangedColorForUndo(timestampIn);
         final CardColor removeCol = changedCardColors.remove(timestampIn);
 
         if (removeCol != null) {
@@ -2703,12 +3033,14 @@ public class Card extends GameEntity implements Comparable<Card> {
     }
 
     public final void addNewPT(final int power, final int toughness, final long timestamp) {
+        recordNewPTForUndo();
         newPT.add(new CardPowerToughness(power, toughness, timestamp));
         currentState.getView().updatePower(this);
         currentState.getView().updateToughness(this);
     }
 
     public final void removeNewPT(final long timestamp) {
+        recordNewPTForUndo();
         for (int i = 0; i < newPT.size(); i++) {
             final CardPowerToughness cardPT = newPT.get(i);
             if (cardPT.getTimestamp() == timestamp) {
@@ -2859,18 +3191,56 @@ public class Card extends GameEntity implements Comparable<Card> {
         return tempToughnessBoost;
     }
 
+    private void recordNewPTForUndo() {
+        final UndoJournal journal = getUndoJournal();
+        if (journal == null) {
+            return;
+        }
+        final List<CardPowerToughness> oldPT = new ArrayList<>(newPT);
+        journal.record(new UndoJournal.Entry() {
+            @Override
+            public void undo() {
+                newPT = oldPT;
+                updatePowerToughnessView();
+            }
+        });
+    }
+
     public final void addTempPowerBoost(final int n) {
         if (n == 0) { return; }
+        recordBoostsForUndo();
         tempPowerBoost += n;
         currentState.getView().updatePower(this);
     }
 
     public final void addTempToughnessBoost(final int n) {
         if (n == 0) { return; }
+        recordBoostsForUndo();
         tempToughnessBoost += n;
         currentState.getView().updateToughness(this);
     }
 
+    private void recordBoostsForUndo() {
+        final UndoJournal journal = getUndoJournal();
+        if (journal == null) {
+            return;
+        }
+        final int oldTempPower = tempPowerBoost;
+        final int oldTempToughness = tempToughnessBoost;
+        final int oldSemiPermanentPower = semiPermanentPowerBoost;
+        final int oldSemiPermanentToughness = semiPermanentToughnessBoost;
+        journal.record(new UndoJournal.Entry() {
+            @Override
+            public void undo() {
+                tempPowerBoost = oldTempPower;
+                tempToughnessBoost = oldTempToughness;
+                semiPermanentPowerBoost = oldSemiPermanentPower;
+                semiPermanentToughnessBoost = oldSemiPermanentToughness;
+                updatePowerToughnessView();
+            }
+        });
+    }
+
     // for cards like Glorious Anthem, etc.
     public final int getSemiPermanentPowerBoost() {
         return semiPermanentPowerBoost;
@@ -2882,24 +3252,28 @@ public class Card extends GameEntity implements Comparable<Card> {
 
     public final void addSemiPermanentPowerBoost(final int n) {
         if (n == 0) { return; }
+        recordBoostsForUndo();
         semiPermanentPowerBoost += n;
         currentState.getView().updatePower(this);
     }
 
     public final void addSemiPermanentToughnessBoost(final int n) {
         if (n == 0) { return; }
+        recordBoostsForUndo();
         semiPermanentToughnessBoost += n;
         currentState.getView().updateToughness(this);
     }
 
     public final void setSemiPermanentPowerBoost(final int n) {
         if (semiPermanentPowerBoost == n) { return; }
+        recordBoostsForUndo();
         semiPermanentPowerBoost = n;
         currentState.getView().updatePower(this);
     }
 
     public final void setSemiPermanentToughnessBoost(final int n) {
         if (semiPermanentToughnessBoost == n) { return; }
+        recordBoostsForUndo();
         semiPermanentToughnessBoost = n;
         currentState.getView().updateToughness(this);
     }
@@ -2918,6 +3292,16 @@ public class Card extends GameEntity implements Comparable<Card> {
     }
     public final void setTapped(boolean tapped0) {
         if (tapped == tapped0) { return; }
+        final UndoJournal journal = getUndoJournal();
+        if (journal != null) {
+            final boolean oldTapped = tapped;
+            journal.record(new UndoJournal.Entry() {
+                @Override
+                public void undo() {
+                    setTapped(oldTapped);
+                }
+            });
+        }
         tapped = tapped0;
         view.updateTapped(this);
     }
@@ -2926,36 +3310,40 @@ public class Card extends GameEntity implements Comparable<Card> {
         if (tapped) { return; }
 
         // Run triggers
-        final Map<String, Object> runParams = new TreeMap<>();
-        runParams.put("Card", this);
+        final RunParams runParams = new RunParams();
+        runParams.put(AbilityKey.Card, this);
         getGame().getTriggerHandler().runTrigger(TriggerType.Taps, runParams, false);
 
         setTapped(true);
-        getGame().fireEvent(new GameEventCardTapped(this, true));
+        if (getGame().shouldFireEvent(GameEventCardTapped.class)) {
+            getGame().fireEvent(new GameEventCardTapped(this, true));
+        }
     }
 
     public final void untap() {
         if (!tapped) { return; }
 
         // Run Replacement effects
-        final HashMap<String, Object> repRunParams = new HashMap<>();
-        repRunParams.put("Event", "Untap");
-        repRunParams.put("Affected", this);
+        final RunParams repRunParams = new RunParams();
+        repRunParams.put(AbilityKey.Event, "Untap");
+        repRunParams.put(AbilityKey.Affected, this);
 
         if (getGame().getReplacementHandler().run(repRunParams) != ReplacementResult.NotReplaced) {
             return;
         }
 
         // Run triggers
-        final Map<String, Object> runParams = new TreeMap<>();
-        runParams.put("Card", this);
+        final RunParams runParams = new RunParams();
+        runParams.put(AbilityKey.Card, this);
         getGame().getTriggerHandler().runTrigger(TriggerType.Untaps, runParams, false);
 
         for (final GameCommand var : untapCommandList) {
             var.run();
         }
         setTapped(false);
-        getGame().fireEvent(new GameEventCardTapped(this, false));
+        if (getGame().shouldFireEvent(GameEventCardTapped.class)) {
+            getGame().fireEvent(new GameEventCardTapped(this, false));
+        }
     }
 
     // keywords are like flying, fear, first strike, etc...
@@ -2963,15 +3351,29 @@ public class Card extends GameEntity implements Comparable<Card> {
         return getKeywords(currentState);
     }
     public final List<String> getKeywords(CardState state) {
-        ListKeywordVisitor visitor = new ListKeywordVisitor();
-        visitKeywords(state, visitor);
-        return visitor.getKeywords();
+        return getCardKeywords(state).getKeywords();
     }
     // Allows traversing the card's keywords without needing to concat a bunch
     // of lists. Optimizes common operations such as hasKeyword().
     public final void visitKeywords(CardState state, Visitor<String> visitor) {
-        visitUnhiddenKeywords(state, visitor);
-        visitHiddenExtreinsicKeywords(visitor);
+        for (String kw : getCardKeywords(state).getArray()) {
+            visitor.visit(kw);
+        }
+    }
+
+    // The keywords of a state are worked out when first asked for and kept
+    // on the state until one of the keyword lists of this card changes.
+    private CardKeywords getCardKeywords(CardState state) {
+        CardKeywords keywords = state.getCachedKeywords();
+        if (keywords == null || !keywords.isValidFor(this, keywordsVersion)) {
+            keywords = new CardKeywords(this, keywordsVersion, getUnhiddenKeywords(state), getHiddenExtrinsicKeywords());
+            state.setCachedKeywords(keywords);
+        }
+        return keywords;
+    }
+
+    private void keywordsChanged() {
+        keywordsVersion++;
     }
 
     @Override
@@ -2984,9 +3386,18 @@ public class Card extends GameEntity implements Comparable<Card> {
             keyword = keyword.substring(7);
         }
 
-        CountKeywordVisitor visitor = new CountKeywordVisitor(keyword);
-        visitKeywords(state, visitor);
-        return visitor.getCount() > 0;
+        return getCardKeywords(state).getAmount(keyword) > 0;
+    }
+
+    /**
+     * Checks for a keyword written by its name, optionally followed by its
+     * parameters (such as "Flying", "Bushido 2" or "Flashback:{R}").
+     */
+    public final boolean hasKeyword(Keyword keyword) {
+        return hasKeyword(keyword, currentState);
+    }
+    public final boolean hasKeyword(Keyword keyword, CardState state) {
+        return getCardKeywords(state).contains(keyword);
     }
 
     public final void updateKeywords() {
@@ -2998,6 +3409,19 @@ public class Card extends GameEntity implements Comparable<Card> {
         keywords.removeAll(getCantHaveOrGainKeyword());
         // if the key already exists - merge entries
         final KeywordsChange cks = changedCardKeywords.get(timestamp);
+        final UndoJournal journal = getUndoJournal();
+        if (journal != null) {
+            journal.record(new UndoJournal.Entry() {
+                @Override
+                public void undo() {
+                    removeChangedCardKeywords(timestamp);
+                    if (cks != null) {
+                        addChangedCardKeywords(new ArrayList<>(cks.getKeywords()), new ArrayList<>(cks.getRemoveKeywords()),
+                                cks.isRemoveAllKeywords(), timestamp);
+                    }
+                }
+            });
+        }
         if (cks != null) {
         	cks.removeKeywords(this);
             List<String> kws = new ArrayList<>(keywords);
@@ -3015,6 +3439,7 @@ public class Card extends GameEntity implements Comparable<Card> {
             newCks.addKeywordsToCard(this);
             changedCardKeywords.put(timestamp, newCks);
         }
+        keywordsChanged();
         updateKeywords();
     }
 
@@ -3034,9 +3459,20 @@ public class Card extends GameEntity implements Comparable<Card> {
     }
 
     public final KeywordsChange removeChangedCardKeywords(final long timestamp) {
-        KeywordsChange change = changedCardKeywords.remove(timestamp);
+        final KeywordsChange change = changedCardKeywords.remove(timestamp);
         if (change != null) {
+            final UndoJournal journal = getUndoJournal();
+            if (journal != null) {
+                journal.record(new UndoJournal.Entry() {
+                    @Override
+                    public void undo() {
+                        addChangedCardKeywords(new ArrayList<>(change.getKeywords()), new ArrayList<>(change.getRemoveKeywords()),
+                                change.isRemoveAllKeywords(), timestamp);
+                    }
+                });
+            }
             change.removeKeywords(this);
+            keywordsChanged();
             updateKeywords();
         }
         return change;
@@ -3066,21 +3502,6 @@ public class Card extends GameEntity implements Comparable<Card> {
         }
         return keywords;
     }
-    private void visitUnhiddenKeywords(CardState state, Visitor<String> visitor) {
-        if (changedCardKeywords.isEmpty()) {
-            // Fast path that doesn't involve temp allocations.
-            for (String kw : state.getIntrinsicKeywords()) {
-                visitor.visit(kw);
-            }
-            for (String kw : extrinsicKeyword) {
-                visitor.visit(kw);
-            }
-        } else {
-            for (String kw : getUnhiddenKeywords()) {
-                visitor.visit(kw);
-            }
-        }
-    }
 
     /**
      * Replace all instances of one color word in this card's text by another.
@@ -3236,6 +3657,7 @@ public class Card extends GameEntity implements Comparable<Card> {
     }
     public final void setExtrinsicKeyword(final List<String> a) {
         extrinsicKeyword = new ArrayList<>(a);
+        keywordsChanged();
     }
 
     public void addExtrinsicKeyword(final String s) {
@@ -3243,7 +3665,9 @@ public class Card extends GameEntity implements Comparable<Card> {
             addHiddenExtrinsicKeyword(s);
         }
         else {
+            recordExtrinsicKeywordsForUndo();
             extrinsicKeyword.add(s);
+            keywordsChanged();
         }
     }
 
@@ -3252,12 +3676,32 @@ public class Card extends GameEntity implements Comparable<Card> {
             removeHiddenExtrinsicKeyword(s);
         }
         else {
+            if (extrinsicKeyword.contains(s)) {
+                recordExtrinsicKeywordsForUndo();
+            }
             if (extrinsicKeyword.remove(s)) {
+                keywordsChanged();
                 currentState.getView().updateKeywords(this, currentState);
             }
         }
     }
 
+    private void recordExtrinsicKeywordsForUndo() {
+        final UndoJournal journal = getUndoJournal();
+        if (journal == null) {
+            return;
+        }
+        final List<String> oldKeywords = new ArrayList<>(extrinsicKeyword);
+        journal.record(new UndoJournal.Entry() {
+            @Override
+            public void undo() {
+                extrinsicKeyword = oldKeywords;
+                keywordsChanged();
+                currentState.getView().updateKeywords(Card.this, currentState);
+            }
+        });
+    }
+
     public void removeAllExtrinsicKeyword(final String s) {
         final List<String> strings = new ArrayList<>();
         strings.add(s);
@@ -3271,6 +3715,7 @@ public class Card extends GameEntity implements Comparable<Card> {
             needKeywordUpdate = true;
         }
         if (needKeywordUpdate) {
+            keywordsChanged();
             currentState.getView().updateKeywords(this, currentState);
         }
     }
@@ -3294,14 +3739,45 @@ public class Card extends GameEntity implements Comparable<Card> {
     }
 
     public final void addHiddenExtrinsicKeyword(final String s) {
+        final UndoJournal journal = getUndoJournal();
+        if (journal != null) {
+            journal.record(new UndoJournal.Entry() {
+                @Override
+                public void undo() {
+                    // remove the occurrence that was just appended
+                    final int i = hiddenExtrinsicKeyword.lastIndexOf(s);
+                    if (i >= 0) {
+                        hiddenExtrinsicKeyword.remove(i);
+                        keywordsChanged();
+                        view.updateNonAbilityText(Card.this);
+                        currentState.getView().updateKeywords(Card.this, currentState);
+                    }
+                }
+            });
+        }
         if (hiddenExtrinsicKeyword.add(s)) {
+            keywordsChanged();
             view.updateNonAbilityText(this);
             currentState.getView().updateKeywords(this, currentState);
         }
     }
 
     public final void removeHiddenExtrinsicKeyword(final String s) {
+        final int index = hiddenExtrinsicKeyword.indexOf(s);
+        final UndoJournal journal = getUndoJournal();
+        if (journal != null && index >= 0) {
+            journal.record(new UndoJournal.Entry() {
+                @Override
+                public void undo() {
+                    hiddenExtrinsicKeyword.add(index, s);
+                    keywordsChanged();
+                    view.updateNonAbilityText(Card.this);
+                    currentState.getView().updateKeywords(Card.this, currentState);
+                }
+            });
+        }
         if (hiddenExtrinsicKeyword.remove(s)) {
+            keywordsChanged();
             view.updateNonAbilityText(this);
             currentState.getView().updateKeywords(this, currentState);
         }
@@ -3326,6 +3802,7 @@ public class Card extends GameEntity implements Comparable<Card> {
     }
     public final void setStaticAbilities(final List<StaticAbility> a) {
         currentState.setStaticAbilities(new ArrayList<>(a));
+        invalidateStaticAbilities();
     }
     public final void addStaticAbilityString(final String s) {
         currentState.addStaticAbilityString(s);
@@ -3337,13 +3814,53 @@ public class Card extends GameEntity implements Comparable<Card> {
     public final StaticAbility addStaticAbility(final String s) {
         if (!s.trim().isEmpty()) {
             final StaticAbility stAb = new StaticAbility(s, this);
-            currentState.addStaticAbility(stAb);
+            if (currentState.addStaticAbility(stAb)) {
+                recordStaticAbilityForUndo(currentState, stAb, true);
+            }
+            invalidateStaticAbilities();
             return stAb;
         }
         return null;
     }
     public final void removeStaticAbility(StaticAbility stAb) {
-        currentState.removeStaticAbility(stAb);
+        if (currentState.removeStaticAbility(stAb)) {
+            recordStaticAbilityForUndo(currentState, stAb, false);
+        }
+        invalidateStaticAbilities();
+    }
+
+    private void recordStaticAbilityForUndo(final CardState state, final StaticAbility stAb, final boolean added) {
+        final UndoJournal journal = getUndoJournal();
+        if (journal == null) {
+            return;
+        }
+        journal.record(new UndoJournal.Entry() {
+            @Override
+            public void undo() {
+                if (added) {
+                    state.removeStaticAbility(stAb);
+                } else {
+                    state.addStaticAbility(stAb);
+                }
+                invalidateStaticAbilities();
+            }
+        });
+    }
+
+    // only the replacement effects of cards in the game are looked at, so copies made for last known information
+    // and cards that are still being created don't have to be reported
+    void replacementEffectsChanged() {
+        if (game != null && currentZone != null) {
+            game.getReplacementHandler().invalidateReplacementEffects(this);
+        }
+    }
+
+    // static abilities granted by others are only applied the next time static abilities are checked,
+    // and SVars and abilities aren't part of the card's view, so changes to them have to be reported
+    private void invalidateStaticAbilities() {
+        if (game != null) {
+            game.getAction().invalidateStaticAbilities();
+        }
     }
 
     public final boolean isPermanent() {
@@ -3433,7 +3950,17 @@ public class Card extends GameEntity implements Comparable<Card> {
     }
     public final void setPhasedOut(final boolean phasedOut0) {
         if (phasedOut == phasedOut0) { return; }
+        final UndoJournal journal = getUndoJournal();
+        if (journal != null) {
+            journal.record(new UndoJournal.Entry() {
+                @Override
+                public void undo() {
+                    setPhasedOut(!phasedOut0);
+                }
+            });
+        }
         phasedOut = phasedOut0;
+        replacementEffectsChanged();
         view.updatePhasedOut(this);
     }
 
@@ -3482,8 +4009,8 @@ public class Card extends GameEntity implements Comparable<Card> {
             return false;
         }
 
-        final Map<String, Object> runParams = new TreeMap<>();
-        runParams.put("Card", this);
+        final RunParams runParams = new RunParams();
+        runParams.put(AbilityKey.Card, this);
 
         if (!isPhasedOut()) {
             // If this is currently PhasedIn, it's about to phase out.
@@ -3540,27 +4067,23 @@ public class Card extends GameEntity implements Comparable<Card> {
         return hasStartOfKeyword(keyword, currentState);
     }
     public final boolean hasStartOfKeyword(String keyword, CardState state) {
-        CountKeywordVisitor visitor = new CountKeywordVisitor(keyword, true);
-        visitKeywords(state, visitor);
-        return visitor.getCount() > 0;
+        return getCardKeywords(state).hasStartOf(keyword, false);
     }
 
     public final boolean hasStartOfUnHiddenKeyword(String keyword) {
         return hasStartOfUnHiddenKeyword(keyword, currentState);
     }
     public final boolean hasStartOfUnHiddenKeyword(String keyword, CardState state) {
-        CountKeywordVisitor visitor = new CountKeywordVisitor(keyword, true);
-        visitUnhiddenKeywords(state, visitor);
-        return visitor.getCount() > 0;
+        return getCardKeywords(state).hasStartOf(keyword, true);
     }
 
     public final int getKeywordPosition(String k) {
         return getKeywordPosition(k, currentState);
     }
     public final int getKeywordPosition(String k, CardState state) {
-        final List<String> a = getKeywords(state);
-        for (int i = 0; i < a.size(); i++) {
-            if (a.get(i).startsWith(k)) {
+        final String[] a = getCardKeywords(state).getArray();
+        for (int i = 0; i < a.length; i++) {
+            if (a[i].startsWith(k)) {
                 return i;
             }
         }
@@ -3584,9 +4107,10 @@ public class Card extends GameEntity implements Comparable<Card> {
         return getAmountOfKeyword(k, currentState);
     }
     public final int getAmountOfKeyword(final String k, CardState state) {
-        CountKeywordVisitor visitor = new CountKeywordVisitor(k);
-        visitKeywords(state, visitor);
-        return visitor.getCount();
+        return getCardKeywords(state).getAmount(k);
+    }
+    public final int getAmountOfKeyword(final Keyword k) {
+        return getCardKeywords(currentState).getAmount(k);
     }
 
     // This is for keywords with a number like Bushido, Annihilator and Rampage.
@@ -3595,19 +4119,11 @@ public class Card extends GameEntity implements Comparable<Card> {
         return getKeywordMagnitude(k, currentState);
     }
     public final int getKeywordMagnitude(final String k, CardState state) {
-        int count = 0;
-        for (final String kw : getKeywords(state)) {
-            if (kw.startsWith(k)) {
-                final String[] parse = kw.split(" ");
-                final String s = parse[1];
-                if (StringUtils.isNumeric(s)) {
-                   count += Integer.parseInt(s);
-                } else {
-                    String svar = StringUtils.join(parse);
-                    if (state.hasSVar(svar)) {
-                        count += AbilityUtils.calculateAmount(this, state.getSVar(svar), null);
-                    }
-                }
+        final CardKeywords.Magnitude magnitude = getCardKeywords(state).getMagnitude(k);
+        int count = magnitude.getFixed();
+        for (final String svar : magnitude.getSVars()) {
+            if (state.hasSVar(svar)) {
+                count += AbilityUtils.calculateAmount(this, state.getSVar(svar), null);
             }
         }
         return count;
@@ -3616,45 +4132,20 @@ public class Card extends GameEntity implements Comparable<Card> {
     // Takes one argument like Permanent.Blue+withFlying
     @Override
     public final boolean isValid(final String restriction, final Player sourceController, final Card source, SpellAbility spellAbility) {
-        if (isImmutable() && !source.isRemembered(this)) { // special case exclusion
-            return false;
-        }
-
-        // Inclusive restrictions are Card types
-        final String[] incR = restriction.split("\\.", 2);
-
-        boolean testFailed = false;
-        if (incR[0].startsWith("!")) {
-            testFailed = true; // a bit counter logical))
-            incR[0] = incR[0].substring(1); // consume negation sign
-        }
-
-        if (incR[0].equals("Spell") && !isSpell()) {
-            return testFailed;
-        }
-        if (incR[0].equals("Permanent") && (isInstant() || isSorcery())) {
-            return testFailed;
-        }
-        if (!incR[0].equals("card") && !incR[0].equals("Card") && !incR[0].equals("Spell")
-                && !incR[0].equals("Permanent") && !getType().hasStringType(incR[0])) {
-            return testFailed; // Check for wrong type
-        }
-
-        if (incR.length > 1) {
-            final String excR = incR[1];
-            final String[] exRs = excR.split("\\+"); // Exclusive Restrictions are ...
-            for (String exR : exRs) {
-                if (!hasProperty(exR, sourceController, source, spellAbility)) {
-                    return testFailed;
-                }
-            }
-        }
-        return !testFailed;
+        return CardRestriction.compile(restriction).matches(this, sourceController, source, spellAbility);
     }
 
+    // Properties that none of the checks below are for are card types. Which check a property goes to only
+    // depends on its string, so those found to be types are remembered and checked without going through them.
+    private static final Set<String> typeProperties = Sets.newConcurrentHashSet();
+
     // Takes arguments like Blue or withFlying
     @Override
     public boolean hasProperty(final String property, final Player sourceController, final Card source, SpellAbility spellAbility) {
+        if (typeProperties.contains(property)) {
+            return getType().hasStringType(property);
+        }
+
         final Game game = getGame();
         final Combat combat = game.getCombat();
         final Card lki = getGame().getChangeZoneLKIInfo(this);
@@ -5318,6 +5809,7 @@ public class Card extends GameEntity implements Comparable<Card> {
                 return false;
             }
         } else {
+            typeProperties.add(property);
             if (!getType().hasStringType(property)) {
                 return false;
             }
@@ -5504,8 +5996,27 @@ public class Card extends GameEntity implements Comparable<Card> {
         if (receivedDamageFromThisTurn.containsKey(c)) {
             currentDamage = receivedDamageFromThisTurn.get(c);
         }
+        recordDamageMapForUndo(receivedDamageFromThisTurn, c);
         receivedDamageFromThisTurn.put(c, damage+currentDamage);
     }
+
+    private void recordDamageMapForUndo(final Map<Card, Integer> damageMap, final Card c) {
+        final UndoJournal journal = getUndoJournal();
+        if (journal == null) {
+            return;
+        }
+        final Integer oldDamage = damageMap.get(c);
+        journal.record(new UndoJournal.Entry() {
+            @Override
+            public void undo() {
+                if (oldDamage == null) {
+                    damageMap.remove(c);
+                } else {
+                    damageMap.put(c, oldDamage);
+                }
+            }
+        });
+    }
     public final void resetReceivedDamageFromThisTurn() {
         receivedDamageFromThisTurn.clear();
     }
@@ -5530,6 +6041,7 @@ public class Card extends GameEntity implements Comparable<Card> {
         if (dealtDamageToThisTurn.containsKey(c)) {
             currentDamage = dealtDamageToThisTurn.get(c);
         }
+        recordDamageMapForUndo(dealtDamageToThisTurn, c);
         dealtDamageToThisTurn.put(c, damage+currentDamage);
     }
     public final void resetDealtDamageToThisTurn() {
@@ -5575,15 +6087,36 @@ public class Card extends GameEntity implements Comparable<Card> {
     }
     public final void setDamage(int damage0) {
         if (damage == damage0) { return; }
+        final UndoJournal journal = getUndoJournal();
+        if (journal != null) {
+            final int oldDamage = damage;
+            journal.record(new UndoJournal.Entry() {
+                @Override
+                public void undo() {
+                    setDamage(oldDamage);
+                }
+            });
+        }
         damage = damage0;
         view.updateDamage(this);
-        getGame().fireEvent(new GameEventCardStatsChanged(this));
+        if (getGame().shouldFireEvent(GameEventCardStatsChanged.class)) {
+            getGame().fireEvent(new GameEventCardStatsChanged(this));
+        }
     }
 
     public final boolean hasBeenDealtDeathtouchDamage() {
         return hasBeenDealtDeathtouchDamage;
     }
     public final void setHasBeenDealtDeathtouchDamage(final boolean hasBeenDealtDeatchtouchDamage) {
+        final UndoJournal journal = getUndoJournal();
+        if (journal != null && hasBeenDealtDeathtouchDamage != hasBeenDealtDeatchtouchDamage) {
+            journal.record(new UndoJournal.Entry() {
+                @Override
+                public void undo() {
+                    setHasBeenDealtDeathtouchDamage(!hasBeenDealtDeatchtouchDamage);
+                }
+            });
+        }
         this.hasBeenDealtDeathtouchDamage = hasBeenDealtDeatchtouchDamage;
     }
 
@@ -5822,13 +6355,13 @@ public class Card extends GameEntity implements Comparable<Card> {
             }
         }
 
-        final HashMap<String, Object> repParams = new HashMap<>();
-        repParams.put("Event", "DamageDone");
-        repParams.put("Affected", this);
-        repParams.put("DamageSource", source);
-        repParams.put("DamageAmount", damage);
-        repParams.put("IsCombat", isCombat);
-        repParams.put("Prevention", true);
+        final RunParams repParams = new RunParams();
+        repParams.put(AbilityKey.Event, "DamageDone");
+        repParams.put(AbilityKey.Affected, this);
+        repParams.put(AbilityKey.DamageSource, source);
+        repParams.put(AbilityKey.DamageAmount, damage);
+        repParams.put(AbilityKey.IsCombat, isCombat);
+        repParams.put(AbilityKey.Prevention, true);
 
         if (getGame().getReplacementHandler().run(repParams) != ReplacementResult.NotReplaced) {
             return 0;
@@ -5918,12 +6451,12 @@ public class Card extends GameEntity implements Comparable<Card> {
     @Override
     public final int replaceDamage(final int damageIn, final Card source, final boolean isCombat) {
         // Replacement effects
-        final HashMap<String, Object> repParams = new HashMap<>();
-        repParams.put("Event", "DamageDone");
-        repParams.put("Affected", this);
-        repParams.put("DamageSource", source);
-        repParams.put("DamageAmount", damageIn);
-        repParams.put("IsCombat", isCombat);
+        final RunParams repParams = new RunParams();
+        repParams.put(AbilityKey.Event, "DamageDone");
+        repParams.put(AbilityKey.Affected, this);
+        repParams.put(AbilityKey.DamageSource, source);
+        repParams.put(AbilityKey.DamageAmount, damageIn);
+        repParams.put(AbilityKey.IsCombat, isCombat);
 
         if (getGame().getReplacementHandler().run(repParams) != ReplacementResult.NotReplaced) {
             return 0;
@@ -5960,16 +6493,16 @@ public class Card extends GameEntity implements Comparable<Card> {
         }
 
         // Run triggers
-        final Map<String, Object> runParams = new TreeMap<>();
-        runParams.put("DamageSource", source);
-        runParams.put("DamageTarget", this);
-        runParams.put("DamageAmount", damageIn);
-        runParams.put("IsCombatDamage", isCombat);
+        final RunParams runParams = new RunParams();
+        runParams.put(AbilityKey.DamageSource, source);
+        runParams.put(AbilityKey.DamageTarget, this);
+        runParams.put(AbilityKey.DamageAmount, damageIn);
+        runParams.put(AbilityKey.IsCombatDamage, isCombat);
         if (!isCombat) {
-            runParams.put("SpellAbilityStackInstance", game.stack.peek());
+            runParams.put(AbilityKey.SpellAbilityStackInstance, game.stack.peek());
         }
         // Defending player at the time the damage was dealt
-        runParams.put("DefendingPlayer", game.getCombat() != null ? game.getCombat().getDefendingPlayerRelatedTo(source) : null);
+        runParams.put(AbilityKey.DefendingPlayer, game.getCombat() != null ? game.getCombat().getDefendingPlayerRelatedTo(source) : null);
         getGame().getTriggerHandler().runTrigger(TriggerType.DamageDone, runParams, false);
 
         GameEventCardDamaged.DamageType damageType = DamageType.Normal;
@@ -6103,6 +6636,16 @@ public class Card extends GameEntity implements Comparable<Card> {
         return timestamp;
     }
     public final void setTimestamp(final long t) {
+        final UndoJournal journal = getUndoJournal();
+        if (journal != null && timestamp != t) {
+            final long oldTimestamp = timestamp;
+            journal.record(new UndoJournal.Entry() {
+                @Override
+                public void undo() {
+                    setTimestamp(oldTimestamp);
+                }
+            });
+        }
         timestamp = t;
     }
 
@@ -6312,6 +6855,16 @@ public class Card extends GameEntity implements Comparable<Card> {
     }
     public void setZone(Zone zone) {
         if (currentZone == zone) { return; }
+        final UndoJournal journal = getUndoJournal();
+        if (journal != null) {
+            final Zone oldZone = currentZone;
+            journal.record(new UndoJournal.Entry() {
+                @Override
+                public void undo() {
+                    setZone(oldZone);
+                }
+            });
+        }
         currentZone = zone;
         view.updateZone(this);
     }
@@ -6473,11 +7026,32 @@ public class Card extends GameEntity implements Comparable<Card> {
     public ReplacementEffect addReplacementEffect(final ReplacementEffect replacementEffect) {
         final ReplacementEffect replacementEffectCopy = replacementEffect.getCopy(); // doubtful - every caller provides a newly parsed instance, why copy?
         replacementEffectCopy.setHostCard(this);
-        currentState.addReplacementEffect(replacementEffectCopy);
+        if (currentState.addReplacementEffect(replacementEffectCopy)) {
+            recordReplacementEffectForUndo(currentState, replacementEffectCopy, true);
+        }
         return replacementEffectCopy;
     }
     public void removeReplacementEffect(ReplacementEffect replacementEffect) {
-        currentState.removeReplacementEffect(replacementEffect);
+        if (currentState.removeReplacementEffect(replacementEffect)) {
+            recordReplacementEffectForUndo(currentState, replacementEffect, false);
+        }
+    }
+
+    private void recordReplacementEffectForUndo(final CardState state, final ReplacementEffect replacementEffect, final boolean added) {
+        final UndoJournal journal = getUndoJournal();
+        if (journal == null) {
+            return;
+        }
+        journal.record(new UndoJournal.Entry() {
+            @Override
+            public void undo() {
+                if (added) {
+                    state.removeReplacementEffect(replacementEffect);
+                } else {
+                    state.addReplacementEffect(replacementEffect);
+                }
+            }
+        });
     }
 
     /**
@@ -6487,6 +7061,16 @@ public class Card extends GameEntity implements Comparable<Card> {
         return castFrom;
     }
     public void setCastFrom(final ZoneType castFrom0) {
+        final UndoJournal journal = getUndoJournal();
+        if (journal != null && castFrom != castFrom0) {
+            final ZoneType oldCastFrom = castFrom;
+            journal.record(new UndoJournal.Entry() {
+                @Override
+                public void undo() {
+                    setCastFrom(oldCastFrom);
+                }
+            });
+        }
         castFrom = castFrom0;
     }
 
@@ -6813,35 +7397,6 @@ public class Card extends GameEntity implements Comparable<Card> {
         return view;
     }
 
-    // Counts number of instances of a given keyword.
-    private static final class CountKeywordVisitor extends Visitor<String> {
-        private String keyword;
-        private int count;
-        private boolean startOf;
-
-        private CountKeywordVisitor(String keyword) {
-            this.keyword = keyword;
-            this.count = 0;
-            this.startOf = false;
-        }
-
-        private CountKeywordVisitor(String keyword, boolean startOf) {
-            this(keyword);
-            this.startOf = startOf;
-        }
-
-        @Override
-        public void visit(String kw) {
-            if ((startOf && kw.startsWith(keyword)) || kw.equals(keyword)) {
-                count++;
-            }
-        }
-
-        public int getCount() {
-            return count;
-        }
-    }
-
     // Collects all the keywords into a list.
     private static final class ListKeywordVisitor extends Visitor<String> {
         private List<String> keywords = new ArrayList<>();
@@ -6868,6 +7423,7 @@ public class Card extends GameEntity implements Comparable<Card> {
         for (Entry<Long, KeywordsChange> entry : changedCardKeywords.entrySet()) {
             this.changedCardKeywords.put(entry.getKey(), entry.getValue());
         }
+        keywordsChanged();
     }
 
     public void setChangedCardColors(Map<Long, CardColor> changedCardColors) {
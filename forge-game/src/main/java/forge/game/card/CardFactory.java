@@ -123,6 +123,58 @@ public class CardFactory {
 
     }
 
+    /**
+     * <p>
+     * copyCardToGame.
+     * </p>
+     *
+     * Copies a card into another game (e.g. a game copied for AI simulation),
+     * cloning all of its states with their keywords, SVars and abilities from
+     * the already parsed objects of the original, so the card script is not
+     * read again. Only the printed characteristics are copied; changes made
+     * during the game (counters, changed types, etc.) are up to the caller.
+     *
+     * @param in
+     *            the {@link forge.game.card.Card} to be copied.
+     * @param newOwner
+     *            the owner of the copy, in the new game.
+     * @param newGame
+     *            the game of the copy.
+     * @return the copy, or null if any of the card's abilities can only be
+     *         built from its script (see {@link SpellAbility#canCopyToHost()}),
+     *         in which case {@link Card#fromPaperCard} should be used instead.
+     */
+    public static Card copyCardToGame(final Card in, final Player newOwner, final Game newGame) {
+        for (final CardStateName state : in.getStates()) {
+            if (!in.getState(state).canCopyWithAbilities()) {
+                return null;
+            }
+        }
+
+        final Card out = new Card(newGame.nextCardId(), in.getPaperCard(), newGame);
+        out.setOwner(newOwner);
+        out.setToken(in.isToken());
+        out.setBaseLoyalty(in.getBaseLoyalty());
+        out.setBasePowerString(in.getBasePowerString());
+        out.setBaseToughnessString(in.getBaseToughnessString());
+        out.setText(in.getSpellText());
+        out.setMiracleCost(in.getMiracleCost());
+
+        for (final CardStateName state : in.getStates()) {
+            if (!out.getStates().contains(state)) {
+                out.addAlternateState(state, false);
+            }
+            out.setState(state, false);
+            out.getCurrentState().copyWithAbilitiesFrom(in.getState(state));
+        }
+        // face down cards are turned face down again by the caller
+        out.setState(in.isFaceDown() ? CardStateName.Original : in.getCurrentStateName(), false);
+        out.setRules(in.getRules());
+        out.setOracleText(in.getOracleText());
+        out.updateStateForView();
+        return out;
+    }
+
     /**
      * <p>
      * copyCardWithChangedStats
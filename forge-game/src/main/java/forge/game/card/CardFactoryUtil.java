@@ -893,34 +893,28 @@ public class CardFactoryUtil {
         if (StringUtils.isBlank(expression)) {
             return 0;
         }
-        if (StringUtils.isNumeric(expression)) {
-            return Integer.parseInt(expression);
-        }
+        return CountExpression.compile(expression).evaluate(c);
+    }
 
+    /**
+     * <p>
+     * Look up the value named by an expression that {@link CountExpression}
+     * doesn't evaluate itself.
+     * </p>
+     * 
+     * @param c
+     *            a {@link forge.game.card.Card} object.
+     * @param l
+     *            the expression split at "/", without a leading "Count$".
+     * @param m
+     *            the operators of the expression, or null.
+     * @return a int.
+     */
+    static int xCount(final Card c, final String[] l, final String m) {
         final Player cc = c.getController();
         final Game game = c.getGame();
         final Player activePlayer = game.getPhaseHandler().getPlayerTurn();
 
-        final String[] l = expression.split("/");
-        final String m = extractOperators(expression);
-
-        // accept straight numbers
-        if (l[0].startsWith("Number$")) {
-            final String number = l[0].substring(7);
-            if (number.equals("ChosenNumber")) {
-                return doXMath(c.getChosenNumber(), m, c);
-            }
-            return doXMath(Integer.parseInt(number), m, c);
-        }
-
-        if (l[0].startsWith("Count$")) {
-            l[0] = l[0].substring(6);
-        }
-
-        if (l[0].startsWith("SVar$")) {
-            return doXMath(xCount(c, c.getSVar(l[0].substring(5))), m, c);
-        }
-
         if (l[0].startsWith("Controller$")) {
             return playerXProperty(cc, l[0].substring(11), c);
         }
@@ -934,19 +928,6 @@ public class CardFactoryUtil {
             return cc.getManaPool().getAmountOfColor(ManaAtom.fromName(color));
         }
 
-        // count valid cards in any specified zone/s
-        if (l[0].startsWith("Valid")) {
-            String[] lparts = l[0].split(" ", 2);
-            final String[] rest = lparts[1].split(",");
-
-            final CardCollectionView cardsInZones = lparts[0].length() > 5 
-                ? game.getCardsIn(ZoneType.listValueOf(lparts[0].substring(5)))
-                : game.getCardsIn(ZoneType.Battlefield);
-
-            CardCollection cards = CardLists.getValidCards(cardsInZones, rest, cc, c, null);
-            return doXMath(cards.size(), m, c);
-        }
-
         if (l[0].startsWith("ImprintedCardManaCost") && !c.getImprintedCards().isEmpty()) {
             return c.getImprintedCards().get(0).getCMC();
         }
@@ -1746,69 +1727,7 @@ public class CardFactoryUtil {
     }
 
     public static int doXMath(final int num, final String operators, final Card c) {
-        if (operators == null || operators.equals("none")) {
-            return num;
-        }
-
-        final String[] s = operators.split("\\.");
-        int secondaryNum = 0;
-
-        try {
-            if (s.length == 2) {
-                secondaryNum = Integer.parseInt(s[1]);
-            }
-        } catch (final Exception e) {
-            secondaryNum = xCount(c, c.getSVar(s[1]));
-        }
-
-        if (s[0].contains("Plus")) {
-            return num + secondaryNum;
-        } else if (s[0].contains("NMinus")) {
-            return secondaryNum - num;
-        } else if (s[0].contains("Minus")) {
-            return num - secondaryNum;
-        } else if (s[0].contains("Twice")) {
-            return num * 2;
-        } else if (s[0].contains("Thrice")) {
-            return num * 3;
-        } else if (s[0].contains("HalfUp")) {
-            return (int) (Math.ceil(num / 2.0));
-        } else if (s[0].contains("HalfDown")) {
-            return (int) (Math.floor(num / 2.0));
-        } else if (s[0].contains("ThirdUp")) {
-            return (int) (Math.ceil(num / 3.0));
-        } else if (s[0].contains("ThirdDown")) {
-            return (int) (Math.floor(num / 3.0));
-        } else if (s[0].contains("Negative")) {
-            return num * -1;
-        } else if (s[0].contains("Times")) {
-            return num * secondaryNum;
-        } else if (s[0].contains("DivideEvenlyDown")) {
-            if (secondaryNum == 0) {
-                return 0;
-            } else {
-                return num / secondaryNum;
-            }
-        } else if (s[0].contains("Mod")) {
-            return num % secondaryNum;
-        } else if (s[0].contains("Abs")) {
-            return Math.abs(num);
-        } else if (s[0].contains("LimitMax")) {
-            if (num < secondaryNum) {
-                return num;
-            } else {
-                return secondaryNum;
-            }
-        } else if (s[0].contains("LimitMin")) {
-            if (num > secondaryNum) {
-                return num;
-            } else {
-                return secondaryNum;
-            }
-
-        } else {
-            return num;
-        }
+        return CountExpression.Operators.compile(operators).apply(num, c);
     }
 
     /**
@@ -0,0 +1,156 @@
+package forge.game.card;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.commons.lang3.StringUtils;
+
+import forge.game.keyword.Keyword;
+
+/**
+ * The keywords a card has in one of its states, worked out once from its
+ * intrinsic, extrinsic, changed and hidden keywords. {@link Card} keeps one
+ * of these on each {@link CardState} and builds a new one whenever any of
+ * those keywords change, so asking whether a card has a keyword doesn't
+ * walk and compare all of its keyword strings every time.
+ * <p>
+ * Hidden keywords are kept without their "HIDDEN " prefix, after the
+ * unhidden ones, in the order {@link Card#visitKeywords} used to visit them.
+ */
+final class CardKeywords {
+    private final Card card;
+    private final int version;
+    private final String[] keywords;
+    private final int unhiddenCount;
+    private final Map<String, Integer> counts = new HashMap<String, Integer>();
+    private final EnumSet<Keyword> enumKeywords = EnumSet.noneOf(Keyword.class);
+    private final int[] enumCounts = new int[Keyword.values().length];
+
+    // Filled in as they are asked for, keyed by keyword prefix. Simulations
+    // may ask from more than one thread, so these are concurrent maps; the
+    // rest is only written by the constructor.
+    private final Map<String, Integer> startCounts = new ConcurrentHashMap<String, Integer>();
+    private final Map<String, Magnitude> magnitudes = new ConcurrentHashMap<String, Magnitude>();
+
+    CardKeywords(final Card card0, final int version0, final List<String> unhidden, final List<String> hidden) {
+        card = card0;
+        version = version0;
+        unhiddenCount = unhidden.size();
+        keywords = new String[unhiddenCount + hidden.size()];
+        int i = 0;
+        for (final String kw : unhidden) {
+            keywords[i++] = kw;
+        }
+        for (final String kw : hidden) {
+            keywords[i++] = kw;
+        }
+        for (final String kw : keywords) {
+            final Integer count = counts.get(kw);
+            counts.put(kw, count == null ? 1 : count + 1);
+            final Keyword keyword = Keyword.smartValueOf(kw);
+            if (keyword != Keyword.UNDEFINED) {
+                enumKeywords.add(keyword);
+                enumCounts[keyword.ordinal()]++;
+            }
+        }
+    }
+
+    boolean isValidFor(final Card card0, final int version0) {
+        return card == card0 && version == version0;
+    }
+
+    List<String> getKeywords() {
+        final List<String> result = new ArrayList<String>(keywords.length);
+        for (final String kw : keywords) {
+            result.add(kw);
+        }
+        return result;
+    }
+
+    String[] getArray() {
+        return keywords;
+    }
+
+    int getUnhiddenCount() {
+        return unhiddenCount;
+    }
+
+    int getAmount(final String keyword) {
+        final Integer count = counts.get(keyword);
+        return count == null ? 0 : count;
+    }
+
+    boolean contains(final Keyword keyword) {
+        return enumKeywords.contains(keyword);
+    }
+
+    int getAmount(final Keyword keyword) {
+        return enumCounts[keyword.ordinal()];
+    }
+
+    boolean hasStartOf(final String prefix, final boolean unhiddenOnly) {
+        if (unhiddenOnly) {
+            for (int i = 0; i < unhiddenCount; i++) {
+                if (keywords[i].startsWith(prefix)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        Integer count = startCounts.get(prefix);
+        if (count == null) {
+            int n = 0;
+            for (final String kw : keywords) {
+                if (kw.startsWith(prefix)) {
+                    n++;
+                }
+            }
+            count = n;
+            startCounts.put(prefix, count);
+        }
+        return count > 0;
+    }
+
+    /**
+     * Returns the numbers written after the keywords that start with the
+     * given prefix (as in "Bushido 2"), with those given by an SVar instead
+     * of a number left for the caller to work out.
+     */
+    Magnitude getMagnitude(final String prefix) {
+        Magnitude magnitude = magnitudes.get(prefix);
+        if (magnitude == null) {
+            magnitude = new Magnitude();
+            for (final String kw : keywords) {
+                if (!kw.startsWith(prefix)) {
+                    continue;
+                }
+                final String[] parse = kw.split(" ");
+                final String s = parse[1];
+                if (StringUtils.isNumeric(s)) {
+                    magnitude.fixed += Integer.parseInt(s);
+                } else {
+                    magnitude.svars.add(StringUtils.join(parse));
+                }
+            }
+            magnitudes.put(prefix, magnitude);
+        }
+        return magnitude;
+    }
+
+    static final class Magnitude {
+        private int fixed;
+        private final List<String> svars = new ArrayList<String>(0);
+
+        int getFixed() {
+            return fixed;
+        }
+
+        List<String> getSVars() {
+            return svars;
+        }
+    }
+}
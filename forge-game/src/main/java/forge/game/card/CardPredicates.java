@@ -172,10 +172,11 @@ public final class CardPredicates {
     }
 
     public static final Predicate<Card> restriction(final String[] restrictions, final Player sourceController, final Card source, final SpellAbility spellAbility) {
+        final CardRestriction[] compiled = CardRestriction.compile(restrictions);
         return new Predicate<Card>() {
             @Override
             public boolean apply(final Card c) {
-                return (c != null) && c.isValid(restrictions, sourceController, source, spellAbility);
+                return (c != null) && CardRestriction.matchesAny(compiled, c, sourceController, source, spellAbility);
             }
         };
     }
@@ -0,0 +1,204 @@
+package forge.game.card;
+
+import forge.game.player.Player;
+import forge.game.spellability.SpellAbility;
+import forge.util.ParseCache;
+
+/**
+ * A restriction like "Creature.YouCtrl+nonToken", as passed to
+ * {@link Card#isValid}, split up into its type and properties once, so
+ * checking a card against it doesn't split the string again every time.
+ * <p>
+ * The properties that are checked most often are turned into direct checks
+ * of the card; all others are still looked up with
+ * {@link Card#hasProperty}. Restrictions are cached by their string, so a
+ * restriction used by a card script is only compiled once.
+ */
+public final class CardRestriction {
+    // some restrictions are made up while playing (like those naming a card id), so the cache is bounded
+    private static final ParseCache<CardRestriction> cache = new ParseCache<CardRestriction>(20000) {
+        @Override
+        protected CardRestriction parse(final String restriction) {
+            return new CardRestriction(restriction);
+        }
+    };
+
+    private final boolean negated;
+    private final String type;
+    private final Property[] properties;
+
+    public static CardRestriction compile(final String restriction) {
+        return cache.get(restriction);
+    }
+
+    public static CardRestriction[] compile(final String[] restrictions) {
+        final CardRestriction[] result = new CardRestriction[restrictions.length];
+        for (int i = 0; i < restrictions.length; i++) {
+            result[i] = compile(restrictions[i]);
+        }
+        return result;
+    }
+
+    private CardRestriction(final String restriction) {
+        // Inclusive restrictions are Card types
+        final String[] incR = restriction.split("\\.", 2);
+
+        negated = incR[0].startsWith("!");
+        type = negated ? incR[0].substring(1) : incR[0]; // consume negation sign
+
+        if (incR.length > 1) {
+            final String[] exRs = incR[1].split("\\+"); // Exclusive Restrictions are ...
+            properties = new Property[exRs.length];
+            for (int i = 0; i < exRs.length; i++) {
+                properties[i] = Property.compile(exRs[i]);
+            }
+        } else {
+            properties = new Property[0];
+        }
+    }
+
+    public boolean matches(final Card card, final Player sourceController, final Card source, final SpellAbility spellAbility) {
+        if (card.isImmutable() && !source.isRemembered(card)) { // special case exclusion
+            return false;
+        }
+
+        if (type.equals("Spell") && !card.isSpell()) {
+            return negated;
+        }
+        if (type.equals("Permanent") && (card.isInstant() || card.isSorcery())) {
+            return negated;
+        }
+        if (!type.equals("card") && !type.equals("Card") && !type.equals("Spell")
+                && !type.equals("Permanent") && !card.getType().hasStringType(type)) {
+            return negated; // Check for wrong type
+        }
+
+        for (final Property property : properties) {
+            if (!property.matches(card, sourceController, source, spellAbility)) {
+                return negated;
+            }
+        }
+        return !negated;
+    }
+
+    public static boolean matchesAny(final CardRestriction[] restrictions, final Card card, final Player sourceController, final Card source, final SpellAbility spellAbility) {
+        for (final CardRestriction restriction : restrictions) {
+            if (restriction.matches(card, sourceController, source, spellAbility)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * One of the properties after the type. Those handled here have to mean
+     * the same as in {@link Card#hasProperty}, including for strings that an
+     * earlier branch there would catch first.
+     */
+    private static abstract class Property {
+        static Property compile(final String property) {
+            switch (property) {
+            case "Self":
+                return new Property() {
+                    @Override
+                    boolean matches(final Card card, final Player sourceController, final Card source, final SpellAbility spellAbility) {
+                        return card.equals(source);
+                    }
+                };
+            case "Other":
+                return new Property() {
+                    @Override
+                    boolean matches(final Card card, final Player sourceController, final Card source, final SpellAbility spellAbility) {
+                        return !card.equals(source);
+                    }
+                };
+            case "YouCtrl":
+                return new Property() {
+                    @Override
+                    boolean matches(final Card card, final Player sourceController, final Card source, final SpellAbility spellAbility) {
+                        return getController(card).equals(sourceController);
+                    }
+                };
+            case "YouDontCtrl":
+                return new Property() {
+                    @Override
+                    boolean matches(final Card card, final Player sourceController, final Card source, final SpellAbility spellAbility) {
+                        return !getController(card).equals(sourceController);
+                    }
+                };
+            case "OppCtrl":
+                return new Property() {
+                    @Override
+                    boolean matches(final Card card, final Player sourceController, final Card source, final SpellAbility spellAbility) {
+                        return getController(card).getOpponents().contains(sourceController);
+                    }
+                };
+            case "token":
+                return new Property() {
+                    @Override
+                    boolean matches(final Card card, final Player sourceController, final Card source, final SpellAbility spellAbility) {
+                        return card.isToken();
+                    }
+                };
+            case "nonToken":
+                return new Property() {
+                    @Override
+                    boolean matches(final Card card, final Player sourceController, final Card source, final SpellAbility spellAbility) {
+                        return !card.isToken();
+                    }
+                };
+            case "tapped":
+                return new Property() {
+                    @Override
+                    boolean matches(final Card card, final Player sourceController, final Card source, final SpellAbility spellAbility) {
+                        return card.isTapped();
+                    }
+                };
+            case "untapped":
+                return new Property() {
+                    @Override
+                    boolean matches(final Card card, final Player sourceController, final Card source, final SpellAbility spellAbility) {
+                        return card.isUntapped();
+                    }
+                };
+            default:
+                if (isKeywordProperty(property)) {
+                    final boolean without = property.startsWith("without");
+                    final String keyword = property.substring(without ? 7 : 4);
+                    return new Property() {
+                        @Override
+                        boolean matches(final Card card, final Player sourceController, final Card source, final SpellAbility spellAbility) {
+                            return card.hasStartOfUnHiddenKeyword(keyword) != without;
+                        }
+                    };
+                }
+                return new Property() {
+                    @Override
+                    boolean matches(final Card card, final Player sourceController, final Card source, final SpellAbility spellAbility) {
+                        return card.hasProperty(property, sourceController, source, spellAbility);
+                    }
+                };
+            }
+        }
+
+        // "withX" and "withoutX" check for keyword X, unless the keyword names a color or pairing, which are checked first
+        private static boolean isKeywordProperty(final String property) {
+            if (!property.startsWith("with") || property.startsWith("withFlashback")) {
+                return false;
+            }
+            for (final String word : new String[] { "White", "Blue", "Black", "Red", "Green", "Colorless", "MultiColor", "MonoColor", "ChosenColor", "Paired" }) {
+                if (property.contains(word)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        // the controller a card had when it last changed zones, like hasProperty uses
+        private static Player getController(final Card card) {
+            return card.getGame().getChangeZoneLKIInfo(card).getController();
+        }
+
+        abstract boolean matches(Card card, Player sourceController, Card source, SpellAbility spellAbility);
+    }
+}
@@ -49,6 +49,8 @@ public class CardState {
     private int basePower = 0;
     private int baseToughness = 0;
     private List<String> intrinsicKeywords = new ArrayList<String>();
+    // volatile so that a CardKeywords built on one thread is seen whole on another
+    private volatile CardKeywords cachedKeywords = null;
     private final FCollection<SpellAbility> nonManaAbilities = new FCollection<SpellAbility>();
     private final FCollection<SpellAbility> manaAbilities = new FCollection<SpellAbility>();
     private List<String> unparsedAbilities = new ArrayList<String>();
@@ -155,10 +157,15 @@ public class CardState {
     }
     public final void setIntrinsicKeywords(final List<String> intrinsicKeyword0) {
         intrinsicKeywords = intrinsicKeyword0;
+        cachedKeywords = null;
     }
 
     public final boolean addIntrinsicKeyword(final String s) {
-        return s.trim().length() != 0 && intrinsicKeywords.add(s);
+        if (s.trim().length() == 0 || !intrinsicKeywords.add(s)) {
+            return false;
+        }
+        cachedKeywords = null;
+        return true;
     }
     public final boolean addIntrinsicKeywords(final Iterable<String> keywords) {
         boolean changed = false;
@@ -175,7 +182,19 @@ public class CardState {
     }
 
     public final boolean removeIntrinsicKeyword(final String s) {
-        return intrinsicKeywords.remove(s);
+        if (!intrinsicKeywords.remove(s)) {
+            return false;
+        }
+        cachedKeywords = null;
+        return true;
+    }
+
+    // The keywords of this state as worked out by Card.getCardKeywords(CardState).
+    final CardKeywords getCachedKeywords() {
+        return cachedKeywords;
+    }
+    final void setCachedKeywords(final CardKeywords keywords) {
+        cachedKeywords = keywords;
     }
 
     public final FCollectionView<SpellAbility> getSpellAbilities() {
@@ -308,12 +327,15 @@ public class CardState {
         return replacementEffects;
     }
     public boolean addReplacementEffect(final ReplacementEffect replacementEffect) {
+        card.replacementEffectsChanged();
         return replacementEffects.add(replacementEffect);
     }
     public boolean removeReplacementEffect(final ReplacementEffect replacementEffect) {
+        card.replacementEffectsChanged();
         return replacementEffects.remove(replacementEffect);
     }
     public void clearReplacementEffects() {
+        card.replacementEffectsChanged();
         replacementEffects.clear();
     }
 
@@ -356,6 +378,7 @@ public class CardState {
         setBasePower(source.getBasePower());
         setBaseToughness(source.getBaseToughness());
         intrinsicKeywords = new ArrayList<String>(source.intrinsicKeywords);
+        cachedKeywords = null;
         unparsedAbilities = new ArrayList<String>(source.unparsedAbilities);
         staticAbilityStrings = new ArrayList<String>(source.staticAbilityStrings);
         setImageKey(source.getImageKey());
@@ -366,9 +389,95 @@ public class CardState {
         for (ReplacementEffect RE : source.getReplacementEffects()) {
             replacementEffects.add(RE.getCopy());
         }
+        card.replacementEffectsChanged();
         view.updateKeywords(c, this);
     }
 
+    /**
+     * Checks whether all abilities of this state can be rebuilt on a card in
+     * another game by {@link #copyWithAbilitiesFrom(CardState)}. Temporary
+     * abilities are ignored, since they are not copied.
+     */
+    public final boolean canCopyWithAbilities() {
+        for (final SpellAbility sa : Iterables.concat(manaAbilities, nonManaAbilities)) {
+            if (!sa.isTemporary() && !sa.canCopyToHost()) {
+                return false;
+            }
+        }
+        for (final Trigger t : triggers) {
+            if (!t.isTemporary() && t.getOverridingAbility() != null && !t.getOverridingAbility().canCopyToHost()) {
+                return false;
+            }
+        }
+        for (final ReplacementEffect re : replacementEffects) {
+            if (!re.isTemporary() && re.getOverridingAbility() != null && !re.getOverridingAbility().canCopyToHost()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Makes this state a copy of a state of a card in another game, including
+     * its abilities, triggers, static abilities and replacement effects. These
+     * are rebuilt on this state's card from their parsed parameters rather than
+     * from the card script. Temporary traits (granted by static effects) are
+     * left out, as the static effects of the new game grant them again.
+     *
+     * The card of this state must currently be in this state, since the default
+     * permanent spell is built from the card's current characteristics.
+     */
+    public final void copyWithAbilitiesFrom(final CardState source) {
+        setName(source.getName());
+        setType(source.type);
+        setManaCost(source.getManaCost());
+        setColor(source.getColor());
+        setBasePower(source.getBasePower());
+        setBaseToughness(source.getBaseToughness());
+        intrinsicKeywords = new ArrayList<String>(source.intrinsicKeywords);
+        cachedKeywords = null;
+        unparsedAbilities = new ArrayList<String>(source.unparsedAbilities);
+        staticAbilityStrings = new ArrayList<String>(source.staticAbilityStrings);
+        setImageKey(source.getImageKey());
+        setRarity(source.rarity);
+        setSetCode(source.setCode);
+        setSVars(new TreeMap<String, String>(source.getSVars()));
+
+        manaAbilities.clear();
+        for (final SpellAbility sa : source.manaAbilities) {
+            if (!sa.isTemporary()) {
+                manaAbilities.add(sa.copyToHost(card));
+            }
+        }
+        nonManaAbilities.clear();
+        for (final SpellAbility sa : source.nonManaAbilities) {
+            if (!sa.isTemporary()) {
+                nonManaAbilities.add(sa.copyToHost(card));
+            }
+        }
+        triggers = new FCollection<Trigger>();
+        for (final Trigger t : source.triggers) {
+            if (!t.isTemporary()) {
+                triggers.add(t.copyToHost(card));
+            }
+        }
+        staticAbilities = new FCollection<StaticAbility>();
+        for (final StaticAbility stAb : source.staticAbilities) {
+            if (!stAb.isTemporary()) {
+                staticAbilities.add(stAb.copyToHost(card));
+            }
+        }
+        replacementEffects = new FCollection<ReplacementEffect>();
+        for (final ReplacementEffect re : source.replacementEffects) {
+            if (!re.isTemporary()) {
+                replacementEffects.add(re.copyToHost(card));
+            }
+        }
+        card.replacementEffectsChanged();
+        view.updateKeywords(card, this);
+        view.updateAbilityText(card, this);
+    }
+
     public CardRarity getRarity() {
         return rarity;
     }
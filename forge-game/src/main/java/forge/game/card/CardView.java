@@ -27,6 +27,9 @@ import java.util.Map;
 public class CardView extends GameEntityView {
     private static final long serialVersionUID = -3624090829028979255L;
 
+    // the zone of the card, which unlike the Zone property is up to date while the tracker is frozen
+    private transient ZoneType zoneForChanges;
+
     public static CardView get(Card c) {
         return c == null ? null : c.getView();
     }
@@ -101,7 +104,13 @@ public class CardView extends GameEntityView {
         return get(TrackableProperty.Zone);
     }
     void updateZone(Card c) {
-        set(TrackableProperty.Zone, c.getZone() == null ? null : c.getZone().getZoneType());
+        zoneForChanges = c.getZone() == null ? null : c.getZone().getZoneType();
+        set(TrackableProperty.Zone, zoneForChanges);
+    }
+
+    @Override
+    protected ZoneType getZoneForChanges() {
+        return zoneForChanges;
     }
     public boolean isInZone(final Iterable<ZoneType> zones) {
         return Iterables.contains(zones, getZone());
@@ -785,6 +794,11 @@ public class CardView extends GameEntityView {
             return CardView.this;
         }
 
+        @Override
+        protected ZoneType getZoneForChanges() {
+            return CardView.this.getZoneForChanges();
+        }
+
         public CardStateName getState() {
             return state;
         }
@@ -0,0 +1,277 @@
+package forge.game.card;
+
+import java.util.List;
+
+import org.apache.commons.lang3.StringUtils;
+
+import forge.game.player.Player;
+import forge.game.zone.ZoneType;
+import forge.util.ParseCache;
+
+/**
+ * An expression like "Count$Valid Creature.YouCtrl/Plus.2", as passed to
+ * {@link CardFactoryUtil#xCount}, parsed once into the value to count and
+ * the math to do on it.
+ * <p>
+ * Plain numbers, chosen numbers, references to other SVars and counts of
+ * valid cards are evaluated directly; all other values are still looked up
+ * by name in {@link CardFactoryUtil#xCount}, but without splitting the
+ * expression again. Expressions are cached by their string, like
+ * {@link CardRestriction}.
+ */
+public final class CountExpression {
+    private static final ParseCache<CountExpression> cache = new ParseCache<CountExpression>(20000) {
+        @Override
+        protected CountExpression parse(final String expression) {
+            return new CountExpression(expression);
+        }
+    };
+
+    private final String[] parts;
+    private final String operators;
+    private final Operators math;
+    private final Value value;
+    private final boolean abilitySpecific;
+
+    public static CountExpression compile(final String expression) {
+        return cache.get(expression);
+    }
+
+    private CountExpression(final String expression) {
+        parts = expression.split("/");
+        operators = CardFactoryUtil.extractOperators(expression);
+        math = Operators.compile(operators);
+        abilitySpecific = isAbilitySpecific(parts[0]);
+
+        if (StringUtils.isNumeric(expression)) {
+            value = new Number(expression, false);
+            return;
+        }
+
+        String head = parts[0];
+        if (head.startsWith("Number$")) {
+            final String number = head.substring(7);
+            value = number.equals("ChosenNumber") ? new ChosenNumber() : new Number(number, true);
+            return;
+        }
+        if (head.startsWith("Count$")) {
+            head = head.substring(6);
+        }
+        if (head.startsWith("SVar$")) {
+            value = new SVar(head.substring(5));
+        } else if (head.startsWith("Valid")) {
+            value = new Valid(head);
+        } else {
+            value = new Named(head);
+        }
+    }
+
+    /**
+     * Whether the expression may name a value that {@link forge.game.ability.AbilityUtils#xCount}
+     * takes from the ability instead, so the expression has to be handed to it as a string.
+     */
+    public boolean isAbilitySpecific() {
+        return abilitySpecific;
+    }
+
+    public int evaluate(final Card c) {
+        return value.evaluate(c);
+    }
+
+    private static boolean isAbilitySpecific(final String head) {
+        final String first = head.split("\\.")[0];
+        return first.startsWith("Compare") || first.contains("xPaid") || first.startsWith("Kicked")
+                || first.contains("SearchedLibrary") || first.contains("HasNumChosenColors")
+                || first.startsWith("TriggerRememberAmount") || first.startsWith("TriggeredPayingMana")
+                || head.startsWith("Soulshift") || first.contains("TargetedLifeTotal");
+    }
+
+    /**
+     * The math after the "/" of an expression, like "Plus.2" or "Times.X",
+     * as done by {@link CardFactoryUtil#doXMath}. The operand is either a
+     * number or the name of an SVar to count.
+     */
+    static final class Operators {
+        private static final Operators NONE = new Operators(Op.None, 0, null);
+        private static final ParseCache<Operators> cache = new ParseCache<Operators>(2000) {
+            @Override
+            protected Operators parse(final String operators) {
+                return Operators.parse(operators);
+            }
+        };
+
+        // in the order they're looked for, as "NMinus" also contains "Minus"
+        private enum Op {
+            Plus, NMinus, Minus, Twice, Thrice, HalfUp, HalfDown, ThirdUp, ThirdDown, Negative,
+            Times, DivideEvenlyDown, Mod, Abs, LimitMax, LimitMin, None
+        }
+
+        private final Op op;
+        private final int number;
+        private final String svar;
+
+        private Operators(final Op op0, final int number0, final String svar0) {
+            op = op0;
+            number = number0;
+            svar = svar0;
+        }
+
+        static Operators compile(final String operators) {
+            if (operators == null || operators.equals("none")) {
+                return NONE;
+            }
+            return cache.get(operators);
+        }
+
+        private static Operators parse(final String operators) {
+            final String[] s = operators.split("\\.");
+            Op op = Op.None;
+            for (final Op o : Op.values()) {
+                if (s[0].contains(o.name())) {
+                    op = o;
+                    break;
+                }
+            }
+            if (s.length != 2) {
+                return new Operators(op, 0, null);
+            }
+            try {
+                return new Operators(op, Integer.parseInt(s[1]), null);
+            } catch (final NumberFormatException e) {
+                return new Operators(op, 0, s[1]);
+            }
+        }
+
+        int apply(final int num, final Card c) {
+            switch (op) {
+            case Plus:
+                return num + getNumber(c);
+            case NMinus:
+                return getNumber(c) - num;
+            case Minus:
+                return num - getNumber(c);
+            case Twice:
+                return num * 2;
+            case Thrice:
+                return num * 3;
+            case HalfUp:
+                return (int) (Math.ceil(num / 2.0));
+            case HalfDown:
+                return (int) (Math.floor(num / 2.0));
+            case ThirdUp:
+                return (int) (Math.ceil(num / 3.0));
+            case ThirdDown:
+                return (int) (Math.floor(num / 3.0));
+            case Negative:
+                return num * -1;
+            case Times:
+                return num * getNumber(c);
+            case DivideEvenlyDown:
+                final int divisor = getNumber(c);
+                return divisor == 0 ? 0 : num / divisor;
+            case Mod:
+                return num % getNumber(c);
+            case Abs:
+                return Math.abs(num);
+            case LimitMax:
+                return Math.min(num, getNumber(c));
+            case LimitMin:
+                return Math.max(num, getNumber(c));
+            default:
+                return num;
+            }
+        }
+
+        private int getNumber(final Card c) {
+            return svar == null ? number : CardFactoryUtil.xCount(c, c.getSVar(svar));
+        }
+    }
+
+    private abstract class Value {
+        abstract int evaluate(Card c);
+    }
+
+    private final class Number extends Value {
+        private final String number;
+        private final Integer parsed;
+        private final boolean withOperators;
+
+        Number(final String number0, final boolean withOperators0) {
+            number = number0;
+            withOperators = withOperators0;
+            Integer n;
+            try {
+                n = Integer.valueOf(number);
+            } catch (final NumberFormatException e) {
+                n = null; // left to fail when evaluated, as it did before
+            }
+            parsed = n;
+        }
+
+        @Override
+        int evaluate(final Card c) {
+            final int n = parsed != null ? parsed : Integer.parseInt(number);
+            return withOperators ? math.apply(n, c) : n;
+        }
+    }
+
+    private final class ChosenNumber extends Value {
+        @Override
+        int evaluate(final Card c) {
+            return math.apply(c.getChosenNumber(), c);
+        }
+    }
+
+    private final class SVar extends Value {
+        private final String name;
+
+        SVar(final String name0) {
+            name = name0;
+        }
+
+        @Override
+        int evaluate(final Card c) {
+            return math.apply(CardFactoryUtil.xCount(c, c.getSVar(name)), c);
+        }
+    }
+
+    // Valid<Zones> <Restrictions>, counted on the battlefield if no zones are given
+    private final class Valid extends Value {
+        private final List<ZoneType> zones;
+        private final CardRestriction[] restrictions;
+
+        Valid(final String head) {
+            final String[] lparts = head.split(" ", 2);
+            zones = lparts[0].length() > 5 ? ZoneType.listValueOf(lparts[0].substring(5)) : null;
+            restrictions = CardRestriction.compile(lparts[1].split(","));
+        }
+
+        @Override
+        int evaluate(final Card c) {
+            final Player cc = c.getController();
+            final CardCollectionView cards = zones != null ? c.getGame().getCardsIn(zones) : c.getGame().getCardsIn(ZoneType.Battlefield);
+            int count = 0;
+            for (final Card card : cards) {
+                if (CardRestriction.matchesAny(restrictions, card, cc, c, null)) {
+                    count++;
+                }
+            }
+            return math.apply(count, c);
+        }
+    }
+
+    private final class Named extends Value {
+        private final String head;
+
+        Named(final String head0) {
+            head = head0;
+        }
+
+        @Override
+        int evaluate(final Card c) {
+            final String[] l = parts.clone(); // the lookup may change its copy
+            l[0] = head;
+            return CardFactoryUtil.xCount(c, l, operators);
+        }
+    }
+}
@@ -35,6 +35,8 @@ import com.google.common.collect.Maps;
 import com.google.common.collect.Multimap;
 import com.google.common.collect.Multimaps;
 import forge.game.GameEntity;
+import forge.game.ability.AbilityKey;
+import forge.game.ability.RunParams;
 import forge.game.card.Card;
 import forge.game.card.CardCollection;
 import forge.game.card.CardCollectionView;
@@ -72,6 +74,9 @@ public class Combat {
     // List holds creatures who have dealt 1st strike damage to disallow them deal damage on regular basis (unless they have double-strike KW) 
     private CardCollection combatantsThatDealtFirstStrikeDamage = new CardCollection();
 
+    // Counts changes to who attacks whom, so that predictions made for a set of attackers can tell when it's gone
+    private int attackersVersion = 0;
+
     public Combat(final Player attacker) {
         playerWhoAttacks = attacker;
 
@@ -91,6 +96,7 @@ public class Combat {
         //clear all combat-related collections
         attackableEntries.clear();
         attackedByBands.clear();
+        attackersVersion++;
         blockedBands.clear();
         defendingDamageMap.clear();
         attackersOrderedForDamageAssignment.clear();
@@ -116,6 +122,14 @@ public class Combat {
         }
     }
 
+    /**
+     * Goes up whenever an attacker is added or removed, or moves to attack
+     * another defender.
+     */
+    public final int getAttackersVersion() {
+        return attackersVersion;
+    }
+
     public final Player getAttackingPlayer() {
         return playerWhoAttacks;
     }
@@ -193,6 +207,7 @@ public class Combat {
         else {
             band.addAttacker(c);
         }
+        attackersVersion++;
         c.updateAttackingForView();
     }
 
@@ -477,6 +492,7 @@ public class Combat {
         if (ab != null) {
             unregisterAttacker(c, ab);
             ab.removeAttacker(c);
+            attackersVersion++;
             c.updateAttackingForView();
             return;
         }
@@ -531,10 +547,10 @@ public class Combat {
             if (!isBlocked) {
                 for (Card attacker : ab.getAttackers()) {
                     // Run Unblocked Trigger
-                    final HashMap<String, Object> runParams = new HashMap<String, Object>();
-                    runParams.put("Attacker", attacker);
-                    runParams.put("Defender",getDefenderByAttacker(attacker));
-                    runParams.put("DefendingPlayer", getDefenderPlayerByAttacker(attacker));
+                    final RunParams runParams = new RunParams();
+                    runParams.put(AbilityKey.Attacker, attacker);
+                    runParams.put(AbilityKey.Defender,getDefenderByAttacker(attacker));
+                    runParams.put(AbilityKey.DefendingPlayer, getDefenderPlayerByAttacker(attacker));
                     attacker.getGame().getTriggerHandler().runTrigger(TriggerType.AttackerUnblocked, runParams, false);
                 }
             }
@@ -756,24 +772,24 @@ public class Combat {
         
         // Run triggers
         for (final GameEntity ge : wasDamaged.keySet()) {
-            final HashMap<String, Object> runParams = new HashMap<String, Object>();
-            runParams.put("DamageSources", wasDamaged.get(ge));
-            runParams.put("DamageTarget", ge);
+            final RunParams runParams = new RunParams();
+            runParams.put(AbilityKey.DamageSources, wasDamaged.get(ge));
+            runParams.put(AbilityKey.DamageTarget, ge);
             ge.getGame().getTriggerHandler().runTrigger(TriggerType.CombatDamageDoneOnce, runParams, false);
         }
         // This was deeper before, but that resulted in the stack entry acting like before.
 
         // when ... deals combat damage to one or more
         for (final Card damageSource : dealtDamageTo.keySet()) {
-            final HashMap<String, Object> runParams = new HashMap<String, Object>();
+            final RunParams runParams = new RunParams();
             int dealtDamage = damageDealtThisCombat.containsKey(damageSource) ? damageDealtThisCombat.get(damageSource) : 0;
             // LifeLink for Combat Damage at this place
             if (dealtDamage > 0 && damageSource.hasKeyword("Lifelink")) {
                 damageSource.getController().gainLife(dealtDamage, damageSource);
             }
-            runParams.put("DamageSource", damageSource);
-            runParams.put("DamageTargets", dealtDamageTo.get(damageSource));
-            runParams.put("DamageAmount", dealtDamage);
+            runParams.put(AbilityKey.DamageSource, damageSource);
+            runParams.put(AbilityKey.DamageTargets, dealtDamageTo.get(damageSource));
+            runParams.put(AbilityKey.DamageAmount, dealtDamage);
             damageSource.getGame().getTriggerHandler().runTrigger(TriggerType.DealtCombatDamageOnce, runParams, false);
         }
         dealtDamageToThisCombat.putAll(dealtDamageTo);
@@ -26,7 +26,6 @@ import org.apache.commons.lang3.tuple.Pair;
 import com.google.common.base.Predicate;
 import com.google.common.collect.Iterables;
 import com.google.common.collect.Lists;
-import com.google.common.collect.Maps;
 
 import forge.card.CardType;
 import forge.card.MagicColor;
@@ -35,6 +34,8 @@ import forge.game.Game;
 import forge.game.GameEntity;
 import forge.game.GlobalRuleChange;
 import forge.game.ability.AbilityFactory;
+import forge.game.ability.AbilityKey;
+import forge.game.ability.RunParams;
 import forge.game.card.Card;
 import forge.game.card.CardCollection;
 import forge.game.card.CardCollectionView;
@@ -293,13 +294,13 @@ public class CombatUtil {
      */
     public static void checkDeclaredAttacker(final Game game, final Card c, final Combat combat) {
         // Run triggers
-        final Map<String, Object> runParams = Maps.newHashMap();
-        runParams.put("Attacker", c);
+        final RunParams runParams = new RunParams();
+        runParams.put(AbilityKey.Attacker, c);
         final List<Card> otherAttackers = combat.getAttackers();
         otherAttackers.remove(c);
-        runParams.put("OtherAttackers", otherAttackers);
-        runParams.put("Attacked", combat.getDefenderByAttacker(c));
-        runParams.put("DefendingPlayer", combat.getDefenderPlayerByAttacker(c));
+        runParams.put(AbilityKey.OtherAttackers, otherAttackers);
+        runParams.put(AbilityKey.Attacked, combat.getDefenderByAttacker(c));
+        runParams.put(AbilityKey.DefendingPlayer, combat.getDefenderPlayerByAttacker(c));
         game.getTriggerHandler().runTrigger(TriggerType.Attacks, runParams, false);
 
         // Annihilator: can be copied by Strionic Resonator now
@@ -1,7 +1,6 @@
 package forge.game.cost;
 
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -15,7 +14,9 @@ import forge.card.mana.ManaAtom;
 import forge.card.mana.ManaCostShard;
 import forge.game.Game;
 import forge.game.GameObject;
+import forge.game.ability.AbilityKey;
 import forge.game.ability.AbilityUtils;
+import forge.game.ability.RunParams;
 import forge.game.card.Card;
 import forge.game.card.CardCollection;
 import forge.game.card.CardCollectionView;
@@ -216,9 +217,9 @@ public class CostAdjustment {
                 if (!delved.isEmpty()) {
                     final Map<ZoneType, CardCollection> triggerList = Maps.newEnumMap(ZoneType.class);
                     triggerList.put(ZoneType.Graveyard, delved);
-                    final HashMap<String, Object> runParams = new HashMap<String, Object>();
-                    runParams.put("Cards", triggerList);
-                    runParams.put("Destination", ZoneType.Exile);
+                    final RunParams runParams = new RunParams();
+                    runParams.put(AbilityKey.Cards, triggerList);
+                    runParams.put(AbilityKey.Destination, ZoneType.Exile);
                     game.getTriggerHandler().runTrigger(TriggerType.ChangesZoneAll, runParams, false);
                 }
             }
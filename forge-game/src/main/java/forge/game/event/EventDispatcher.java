@@ -0,0 +1,148 @@
+package forge.game.event;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import com.google.common.eventbus.Subscribe;
+
+/**
+ * Delivers game and UI events to the methods of their subscribers that are
+ * annotated with {@link Subscribe}, like the Guava EventBus it replaces.
+ * <p>
+ * Subscriber methods are looked up once when a subscriber is registered, and
+ * the handlers of each event class are collected into an array the first
+ * time an event of that class is posted. Events posted by a handler are
+ * delivered after the current event has reached all of its handlers.
+ */
+public final class EventDispatcher {
+    private static final Handler[] NO_HANDLERS = new Handler[0];
+
+    private final String name;
+    private final List<Handler> handlers = new ArrayList<Handler>();
+    private final ConcurrentMap<Class<?>, Handler[]> handlersByEventClass = new ConcurrentHashMap<Class<?>, Handler[]>();
+    private volatile boolean hasHandlers = false;
+
+    private final ThreadLocal<PendingEvents> pendingEvents = new ThreadLocal<PendingEvents>() {
+        @Override
+        protected PendingEvents initialValue() {
+            return new PendingEvents();
+        }
+    };
+
+    public EventDispatcher(final String name0) {
+        name = name0;
+    }
+
+    public synchronized void register(final Object subscriber) {
+        for (final Method m : subscriber.getClass().getMethods()) {
+            if (!m.isAnnotationPresent(Subscribe.class)) {
+                continue;
+            }
+            final Class<?>[] params = m.getParameterTypes();
+            if (params.length != 1) {
+                throw new IllegalArgumentException("Method " + m + " has @Subscribe annotation but requires " + params.length + " arguments");
+            }
+            m.setAccessible(true); // subscribers may be private classes
+            handlers.add(new Handler(subscriber, m, params[0]));
+        }
+        handlersChanged();
+    }
+
+    public synchronized void unregister(final Object subscriber) {
+        for (int i = handlers.size() - 1; i >= 0; i--) {
+            if (handlers.get(i).target == subscriber) {
+                handlers.remove(i);
+            }
+        }
+        handlersChanged();
+    }
+
+    private void handlersChanged() {
+        handlersByEventClass.clear();
+        hasHandlers = !handlers.isEmpty();
+    }
+
+    /**
+     * Whether any subscriber would receive an event of the given class, so
+     * events can skip being built when there's nobody to receive them.
+     */
+    public boolean hasHandlers(final Class<? extends Event> eventClass) {
+        return hasHandlers && getHandlers(eventClass) != NO_HANDLERS;
+    }
+
+    public void post(final Event event) {
+        if (!hasHandlers || getHandlers(event.getClass()).length == 0) {
+            return;
+        }
+
+        final PendingEvents pending = pendingEvents.get();
+        pending.events.add(event);
+        if (pending.dispatching) {
+            return; // posted by a handler, delivered once the current event is
+        }
+        pending.dispatching = true;
+        try {
+            Event next;
+            while ((next = pending.events.poll()) != null) {
+                for (final Handler handler : getHandlers(next.getClass())) {
+                    handler.handle(next, name);
+                }
+            }
+        } finally {
+            pending.dispatching = false;
+        }
+    }
+
+    private Handler[] getHandlers(final Class<?> eventClass) {
+        Handler[] result = handlersByEventClass.get(eventClass);
+        if (result == null) {
+            result = collectHandlers(eventClass);
+            handlersByEventClass.put(eventClass, result);
+        }
+        return result;
+    }
+
+    private synchronized Handler[] collectHandlers(final Class<?> eventClass) {
+        final List<Handler> result = new ArrayList<Handler>();
+        for (final Handler handler : handlers) {
+            if (handler.eventClass.isAssignableFrom(eventClass)) {
+                result.add(handler);
+            }
+        }
+        return result.isEmpty() ? NO_HANDLERS : result.toArray(NO_HANDLERS);
+    }
+
+    private static final class PendingEvents {
+        private final ArrayDeque<Event> events = new ArrayDeque<Event>();
+        private boolean dispatching = false;
+    }
+
+    private static final class Handler {
+        private final Object target;
+        private final Method method;
+        private final Class<?> eventClass;
+
+        private Handler(final Object target0, final Method method0, final Class<?> eventClass0) {
+            target = target0;
+            method = method0;
+            eventClass = eventClass0;
+        }
+
+        private void handle(final Event event, final String dispatcherName) {
+            try {
+                method.invoke(target, event);
+            } catch (final InvocationTargetException e) {
+                // like the EventBus, a failing subscriber doesn't stop the game or the other subscribers
+                System.err.println(dispatcherName + ": could not dispatch event " + event + " to " + method);
+                e.getCause().printStackTrace();
+            } catch (final IllegalAccessException e) {
+                throw new RuntimeException(e);
+            }
+        }
+    }
+}
@@ -132,6 +132,34 @@ public enum Keyword {
         displayName = EnumUtil.getEnumDisplayName(this);
     }
 
+    private static final Map<String, Keyword> byName = new HashMap<String, Keyword>();
+    static {
+        for (Keyword kw : Keyword.values()) {
+            if (kw != UNDEFINED) {
+                byName.put(kw.name().replace('_', ' '), kw);
+            }
+        }
+    }
+
+    /**
+     * Returns the keyword a keyword string of a card starts with, or
+     * UNDEFINED. Unlike {@link #getInstance(String)}, the name has to match a
+     * whole word: it has to be followed by the end of the string, a colon or
+     * a single parameter ("Bushido 2"), so "Flashback:{R}" is not Flash.
+     */
+    public static Keyword smartValueOf(String k) {
+        int end = k.indexOf(':');
+        String head = (end == -1 ? k : k.substring(0, end)).toUpperCase();
+        Keyword keyword = byName.get(head);
+        if (keyword == null && end == -1) {
+            int space = head.lastIndexOf(' ');
+            if (space != -1) {
+                keyword = byName.get(head.substring(0, space));
+            }
+        }
+        return keyword == null ? UNDEFINED : keyword;
+    }
+
     public static KeywordInstance<?> getInstance(String k) {
         Keyword keyword = Keyword.UNDEFINED;
         String details = k;
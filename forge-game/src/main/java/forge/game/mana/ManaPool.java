@@ -27,6 +27,7 @@ import forge.card.MagicColor;
 import forge.card.mana.ManaAtom;
 import forge.card.mana.ManaCostShard;
 import forge.game.GlobalRuleChange;
+import forge.game.UndoJournal;
 import forge.game.card.Card;
 import forge.game.event.EventValueChangeType;
 import forge.game.event.GameEventCardStatsChanged;
@@ -69,9 +70,12 @@ public class ManaPool implements Iterable<Mana> {
     }
 
     public void addMana(final Mana mana) {
+        recordPoolForUndo();
         floatingMana.put(mana.getColor(), mana);
         owner.updateManaForView();
-        owner.getGame().fireEvent(new GameEventManaPool(owner, EventValueChangeType.Added, mana));
+        if (owner.getGame().shouldFireEvent(GameEventManaPool.class)) {
+            owner.getGame().fireEvent(new GameEventManaPool(owner, EventValueChangeType.Added, mana));
+        }
     }
 
     public final void add(final Iterable<Mana> manaList) {
@@ -119,6 +123,7 @@ public class ManaPool implements Iterable<Mana> {
 
         final boolean convertToColorless = owner.hasKeyword("Convert unused mana to Colorless");
 
+        recordPoolForUndo();
         final List<Byte> keys = Lists.newArrayList(floatingMana.keySet());
         if (isEndOfPhase) {
             for (final Byte c : Lists.newArrayList(keys)) {
@@ -164,7 +169,9 @@ public class ManaPool implements Iterable<Mana> {
         }
 
         owner.updateManaForView();
-        owner.getGame().fireEvent(new GameEventManaPool(owner, EventValueChangeType.Cleared, null));
+        if (owner.getGame().shouldFireEvent(GameEventManaPool.class)) {
+            owner.getGame().fireEvent(new GameEventManaPool(owner, EventValueChangeType.Cleared, null));
+        }
         return cleared;
     }
 
@@ -181,12 +188,33 @@ public class ManaPool implements Iterable<Mana> {
 
     private void removeMana(final Mana mana) {
         Collection<Mana> cm = floatingMana.get(mana.getColor());
+        if (cm.contains(mana)) {
+            recordPoolForUndo();
+        }
         if (cm.remove(mana)) {
             owner.updateManaForView();
-            owner.getGame().fireEvent(new GameEventManaPool(owner, EventValueChangeType.Removed, mana));
+            if (owner.getGame().shouldFireEvent(GameEventManaPool.class)) {
+                owner.getGame().fireEvent(new GameEventManaPool(owner, EventValueChangeType.Removed, mana));
+            }
         }
     }
 
+    private void recordPoolForUndo() {
+        final UndoJournal journal = owner.getGame().getUndoJournal();
+        if (journal == null) {
+            return;
+        }
+        final Multimap<Byte, Mana> oldMana = ArrayListMultimap.create(floatingMana);
+        journal.record(new UndoJournal.Entry() {
+            @Override
+            public void undo() {
+                floatingMana.clear();
+                floatingMana.putAll(oldMana);
+                owner.updateManaForView();
+            }
+        });
+    }
+
     public final void payManaFromAbility(final SpellAbility saPaidFor, ManaCostBeingPaid manaCost, final SpellAbility saPayment) {
         // Mana restriction must be checked before this method is called
         final List<SpellAbility> paidAbs = saPaidFor.getPayingManaAbilities();
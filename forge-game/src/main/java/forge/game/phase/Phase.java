@@ -20,11 +20,14 @@ package forge.game.phase;
 import com.google.common.collect.Lists;
 
 import forge.GameCommand;
+import forge.game.Game;
+import forge.game.UndoJournal;
 import forge.game.player.Player;
 
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 
 /**
@@ -40,9 +43,11 @@ public class Phase implements java.io.Serializable {
     private static final long serialVersionUID = 4665309652476851977L;
 
     protected final PhaseType type; // mostly decorative field - it's never used
+    private final transient Game journaledGame;
 
-    public Phase(PhaseType type) {
+    public Phase(PhaseType type, Game game) {
         this.type = type;
+        this.journaledGame = game;
     }
 
     protected final List<GameCommand> at = new ArrayList<GameCommand>();
@@ -60,6 +65,7 @@ public class Phase implements java.io.Serializable {
      *            a {@link forge.GameCommand} object.
      */
     public final void addAt(final GameCommand c) {
+        recordForUndo();
         this.at.add(0, c);
     }
 
@@ -81,6 +87,7 @@ public class Phase implements java.io.Serializable {
      *            a {@link forge.GameCommand} object.
      */
     public final void addUntil(final GameCommand c) {
+        recordForUndo();
         this.until.add(0, c);
     }
 
@@ -99,6 +106,7 @@ public class Phase implements java.io.Serializable {
      * Use cleanup phase to terminate an effect with "until <Player's> next turn"
      */
     public final void addUntil(Player p, final GameCommand c) {
+        recordForUndo();
         if (this.untilMap.containsKey(p)) {
             this.untilMap.get(p).add(0, c);
         } else {
@@ -121,6 +129,7 @@ public class Phase implements java.io.Serializable {
     }
 
     public final void registerUntilEnd(Player p, final GameCommand c) {
+        recordForUndo();
         if (this.registerMap.containsKey(p)) {
             this.registerMap.get(p).add(0, c);
         } else {
@@ -129,6 +138,7 @@ public class Phase implements java.io.Serializable {
     }
 
     public final void addUntilEnd(Player p, final GameCommand c) {
+        recordForUndo();
         if (this.untilEndMap.containsKey(p)) {
             this.untilEndMap.get(p).add(0, c);
         } else {
@@ -149,6 +159,60 @@ public class Phase implements java.io.Serializable {
         }
     }
 
+    /**
+     * Records the commands waiting for this phase in the game's undo journal
+     * (if any), to be called before they are changed.
+     */
+    private void recordForUndo() {
+        final UndoJournal journal = journaledGame == null ? null : journaledGame.getUndoJournal();
+        if (journal == null) {
+            return;
+        }
+        final List<GameCommand> oldAt = new ArrayList<GameCommand>(at);
+        final List<GameCommand> oldUntil = new ArrayList<GameCommand>(until);
+        final HashMap<Player, ArrayList<GameCommand>> oldUntilMap = copy(untilMap);
+        final HashMap<Player, ArrayList<GameCommand>> oldUntilEndMap = copy(untilEndMap);
+        final HashMap<Player, ArrayList<GameCommand>> oldRegisterMap = copy(registerMap);
+        journal.record(new UndoJournal.Entry() {
+            @Override
+            public void undo() {
+                at.clear();
+                at.addAll(oldAt);
+                until.clear();
+                until.addAll(oldUntil);
+                untilMap.clear();
+                untilMap.putAll(oldUntilMap);
+                untilEndMap.clear();
+                untilEndMap.putAll(oldUntilEndMap);
+                registerMap.clear();
+                registerMap.putAll(oldRegisterMap);
+            }
+        });
+    }
+
+    private static HashMap<Player, ArrayList<GameCommand>> copy(final HashMap<Player, ArrayList<GameCommand>> commands) {
+        final HashMap<Player, ArrayList<GameCommand>> result = new HashMap<Player, ArrayList<GameCommand>>();
+        for (final Map.Entry<Player, ArrayList<GameCommand>> e : commands.entrySet()) {
+            result.put(e.getKey(), new ArrayList<GameCommand>(e.getValue()));
+        }
+        return result;
+    }
+
+    /** The number of commands waiting for this phase, to tell games apart. */
+    public final int getCommandCount() {
+        int count = at.size() + until.size();
+        for (final List<GameCommand> commands : untilMap.values()) {
+            count += commands.size();
+        }
+        for (final List<GameCommand> commands : untilEndMap.values()) {
+            count += commands.size();
+        }
+        for (final List<GameCommand> commands : registerMap.values()) {
+            count += commands.size();
+        }
+        return count;
+    }
+
     /**
      * <p>
      * execute.
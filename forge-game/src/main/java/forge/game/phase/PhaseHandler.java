@@ -23,6 +23,8 @@ import com.google.common.collect.Multimap;
 import forge.card.mana.ManaCost;
 import forge.game.*;
 import forge.game.ability.AbilityFactory;
+import forge.game.ability.AbilityKey;
+import forge.game.ability.RunParams;
 import forge.game.card.Card;
 import forge.game.card.CardCollection;
 import forge.game.card.CardCollectionView;
@@ -374,9 +376,9 @@ public class PhaseHandler implements java.io.Serializable {
 
         if (!skipped) {
             // Run triggers if phase isn't being skipped
-            final HashMap<String, Object> runParams = new HashMap<String, Object>();
-            runParams.put("Phase", phase.nameForScripts);
-            runParams.put("Player", playerTurn);
+            final RunParams runParams = new RunParams();
+            runParams.put(AbilityKey.Phase, phase.nameForScripts);
+            runParams.put(AbilityKey.Player, playerTurn);
             game.getTriggerHandler().runTrigger(TriggerType.Phase, runParams, false);
         }
 
@@ -447,8 +449,8 @@ public class PhaseHandler implements java.io.Serializable {
                 if (!bRepeatCleanup) {
                     setPlayerTurn(handleNextTurn());
                     // "Trigger" for begin turn to get around a phase skipping
-                    final HashMap<String, Object> runParams = new HashMap<String, Object>();
-                    runParams.put("Player", playerTurn);
+                    final RunParams runParams = new RunParams();
+                    runParams.put(AbilityKey.Player, playerTurn);
                     game.getTriggerHandler().runTrigger(TriggerType.TurnBegin, runParams, false);
                 }
                 planarDiceRolledthisTurn = 0;
@@ -525,10 +527,10 @@ public class PhaseHandler implements java.io.Serializable {
             for (final Card c : combat.getAttackers()) {
                 attackedTarget.add(combat.getDefenderByAttacker(c));
             }
-            final HashMap<String, Object> runParams = new HashMap<String, Object>();
-            runParams.put("Attackers", combat.getAttackers());
-            runParams.put("AttackingPlayer", combat.getAttackingPlayer());
-            runParams.put("AttackedTarget", attackedTarget);
+            final RunParams runParams = new RunParams();
+            runParams.put(AbilityKey.Attackers, combat.getAttackers());
+            runParams.put(AbilityKey.AttackingPlayer, combat.getAttackingPlayer());
+            runParams.put(AbilityKey.AttackedTarget, attackedTarget);
             game.getTriggerHandler().runTrigger(TriggerType.AttackersDeclared, runParams, false);
         }
 
@@ -638,9 +640,9 @@ public class PhaseHandler implements java.io.Serializable {
                 }
             }
             // fire blockers declared trigger
-            final HashMap<String, Object> bdRunParams = new HashMap<String, Object>();
-            bdRunParams.put("Blockers", declaredBlockers);
-            bdRunParams.put("Attackers", blockedAttackers);
+            final RunParams bdRunParams = new RunParams();
+            bdRunParams.put(AbilityKey.Blockers, declaredBlockers);
+            bdRunParams.put(AbilityKey.Attackers, blockedAttackers);
             game.getTriggerHandler().runTrigger(TriggerType.BlockersDeclared, bdRunParams, false);
         }
 
@@ -651,9 +653,9 @@ public class PhaseHandler implements java.io.Serializable {
 
             if (!c1.getDamageHistory().getCreatureBlockedThisCombat()) {
                 // Run triggers
-                final HashMap<String, Object> runParams = new HashMap<String, Object>();
-                runParams.put("Blocker", c1);
-                runParams.put("Attackers", combat.getAttackersBlockedBy(c1));
+                final RunParams runParams = new RunParams();
+                runParams.put(AbilityKey.Blocker, c1);
+                runParams.put(AbilityKey.Attackers, combat.getAttackersBlockedBy(c1));
                 game.getTriggerHandler().runTrigger(TriggerType.Blocks, runParams, false);
             }
 
@@ -672,10 +674,10 @@ public class PhaseHandler implements java.io.Serializable {
             }
 
             // Run triggers
-            final HashMap<String, Object> runParams = new HashMap<String, Object>();
-            runParams.put("Attacker", a);
-            runParams.put("Blockers", blockers);
-            runParams.put("NumBlockers", blockers.size());
+            final RunParams runParams = new RunParams();
+            runParams.put(AbilityKey.Attacker, a);
+            runParams.put(AbilityKey.Blockers, blockers);
+            runParams.put(AbilityKey.NumBlockers, blockers.size());
             game.getTriggerHandler().runTrigger(TriggerType.AttackerBlocked, runParams, false);
             
             // Run this trigger once for each blocker
@@ -684,9 +686,9 @@ public class PhaseHandler implements java.io.Serializable {
                 b.addBlockedThisTurn(a);
                 a.addBlockedByThisTurn(b);
 
-            	final HashMap<String, Object> runParams2 = new HashMap<String, Object>();
-            	runParams2.put("Attacker", a);
-            	runParams2.put("Blocker", b);
+            	final RunParams runParams2 = new RunParams();
+            	runParams2.put(AbilityKey.Attacker, a);
+            	runParams2.put(AbilityKey.Blocker, b);
             	game.getTriggerHandler().runTrigger(TriggerType.AttackerBlockedByCreature, runParams2, false);
             }
 
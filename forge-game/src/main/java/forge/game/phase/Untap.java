@@ -58,7 +58,7 @@ public class Untap extends Phase {
     protected final Game game;
     
     public Untap(final Game game0) {
-        super(PhaseType.UNTAP);
+        super(PhaseType.UNTAP, game0);
         game = game0;
     }
     
@@ -20,6 +20,8 @@ package forge.game.phase;
 import forge.card.mana.ManaCost;
 import forge.game.Game;
 import forge.game.ability.AbilityFactory;
+import forge.game.ability.AbilityKey;
+import forge.game.ability.RunParams;
 import forge.game.card.Card;
 import forge.game.card.CardCollectionView;
 import forge.game.card.CardFactoryUtil;
@@ -32,7 +34,6 @@ import forge.game.spellability.SpellAbility;
 import forge.game.trigger.TriggerType;
 import forge.game.zone.ZoneType;
 
-import java.util.HashMap;
 import org.apache.commons.lang3.StringUtils;
 
 /**
@@ -51,7 +52,7 @@ public class Upkeep extends Phase {
 
     protected final Game game;
     public Upkeep(final Game game) { 
-        super(PhaseType.UPKEEP);
+        super(PhaseType.UPKEEP, game);
         this.game = game;
     }
     
@@ -113,10 +114,10 @@ public class Upkeep extends Phase {
                             final Cost upkeepCost = new Cost(cost, true);
                             this.setCumulativeupkeep(true);
                             boolean isPaid = controller.getController().payManaOptional(c, upkeepCost, this, sb.toString(), ManaPaymentPurpose.CumulativeUpkeep);
-                            final HashMap<String, Object> runParams = new HashMap<String, Object>();
-                            runParams.put("CumulativeUpkeepPaid", Boolean.valueOf(isPaid));
-                            runParams.put("Card", this.getHostCard());
-                            runParams.put("PayingMana", StringUtils.join(this.getPayingMana(), ""));
+                            final RunParams runParams = new RunParams();
+                            runParams.put(AbilityKey.CumulativeUpkeepPaid, Boolean.valueOf(isPaid));
+                            runParams.put(AbilityKey.Card, this.getHostCard());
+                            runParams.put(AbilityKey.PayingMana, StringUtils.join(this.getPayingMana(), ""));
                             game.getTriggerHandler().runTrigger(TriggerType.PayCumulativeUpkeep, runParams, false);
                             if (!isPaid) {
                                 game.getAction().sacrifice(c, this);
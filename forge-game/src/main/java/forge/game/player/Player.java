@@ -29,8 +29,10 @@ import forge.card.MagicColor;
 import forge.card.mana.ManaCost;
 import forge.game.*;
 import forge.game.ability.AbilityFactory;
+import forge.game.ability.AbilityKey;
 import forge.game.ability.AbilityUtils;
 import forge.game.ability.ApiType;
+import forge.game.ability.RunParams;
 import forge.game.ability.effects.DetachedCardEffect;
 import forge.game.card.*;
 import forge.game.card.CardPredicates.Presets;
@@ -215,9 +217,9 @@ public class Player extends GameEntity implements Comparable<Player> {
         }
 
         // Replacement effects
-        final HashMap<String, Object> repRunParams = new HashMap<String, Object>();
-        repRunParams.put("Event", "SetInMotion");
-        repRunParams.put("Affected", this);
+        final RunParams repRunParams = new RunParams();
+        repRunParams.put(AbilityKey.Event, "SetInMotion");
+        repRunParams.put(AbilityKey.Affected, this);
 
         if (game.getReplacementHandler().run(repRunParams) != ReplacementResult.NotReplaced) {
             return;
@@ -230,8 +232,8 @@ public class Player extends GameEntity implements Comparable<Player> {
         game.getTriggerHandler().clearSuppression(TriggerType.ChangesZone);
 
         // Run triggers
-        final HashMap<String, Object> runParams = new HashMap<String, Object>();
-        runParams.put("Scheme", activeScheme);
+        final RunParams runParams = new RunParams();
+        runParams.put(AbilityKey.Scheme, activeScheme);
         game.getTriggerHandler().runTrigger(TriggerType.SetInMotion, runParams, false);
     }
 
@@ -377,11 +379,11 @@ public class Player extends GameEntity implements Comparable<Player> {
 
     public final boolean gainLife(final int toGain, final Card source) {
         // Run any applicable replacement effects.
-        final HashMap<String, Object> repParams = new HashMap<String, Object>();
-        repParams.put("Event", "GainLife");
-        repParams.put("Affected", this);
-        repParams.put("LifeGained", toGain);
-        repParams.put("Source", source);
+        final RunParams repParams = new RunParams();
+        repParams.put(AbilityKey.Event, "GainLife");
+        repParams.put(AbilityKey.Affected, this);
+        repParams.put(AbilityKey.LifeGained, toGain);
+        repParams.put(AbilityKey.Source, source);
 
         if (!canGainLife()) {
             return false;
@@ -396,15 +398,16 @@ public class Player extends GameEntity implements Comparable<Player> {
 
         if (lifeGain > 0) {
             int oldLife = life;
+            recordLifeForUndo();
             life += lifeGain;
             view.updateLife(this);
             newLifeSet = true;
             lifeGainedThisTurn += lifeGain;
 
             // Run triggers
-            final HashMap<String, Object> runParams = new HashMap<String, Object>();
-            runParams.put("Player", this);
-            runParams.put("LifeAmount", lifeGain);
+            final RunParams runParams = new RunParams();
+            runParams.put(AbilityKey.Player, this);
+            runParams.put(AbilityKey.LifeAmount, lifeGain);
             game.getTriggerHandler().runTrigger(TriggerType.LifeGained, runParams, false);
 
             game.fireEvent(new GameEventPlayerLivesChanged(this, oldLife, life));
@@ -415,6 +418,25 @@ public class Player extends GameEntity implements Comparable<Player> {
         return newLifeSet;
     }
 
+    private void recordLifeForUndo() {
+        final UndoJournal journal = game.getUndoJournal();
+        if (journal == null) {
+            return;
+        }
+        final int oldLife = life;
+        final int oldLifeGained = lifeGainedThisTurn;
+        final int oldLifeLost = lifeLostThisTurn;
+        journal.record(new UndoJournal.Entry() {
+            @Override
+            public void undo() {
+                life = oldLife;
+                lifeGainedThisTurn = oldLifeGained;
+                lifeLostThisTurn = oldLifeLost;
+                view.updateLife(Player.this);
+            }
+        });
+    }
+
     public final boolean canGainLife() {
         if (hasKeyword("You can't gain life.") || hasKeyword("Your life total can't change.")) {
             return false;
@@ -429,6 +451,7 @@ public class Player extends GameEntity implements Comparable<Player> {
         }
         if (toLose > 0) {
             int oldLife = life;
+            recordLifeForUndo();
             life -= toLose;
             view.updateLife(this);
             lifeLost = toLose;
@@ -446,9 +469,9 @@ public class Player extends GameEntity implements Comparable<Player> {
         lifeLostThisTurn += toLose;
 
         // Run triggers
-        final HashMap<String, Object> runParams = new HashMap<String, Object>();
-        runParams.put("Player", this);
-        runParams.put("LifeAmount", toLose);
+        final RunParams runParams = new RunParams();
+        runParams.put(AbilityKey.Player, this);
+        runParams.put(AbilityKey.LifeAmount, toLose);
         game.getTriggerHandler().runTrigger(TriggerType.LifeLost, runParams, false);
 
         return lifeLost;
@@ -536,13 +559,13 @@ public class Player extends GameEntity implements Comparable<Player> {
         }
 
         // Run triggers
-        final HashMap<String, Object> runParams = new HashMap<String, Object>();
-        runParams.put("DamageSource", source);
-        runParams.put("DamageTarget", this);
-        runParams.put("DamageAmount", amount);
-        runParams.put("IsCombatDamage", isCombat);
+        final RunParams runParams = new RunParams();
+        runParams.put(AbilityKey.DamageSource, source);
+        runParams.put(AbilityKey.DamageTarget, this);
+        runParams.put(AbilityKey.DamageAmount, amount);
+        runParams.put(AbilityKey.IsCombatDamage, isCombat);
         // Defending player at the time the damage was dealt
-        runParams.put("DefendingPlayer", game.getCombat() != null ? game.getCombat().getDefendingPlayerRelatedTo(source) : null);
+        runParams.put(AbilityKey.DefendingPlayer, game.getCombat() != null ? game.getCombat().getDefendingPlayerRelatedTo(source) : null);
         game.getTriggerHandler().runTrigger(TriggerType.DamageDone, runParams, false);
 
         game.fireEvent(new GameEventPlayerDamaged(this, source, amount, isCombat, infect));
@@ -676,12 +699,12 @@ public class Player extends GameEntity implements Comparable<Player> {
     @Override
     public final int replaceDamage(final int damage, final Card source, final boolean isCombat) {
         // Replacement effects
-        final HashMap<String, Object> repParams = new HashMap<String, Object>();
-        repParams.put("Event", "DamageDone");
-        repParams.put("Affected", this);
-        repParams.put("DamageSource", source);
-        repParams.put("DamageAmount", damage);
-        repParams.put("IsCombat", isCombat);
+        final RunParams repParams = new RunParams();
+        repParams.put(AbilityKey.Event, "DamageDone");
+        repParams.put(AbilityKey.Affected, this);
+        repParams.put(AbilityKey.DamageSource, source);
+        repParams.put(AbilityKey.DamageAmount, damage);
+        repParams.put(AbilityKey.IsCombat, isCombat);
 
         if (game.getReplacementHandler().run(repParams) != ReplacementResult.NotReplaced) {
             return 0;
@@ -766,13 +789,13 @@ public class Player extends GameEntity implements Comparable<Player> {
             }
         }
 
-        final HashMap<String, Object> repParams = new HashMap<String, Object>();
-        repParams.put("Event", "DamageDone");
-        repParams.put("Affected", this);
-        repParams.put("DamageSource", source);
-        repParams.put("DamageAmount", damage);
-        repParams.put("IsCombat", isCombat);
-        repParams.put("Prevention", true);
+        final RunParams repParams = new RunParams();
+        repParams.put(AbilityKey.Event, "DamageDone");
+        repParams.put(AbilityKey.Affected, this);
+        repParams.put(AbilityKey.DamageSource, source);
+        repParams.put(AbilityKey.DamageAmount, damage);
+        repParams.put(AbilityKey.IsCombat, isCombat);
+        repParams.put(AbilityKey.Prevention, true);
 
         if (game.getReplacementHandler().run(repParams) != ReplacementResult.NotReplaced) {
             return 0;
@@ -878,12 +901,12 @@ public class Player extends GameEntity implements Comparable<Player> {
             return;
         }
         /* TODO Add Counter replacement if it ever effects Players
-        final HashMap<String, Object> repParams = new HashMap<>();
-        repParams.put("Event", "AddCounter");
-        repParams.put("Affected", this);
-        repParams.put("CounterType", counterType);
-        repParams.put("CounterNum", addAmount);
-        repParams.put("EffectOnly", applyMultiplier);
+        final RunParams repParams = new RunParams();
+        repParams.put(AbilityKey.Event, "AddCounter");
+        repParams.put(AbilityKey.Affected, this);
+        repParams.put(AbilityKey.CounterType, counterType);
+        repParams.put(AbilityKey.CounterNum, addAmount);
+        repParams.put(AbilityKey.EffectOnly, applyMultiplier);
         if (getGame().getReplacementHandler().run(repParams) != ReplacementResult.NotReplaced) {
             return;
         }
@@ -891,6 +914,7 @@ public class Player extends GameEntity implements Comparable<Player> {
 
         final int oldValue = getCounters(counterType);
         final int newValue = addAmount + oldValue;
+        recordCountersForUndo();
         counters.put(counterType, newValue);
         view.updateCounters(this);
 
@@ -899,9 +923,9 @@ public class Player extends GameEntity implements Comparable<Player> {
         }
 
         /* TODO Run triggers when something cares
-        final Map<String, Object> runParams = new TreeMap<>();
-        runParams.put("Player", this);
-        runParams.put("CounterType", counterType);
+        final RunParams runParams = new RunParams();
+        runParams.put(AbilityKey.Player, this);
+        runParams.put(AbilityKey.CounterType, counterType);
         for (int i = 0; i < addAmount; i++) {
             getGame().getTriggerHandler().runTrigger(TriggerType.CounterAdded, runParams, false);
         }
@@ -919,7 +943,7 @@ public class Player extends GameEntity implements Comparable<Player> {
         final int delta = oldValue - newValue;
         if (delta == 0) { return; }
 
-
+        recordCountersForUndo();
         if (newValue > 0) {
             counters.put(counterName, newValue);
         }
@@ -933,10 +957,10 @@ public class Player extends GameEntity implements Comparable<Player> {
         /* TODO Run triggers when something cares
         int curCounters = oldValue;
         for (int i = 0; i < delta && curCounters != 0; i++) {
-            final Map<String, Object> runParams = new TreeMap<>();
-            runParams.put("Card", this);
-            runParams.put("CounterType", counterName);
-            runParams.put("NewCounterAmount", --curCounters);
+            final RunParams runParams = new RunParams();
+            runParams.put(AbilityKey.Card, this);
+            runParams.put(AbilityKey.CounterType, counterName);
+            runParams.put(AbilityKey.NewCounterAmount, --curCounters);
             getGame().getTriggerHandler().runTrigger(TriggerType.CounterRemoved, runParams, false);
         }
         */
@@ -944,12 +968,14 @@ public class Player extends GameEntity implements Comparable<Player> {
 
     public final void clearCounters() {
         if (counters.isEmpty()) { return; }
+        recordCountersForUndo();
         counters.clear();
         view.updateCounters(this);
         getGame().fireEvent(new GameEventPlayerCounters(this, null, 0, 0));
     }
 
     public void setCounters(final CounterType counterType, final Integer num) {
+        recordCountersForUndo();
         counters.put(counterType, num);
         view.updateCounters(this);
         getGame().fireEvent(new GameEventPlayerCounters(this, counterType, 0, 0));
@@ -957,6 +983,7 @@ public class Player extends GameEntity implements Comparable<Player> {
 
     @Override
     public void setCounters(Map<CounterType, Integer> allCounters) {
+        recordCountersForUndo();
         counters = allCounters;
         view.updateCounters(this);
         getGame().fireEvent(new GameEventPlayerCounters(this, null, 0, 0));
@@ -1208,8 +1235,8 @@ public class Player extends GameEntity implements Comparable<Player> {
 
         getGame().fireEvent(new GameEventScry(this, numToTop, numToBottom));
 
-        final HashMap<String, Object> runParams = new HashMap<String, Object>();
-        runParams.put("Player", this);
+        final RunParams runParams = new RunParams();
+        runParams.put(AbilityKey.Player, this);
         getGame().getTriggerHandler().runTrigger(TriggerType.Scry, runParams, false);
     }
 
@@ -1241,9 +1268,9 @@ public class Player extends GameEntity implements Comparable<Player> {
         final PlayerZone library = getZone(ZoneType.Library);
 
         // Replacement effects
-        final HashMap<String, Object> repRunParams = new HashMap<String, Object>();
-        repRunParams.put("Event", "Draw");
-        repRunParams.put("Affected", this);
+        final RunParams repRunParams = new RunParams();
+        repRunParams.put(AbilityKey.Event, "Draw");
+        repRunParams.put(AbilityKey.Affected, this);
 
         if (game.getReplacementHandler().run(repRunParams) != ReplacementResult.NotReplaced) {
             return drawn;
@@ -1279,6 +1306,7 @@ public class Player extends GameEntity implements Comparable<Player> {
 
             setLastDrawnCard(c);
             c.setDrawnThisTurn(true);
+            recordTurnStatsForUndo();
             numDrawnThisTurn++;
             if (game.getPhaseHandler().is(PhaseType.DRAW)) {
                 numDrawnThisDrawStep++;
@@ -1291,10 +1319,10 @@ public class Player extends GameEntity implements Comparable<Player> {
             }
 
             // Run triggers
-            final HashMap<String, Object> runParams = new HashMap<String, Object>();
-            runParams.put("Card", c);
-            runParams.put("Number", numDrawnThisTurn);
-            runParams.put("Player", this);
+            final RunParams runParams = new RunParams();
+            runParams.put(AbilityKey.Card, c);
+            runParams.put(AbilityKey.Number, numDrawnThisTurn);
+            runParams.put(AbilityKey.Player, this);
             game.getTriggerHandler().runTrigger(TriggerType.Drawn, runParams, false);
         }
         else { // Lose by milling is always on. Give AI many cards it cannot play if you want it not to undertake actions
@@ -1451,11 +1479,11 @@ public class Player extends GameEntity implements Comparable<Player> {
         // that should not trigger other Replacement again
         if (!discardToTopOfLibrary && !discardMadness) {
             // Replacement effects
-            final HashMap<String, Object> repRunParams = new HashMap<String, Object>();
-            repRunParams.put("Event", "Discard");
-            repRunParams.put("Card", c);
-            repRunParams.put("Source", source);
-            repRunParams.put("Affected", this);
+            final RunParams repRunParams = new RunParams();
+            repRunParams.put(AbilityKey.Event, "Discard");
+            repRunParams.put(AbilityKey.Card, c);
+            repRunParams.put(AbilityKey.Source, source);
+            repRunParams.put(AbilityKey.Affected, this);
 
             if (game.getReplacementHandler().run(repRunParams) != ReplacementResult.NotReplaced) {
                 return null;
@@ -1479,6 +1507,7 @@ public class Player extends GameEntity implements Comparable<Player> {
             // Play the Discard sound
         }
         sb.append(".");
+        recordTurnStatsForUndo();
         numDiscardedThisTurn++;
         // Run triggers
         Card cause = null;
@@ -1492,11 +1521,11 @@ public class Player extends GameEntity implements Comparable<Player> {
                 }
             }
         }
-        final HashMap<String, Object> runParams = new HashMap<String, Object>();
-        runParams.put("Player", this);
-        runParams.put("Card", c);
-        runParams.put("Cause", cause);
-        runParams.put("IsMadness", Boolean.valueOf(discardMadness));
+        final RunParams runParams = new RunParams();
+        runParams.put(AbilityKey.Player, this);
+        runParams.put(AbilityKey.Card, c);
+        runParams.put(AbilityKey.Cause, cause);
+        runParams.put(AbilityKey.IsMadness, Boolean.valueOf(discardMadness));
         game.getTriggerHandler().runTrigger(TriggerType.Discarded, runParams, false);
         game.getGameLog().add(GameLogEntryType.DISCARD, sb.toString());
         return newCard;
@@ -1585,9 +1614,9 @@ public class Player extends GameEntity implements Comparable<Player> {
         getZone(ZoneType.Library).setCards(getController().cheatShuffle(list));
 
         // Run triggers
-        final HashMap<String, Object> runParams = new HashMap<String, Object>();
-        runParams.put("Player", this);
-        runParams.put("Source", sa);
+        final RunParams runParams = new RunParams();
+        runParams.put(AbilityKey.Player, this);
+        runParams.put(AbilityKey.Source, sa);
         game.getTriggerHandler().runTrigger(TriggerType.Shuffled, runParams, false);
 
         // Play the shuffle sound
@@ -1607,8 +1636,8 @@ public class Player extends GameEntity implements Comparable<Player> {
             game.fireEvent(new GameEventLandPlayed(this, land));
 
             // Run triggers
-            final HashMap<String, Object> runParams = new HashMap<String, Object>();
-            runParams.put("Card", land);
+            final RunParams runParams = new RunParams();
+            runParams.put(AbilityKey.Card, land);
             game.getTriggerHandler().runTrigger(TriggerType.LandPlayed, runParams, false);
             game.getStack().unfreezeStack();
             addLandPlayedThisTurn();
@@ -1719,6 +1748,9 @@ public class Player extends GameEntity implements Comparable<Player> {
         return activateLoyaltyAbilityThisTurn;
     }
     public final void setActivateLoyaltyAbilityThisTurn(final boolean b) {
+        if (activateLoyaltyAbilityThisTurn != b) {
+            recordTurnStatsForUndo();
+        }
         activateLoyaltyAbilityThisTurn = b;
     }
 
@@ -1755,9 +1787,9 @@ public class Player extends GameEntity implements Comparable<Player> {
             }
 
             // Replacement effects
-            final HashMap<String, Object> runParams = new HashMap<String, Object>();
-            runParams.put("Affected", this);
-            runParams.put("Event", "GameLoss");
+            final RunParams runParams = new RunParams();
+            runParams.put(AbilityKey.Affected, this);
+            runParams.put(AbilityKey.Event, "GameLoss");
 
             if (game.getReplacementHandler().run(runParams) != ReplacementResult.NotReplaced) {
                 return false;
@@ -2220,6 +2252,7 @@ public class Player extends GameEntity implements Comparable<Player> {
         return landsPlayedThisTurn;
     }
     public final void addLandPlayedThisTurn() {
+        recordTurnStatsForUndo();
         landsPlayedThisTurn++;
         achievementTracker.landsPlayed++;
     }
@@ -2232,9 +2265,9 @@ public class Player extends GameEntity implements Comparable<Player> {
     }
     public final void addInvestigatedThisTurn() {
         investigatedThisTurn++;
-        HashMap<String,Object> runParams = new HashMap<String,Object>();
-        runParams.put("Player", this);
-        runParams.put("Num", investigatedThisTurn);
+        RunParams runParams = new RunParams();
+        runParams.put(AbilityKey.Player, this);
+        runParams.put(AbilityKey.Num, investigatedThisTurn);
         game.getTriggerHandler().runTrigger(TriggerType.Investigated, runParams,false);
     }
     public final void resetInvestigatedThisTurn() {
@@ -2253,12 +2286,12 @@ public class Player extends GameEntity implements Comparable<Player> {
         sacrificedThisTurn.add(cpy);
 
         // Run triggers
-        final HashMap<String, Object> runParams = new HashMap<String, Object>();
+        final RunParams runParams = new RunParams();
         // use a copy that preserves last known information about the card (e.g. for Savra, Queen of the Golgari + Painter's Servant)
-        runParams.put("Card", cpy);
-        runParams.put("Cause", source);
-        runParams.put("CostStack", game.costPaymentStack);
-        runParams.put("IndividualCostPaymentInstance", game.costPaymentStack.peek());
+        runParams.put(AbilityKey.Card, cpy);
+        runParams.put(AbilityKey.Cause, source);
+        runParams.put(AbilityKey.CostStack, game.costPaymentStack);
+        runParams.put(AbilityKey.IndividualCostPaymentInstance, game.costPaymentStack.peek());
         game.getTriggerHandler().runTrigger(TriggerType.Sacrificed, runParams, false);
     }
 
@@ -2270,12 +2303,42 @@ public class Player extends GameEntity implements Comparable<Player> {
         return spellsCastThisTurn;
     }
     public final void addSpellCastThisTurn() {
+        recordTurnStatsForUndo();
         spellsCastThisTurn++;
         achievementTracker.spellsCast++;
         if (spellsCastThisTurn > achievementTracker.maxStormCount) {
             achievementTracker.maxStormCount = spellsCastThisTurn;
         }
     }
+    /**
+     * Records the "this turn" counts in the game's undo journal (if any).
+     * Achievement statistics are not rolled back.
+     */
+    private void recordTurnStatsForUndo() {
+        final UndoJournal journal = game.getUndoJournal();
+        if (journal == null) {
+            return;
+        }
+        final int oldLandsPlayed = landsPlayedThisTurn;
+        final int oldSpellsCast = spellsCastThisTurn;
+        final int oldNumDrawn = numDrawnThisTurn;
+        final int oldNumDrawnThisDrawStep = numDrawnThisDrawStep;
+        final int oldNumDiscarded = numDiscardedThisTurn;
+        final boolean oldActivateLoyalty = activateLoyaltyAbilityThisTurn;
+        journal.record(new UndoJournal.Entry() {
+            @Override
+            public void undo() {
+                landsPlayedThisTurn = oldLandsPlayed;
+                spellsCastThisTurn = oldSpellsCast;
+                numDrawnThisTurn = oldNumDrawn;
+                numDrawnThisDrawStep = oldNumDrawnThisDrawStep;
+                numDiscardedThisTurn = oldNumDiscarded;
+                activateLoyaltyAbilityThisTurn = oldActivateLoyalty;
+                view.updateNumDrawnThisTurn(Player.this);
+            }
+        });
+    }
+
     public final void resetSpellsCastThisTurn() {
         spellsCastThisTurn = 0;
     }
@@ -2405,6 +2468,16 @@ public class Player extends GameEntity implements Comparable<Player> {
     }
 
     private void setOutcome(PlayerOutcome outcome) {
+        final UndoJournal journal = game.getUndoJournal();
+        if (journal != null) {
+            final PlayerOutcome oldOutcome = stats.getOutcome();
+            journal.record(new UndoJournal.Entry() {
+                @Override
+                public void undo() {
+                    stats.setOutcome(oldOutcome);
+                }
+            });
+        }
         stats.setOutcome(outcome);
     }
 
@@ -2584,8 +2657,8 @@ public class Player extends GameEntity implements Comparable<Player> {
 
         game.setActivePlanes(currentPlanes);
         //Run PlaneswalkedTo triggers here.
-        HashMap<String,Object> runParams = new HashMap<String,Object>();
-        runParams.put("Cards", currentPlanes);
+        RunParams runParams = new RunParams();
+        runParams.put(AbilityKey.Cards, currentPlanes);
         game.getTriggerHandler().runTrigger(TriggerType.PlaneswalkedTo, runParams,false);
     }
 
@@ -2681,12 +2754,18 @@ public class Player extends GameEntity implements Comparable<Player> {
         return false;
     }
 
+    public final CardCollectionView getInboundTokens() {
+        return inboundTokens;
+    }
+
     public void addInboundToken(Card c) {
         inboundTokens.add(c);
+        game.getReplacementHandler().invalidateReplacementEffects(c);
     }
 
     public void removeInboundToken(Card c) {
         inboundTokens.remove(c);
+        game.getReplacementHandler().invalidateReplacementEffects(c);
     }
 
     private final class MiracleTrigger extends Ability {
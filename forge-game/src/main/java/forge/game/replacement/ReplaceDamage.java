@@ -20,7 +20,9 @@ package forge.game.replacement;
 import forge.game.card.Card;
 import forge.game.card.CardFactoryUtil;
 import forge.game.spellability.SpellAbility;
+import forge.game.ability.AbilityKey;
 import forge.game.ability.AbilityUtils;
+import forge.game.ability.RunParams;
 import forge.util.Expressions;
 
 import java.util.Map;
@@ -46,23 +48,23 @@ public class ReplaceDamage extends ReplacementEffect {
      */
     @Override
     public boolean canReplace(Map<String, Object> runParams) {
-        if (!runParams.get("Event").equals("DamageDone")) {
+        if (!RunParams.get(runParams, AbilityKey.Event).equals("DamageDone")) {
             return false;
         }
-        if (!(runParams.containsKey("Prevention") == getMapParams().containsKey("PreventionEffect"))) {
+        if (!(RunParams.containsKey(runParams, AbilityKey.Prevention) == getMapParams().containsKey("PreventionEffect"))) {
             return false;
         }
         if (getMapParams().containsKey("ValidSource")) {
         	String validSource = getMapParams().get("ValidSource");
         	validSource = AbilityUtils.applyAbilityTextChangeEffects(validSource, this);        	
-            if (!matchesValid(runParams.get("DamageSource"), validSource.split(","), getHostCard())) {
+            if (!matchesValid(RunParams.get(runParams, AbilityKey.DamageSource), validSource.split(","), getHostCard())) {
                 return false;
             }
         }
         if (getMapParams().containsKey("ValidTarget")) {
         	String validTarget = getMapParams().get("ValidTarget");
         	validTarget = AbilityUtils.applyAbilityTextChangeEffects(validTarget, this);
-            if (!matchesValid(runParams.get("Affected"), validTarget.split(","), getHostCard())) {
+            if (!matchesValid(RunParams.get(runParams, AbilityKey.Affected), validTarget.split(","), getHostCard())) {
                 return false;
             }
         }
@@ -77,17 +79,17 @@ public class ReplaceDamage extends ReplacementEffect {
                 intoperand = CardFactoryUtil.xCount(getHostCard(), getHostCard().getSVar(operand));
             }
 
-            if (!Expressions.compare((Integer) runParams.get("DamageAmount"), operator, intoperand)) {
+            if (!Expressions.compare((Integer) RunParams.get(runParams, AbilityKey.DamageAmount), operator, intoperand)) {
                 return false;
             }
         }
         if (getMapParams().containsKey("IsCombat")) {
             if (getMapParams().get("IsCombat").equals("True")) {
-                if (!((Boolean) runParams.get("IsCombat"))) {
+                if (!((Boolean) RunParams.get(runParams, AbilityKey.IsCombat))) {
                     return false;
                 }
             } else {
-                if ((Boolean) runParams.get("IsCombat")) {
+                if ((Boolean) RunParams.get(runParams, AbilityKey.IsCombat)) {
                     return false;
                 }
             }
@@ -105,9 +107,9 @@ public class ReplaceDamage extends ReplacementEffect {
      */
     @Override
     public void setReplacingObjects(Map<String, Object> runParams, SpellAbility sa) {
-        sa.setReplacingObject("DamageAmount", runParams.get("DamageAmount"));
-        sa.setReplacingObject("Target", runParams.get("Affected"));
-        sa.setReplacingObject("Source", runParams.get("DamageSource"));
+        sa.setReplacingObject("DamageAmount", RunParams.get(runParams, AbilityKey.DamageAmount));
+        sa.setReplacingObject("Target", RunParams.get(runParams, AbilityKey.Affected));
+        sa.setReplacingObject("Source", RunParams.get(runParams, AbilityKey.DamageSource));
     }
 
 }
@@ -1,5 +1,7 @@
 package forge.game.replacement;
 
+import forge.game.ability.AbilityKey;
+import forge.game.ability.RunParams;
 import forge.game.card.Card;
 import forge.game.spellability.SpellAbility;
 import forge.game.zone.ZoneType;
@@ -27,17 +29,17 @@ public class ReplaceMoved extends ReplacementEffect {
      */
     @Override
     public boolean canReplace(Map<String, Object> runParams) {
-        if (!runParams.get("Event").equals("Moved")) {
+        if (!RunParams.get(runParams, AbilityKey.Event).equals("Moved")) {
             return false;
         }
         if (this.getMapParams().containsKey("ValidCard")) {
-            if (!matchesValid(runParams.get("Affected"), this.getMapParams().get("ValidCard").split(","), this.getHostCard())) {
+            if (!matchesValid(RunParams.get(runParams, AbilityKey.Affected), this.getMapParams().get("ValidCard").split(","), this.getHostCard())) {
                 return false;
             }
         }
 
         if (this.getMapParams().containsKey("ValidLKI")) {
-            if (!matchesValid(runParams.get("CardLKI"), this.getMapParams().get("ValidLKI").split(","), this.getHostCard())) {
+            if (!matchesValid(RunParams.get(runParams, AbilityKey.CardLKI), this.getMapParams().get("ValidLKI").split(","), this.getHostCard())) {
                 return false;
             }
         }
@@ -45,7 +47,7 @@ public class ReplaceMoved extends ReplacementEffect {
         boolean matchedZone = false;
         if (this.getMapParams().containsKey("Origin")) {
             for(ZoneType z : ZoneType.listValueOf(this.getMapParams().get("Origin"))) {
-                if(z == (ZoneType) runParams.get("Origin"))
+                if(z == (ZoneType) RunParams.get(runParams, AbilityKey.Origin))
                     matchedZone =  true;
             }
             
@@ -58,7 +60,7 @@ public class ReplaceMoved extends ReplacementEffect {
         if (this.getMapParams().containsKey("Destination")) {
             matchedZone = false;
             for(ZoneType z : ZoneType.listValueOf(this.getMapParams().get("Destination"))) {
-                if(z == (ZoneType) runParams.get("Destination"))
+                if(z == (ZoneType) RunParams.get(runParams, AbilityKey.Destination))
                     matchedZone =  true;
             }
             
@@ -77,8 +79,8 @@ public class ReplaceMoved extends ReplacementEffect {
      */
     @Override
     public void setReplacingObjects(Map<String, Object> runParams, SpellAbility sa) {
-        sa.setReplacingObject("Card", runParams.get("Affected"));
-        sa.setReplacingObject("CardLKI", runParams.get("CardLKI"));
+        sa.setReplacingObject("Card", RunParams.get(runParams, AbilityKey.Affected));
+        sa.setReplacingObject("CardLKI", RunParams.get(runParams, AbilityKey.CardLKI));
     }
 
 }
@@ -155,6 +155,31 @@ public abstract class ReplacementEffect extends TriggerReplacementBase {
         return res;
     }
 
+    /**
+     * Gets a copy of this replacement effect for a card in another game, with
+     * the overriding ability (if any) rebuilt on the new host as well.
+     * 
+     * @return the copy, or null if the overriding ability can't be rebuilt
+     *         (see {@link SpellAbility#canCopyToHost()}).
+     */
+    public final ReplacementEffect copyToHost(final Card newHost) {
+        final SpellAbility overridingAbility = this.getOverridingAbility();
+        if (overridingAbility != null && !overridingAbility.canCopyToHost()) {
+            return null;
+        }
+        final ReplacementType rt = ReplacementType.getTypeFor(this);
+        final ReplacementEffect res = rt.createReplacement(mapParams, newHost, intrinsic);
+        res.originalMapParams.clear();
+        res.originalMapParams.putAll(originalMapParams);
+        if (overridingAbility != null) {
+            res.setOverridingAbility(overridingAbility.copyToHost(newHost));
+        }
+        res.setActiveZone(validHostZones);
+        res.setLayer(getLayer());
+        res.setTemporary(isTemporary());
+        return res;
+    }
+
     /**
      * Sets the replacing objects.
      * 
@@ -21,32 +21,76 @@ import forge.card.MagicColor;
 import forge.game.Game;
 import forge.game.GameLogEntryType;
 import forge.game.ability.AbilityFactory;
+import forge.game.ability.AbilityKey;
 import forge.game.ability.AbilityUtils;
+import forge.game.ability.RunParams;
 import forge.game.card.Card;
+import forge.game.card.CardCollectionView;
 import forge.game.player.Player;
 import forge.game.spellability.SpellAbility;
+import forge.game.zone.PlayerZone;
 import forge.game.zone.ZoneType;
 import forge.util.FileSection;
 import forge.util.Visitor;
 
 import org.apache.commons.lang3.StringUtils;
 
+import com.google.common.collect.LinkedHashMultimap;
+import com.google.common.collect.Maps;
+import com.google.common.collect.SetMultimap;
+import com.google.common.collect.Sets;
+
 import java.util.*;
 
 public class ReplacementHandler {
     private final Game game;
+
+    // the replacement effects of the cards in the game by layer and event, and by the card they're on, so the
+    // ones of a card can be looked for again on their own after it changed zones or its replacement effects changed
+    private final Map<ReplacementLayer, SetMultimap<ReplacementType, Candidate>> candidates =
+            new EnumMap<ReplacementLayer, SetMultimap<ReplacementType, Candidate>>(ReplacementLayer.class);
+    private final Map<Card, List<Candidate>> candidatesByCard = Maps.newHashMap();
+    private final Set<Card> changedCards = Sets.newHashSet();
+
+    // the lists Player#getAllCards() combines, by their place in it: the zones of Player.ALL_ZONES, the cards
+    // of the player on the stack and the tokens the player is about to get
+    private static final int STACK_LIST = Player.ALL_ZONES.size();
+    private static final int INBOUND_TOKENS_LIST = STACK_LIST + 1;
+
+    /** A replacement effect together with the card it's on and the player and list of cards it was found in. */
+    private static final class Candidate {
+        private final Player player;
+        private final int list;
+        private final Card card;
+        private final ReplacementEffect effect;
+        private final ReplacementLayer layer;
+        private final ReplacementType type;
+
+        private Candidate(final Player player0, final int list0, final Card card0, final ReplacementEffect effect0) {
+            player = player0;
+            list = list0;
+            card = card0;
+            effect = effect0;
+            layer = effect0.getLayer();
+            type = ReplacementType.getTypeFor(effect0);
+        }
+    }
+
     /**
      * ReplacementHandler.
      * @param gameState
      */
     public ReplacementHandler(Game gameState) {
         game = gameState;
+        for (final ReplacementLayer layer : ReplacementLayer.values()) {
+            candidates.put(layer, LinkedHashMultimap.<ReplacementType, Candidate>create());
+        }
     }
 
     //private final List<ReplacementEffect> tmpEffects = new ArrayList<ReplacementEffect>();
 
-    public ReplacementResult run(final HashMap<String, Object> runParams) {
-        final Object affected = runParams.get("Affected");
+    public ReplacementResult run(final Map<String, Object> runParams) {
+        final Object affected = RunParams.get(runParams, AbilityKey.Affected);
         Player decider = null;
 
         
@@ -59,7 +103,7 @@ public class ReplacementHandler {
         }
         final Game game = decider.getGame(); 
 
-        if (runParams.get("Event").equals("Moved")) {
+        if (RunParams.get(runParams, AbilityKey.Event).equals("Moved")) {
             ReplacementResult res = run(runParams, ReplacementLayer.Control, decider, game);
             if (res != ReplacementResult.NotReplaced) {
                 return res;
@@ -96,7 +140,7 @@ public class ReplacementHandler {
      *            the run params,same as for triggers.
      * @return true if the event was replaced.
      */
-    public ReplacementResult run(final HashMap<String, Object> runParams, final ReplacementLayer layer, final Player decider, final Game game) {
+    public ReplacementResult run(final Map<String, Object> runParams, final ReplacementLayer layer, final Player decider, final Game game) {
         final List<ReplacementEffect> possibleReplacers = new ArrayList<ReplacementEffect>();
         // Round up Non-static replacement effects ("Until EOT," or
         // "The next time you would..." etc)
@@ -107,18 +151,22 @@ public class ReplacementHandler {
         }*/
 
         // Round up Static replacement effects
-        for (final Player p : game.getPlayers()) {
-            for (final Card crd : p.getAllCards()) {
-                for (final ReplacementEffect replacementEffect : crd.getReplacementEffects()) {
-                    if (!replacementEffect.hasRun()
-                            && replacementEffect.getLayer() == layer
-                            && replacementEffect.requirementsCheck(game)
-                            && replacementEffect.canReplace(runParams)
-                            && !possibleReplacers.contains(replacementEffect)
-                            && replacementEffect.zonesCheck(game.getZoneOf(crd))) {
-                        possibleReplacers.add(replacementEffect);
-                    }
-                }
+        final ReplacementType event = ReplacementType.smartValueOf((String) RunParams.get(runParams, AbilityKey.Event));
+        final List<Candidate> applicable = new ArrayList<Candidate>();
+        for (final Candidate c : getCandidates(layer).get(event)) {
+            final ReplacementEffect replacementEffect = c.effect;
+            if (!replacementEffect.hasRun()
+                    && game.getPlayers().contains(c.player)
+                    && replacementEffect.requirementsCheck(game)
+                    && replacementEffect.canReplace(runParams)
+                    && replacementEffect.zonesCheck(game.getZoneOf(c.card))) {
+                applicable.add(c);
+            }
+        }
+        sortInScanOrder(applicable);
+        for (final Candidate c : applicable) {
+            if (!possibleReplacers.contains(c.effect)) {
+                possibleReplacers.add(c.effect);
             }
         }
 
@@ -149,6 +197,115 @@ public class ReplacementHandler {
         return res;
     }
 
+    /**
+     * Makes the next event look for the replacement effects of the given
+     * card again, after it changed zones or gained or lost replacement effects.
+     */
+    public void invalidateReplacementEffects(final Card c) {
+        changedCards.add(c);
+    }
+
+    /**
+     * Returns the replacement effects of the given layer by the event they
+     * replace. Players who left the game still have theirs in here, and have
+     * to be skipped.
+     */
+    private SetMultimap<ReplacementType, Candidate> getCandidates(final ReplacementLayer layer) {
+        if (!changedCards.isEmpty()) {
+            for (final Card c : changedCards) {
+                updateCandidates(c);
+            }
+            changedCards.clear();
+        }
+        return candidates.get(layer);
+    }
+
+    // finds the card where going through the cards of each player would, taking the card object from the first
+    // list it's in like Player#getAllCards() does
+    private void updateCandidates(final Card card) {
+        final List<Candidate> old = candidatesByCard.remove(card);
+        if (old != null) {
+            for (final Candidate c : old) {
+                candidates.get(c.layer).remove(c.type, c);
+            }
+        }
+
+        final List<Candidate> found = new ArrayList<Candidate>();
+        for (final Player p : game.getRegisteredPlayers()) {
+            for (int list = 0; list <= INBOUND_TOKENS_LIST; list++) {
+                final Card crd = findIn(p, list, card);
+                if (crd == null) {
+                    continue;
+                }
+                for (final ReplacementEffect replacementEffect : crd.getReplacementEffects()) {
+                    final Candidate c = new Candidate(p, list, crd, replacementEffect);
+                    candidates.get(c.layer).put(c.type, c);
+                    found.add(c);
+                }
+                break;
+            }
+        }
+        if (!found.isEmpty()) {
+            candidatesByCard.put(card, found);
+        }
+    }
+
+    // looks in the unfiltered cards of the zones, as filtering the battlefield goes through all of it
+    private Card findIn(final Player p, final int list, final Card card) {
+        final CardCollectionView cards;
+        if (list == INBOUND_TOKENS_LIST) {
+            cards = p.getInboundTokens();
+        } else if (list == STACK_LIST) {
+            cards = game.getStackZone().getCards();
+        } else {
+            final PlayerZone zone = p.getZone(Player.ALL_ZONES.get(list));
+            if (zone == null) {
+                return null;
+            }
+            cards = zone.getCards(false);
+        }
+        if (!cards.contains(card)) {
+            return null;
+        }
+        final Card crd = cards.get(cards.indexOf(card));
+        if (list == STACK_LIST ? !crd.getOwner().equals(p) : crd.isPhasedOut() && Player.ALL_ZONES.get(list) == ZoneType.Battlefield) {
+            return null;
+        }
+        return crd;
+    }
+
+    private static CardCollectionView getList(final Player p, final int list) {
+        if (list == INBOUND_TOKENS_LIST) {
+            return p.getInboundTokens();
+        }
+        return p.getCardsIn(list == STACK_LIST ? ZoneType.Stack : Player.ALL_ZONES.get(list));
+    }
+
+    // the decider is offered the replacement effects in the order going through the cards of each player finds them in
+    private void sortInScanOrder(final List<Candidate> applicable) {
+        if (applicable.size() < 2) {
+            return;
+        }
+        final Map<Candidate, Integer> indices = Maps.newHashMap();
+        for (final Candidate c : applicable) {
+            indices.put(c, getList(c.player, c.list).indexOf(c.card));
+        }
+        final List<Player> players = game.getRegisteredPlayers();
+        Collections.sort(applicable, new Comparator<Candidate>() {
+            @Override
+            public int compare(final Candidate a, final Candidate b) {
+                int result = Integer.compare(players.indexOf(a.player), players.indexOf(b.player));
+                if (result == 0) {
+                    result = Integer.compare(a.list, b.list);
+                }
+                if (result == 0) {
+                    result = Integer.compare(indices.get(a), indices.get(b));
+                }
+                return result;
+            }
+        });
+    }
+
     /**
      * 
      * Runs a single replacement effect.
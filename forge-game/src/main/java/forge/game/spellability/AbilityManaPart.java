@@ -25,6 +25,8 @@ import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 import forge.card.mana.ManaAtom;
+import forge.game.ability.AbilityKey;
+import forge.game.ability.RunParams;
 import forge.game.trigger.Trigger;
 import forge.game.trigger.TriggerHandler;
 import org.apache.commons.lang3.StringUtils;
@@ -122,12 +124,12 @@ public class AbilityManaPart implements java.io.Serializable {
         final Card source = this.getSourceCard();
         final ManaPool manaPool = player.getManaPool();
         String afterReplace = applyManaReplacement(sa, produced);
-        final HashMap<String, Object> repParams = new HashMap<String, Object>();
-        repParams.put("Event", "ProduceMana");
-        repParams.put("Mana", afterReplace);
-        repParams.put("Affected", source);
-        repParams.put("Player", player);
-        repParams.put("AbilityMana", sa);
+        final RunParams repParams = new RunParams();
+        repParams.put(AbilityKey.Event, "ProduceMana");
+        repParams.put(AbilityKey.Mana, afterReplace);
+        repParams.put(AbilityKey.Affected, source);
+        repParams.put(AbilityKey.Player, player);
+        repParams.put(AbilityKey.AbilityMana, sa);
         if (player.getGame().getReplacementHandler().run(repParams) != ReplacementResult.NotReplaced) {
             return;
         }
@@ -167,12 +169,12 @@ public class AbilityManaPart implements java.io.Serializable {
         manaPool.add(this.lastManaProduced);
 
         // Run triggers
-        final HashMap<String, Object> runParams = new HashMap<String, Object>();
+        final RunParams runParams = new RunParams();
 
-        runParams.put("Card", source);
-        runParams.put("Player", player);
-        runParams.put("AbilityMana", sa);
-        runParams.put("Produced", afterReplace);
+        runParams.put(AbilityKey.Card, source);
+        runParams.put(AbilityKey.Player, player);
+        runParams.put(AbilityKey.AbilityMana, sa);
+        runParams.put(AbilityKey.Produced, afterReplace);
         player.getGame().getTriggerHandler().runTrigger(TriggerType.TapsForMana, runParams, false);
         if (source.isLand()) {
         	player.setTappedLandForManaThisTurn(true);
@@ -25,9 +25,13 @@ import forge.game.Game;
 import forge.game.GameEntity;
 import forge.game.GameObject;
 import forge.game.IIdentifiable;
+import forge.game.ability.AbilityApiBased;
 import forge.game.ability.AbilityFactory;
+import forge.game.ability.AbilityFactory.AbilityRecordType;
 import forge.game.ability.AbilityUtils;
 import forge.game.ability.ApiType;
+import forge.game.ability.SpellApiBased;
+import forge.game.ability.StaticAbilityApiBased;
 import forge.game.card.Card;
 import forge.game.card.CardCollection;
 import forge.game.card.CardCollectionView;
@@ -45,6 +49,7 @@ import forge.util.TextUtil;
 import org.apache.commons.lang3.StringUtils;
 
 import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
 
 //only SpellAbility can go on the stack
 //override any methods as needed
@@ -57,8 +62,8 @@ import java.util.*;
  * @version $Id$
  */
 public abstract class SpellAbility extends CardTraitBase implements ISpellAbility, IIdentifiable, Comparable<SpellAbility> {
-    private static int maxId = 0;
-    private static int nextId() { return ++maxId; }
+    private static final AtomicInteger maxId = new AtomicInteger();
+    private static int nextId() { return maxId.incrementAndGet(); }
 
     public static class EmptySa extends SpellAbility {
         public EmptySa(Card sourceCard) { super(sourceCard, Cost.Zero); setActivatingPlayer(sourceCard.getController());}
@@ -646,6 +651,94 @@ public abstract class SpellAbility extends CardTraitBase implements ISpellAbilit
         return newSA;
     }
 
+    private AbilityRecordType getRecordTypeForCopy() {
+        final Class<? extends SpellAbility> cls = getClass();
+        if (cls == AbilityApiBased.class) {
+            return AbilityRecordType.Ability;
+        }
+        if (cls == SpellApiBased.class) {
+            return AbilityRecordType.Spell;
+        }
+        if (cls == StaticAbilityApiBased.class) {
+            return AbilityRecordType.StaticAbility;
+        }
+        if (cls == AbilitySub.class) {
+            return AbilityRecordType.SubAbility;
+        }
+        return null;
+    }
+
+    /**
+     * Checks whether this ability (and its sub-abilities) can be rebuilt on
+     * another card by {@link #copyToHost(Card)}. This is the case for abilities
+     * made by AbilityFactory and for the default permanent spell, but not for
+     * anonymous abilities that keep a reference to their original card.
+     */
+    public boolean canCopyToHost() {
+        if (getClass() != SpellPermanent.class && getRecordTypeForCopy() == null) {
+            return false;
+        }
+        return subAbility == null || subAbility.canCopyToHost();
+    }
+
+    /**
+     * Builds an independent copy of this ability on another host card (e.g. the
+     * copy of the host in a simulated game) from its already parsed parameters,
+     * without going back to the card script.
+     *
+     * @return the copy, or null if {@link #canCopyToHost()} is false.
+     */
+    public SpellAbility copyToHost(final Card host) {
+        if (!canCopyToHost()) {
+            return null;
+        }
+        final SpellAbility copy;
+        if (getClass() == SpellPermanent.class) {
+            copy = new SpellPermanent(host);
+        } else {
+            final TargetRestrictions tgt = targetRestrictions == null ? null : new TargetRestrictions(targetRestrictions);
+            copy = getRecordTypeForCopy().buildSpellAbility(api, host, payCosts, tgt, mapParams);
+        }
+        copy.originalMapParams.clear();
+        copy.originalMapParams.putAll(originalMapParams);
+        if (subAbility != null) {
+            copy.setSubAbility((AbilitySub) subAbility.copyToHost(host));
+        }
+
+        copy.payCosts = payCosts;
+        copy.originalDescription = originalDescription;
+        copy.description = description;
+        copy.originalStackDescription = originalStackDescription;
+        copy.stackDescription = stackDescription;
+        copy.multiKickerManaCost = multiKickerManaCost;
+        copy.basicLandAbility = basicLandAbility;
+        copy.basicSpell = basicSpell;
+        copy.flashBackAbility = flashBackAbility;
+        copy.cycling = cycling;
+        copy.delve = delve;
+        copy.dash = dash;
+        copy.offering = offering;
+        copy.emerge = emerge;
+        copy.morphup = morphup;
+        copy.manifestUp = manifestUp;
+        copy.cumulativeupkeep = cumulativeupkeep;
+        copy.outlast = outlast;
+        copy.splitSide = splitSide;
+        copy.undoable = undoable;
+        copy.isCopied = isCopied;
+        copy.sVars.putAll(sVars);
+        copy.restrictions.setVariables(restrictions);
+        copy.restrictions.setLimitToCheck(restrictions.getLimitToCheck());
+        copy.restrictions.setGameLimitToCheck(restrictions.getGameLimitToCheck());
+        copy.conditions.setVariables(conditions);
+        copy.conditions.setLimitToCheck(conditions.getLimitToCheck());
+        copy.conditions.setGameLimitToCheck(conditions.getGameLimitToCheck());
+        copy.intrinsic = intrinsic;
+        copy.temporary = temporary;
+        copy.view.updateDescription(copy);
+        return copy;
+    }
+
     public boolean isTrigger() {
         return trigger;
     }
@@ -18,7 +18,9 @@
 package forge.game.spellability;
 
 import forge.game.IIdentifiable;
+import forge.game.ability.AbilityKey;
 import forge.game.ability.ApiType;
+import forge.game.ability.RunParams;
 import forge.game.card.Card;
 import forge.game.card.CardCollection;
 import forge.game.card.CardView;
@@ -33,6 +35,7 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.Map;
 import java.util.Set;
 
@@ -45,8 +48,8 @@ import java.util.Set;
  * @version $Id$
  */
 public class SpellAbilityStackInstance implements IIdentifiable, IHasCardView {
-    private static int maxId = 0;
-    private static int nextId() { return ++maxId; }
+    private static final AtomicInteger maxId = new AtomicInteger();
+    private static int nextId() { return maxId.incrementAndGet(); }
 
     // At some point I want this functioning more like Target/Target Choices
     // where the SA has an "active"
@@ -286,8 +289,8 @@ public class SpellAbilityStackInstance implements IIdentifiable, IHasCardView {
             view.updateText(this);
 
             // Run BecomesTargetTrigger
-            Map<String, Object> runParams = new HashMap<>();
-            runParams.put("SourceSA", ability);
+            RunParams runParams = new RunParams();
+            runParams.put(AbilityKey.SourceSA, ability);
             Set<Object> distinctObjects = new HashSet<>();
             for (final Object tgt : target.getTargets()) {
                 if (distinctObjects.contains(tgt)) {
@@ -295,10 +298,10 @@ public class SpellAbilityStackInstance implements IIdentifiable, IHasCardView {
                 }
                 distinctObjects.add(tgt);
                 if (tgt instanceof Card && !((Card) tgt).hasBecomeTargetThisTurn()) {
-                    runParams.put("FirstTime", null);
+                    runParams.put(AbilityKey.FirstTime, null);
                     ((Card) tgt).setBecameTargetThisTurn(true);
                 }
-                runParams.put("Target", tgt);
+                runParams.put(AbilityKey.Target, tgt);
                 getSourceCard().getGame().getTriggerHandler().runTrigger(TriggerType.BecomesTarget, runParams, false);
             }
         }
@@ -396,6 +396,16 @@ public class SpellAbilityVariables {
         this.numberGameActivations++;
     }
 
+    /**
+     * <p>
+     * Reverts a previous call to {@link #abilityActivated()}.
+     * </p>
+     */
+    public final void undoAbilityActivated() {
+        this.numberTurnActivations--;
+        this.numberGameActivations--;
+    }
+
     /**
      * <p>
      * Getter for the field <code>numberTurnActivations</code>.
@@ -5,6 +5,7 @@ import forge.game.card.IHasCardView;
 import forge.trackable.TrackableCollection;
 import forge.trackable.TrackableObject;
 import forge.trackable.TrackableProperty;
+import forge.trackable.Tracker;
 
 public class SpellAbilityView extends TrackableObject implements IHasCardView {
     private static final long serialVersionUID = 2514234930798754769L;
@@ -31,6 +32,11 @@ public class SpellAbilityView extends TrackableObject implements IHasCardView {
         updatePromptIfOnlyPossibleAbility(sa);
     }
 
+    //for creating abilities on a network client, their properties are sent separately
+    public SpellAbilityView(final int id0, final Tracker tracker) {
+        super(id0, tracker);
+    }
+
     @Override
     public String toString() {
         return this.getDescription();
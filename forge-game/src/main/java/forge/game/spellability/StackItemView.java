@@ -6,6 +6,7 @@ import forge.game.player.PlayerView;
 import forge.trackable.TrackableCollection;
 import forge.trackable.TrackableObject;
 import forge.trackable.TrackableProperty;
+import forge.trackable.Tracker;
 import forge.util.collect.FCollectionView;
 
 public class StackItemView extends TrackableObject implements IHasCardView {
@@ -40,6 +41,11 @@ public class StackItemView extends TrackableObject implements IHasCardView {
         updateSubInstance(si);
     }
 
+    //for creating stack items on a network client, their properties are sent separately
+    public StackItemView(final int id0, final Tracker tracker) {
+        super(id0, tracker);
+    }
+
     public String getKey() {
         return get(TrackableProperty.Key);
     }
@@ -34,11 +34,14 @@ import forge.game.zone.ZoneType;
 import forge.util.Expressions;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.EnumSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.regex.Pattern;
 
+import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Maps;
 
 /**
@@ -46,9 +49,28 @@ import com.google.common.collect.Maps;
  */
 public class StaticAbility extends CardTraitBase implements Comparable<StaticAbility> {
 
+    // the parameters of continuous abilities that only change power and toughness, see changesOnlyPowerAndToughness()
+    private static final Set<String> POWER_AND_TOUGHNESS_PARAMS = ImmutableSet.of("Mode", "Affected", "AffectedZone",
+            "EffectZone", "Description", "CharacteristicDefining", "AddPower", "AddToughness", "SetPower", "SetToughness");
+    // the parameters of continuous abilities that can have no other inputs than cards in some zones, see getZonesDependedOn()
+    private static final Set<String> ZONE_LOCAL_PARAMS = ImmutableSet.<String>builder().addAll(POWER_AND_TOUGHNESS_PARAMS)
+            .add("AddKeyword", "AddHiddenKeyword", "RemoveKeyword", "AddType", "RemoveType", "RemoveSubTypes",
+                    "RemoveCardTypes", "RemoveSuperTypes", "RemoveCreatureTypes", "AddColor", "SetColor").build();
+    private static final Set<String> POWER_AND_TOUGHNESS_AMOUNTS = ImmutableSet.of("AddPower", "AddToughness", "SetPower", "SetToughness");
+    private static final Pattern NUMBER = Pattern.compile("[+-]?\\d+");
+    private static final Pattern X_AMOUNT = Pattern.compile("\\bX\\b");
+    // properties of the affected cards that depend on combat, the turn, other cards or
+    // amounts (including power and toughness, which other abilities change)
+    private static final Pattern NON_LOCAL_PROPERTY = Pattern.compile(
+            "(?i:attack|block|defend|turn|power|toughness|cmc|damage|shares|triggered|targeted|defined|chosencard|effectsource)"
+            + "|(?:LT|LE|EQ|GE|GT|NE)");
+
     private final Set<StaticAbilityLayer> layers;
     private CardCollectionView ignoreEffectCards = new CardCollection();
     private final List<Player> ignoreEffectPlayers = new ArrayList<Player>();
+    private Set<ZoneType> effectZones = null;
+    private Set<ZoneType> affectedZones = null;
+    private Set<ZoneType> zonesDependedOn = null;
 
     /**
      * <p>
@@ -211,6 +233,23 @@ public class StaticAbility extends CardTraitBase implements Comparable<StaticAbi
         this.hostCard = host;
     }
 
+    /**
+     * Gets a copy of this static ability for a card in another game, built
+     * from the already parsed parameters.
+     * 
+     * @param newHost
+     *            the host of the copy
+     * @return the copy
+     */
+    public final StaticAbility copyToHost(final Card newHost) {
+        final StaticAbility copy = new StaticAbility(this.mapParams, newHost);
+        copy.originalMapParams.clear();
+        copy.originalMapParams.putAll(this.originalMapParams);
+        copy.setIntrinsic(this.isIntrinsic());
+        copy.setTemporary(this.isTemporary());
+        return copy;
+    }
+
     public final CardCollectionView applyContinuousAbility(final StaticAbilityLayer layer) {
         if (!shouldApplyContinuousAbility(layer, false)) {
             return null;
@@ -459,16 +498,8 @@ public class StaticAbility extends CardTraitBase implements Comparable<StaticAbi
             return false;
         }
 
-        if (this.mapParams.containsKey("EffectZone")) {
-            if (!this.mapParams.get("EffectZone").equals("All")
-                    && !ZoneType.listValueOf(this.mapParams.get("EffectZone"))
-                        .contains(controller.getGame().getZoneOf(this.hostCard).getZoneType())) {
-                return false;
-            }
-        } else {
-            if (!this.hostCard.isInZone(ZoneType.Battlefield)) { // default
-                return false;
-            }
+        if (!this.isHostInEffectZone()) {
+            return false;
         }
 
         String condition = mapParams.get("Condition");
@@ -641,6 +672,119 @@ public class StaticAbility extends CardTraitBase implements Comparable<StaticAbi
         return layers;
     }
 
+    /**
+     * Gets the zones of the cards a continuous ability depends on, for
+     * abilities that depend on nothing but their host card and the cards in
+     * these zones: no conditions, amounts or properties that count anything
+     * else. Those are applied the same way again until one of these zones
+     * changes.
+     * 
+     * @return the zones, or null if this ability may depend on anything else.
+     */
+    public final Set<ZoneType> getZonesDependedOn() {
+        findZones();
+        return isTemporary() ? null : zonesDependedOn;
+    }
+
+    /**
+     * Gets the zones of the cards a continuous ability can be applied to.
+     * 
+     * @return the zones.
+     */
+    public final Set<ZoneType> getAffectedZones() {
+        findZones();
+        final Set<ZoneType> zones = EnumSet.copyOf(affectedZones);
+        // the host card itself, for Self and characteristic-defining abilities
+        if (hostCard.getZone() != null) {
+            zones.add(hostCard.getZone().getZoneType());
+        }
+        return zones;
+    }
+
+    /**
+     * Checks whether the host card is in a zone this ability works in.
+     * 
+     * @return true, if the host card is in one of the effect zones.
+     */
+    public final boolean isHostInEffectZone() {
+        final String effectZone = mapParams.get("EffectZone");
+        if (effectZone == null) {
+            return hostCard.isInZone(ZoneType.Battlefield); // default
+        }
+        if (effectZone.equals("All")) {
+            return true;
+        }
+        findZones();
+        return effectZones.contains(hostCard.getController().getGame().getZoneOf(hostCard).getZoneType());
+    }
+
+    // like the layers, from the parameters this ability was created with
+    private void findZones() {
+        if (effectZones != null) {
+            return;
+        }
+        final String effectZone = mapParams.get("EffectZone");
+        final Set<ZoneType> effect;
+        if (effectZone == null) {
+            effect = EnumSet.of(ZoneType.Battlefield);
+        } else if (effectZone.equals("All")) {
+            effect = EnumSet.allOf(ZoneType.class);
+        } else {
+            effect = EnumSet.noneOf(ZoneType.class);
+            effect.addAll(ZoneType.listValueOf(effectZone));
+        }
+
+        final Set<ZoneType> affected = EnumSet.noneOf(ZoneType.class);
+        if (mapParams.containsKey("AffectedZone")) {
+            affected.addAll(ZoneType.listValueOf(mapParams.get("AffectedZone")));
+        } else {
+            affected.add(ZoneType.Battlefield);
+        }
+        final String affectedParam = mapParams.get("Affected");
+        if (affectedParam != null && (affectedParam.contains("EnchantedBy") || affectedParam.contains("EquippedBy"))) {
+            affected.add(ZoneType.Battlefield);
+        }
+
+        if (isZoneLocal()) {
+            final Set<ZoneType> dependedOn = EnumSet.copyOf(effect);
+            dependedOn.addAll(affected);
+            zonesDependedOn = Collections.unmodifiableSet(dependedOn);
+        }
+        affectedZones = affected;
+        effectZones = effect;
+    }
+
+    private boolean isZoneLocal() {
+        if (!"Continuous".equals(mapParams.get("Mode"))) {
+            return false;
+        }
+        for (final Map.Entry<String, String> param : mapParams.entrySet()) {
+            final String key = param.getKey();
+            if (!ZONE_LOCAL_PARAMS.contains(key)) {
+                return false;
+            }
+            if (POWER_AND_TOUGHNESS_AMOUNTS.contains(key) && !NUMBER.matcher(param.getValue()).matches()) {
+                return false;
+            }
+            if (key.endsWith("Keyword") && X_AMOUNT.matcher(param.getValue()).find()) {
+                return false;
+            }
+        }
+        final String affected = mapParams.get("Affected");
+        return affected == null || !NON_LOCAL_PROPERTY.matcher(affected).find();
+    }
+
+    /**
+     * Checks whether a continuous ability changes nothing but power and
+     * toughness, which the abilities {@link #getZonesDependedOn()} is given
+     * for don't look at to find the cards they affect.
+     * 
+     * @return true, if this ability only changes power and toughness.
+     */
+    public final boolean changesOnlyPowerAndToughness() {
+        return POWER_AND_TOUGHNESS_PARAMS.containsAll(mapParams.keySet());
+    }
+
 	@Override
 	public int compareTo(StaticAbility arg0) {
 	    return getHostCard().compareTo(arg0.getHostCard());
@@ -31,6 +31,7 @@ import forge.game.spellability.SpellAbility;
 import forge.game.zone.ZoneType;
 
 import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * <p>
@@ -43,7 +44,7 @@ import java.util.*;
 public abstract class Trigger extends TriggerReplacementBase {
 
     /** Constant <code>nextID=0</code>. */
-    private static int nextID = 0;
+    private static final AtomicInteger nextID = new AtomicInteger();
 
     /**
      * <p>
@@ -51,11 +52,11 @@ public abstract class Trigger extends TriggerReplacementBase {
      * </p>
      */
     public static void resetIDs() {
-        Trigger.nextID = 50000;
+        Trigger.nextID.set(50000);
     }
 
     /** The ID. */
-    private int id = Trigger.nextID++;
+    private int id = Trigger.nextID.getAndIncrement();
 
     /**
      * <p>
@@ -432,6 +433,32 @@ public abstract class Trigger extends TriggerReplacementBase {
         return copy;
     }
 
+    /**
+     * Gets a copy of this trigger for a card in another game, with the
+     * overriding ability (if any) rebuilt on the new host as well.
+     *
+     * @return the copy, or null if the overriding ability can't be rebuilt
+     *         (see {@link SpellAbility#canCopyToHost()}).
+     */
+    public final Trigger copyToHost(final Card newHost) {
+        final SpellAbility overriding = this.getOverridingAbility();
+        if (overriding != null && !overriding.canCopyToHost()) {
+            return null;
+        }
+        final TriggerType tt = TriggerType.getTypeFor(this);
+        final Trigger copy = tt.createTrigger(mapParams, newHost, intrinsic);
+        copy.originalMapParams.clear();
+        copy.originalMapParams.putAll(originalMapParams);
+        if (overriding != null) {
+            copy.setOverridingAbility(overriding.copyToHost(newHost));
+        }
+        copy.setMode(this.getMode());
+        copy.setTriggerPhases(this.validPhases);
+        copy.setActiveZone(validHostZones);
+        copy.setTemporary(isTemporary());
+        return copy;
+    }
+
     public boolean isStatic() {
         return this.mapParams.containsKey("Static"); // && params.get("Static").equals("True") [always true if present]
     }
@@ -17,7 +17,9 @@
  */
 package forge.game.trigger;
 
+import forge.game.ability.AbilityKey;
 import forge.game.ability.AbilityUtils;
+import forge.game.ability.RunParams;
 import forge.game.card.Card;
 import forge.game.card.CardFactoryUtil;
 import forge.game.cost.IndividualCostPaymentInstance;
@@ -67,7 +69,7 @@ public class TriggerChangesZone extends Trigger {
                 if (this.mapParams.get("Origin") == null) {
                     return false;
                 }
-                if (!this.mapParams.get("Origin").equals(runParams2.get("Origin"))) {
+                if (!this.mapParams.get("Origin").equals(RunParams.get(runParams2, AbilityKey.Origin))) {
                     return false;
                 }
             }
@@ -75,7 +77,7 @@ public class TriggerChangesZone extends Trigger {
 
         if (this.mapParams.containsKey("Destination")) {
             if (!this.mapParams.get("Destination").equals("Any")) {
-                if (!this.mapParams.get("Destination").equals(runParams2.get("Destination"))) {
+                if (!this.mapParams.get("Destination").equals(RunParams.get(runParams2, AbilityKey.Destination))) {
                     return false;
                 }
             }
@@ -83,14 +85,14 @@ public class TriggerChangesZone extends Trigger {
 
         if (this.mapParams.containsKey("ExcludedDestinations")) {
             for (final String notTo : this.mapParams.get("ExcludedDestinations").split(",")) {
-                if (notTo.equals(runParams2.get("Destination"))) {
+                if (notTo.equals(RunParams.get(runParams2, AbilityKey.Destination))) {
                     return false;
                 }
             }
         }
 
         if (this.mapParams.containsKey("ValidCard")) {
-            final Card moved = (Card) runParams2.get("Card");
+            final Card moved = (Card) RunParams.get(runParams2, AbilityKey.Card);
             if (!moved.isValid(this.mapParams.get("ValidCard").split(","), this.getHostCard().getController(),
                     this.getHostCard(), null)) {
                 return false;
@@ -104,7 +106,7 @@ public class TriggerChangesZone extends Trigger {
             final Card host = hostCard.getGame().getCardState(hostCard);
             final String comparator = condition.length < 2 ? "GE1" : condition[1];
             final int referenceValue = AbilityUtils.calculateAmount(host, comparator.substring(2), this);
-            final Card triggered = (Card)runParams2.get("Card"); 
+            final Card triggered = (Card)RunParams.get(runParams2, AbilityKey.Card); 
             final int actualValue = CardFactoryUtil.xCount(triggered, host.getSVar(condition[0]));
             if (!Expressions.compare(actualValue, comparator.substring(0, 2), referenceValue)) {
                 return false;
@@ -121,7 +123,7 @@ public class TriggerChangesZone extends Trigger {
             final Card card;
             final int rightSide;
             try {
-                card = (Card) runParams2.get("Card");
+                card = (Card) RunParams.get(runParams2, AbilityKey.Card);
                 rightSide = Integer.parseInt(cond.substring(2));
             } catch (NumberFormatException | ClassCastException e) {
                 return false;
@@ -141,7 +143,7 @@ public class TriggerChangesZone extends Trigger {
             // to change zones.
 
             // check if this is triggered by a cost payment & only fire if it isn't a duplicate trigger
-            IndividualCostPaymentInstance currentPayment = (IndividualCostPaymentInstance) runParams2.get("IndividualCostPaymentInstance");
+            IndividualCostPaymentInstance currentPayment = (IndividualCostPaymentInstance) RunParams.get(runParams2, AbilityKey.IndividualCostPaymentInstance);
             if (currentPayment != null) {  // only if there is an active cost
 
                 // each cost in a payment can trigger the effect for example Sinsiter Concoction has five costs:
@@ -160,7 +162,7 @@ public class TriggerChangesZone extends Trigger {
                 // TODO This isn't quite ideal, since it really should be keeping track of the SpellAbility of the host
                 // card, rather than keeping track of the host card itself - but it's good enough for now - since there
                 // are no cards with multiple different OncePerEffect triggers.
-                SpellAbilityStackInstance si = (SpellAbilityStackInstance) runParams2.get("SpellAbilityStackInstance");
+                SpellAbilityStackInstance si = (SpellAbilityStackInstance) RunParams.get(runParams2, AbilityKey.SpellAbilityStackInstance);
 
                 // si == null means the stack is empty
                 return si == null || si.attemptOncePerEffectTrigger(this.getHostCard());
@@ -178,7 +180,7 @@ public class TriggerChangesZone extends Trigger {
     /** {@inheritDoc} */
     @Override
     public final void setTriggeringObjects(final SpellAbility sa) {
-        sa.setTriggeringObject("Card", this.getRunParams().get("Card"));
+        sa.setTriggeringObject("Card", RunParams.get(this.getRunParams(), AbilityKey.Card));
     }
 
     @Override
@@ -17,6 +17,8 @@
  */
 package forge.game.trigger;
 
+import forge.game.ability.AbilityKey;
+import forge.game.ability.RunParams;
 import forge.game.card.Card;
 import forge.game.card.CardUtil;
 import forge.game.spellability.SpellAbility;
@@ -52,8 +54,8 @@ public class TriggerDamageDone extends Trigger {
     /** {@inheritDoc} */
     @Override
     public final boolean performTest(final java.util.Map<String, Object> runParams2) {
-        final Card src = (Card) runParams2.get("DamageSource");
-        final Object tgt = runParams2.get("DamageTarget");
+        final Card src = (Card) RunParams.get(runParams2, AbilityKey.DamageSource);
+        final Object tgt = RunParams.get(runParams2, AbilityKey.DamageTarget);
 
         if (this.mapParams.containsKey("ValidSource")) {
             if (!src.isValid(this.mapParams.get("ValidSource").split(","), this.getHostCard().getController(),
@@ -70,11 +72,11 @@ public class TriggerDamageDone extends Trigger {
 
         if (this.mapParams.containsKey("CombatDamage")) {
             if (this.mapParams.get("CombatDamage").equals("True")) {
-                if (!((Boolean) runParams2.get("IsCombatDamage"))) {
+                if (!((Boolean) RunParams.get(runParams2, AbilityKey.IsCombatDamage))) {
                     return false;
                 }
             } else if (this.mapParams.get("CombatDamage").equals("False")) {
-                if (((Boolean) runParams2.get("IsCombatDamage"))) {
+                if (((Boolean) RunParams.get(runParams2, AbilityKey.IsCombatDamage))) {
                     return false;
                 }
             }
@@ -85,7 +87,7 @@ public class TriggerDamageDone extends Trigger {
 
             final String operator = fullParam.substring(0, 2);
             final int operand = Integer.parseInt(fullParam.substring(2));
-            final int actualAmount = (Integer) runParams2.get("DamageAmount");
+            final int actualAmount = (Integer) RunParams.get(runParams2, AbilityKey.DamageAmount);
 
             if (!Expressions.compare(actualAmount, operator, operand)) {
                 return false;
@@ -106,7 +108,7 @@ public class TriggerDamageDone extends Trigger {
             // TODO This isn't quite ideal, since it really should be keeping track of the SpellAbility of the host
             // card, rather than keeping track of the host card itself - but it's good enough for now - since there
             // are no cards with multiple different OncePerEffect triggers.
-            SpellAbilityStackInstance si = (SpellAbilityStackInstance) runParams2.get("SpellAbilityStackInstance");
+            SpellAbilityStackInstance si = (SpellAbilityStackInstance) RunParams.get(runParams2, AbilityKey.SpellAbilityStackInstance);
 
             // si == null means the stack is empty
             return si == null || si.attemptOncePerEffectTrigger(this.getHostCard());
@@ -118,11 +120,11 @@ public class TriggerDamageDone extends Trigger {
     /** {@inheritDoc} */
     @Override
     public final void setTriggeringObjects(final SpellAbility sa) {
-        sa.setTriggeringObject("Source", CardUtil.getLKICopy((Card)this.getRunParams().get("DamageSource")));
-        sa.setTriggeringObject("Target", this.getRunParams().get("DamageTarget"));
-        sa.setTriggeringObject("DamageAmount", this.getRunParams().get("DamageAmount"));
+        sa.setTriggeringObject("Source", CardUtil.getLKICopy((Card)RunParams.get(this.getRunParams(), AbilityKey.DamageSource)));
+        sa.setTriggeringObject("Target", RunParams.get(this.getRunParams(), AbilityKey.DamageTarget));
+        sa.setTriggeringObject("DamageAmount", RunParams.get(this.getRunParams(), AbilityKey.DamageAmount));
         // This parameter is here because LKI information related to combat doesn't work properly
-        sa.setTriggeringObject("DefendingPlayer", this.getRunParams().get("DefendingPlayer"));
+        sa.setTriggeringObject("DefendingPlayer", RunParams.get(this.getRunParams(), AbilityKey.DefendingPlayer));
     }
 
     @Override
@@ -20,6 +20,7 @@ package forge.game.trigger;
 import forge.card.mana.ManaCost;
 import forge.game.Game;
 import forge.game.GlobalRuleChange;
+import forge.game.UndoJournal;
 import forge.game.ability.AbilityFactory;
 import forge.game.ability.AbilityUtils;
 import forge.game.ability.ApiType;
@@ -39,15 +40,17 @@ import forge.util.Visitor;
 import java.util.*;
 
 import com.google.common.collect.ArrayListMultimap;
+import com.google.common.collect.HashMultiset;
 import com.google.common.collect.ListMultimap;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Multimaps;
+import com.google.common.collect.Multiset;
 
 public class TriggerHandler {
     private final List<TriggerType> suppressedModes = Collections.synchronizedList(new ArrayList<TriggerType>());
-    private final List<Trigger> activeTriggers = Collections.synchronizedList(new ArrayList<Trigger>());
+    private final TriggersByMode activeTriggers = new TriggersByMode();
 
-    private final List<Trigger> delayedTriggers = Collections.synchronizedList(new ArrayList<Trigger>());
+    private final TriggersByMode delayedTriggers = new TriggersByMode();
     private final List<Trigger> thisTurnDelayedTriggers = Collections.synchronizedList(new ArrayList<Trigger>());
     private final ListMultimap<Player, Trigger> playerDefinedDelayedTriggers = Multimaps.synchronizedListMultimap(ArrayListMultimap.<Player, Trigger>create());
     private final List<TriggerWaiting> waitingTriggers = Collections.synchronizedList(new ArrayList<TriggerWaiting>());
@@ -57,6 +60,68 @@ public class TriggerHandler {
         game = gameState;
     }
 
+    /**
+     * Triggers kept in buckets by mode, so that running a trigger mode only
+     * has to look at the triggers that can match it. Triggers of the same
+     * mode stay in the order they were added in.
+     */
+    private static final class TriggersByMode implements Iterable<Trigger> {
+        private final Map<TriggerType, List<Trigger>> buckets = new EnumMap<TriggerType, List<Trigger>>(TriggerType.class);
+        private final Multiset<Integer> ids = HashMultiset.create();
+
+        public synchronized void add(final Trigger t) {
+            List<Trigger> bucket = buckets.get(t.getMode());
+            if (bucket == null) {
+                bucket = new ArrayList<Trigger>();
+                buckets.put(t.getMode(), bucket);
+            }
+            bucket.add(t);
+            ids.add(t.getId());
+        }
+
+        public synchronized boolean remove(final Trigger t) {
+            final List<Trigger> bucket = buckets.get(t.getMode());
+            if (bucket != null && bucket.remove(t)) {
+                ids.remove(t.getId());
+                return true;
+            }
+            return false;
+        }
+
+        public synchronized void clear() {
+            buckets.clear();
+            ids.clear();
+        }
+
+        public synchronized int size() {
+            return ids.size();
+        }
+
+        public synchronized boolean isEmpty() {
+            return ids.isEmpty();
+        }
+
+        public synchronized boolean containsId(final int id) {
+            return ids.contains(id);
+        }
+
+        /** Returns a copy of the triggers with the given mode. */
+        public synchronized List<Trigger> get(final TriggerType mode) {
+            final List<Trigger> bucket = buckets.get(mode);
+            return bucket == null ? new ArrayList<Trigger>() : new ArrayList<Trigger>(bucket);
+        }
+
+        /** Iterates over a copy of all the triggers. */
+        @Override
+        public synchronized Iterator<Trigger> iterator() {
+            final List<Trigger> all = new ArrayList<Trigger>(ids.size());
+            for (final List<Trigger> bucket : buckets.values()) {
+                all.addAll(bucket);
+            }
+            return all.iterator();
+        }
+    }
+
     public final void cleanUpTemporaryTriggers() {
         game.forEachCardInGame(new Visitor<Card>() {
             @Override
@@ -97,27 +162,32 @@ public class TriggerHandler {
     }
 
     public final void registerDelayedTrigger(final Trigger trig) {
+        recordDelayedTriggersForUndo();
         delayedTriggers.add(trig);
     }
 
     public final void clearDelayedTrigger() {
+        recordDelayedTriggersForUndo();
         delayedTriggers.clear();
     }
 
     public final void registerThisTurnDelayedTrigger(final Trigger trig) {
+        recordDelayedTriggersForUndo();
         thisTurnDelayedTriggers.add(trig);
         delayedTriggers.add(trig);
     }
 
     public final void clearThisTurnDelayedTrigger() {
-        delayedTriggers.removeAll(thisTurnDelayedTriggers);
+        recordDelayedTriggersForUndo();
+        for (final Trigger trigger : thisTurnDelayedTriggers) {
+            delayedTriggers.remove(trigger);
+        }
         thisTurnDelayedTriggers.clear();
     }
 
     public final void clearDelayedTrigger(final Card card) {
-        final List<Trigger> deltrigs = new ArrayList<Trigger>(delayedTriggers);
-
-        for (final Trigger trigger : deltrigs) {
+        recordDelayedTriggersForUndo();
+        for (final Trigger trigger : delayedTriggers) {
             if (trigger.getHostCard().equals(card)) {
                 delayedTriggers.remove(trigger);
             }
@@ -125,11 +195,47 @@ public class TriggerHandler {
     }
 
     public final void registerPlayerDefinedDelayedTrigger(final Player player, final Trigger trig) {
+        recordDelayedTriggersForUndo();
         playerDefinedDelayedTriggers.put(player, trig);
     }
 
     public final void handlePlayerDefinedDelTriggers(final Player player) {
-        delayedTriggers.addAll(playerDefinedDelayedTriggers.removeAll(player));
+        recordDelayedTriggersForUndo();
+        for (final Trigger trigger : playerDefinedDelayedTriggers.removeAll(player)) {
+            delayedTriggers.add(trigger);
+        }
+    }
+
+    /**
+     * Records the delayed triggers in the game's undo journal (if any), to be
+     * called before they are changed.
+     */
+    private void recordDelayedTriggersForUndo() {
+        final UndoJournal journal = game.getUndoJournal();
+        if (journal == null) {
+            return;
+        }
+        final List<Trigger> oldDelayed = Lists.newArrayList(delayedTriggers);
+        final List<Trigger> oldThisTurn = new ArrayList<Trigger>(thisTurnDelayedTriggers);
+        final ListMultimap<Player, Trigger> oldPlayerDefined = ArrayListMultimap.create(playerDefinedDelayedTriggers);
+        journal.record(new UndoJournal.Entry() {
+            @Override
+            public void undo() {
+                delayedTriggers.clear();
+                for (final Trigger t : oldDelayed) {
+                    delayedTriggers.add(t);
+                }
+                thisTurnDelayedTriggers.clear();
+                thisTurnDelayedTriggers.addAll(oldThisTurn);
+                playerDefinedDelayedTriggers.clear();
+                playerDefinedDelayedTriggers.putAll(oldPlayerDefined);
+            }
+        });
+    }
+
+    /** The number of delayed triggers waiting to go off, to tell games apart. */
+    public final int getDelayedTriggerCount() {
+        return delayedTriggers.size() + playerDefinedDelayedTriggers.size();
     }
 
     public final void suppressMode(final TriggerType mode) {
@@ -211,13 +317,9 @@ public class TriggerHandler {
     }
 
     public final void clearInstrinsicActiveTriggers(final Card c, Zone zoneFrom) {
-        final Iterator<Trigger> itr = activeTriggers.iterator();
-        Trigger t;
         final List<Trigger> toBeRemoved = new ArrayList<Trigger>();
 
-        while(itr.hasNext()) {
-            t = itr.next();
-
+        for (final Trigger t : activeTriggers) {
             // Clear if no ZoneFrom, or not coming from the TriggerZone
             if (c.getId() == t.getHostCard().getId() && t.isIntrinsic()) {
                 if (!c.getTriggers().contains(t) || !t.zonesCheck(zoneFrom))
@@ -269,7 +371,7 @@ public class TriggerHandler {
         boolean checkStatics = false;
         // only cards in play can run state triggers
 
-        for (final Trigger t: activeTriggers) {
+        for (final Trigger t: activeTriggers.get(TriggerType.Always)) {
             if (canRunTrigger(t, TriggerType.Always, runParams)) {
                 runSingleTrigger(t, runParams);
                 checkStatics = true;
@@ -304,12 +406,13 @@ public class TriggerHandler {
         }
 
         // Copy triggers here, so things can be modified just in case
-        final List<Trigger> delayedTriggersWorkingCopy = new ArrayList<Trigger>(delayedTriggers);
+        final List<Trigger> delayedTriggersWorkingCopy = delayedTriggers.get(mode);
+        final List<Trigger> activeTriggersWorkingCopy = activeTriggers.get(mode);
 
         boolean checkStatics = false;
 
         // Static triggers
-        for (final Trigger t : Lists.newArrayList(activeTriggers)) {
+        for (final Trigger t : activeTriggersWorkingCopy) {
             if (t.isStatic() && canRunTrigger(t, mode, runParams)) {
                 runSingleTrigger(t, runParams);
                 checkStatics = true;
@@ -328,11 +431,11 @@ public class TriggerHandler {
         }
 
         // AP 
-        checkStatics |= runNonStaticTriggersForPlayer(playerAP, mode, runParams, delayedTriggersWorkingCopy);
+        checkStatics |= runNonStaticTriggersForPlayer(playerAP, mode, runParams, activeTriggers.get(mode), delayedTriggersWorkingCopy);
 
         // NAPs
         for (final Player nap : game.getNonactivePlayers()) {
-            checkStatics |= runNonStaticTriggersForPlayer(nap, mode, runParams, delayedTriggersWorkingCopy);
+            checkStatics |= runNonStaticTriggersForPlayer(nap, mode, runParams, activeTriggers.get(mode), delayedTriggersWorkingCopy);
         }
         return checkStatics;
     }
@@ -351,12 +454,13 @@ public class TriggerHandler {
     }
 
     private boolean runNonStaticTriggersForPlayer(final Player player, final TriggerType mode, 
-            final Map<String, Object> runParams, final List<Trigger> delayedTriggersWorkingCopy ) {
+            final Map<String, Object> runParams, final List<Trigger> activeTriggersWorkingCopy,
+            final List<Trigger> delayedTriggersWorkingCopy) {
 
         Card card = null;
         boolean checkStatics = false;
 
-        for (final Trigger t : activeTriggers) {
+        for (final Trigger t : activeTriggersWorkingCopy) {
             if (!t.isStatic() && t.getHostCard().getController().equals(player) && canRunTrigger(t, mode, runParams)) {
                 if (runParams.containsKey("Card") && runParams.get("Card") instanceof Card) {
                     card = (Card) runParams.get("Card");
@@ -377,6 +481,7 @@ public class TriggerHandler {
             if (deltrig.getHostCard().getController().equals(player)) {
                 if (isTriggerActive(deltrig) && canRunTrigger(deltrig, mode, runParams)) {
                     runSingleTrigger(deltrig, runParams);
+                    recordDelayedTriggersForUndo();
                     delayedTriggers.remove(deltrig);
                 }
             }
@@ -416,11 +521,9 @@ public class TriggerHandler {
             }
         }
 
-        for (Trigger t : this.activeTriggers) {
-            // If an ID that matches this ID is already active, don't add it
-            if (regtrig.getId() == t.getId()) {
-                return false;
-            }
+        // If an ID that matches this ID is already active, don't add it
+        if (activeTriggers.containsId(regtrig.getId())) {
+            return false;
         }
 
         // Check if a trigger with the same ID is already in activeTriggers
@@ -37,9 +37,12 @@ import forge.card.mana.ManaCost;
 import forge.game.Game;
 import forge.game.GameLogEntryType;
 import forge.game.GameObject;
+import forge.game.UndoJournal;
 import forge.game.ability.AbilityFactory;
+import forge.game.ability.AbilityKey;
 import forge.game.ability.AbilityUtils;
 import forge.game.ability.ApiType;
+import forge.game.ability.RunParams;
 import forge.game.card.Card;
 import forge.game.card.CardCollection;
 import forge.game.card.CardFactoryUtil;
@@ -106,9 +109,46 @@ public class MagicStack /* extends MyObservable */ implements Iterable<SpellAbil
         return frozen;
     }
     public final void setFrozen(final boolean frozen0) {
+        if (frozen != frozen0) {
+            recordStateForUndo();
+        }
         frozen = frozen0;
     }
 
+    /**
+     * Records everything about the stack in the game's undo journal (if any),
+     * to be called before it changes. The stack is rarely more than a few
+     * items deep, so it is simply copied.
+     */
+    private void recordStateForUndo() {
+        final UndoJournal journal = game.getUndoJournal();
+        if (journal == null) {
+            return;
+        }
+        final List<SpellAbilityStackInstance> oldStack = Lists.newArrayList(stack);
+        final List<SpellAbilityStackInstance> oldFrozenStack = Lists.newArrayList(frozenStack);
+        final List<SpellAbility> oldSimultaneousEntries = Lists.newArrayList(simultaneousStackEntryList);
+        final List<Card> oldThisTurnCast = Lists.newArrayList(thisTurnCast);
+        final boolean oldFrozen = frozen;
+        final Card oldResolvingCard = curResolvingCard;
+        journal.record(new UndoJournal.Entry() {
+            @Override
+            public void undo() {
+                stack.clear();
+                stack.addAll(oldStack);
+                frozenStack.clear();
+                frozenStack.addAll(oldFrozenStack);
+                simultaneousStackEntryList.clear();
+                simultaneousStackEntryList.addAll(oldSimultaneousEntries);
+                thisTurnCast.clear();
+                thisTurnCast.addAll(oldThisTurnCast);
+                frozen = oldFrozen;
+                curResolvingCard = oldResolvingCard;
+                game.updateStackForView();
+            }
+        });
+    }
+
     public final void reset() {
         clear();
         simultaneousStackEntryList.clear();
@@ -131,6 +171,9 @@ public class MagicStack /* extends MyObservable */ implements Iterable<SpellAbil
     }
 
     public final void freezeStack() {
+        if (!frozen) {
+            recordStateForUndo();
+        }
         frozen = true;
     }
 
@@ -139,6 +182,15 @@ public class MagicStack /* extends MyObservable */ implements Iterable<SpellAbil
             // Copied abilities aren't activated, so they shouldn't change these values
             ability.getRestrictions().abilityActivated();
             ability.checkActivationResloveSubs();
+            final UndoJournal journal = game.getUndoJournal();
+            if (journal != null) {
+                journal.record(new UndoJournal.Entry() {
+                    @Override
+                    public void undo() {
+                        ability.getRestrictions().undoAbilityActivated();
+                    }
+                });
+            }
         }
 
         // if the ability is a spell, but not a copied spell and its not already
@@ -146,6 +198,15 @@ public class MagicStack /* extends MyObservable */ implements Iterable<SpellAbil
         if (ability.isSpell()) {
             final Card source = ability.getHostCard();
             if (!source.isCopiedSpell() && !source.isInZone(ZoneType.Stack)) {
+                final UndoJournal journal = game.getUndoJournal();
+                if (journal != null) {
+                    journal.record(new UndoJournal.Entry() {
+                        @Override
+                        public void undo() {
+                            ability.setHostCard(source);
+                        }
+                    });
+                }
                 ability.setHostCard(game.getAction().moveToStack(source));
             }
         }
@@ -156,6 +217,7 @@ public class MagicStack /* extends MyObservable */ implements Iterable<SpellAbil
     }
 
     public final void unfreezeStack() {
+        recordStateForUndo();
         frozen = false;
 
         // Add all Frozen Abilities onto the stack
@@ -170,6 +232,7 @@ public class MagicStack /* extends MyObservable */ implements Iterable<SpellAbil
     public final void clearFrozen() {
         // TODO: frozen triggered abilities and undoable costs have nasty
         // consequences
+        recordStateForUndo();
         frozen = false;
         frozenStack.clear();
     }
@@ -266,6 +329,7 @@ public class MagicStack /* extends MyObservable */ implements Iterable<SpellAbil
 
         if (frozen) {
             si = new SpellAbilityStackInstance(sp);
+            recordStateForUndo();
             frozenStack.push(si);
             return;
         }
@@ -356,15 +420,15 @@ public class MagicStack /* extends MyObservable */ implements Iterable<SpellAbil
         sp.setTotalManaSpent(totManaSpent);
 
         // Copied spells aren't cast per se so triggers shouldn't run for them.
-        HashMap<String, Object> runParams = new HashMap<String, Object>();
+        RunParams runParams = new RunParams();
         if (!(sp instanceof AbilityStatic) && !sp.isCopied()) {
             // Run SpellAbilityCast triggers
-            runParams.put("Cost", sp.getPayCosts());
-            runParams.put("Player", sp.getHostCard().getController());
-            runParams.put("Activator", sp.getActivatingPlayer());
-            runParams.put("CastSA", si.getSpellAbility(true));
-            runParams.put("CastSACMC", si.getSpellAbility(true).getHostCard().getCMC());
-            runParams.put("CurrentStormCount", thisTurnCast.size());
+            runParams.put(AbilityKey.Cost, sp.getPayCosts());
+            runParams.put(AbilityKey.Player, sp.getHostCard().getController());
+            runParams.put(AbilityKey.Activator, sp.getActivatingPlayer());
+            runParams.put(AbilityKey.CastSA, si.getSpellAbility(true));
+            runParams.put(AbilityKey.CastSACMC, si.getSpellAbility(true).getHostCard().getCMC());
+            runParams.put(AbilityKey.CurrentStormCount, thisTurnCast.size());
             game.getTriggerHandler().runTrigger(TriggerType.SpellAbilityCast, runParams, true);
 
             // Run SpellCast triggers
@@ -381,7 +445,7 @@ public class MagicStack /* extends MyObservable */ implements Iterable<SpellAbil
             // Run Cycled triggers
             if (sp.isCycling()) {
                 runParams.clear();
-                runParams.put("Card", sp.getHostCard());
+                runParams.put(AbilityKey.Card, sp.getHostCard());
                 game.getTriggerHandler().runTrigger(TriggerType.Cycled, runParams, false);
             }
         }
@@ -390,13 +454,13 @@ public class MagicStack /* extends MyObservable */ implements Iterable<SpellAbil
         // Create a new object, since the triggers aren't happening right away
         List<TargetChoices> chosenTargets = sp.getAllTargetChoices();
         if (!chosenTargets.isEmpty()) { 
-            runParams = new HashMap<String, Object>();
+            runParams = new RunParams();
             SpellAbility s = sp;
             if (si != null) {
                 s = si.getSpellAbility(true);
                 chosenTargets = s.getAllTargetChoices();
             }
-            runParams.put("SourceSA", s);
+            runParams.put(AbilityKey.SourceSA, s);
             Set<Object> distinctObjects = new HashSet<Object>();
             for (final TargetChoices tc : chosenTargets) {
                 if (tc != null && tc.getTargetCards() != null) {
@@ -409,10 +473,10 @@ public class MagicStack /* extends MyObservable */ implements Iterable<SpellAbil
                         
                         distinctObjects.add(tgt);
                         if (tgt instanceof Card && !((Card) tgt).hasBecomeTargetThisTurn()) {
-                            runParams.put("FirstTime", null);
+                            runParams.put(AbilityKey.FirstTime, null);
                             ((Card) tgt).setBecameTargetThisTurn(true);
                         }
-                        runParams.put("Target", tgt);
+                        runParams.put(AbilityKey.Target, tgt);
                         game.getTriggerHandler().runTrigger(TriggerType.BecomesTarget, runParams, false);
                     }
                 }
@@ -421,7 +485,7 @@ public class MagicStack /* extends MyObservable */ implements Iterable<SpellAbil
         // Not sure these clauses are necessary. Consider it a precaution
         // for backwards compatibility for hardcoded cards.
         else if (sp.getTargetCard() != null) {
-            runParams.put("Target", sp.getTargetCard());
+            runParams.put(AbilityKey.Target, sp.getTargetCard());
 
             game.getTriggerHandler().runTrigger(TriggerType.BecomesTarget, runParams, false);
         }
@@ -456,6 +520,7 @@ public class MagicStack /* extends MyObservable */ implements Iterable<SpellAbil
         }
         final SpellAbilityStackInstance si = new SpellAbilityStackInstance(sp);
 
+        recordStateForUndo();
         stack.addFirst(si);
 
         // 2012-07-21 the following comparison needs to move below the pushes but somehow screws up priority
@@ -493,6 +558,7 @@ public class MagicStack /* extends MyObservable */ implements Iterable<SpellAbil
         game.getPhaseHandler().resetPriority(); 
 
         final Card source = sa.getHostCard();
+        recordStateForUndo();
         curResolvingCard = source;
         
         boolean thisHasFizzled = hasFizzled(sa, source, null);
@@ -579,6 +645,7 @@ public class MagicStack /* extends MyObservable */ implements Iterable<SpellAbil
         //game.getAction().checkStaticAbilities();
         game.getPhaseHandler().onStackResolved();
 
+        recordStateForUndo();
         curResolvingCard = null;
 
         // TODO: this is a huge hack. Why is this necessary?
@@ -737,6 +804,7 @@ public class MagicStack /* extends MyObservable */ implements Iterable<SpellAbil
     }
 
     public final void remove(final SpellAbilityStackInstance si) {
+        recordStateForUndo();
         stack.remove(si);
         frozenStack.remove(si);
         game.updateStackForView();
@@ -788,10 +856,12 @@ public class MagicStack /* extends MyObservable */ implements Iterable<SpellAbil
     }
 
     public final void clearSimultaneousStack() {
+        recordStateForUndo();
         simultaneousStackEntryList.clear();
     }
 
     public final void addSimultaneousStackEntry(final SpellAbility sa) {
+        recordStateForUndo();
         simultaneousStackEntryList.add(sa);
     }
 
@@ -822,6 +892,7 @@ public class MagicStack /* extends MyObservable */ implements Iterable<SpellAbil
             return false;
         }
 
+        recordStateForUndo();
         final List<SpellAbility> activePlayerSAs = new ArrayList<SpellAbility>();
         for (int i = 0; i < simultaneousStackEntryList.size(); i++) {
             SpellAbility sa = simultaneousStackEntryList.get(i);
@@ -929,6 +1000,7 @@ public class MagicStack /* extends MyObservable */ implements Iterable<SpellAbil
 
     public void clear() {
         if (stack.isEmpty()) { return; }
+        recordStateForUndo();
         stack.clear();
         game.updateStackForView();
         game.fireEvent(new GameEventSpellRemovedFromStack(null));
@@ -92,6 +92,7 @@ public class PlayerZone extends Zone {
 
     @Override
     protected void onChanged() {
+        super.onChanged();
         player.updateZoneForView(this);
     }
 
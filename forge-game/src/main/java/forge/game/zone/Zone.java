@@ -20,6 +20,7 @@ package forge.game.zone;
 import com.google.common.base.Predicate;
 import com.google.common.collect.Iterables;
 import forge.game.Game;
+import forge.game.UndoJournal;
 import forge.game.card.Card;
 import forge.game.card.CardCollection;
 import forge.game.card.CardCollectionView;
@@ -28,6 +29,7 @@ import forge.game.event.EventValueChangeType;
 import forge.game.event.GameEventZone;
 import forge.game.player.Player;
 import forge.util.CollectionSuppliers;
+import forge.util.MyRandom;
 import forge.util.maps.EnumMapOfLists;
 import forge.util.maps.MapOfLists;
 
@@ -60,6 +62,13 @@ public class Zone implements java.io.Serializable, Iterable<Card> {
     }
 
     protected void onChanged() {
+        game.getTracker().countChange(zoneType);
+    }
+
+    // the replacement effects of a card are looked for again when it comes or goes, but not when it's only moved
+    // within the zone
+    private void cardMoved(final Card c) {
+        game.getReplacementHandler().invalidateReplacementEffects(c);
     }
 
     public Player getPlayer() { // generic zones like stack have no player associated
@@ -67,8 +76,10 @@ public class Zone implements java.io.Serializable, Iterable<Card> {
     }
 
     public final void reorder(final Card c, final int index) {
+        recordRemove(c);
         cardList.remove(c);
         cardList.add(index, c);
+        game.getTracker().countChange(zoneType);
     }
 
     public final void add(final Card c) {
@@ -84,8 +95,19 @@ public class Zone implements java.io.Serializable, Iterable<Card> {
         if (!c.isImmutable()) {
             final Zone oldZone = game.getZoneOf(c);
             final ZoneType zt = oldZone == null ? ZoneType.Stack : oldZone.getZoneType();
+            final Card latest = latestState != null ? latestState : c;
             cardsAddedThisTurn.add(zt, c);
-            latestStateCardsAddedThisTurn.add(zt, latestState != null ? latestState : c);
+            latestStateCardsAddedThisTurn.add(zt, latest);
+            final UndoJournal journal = game.getUndoJournal();
+            if (journal != null) {
+                journal.record(new UndoJournal.Entry() {
+                    @Override
+                    public void undo() {
+                        cardsAddedThisTurn.get(zt).remove(c);
+                        latestStateCardsAddedThisTurn.get(zt).remove(latest);
+                    }
+                });
+            }
         }
 
         c.setTurnInZone(game.getPhaseHandler().getTurn());
@@ -98,14 +120,77 @@ public class Zone implements java.io.Serializable, Iterable<Card> {
         if (zoneType == ZoneType.Battlefield || zoneType == ZoneType.Command || !c.isToken()) {
             c.setZone(this);
 
+            final boolean alreadyIn = cardList.contains(c);
             if (index == null) {
                 cardList.add(c);
             } else {
                 cardList.add(index.intValue(), c);
             }
+            if (!alreadyIn) {
+                recordAdd(c);
+            }
+            cardMoved(c);
         }
         onChanged();
-        game.fireEvent(new GameEventZone(zoneType, getPlayer(), EventValueChangeType.Added, c));
+        if (game.shouldFireEvent(GameEventZone.class)) {
+            game.fireEvent(new GameEventZone(zoneType, getPlayer(), EventValueChangeType.Added, c));
+        }
+    }
+
+    private void recordAdd(final Card c) {
+        final UndoJournal journal = game.getUndoJournal();
+        if (journal == null) {
+            return;
+        }
+        journal.record(new UndoJournal.Entry() {
+            @Override
+            public void undo() {
+                cardList.remove(c);
+                cardMoved(c);
+                onChanged();
+            }
+        });
+    }
+
+    private void recordRemove(final Card c) {
+        final UndoJournal journal = game.getUndoJournal();
+        if (journal == null) {
+            return;
+        }
+        final int index = cardList.indexOf(c);
+        if (index < 0) {
+            return;
+        }
+        journal.record(new UndoJournal.Entry() {
+            @Override
+            public void undo() {
+                cardList.add(index, c);
+                cardMoved(c);
+                onChanged();
+            }
+        });
+    }
+
+    private void recordCardListChange() {
+        final UndoJournal journal = game.getUndoJournal();
+        if (journal == null) {
+            return;
+        }
+        final CardCollection oldCards = new CardCollection(cardList);
+        journal.record(new UndoJournal.Entry() {
+            @Override
+            public void undo() {
+                for (final Card c : cardList) {
+                    cardMoved(c);
+                }
+                cardList.clear();
+                cardList.addAll(oldCards);
+                for (final Card c : oldCards) {
+                    cardMoved(c);
+                }
+                onChanged();
+            }
+        });
     }
 
     public final boolean contains(final Card c) {
@@ -117,20 +202,31 @@ public class Zone implements java.io.Serializable, Iterable<Card> {
     }
 
     public void remove(final Card c) {
+        recordRemove(c);
         if (cardList.remove(c)) {
+            cardMoved(c);
             onChanged();
-            game.fireEvent(new GameEventZone(zoneType, getPlayer(), EventValueChangeType.Removed, c));
+            if (game.shouldFireEvent(GameEventZone.class)) {
+                game.fireEvent(new GameEventZone(zoneType, getPlayer(), EventValueChangeType.Removed, c));
+            }
         }
     }
 
     public final void setCards(final Iterable<Card> cards) {
+        recordCardListChange();
+        for (final Card c : cardList) {
+            cardMoved(c);
+        }
         cardList.clear();
         for (Card c : cards) {
             c.setZone(this);
             cardList.add(c);
+            cardMoved(c);
         }
         onChanged();
-        game.fireEvent(new GameEventZone(zoneType, getPlayer(), EventValueChangeType.ComplexUpdate, null));
+        if (game.shouldFireEvent(GameEventZone.class)) {
+            game.fireEvent(new GameEventZone(zoneType, getPlayer(), EventValueChangeType.ComplexUpdate, null));
+        }
     }
 
     public final boolean is(final ZoneType zone) {
@@ -240,7 +336,7 @@ public class Zone implements java.io.Serializable, Iterable<Card> {
     }
 
     public void shuffle() {
-        Collections.shuffle(cardList);
+        Collections.shuffle(cardList, MyRandom.getRandom());
         onChanged();
     }
 
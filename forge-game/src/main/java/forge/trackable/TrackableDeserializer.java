@@ -1,38 +1,450 @@
 package forge.trackable;
 
-import forge.util.FileUtil;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InvalidClassException;
+import java.io.ObjectInputStream;
+import java.io.ObjectStreamClass;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
+import com.google.common.collect.ImmutableMultiset;
+
+import forge.card.CardRarity;
+import forge.card.CardStateName;
+import forge.card.CardType;
+import forge.card.ColorSet;
+import forge.card.mana.ManaCost;
+import forge.game.Direction;
+import forge.game.GameLog;
+import forge.game.GameLogEntry;
+import forge.game.GameLogEntryType;
+import forge.game.GameType;
+import forge.game.card.CounterType;
+import forge.game.phase.PhaseType;
+import forge.game.zone.ZoneType;
+import forge.util.collect.FCollection;
+
+/**
+ * Reads what a {@link TrackableSerializer} wrote on the other side of a
+ * network connection.
+ * <p>
+ * Trackable objects are created the first time they're referred to and
+ * reused after that, so the objects on both sides stay in step. The
+ * property changes sent at the end of each message aren't applied right
+ * away, since the objects may be in use by another thread; they're queued
+ * in the {@link Tracker} returned by {@link #end}, to be applied when the
+ * message is handled.
+ * <p>
+ * What's read comes from another machine, so it isn't trusted: lengths are
+ * checked against what's left of the message, enums are only looked up among
+ * the types allowed by {@link #allowEnums}, and values sent with Java
+ * serialization may only be made of the classes allowed by
+ * {@link #isAllowedClass}.
+ */
 public class TrackableDeserializer {
-    private int index;
-    private final String[] pieces;
+    private static final Map<String, Class<? extends Enum<?>>> enumTypes = new ConcurrentHashMap<String, Class<? extends Enum<?>>>();
+    static {
+        allowEnums(ZoneType.class, PhaseType.class, Direction.class, CardRarity.class, GameType.class,
+                CounterType.class, CardStateName.class, GameLogEntryType.class);
+    }
+
+    /**
+     * Allows enums of the given types to be read as values. The types used
+     * by trackable properties are allowed already; others that are sent,
+     * like those of the GUI, have to be added.
+     */
+    @SafeVarargs
+    public static void allowEnums(final Class<? extends Enum<?>>... types) {
+        for (final Class<? extends Enum<?>> type : types) {
+            enumTypes.put(type.getName(), type);
+        }
+    }
+
+    private final List<String> strings = new ArrayList<String>();
+    private final Map<Long, TrackableObject> objects;
+    private final Map<Long, GameLog> gameLogs = new HashMap<Long, GameLog>();
 
-    public TrackableDeserializer(String filename) {
-        pieces = FileUtil.readFileToString(filename).split(String.valueOf(TrackableSerializer.DELIMITER));
+    private DataInputStream in;
+
+    public TrackableDeserializer() {
+        this(new HashMap<Long, TrackableObject>());
+    }
+
+    /**
+     * Creates a deserializer for the replies to what the given serializer
+     * sends, so the objects referred to in them resolve to the objects that
+     * were sent instead of new ones.
+     */
+    public TrackableDeserializer(final TrackableSerializer ts) {
+        this(ts.getObjects());
+    }
+
+    private TrackableDeserializer(final Map<Long, TrackableObject> objects0) {
+        objects = objects0;
+    }
+
+    /**
+     * Forgets the objects and game logs read so far, when a new game starts
+     * and the other side's {@link TrackableSerializer} was reset as well.
+     */
+    public void reset() {
+        objects.clear();
+        gameLogs.clear();
+    }
+
+    public void begin(final InputStream in0) {
+        in = in0 instanceof DataInputStream ? (DataInputStream) in0 : new DataInputStream(in0);
+    }
+
+    /**
+     * Reads the property changes at the end of a message.
+     *
+     * @return a frozen tracker holding the changes, which are applied by
+     *  unfreezing it, or null if there weren't any.
+     */
+    public Tracker end() {
+        Tracker changes = null;
+        int kind;
+        while ((kind = readVarInt()) != 0) {
+            final TrackableObject o = readObject(kind);
+            final long key = TrackableKind.deserialize(kind - 1).getKey(o);
+            if (changes == null) {
+                changes = new Tracker();
+                changes.freeze();
+            }
+            final int count = readVarInt();
+            for (int i = 0; i < count; i++) {
+                final int code = readVarInt();
+                final TrackableProperty prop = TrackableProperty.deserialize(code >> 1);
+                final Object value = (code & 1) != 0 ? null : readValue(key);
+                changes.addDelayedPropChange(o, prop, value);
+            }
+        }
+        in = null;
+        return changes;
+    }
+
+    TrackableObject getObject(final TrackableKind kind, final int id, final int state) {
+        final long key = kind.getKey(id, state);
+        TrackableObject o = objects.get(key);
+        if (o == null) {
+            o = kind.create(id, state, this);
+            objects.put(key, o);
+        }
+        return o;
     }
 
     public String readString() {
-        return pieces[index++];
+        final int code = readVarInt();
+        switch (code) {
+        case TrackableSerializer.STRING_NULL:
+            return null;
+        case TrackableSerializer.STRING_LITERAL:
+            return readUTF();
+        case TrackableSerializer.STRING_INTERNED:
+            final String value = readUTF();
+            strings.add(value);
+            return value;
+        default:
+            return strings.get(code - TrackableSerializer.STRING_TABLE);
+        }
     }
     public boolean readBoolean() {
-        return readString().equals("1");
+        return readVarInt() != 0;
     }
     public int readInt() {
-        return Integer.parseInt(readString());
+        final int value = readVarInt();
+        return (value >>> 1) ^ -(value & 1);
     }
     public byte readByte() {
-        return Byte.parseByte(readString());
+        try {
+            return in.readByte();
+        }
+        catch (final IOException e) {
+            throw new RuntimeException(e);
+        }
     }
     public long readLong() {
-        return Long.parseLong(readString());
+        final long value = readVarLong();
+        return (value >>> 1) ^ -(value & 1);
     }
     public float readFloat() {
-        return Float.parseFloat(readString());
+        return Float.intBitsToFloat(readInt());
     }
     public double readDouble() {
-        return Double.parseDouble(readString());
+        return Double.longBitsToDouble(readLong());
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T extends TrackableObject> T readObject() {
+        final int kind = readVarInt();
+        return kind == 0 ? null : (T) readObject(kind);
+    }
+
+    private TrackableObject readObject(final int kind) {
+        final TrackableKind k = TrackableKind.deserialize(kind - 1);
+        final int id = readInt();
+        final int state = k == TrackableKind.CardState ? readVarInt() : 0;
+        return getObject(k, id, state);
+    }
+
+    public <T extends TrackableObject> TrackableCollection<T> readCollection(final TrackableCollection<T> oldValue) {
+        final int size = readVarInt();
+        final TrackableCollection<T> collection = new TrackableCollection<T>();
+        for (int i = 0; i < size; i++) {
+            final T o = readObject();
+            collection.add(o);
+        }
+        return collection;
+    }
+
+    /** Reads a value written by {@link TrackableSerializer#writeValue}. */
+    public Object readValue() {
+        return readValue(0);
+    }
+
+    private Object readValue(final long ownerKey) {
+        final int tag = readVarInt();
+        switch (tag) {
+        case TrackableSerializer.NULL:
+            return null;
+        case TrackableSerializer.FALSE:
+            return false;
+        case TrackableSerializer.TRUE:
+            return true;
+        case TrackableSerializer.INTEGER:
+            return readInt();
+        case TrackableSerializer.LONG:
+            return readLong();
+        case TrackableSerializer.BYTE:
+            return readByte();
+        case TrackableSerializer.STRING:
+            return readString();
+        case TrackableSerializer.ENUM:
+            return readEnum();
+        case TrackableSerializer.OBJECT:
+            return readObject();
+        case TrackableSerializer.TRACKABLE_COLLECTION:
+            return readCollection(null);
+        case TrackableSerializer.FCOLLECTION:
+            return readElements(new FCollection<Object>());
+        case TrackableSerializer.LIST:
+            return readElements(new ArrayList<Object>());
+        case TrackableSerializer.SET:
+            return readElements(new LinkedHashSet<Object>());
+        case TrackableSerializer.MULTISET:
+            return ImmutableMultiset.copyOf(readElements(new ArrayList<Object>()));
+        case TrackableSerializer.MAP:
+            final int size = readVarInt();
+            final Map<Object, Object> map = new LinkedHashMap<Object, Object>();
+            for (int i = 0; i < size; i++) {
+                final Object key = readValue();
+                map.put(key, readValue());
+            }
+            return map;
+        case TrackableSerializer.MANA_COST:
+            return ManaCost.deserialize(readString());
+        case TrackableSerializer.COLOR_SET:
+            return ColorSet.fromMask(readInt());
+        case TrackableSerializer.CARD_TYPE:
+            return CardType.parse(readString());
+        case TrackableSerializer.GAME_LOG:
+            return readGameLog(ownerKey);
+        case TrackableSerializer.SERIALIZED:
+            return readSerialized();
+        default:
+            throw new IllegalStateException("Unknown value type " + tag);
+        }
+    }
+
+    private <C extends Collection<Object>> C readElements(final C collection) {
+        final int size = readVarInt();
+        for (int i = 0; i < size; i++) {
+            collection.add(readValue());
+        }
+        return collection;
+    }
+
+    private Object readEnum() {
+        final String className = readString();
+        final int ordinal = readVarInt();
+        final Class<? extends Enum<?>> type = enumTypes.get(className);
+        if (type == null) {
+            throw new IllegalStateException("Enum type not allowed: " + className);
+        }
+        final Enum<?>[] values = type.getEnumConstants();
+        if (ordinal >= values.length) {
+            throw new IllegalStateException("Unknown " + className + " ordinal " + ordinal);
+        }
+        return values[ordinal];
+    }
+
+    /**
+     * Only the entries added to a game log since it was last sent are sent,
+     * so a new log is made from the entries already received and those.
+     */
+    private GameLog readGameLog(final long ownerKey) {
+        final int from = readVarInt();
+        final int count = readVarInt();
+        final GameLog log = new GameLog();
+        final GameLog lastLog = gameLogs.get(ownerKey);
+        if (lastLog != null) {
+            final List<GameLogEntry> entries = lastLog.getEntriesFrom(0);
+            for (int i = 0; i < from && i < entries.size(); i++) {
+                log.add(entries.get(i).type, entries.get(i).message);
+            }
+        }
+        final GameLogEntryType[] types = GameLogEntryType.values();
+        for (int i = 0; i < count; i++) {
+            final GameLogEntryType type = types[readVarInt()];
+            log.add(type, readString());
+        }
+        gameLogs.put(ownerKey, log);
+        return log;
+    }
+
+    private Object readSerialized() {
+        final byte[] bytes = new byte[readLength()];
+        try {
+            in.readFully(bytes);
+            final ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(bytes)) {
+                {
+                    enableResolveObject(true);
+                }
+                @Override
+                protected Class<?> resolveClass(final ObjectStreamClass desc) throws IOException, ClassNotFoundException {
+                    if (!isAllowedClass(desc.getName())) {
+                        throw new InvalidClassException(desc.getName(), "Class not allowed in a network message");
+                    }
+                    return super.resolveClass(desc);
+                }
+                @Override
+                protected Class<?> resolveProxyClass(final String[] interfaces) throws IOException {
+                    throw new InvalidClassException("Proxy classes not allowed in a network message");
+                }
+                @Override
+                protected Object resolveObject(final Object obj) {
+                    if (obj instanceof TrackableKind.Ref) {
+                        final long key = ((TrackableKind.Ref) obj).key;
+                        return getObject(TrackableKind.deserialize((int) (key >>> 40) - 1), (int) key, (int) (key >>> 32) & 0xFF);
+                    }
+                    return obj;
+                }
+            };
+            final Object value = ois.readObject();
+            ois.close();
+            return value;
+        }
+        catch (final IOException | ClassNotFoundException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Whether values sent with Java serialization may contain objects of the
+     * class with the given name: Forge's own classes, the boxed primitives
+     * and strings, and the collections of the JDK, Guava and Commons Lang,
+     * or arrays of those.
+     */
+    static boolean isAllowedClass(final String name) {
+        if (name.startsWith("[")) {
+            // array, allowed if its element type is
+            final String element = name.replaceFirst("^\\[+", "");
+            if (element.length() == 1) {
+                return true; // of a primitive type
+            }
+            return element.startsWith("L") && element.endsWith(";") && isAllowedClass(element.substring(1, element.length() - 1));
+        }
+        if (name.startsWith("java.lang.")) {
+            switch (name) {
+            case "java.lang.String":
+            case "java.lang.Boolean":
+            case "java.lang.Byte":
+            case "java.lang.Character":
+            case "java.lang.Short":
+            case "java.lang.Integer":
+            case "java.lang.Long":
+            case "java.lang.Float":
+            case "java.lang.Double":
+            case "java.lang.Number":
+            case "java.lang.Enum":
+                return true;
+            default:
+                return false;
+            }
+        }
+        return name.startsWith("forge.")
+                || name.startsWith("java.util.")
+                || name.startsWith("com.google.common.collect.")
+                || name.startsWith("org.apache.commons.lang3.tuple.");
+    }
+
+    /**
+     * Reads the length of what follows, which can't be more than what's left
+     * of the message.
+     */
+    private int readLength() {
+        final int length = readVarInt();
+        try {
+            if (length < 0 || length > in.available()) {
+                throw new IllegalStateException("Invalid length " + length);
+            }
+        }
+        catch (final IOException e) {
+            throw new RuntimeException(e);
+        }
+        return length;
+    }
+
+    private int readVarInt() {
+        try {
+            int value = 0;
+            for (int shift = 0; ; shift += 7) {
+                final int b = in.readUnsignedByte();
+                value |= (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+        }
+        catch (final IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private long readVarLong() {
+        try {
+            long value = 0;
+            for (int shift = 0; ; shift += 7) {
+                final int b = in.readUnsignedByte();
+                value |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+        }
+        catch (final IOException e) {
+            throw new RuntimeException(e);
+        }
     }
 
-    public <T extends TrackableObject> TrackableCollection<T> readCollection(TrackableCollection<T> oldValue) {
-        return null; //TODO
+    private String readUTF() {
+        final byte[] bytes = new byte[readLength()];
+        try {
+            in.readFully(bytes);
+            return new String(bytes, "UTF-8");
+        }
+        catch (final IOException e) {
+            throw new RuntimeException(e);
+        }
     }
 }
@@ -0,0 +1,119 @@
+package forge.trackable;
+
+import java.io.Serializable;
+
+import forge.card.CardStateName;
+import forge.game.GameView;
+import forge.game.card.CardView;
+import forge.game.card.CardView.CardStateView;
+import forge.game.combat.CombatView;
+import forge.game.player.PlayerView;
+import forge.game.spellability.SpellAbilityView;
+import forge.game.spellability.StackItemView;
+
+/**
+ * The kinds of trackable objects that can be sent over the network, used to
+ * tell which object a reference written by {@link TrackableSerializer}
+ * refers to and to create it on the other side if it's new.
+ */
+enum TrackableKind {
+    Game {
+        @Override
+        TrackableObject create(final int id, final int state, final TrackableDeserializer td) {
+            return new GameView(id, null);
+        }
+    },
+    Player {
+        @Override
+        TrackableObject create(final int id, final int state, final TrackableDeserializer td) {
+            return new PlayerView(id, null);
+        }
+    },
+    Card {
+        @Override
+        TrackableObject create(final int id, final int state, final TrackableDeserializer td) {
+            return new CardView(id, null);
+        }
+    },
+    CardState {
+        @Override
+        TrackableObject create(final int id, final int state, final TrackableDeserializer td) {
+            final CardView card = (CardView) td.getObject(Card, id, 0);
+            return card.new CardStateView(id, CardStateName.values()[state], null);
+        }
+    },
+    StackItem {
+        @Override
+        TrackableObject create(final int id, final int state, final TrackableDeserializer td) {
+            return new StackItemView(id, null);
+        }
+    },
+    SpellAbility {
+        @Override
+        TrackableObject create(final int id, final int state, final TrackableDeserializer td) {
+            return new SpellAbilityView(id, null);
+        }
+    },
+    Combat {
+        @Override
+        TrackableObject create(final int id, final int state, final TrackableDeserializer td) {
+            return new CombatView(null);
+        }
+    };
+
+    private static final TrackableKind[] kinds = values();
+
+    abstract TrackableObject create(int id, int state, TrackableDeserializer td);
+
+    static TrackableKind of(final TrackableObject o) {
+        if (o instanceof CardView) {
+            return Card;
+        }
+        if (o instanceof CardStateView) {
+            return CardState;
+        }
+        if (o instanceof PlayerView) {
+            return Player;
+        }
+        if (o instanceof StackItemView) {
+            return StackItem;
+        }
+        if (o instanceof SpellAbilityView) {
+            return SpellAbility;
+        }
+        if (o instanceof CombatView) {
+            return Combat;
+        }
+        if (o instanceof GameView) {
+            return Game;
+        }
+        throw new IllegalArgumentException("Can't serialize " + o.getClass().getName());
+    }
+
+    static TrackableKind deserialize(final int ordinal) {
+        return kinds[ordinal];
+    }
+
+    static int getStateOrdinal(final TrackableObject o) {
+        return ((CardStateView) o).getState().ordinal();
+    }
+
+    long getKey(final TrackableObject o) {
+        return getKey(o.getId(), this == CardState ? getStateOrdinal(o) : 0);
+    }
+
+    long getKey(final int id, final int state) {
+        return (long) (ordinal() + 1) << 40 | (long) state << 32 | (id & 0xFFFFFFFFL);
+    }
+
+    /** Stands in for a trackable object inside values sent with Java serialization. */
+    static final class Ref implements Serializable {
+        private static final long serialVersionUID = -3482740542785367271L;
+
+        final long key;
+
+        Ref(final long key0) {
+            key = key0;
+        }
+    }
+}
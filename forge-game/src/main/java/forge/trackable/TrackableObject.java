@@ -8,6 +8,7 @@ import java.util.Map.Entry;
 import java.util.Set;
 
 import forge.game.IIdentifiable;
+import forge.game.zone.ZoneType;
 
 //base class for objects that can be tracked and synced between game server and GUI
 public abstract class TrackableObject implements IIdentifiable, Serializable {
@@ -57,12 +58,12 @@ public abstract class TrackableObject implements IIdentifiable, Serializable {
         }
         if (value == null || value.equals(key.getDefaultValue())) {
             if (props.remove(key) != null) {
-                changedProps.add(key);
+                changed(key);
                 key.updateObjLookup(value);
             }
         }
         else if (!value.equals(props.put(key, value))) {
-            changedProps.add(key);
+            changed(key);
             key.updateObjLookup(value);
         }
     }
@@ -87,25 +88,27 @@ public abstract class TrackableObject implements IIdentifiable, Serializable {
 
     //use when updating collection type properties with using set
     protected final void flagAsChanged(final TrackableProperty key) {
-        changedProps.add(key);
+        changed(key);
         key.updateObjLookup(props.get(key));
     }
 
-    public final void serialize(final TrackableSerializer ts) {
-        ts.write(changedProps.size());
-        for (TrackableProperty key : changedProps) {
-            ts.write(TrackableProperty.serialize(key));
-            key.serialize(ts, props.get(key));
+    private void changed(final TrackableProperty key) {
+        changedProps.add(key);
+        if (tracker != null) {
+            tracker.countChange(this);
         }
-        changedProps.clear();
     }
 
-    public final void deserialize(final TrackableDeserializer td) {
-        int count = td.readInt();
-        for (int i = 0; i < count; i++) {
-            TrackableProperty key = TrackableProperty.deserialize(td.readInt());
-            set(key, key.deserialize(td, props.get(key)));
-        }
-        changedProps.clear();
+    /**
+     * The zone whose cards a change to this object is counted for by the
+     * tracker, if any.
+     */
+    protected ZoneType getZoneForChanges() {
+        return null;
+    }
+
+    /** The properties that are set, for sending them with a {@link TrackableSerializer}. */
+    final Map<TrackableProperty, Object> getProps() {
+        return props;
     }
 }
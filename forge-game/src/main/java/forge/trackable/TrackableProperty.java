@@ -150,6 +150,7 @@ public enum TrackableProperty {
     GameOver(TrackableTypes.BooleanType),
     PoisonCountersToLose(TrackableTypes.IntegerType),
     GameLog(TrackableTypes.StringType),
+    Combat(TrackableTypes.CombatViewType, false),
     PlayerTurn(TrackableTypes.PlayerViewType),
     Phase(TrackableTypes.EnumType(PhaseType.class));
 
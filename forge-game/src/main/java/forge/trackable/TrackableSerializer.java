@@ -1,52 +1,526 @@
 package forge.trackable;
 
-import java.io.BufferedWriter;
-import java.io.FileWriter;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
 import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
 
+import com.google.common.collect.Multiset;
+
+import forge.card.CardTypeView;
+import forge.card.ColorSet;
+import forge.card.mana.ManaCost;
+import forge.game.GameLog;
+import forge.game.GameLogEntry;
+import forge.util.collect.FCollection;
+
+/**
+ * Writes trackable objects and the values passed around with them in a
+ * compact binary form, for sending them over a network connection.
+ * <p>
+ * One serializer is kept for each connection, so it can remember what the
+ * other side has already been sent. Strings are sent once and referred to
+ * by index after that, and trackable objects are always written as a
+ * reference (their kind and id). The properties of the objects that were
+ * written, and of all objects reachable from them, follow at the end of
+ * each message, but only those that changed since they were last sent.
+ * A {@link TrackableDeserializer} on the other side reads them back.
+ */
 public class TrackableSerializer {
-    public final static char DELIMITER = (char)5;
+    // value tags
+    static final int NULL = 0;
+    static final int FALSE = 1;
+    static final int TRUE = 2;
+    static final int INTEGER = 3;
+    static final int LONG = 4;
+    static final int BYTE = 5;
+    static final int STRING = 6;
+    static final int ENUM = 7;
+    static final int OBJECT = 8;
+    static final int TRACKABLE_COLLECTION = 9;
+    static final int FCOLLECTION = 10;
+    static final int LIST = 11;
+    static final int SET = 12;
+    static final int MAP = 13;
+    static final int MULTISET = 14;
+    static final int MANA_COST = 15;
+    static final int COLOR_SET = 16;
+    static final int CARD_TYPE = 17;
+    static final int GAME_LOG = 18;
+    static final int SERIALIZED = 19;
+
+    // string codes, any higher code is an index into the string table
+    static final int STRING_NULL = 0;
+    static final int STRING_LITERAL = 1;
+    static final int STRING_INTERNED = 2;
+    static final int STRING_TABLE = 3;
+
+    private static final int MAX_INTERNED_LENGTH = 128;
+    private static final int MAX_INTERNED_STRINGS = 1 << 16;
 
-    private final BufferedWriter bw;
+    private final boolean sendChanges;
+    private final Map<String, Integer> strings = new HashMap<String, Integer>();
+    private final Map<Long, TrackableObject> objects = new HashMap<Long, TrackableObject>();
+    private final Map<Long, EnumMap<TrackableProperty, Object>> sent = new HashMap<Long, EnumMap<TrackableProperty, Object>>();
+
+    private DataOutputStream out;
+    private final ArrayDeque<TrackableObject> toVisit = new ArrayDeque<TrackableObject>();
+    private final Set<Long> visited = new HashSet<Long>();
+
+    /**
+     * @param sendChanges0 whether the properties of the written objects are
+     *  sent as well. Only the side that owns the objects (the server) sends
+     *  them; the other side only refers to objects it was sent.
+     */
+    public TrackableSerializer(final boolean sendChanges0) {
+        sendChanges = sendChanges0;
+    }
 
-    public TrackableSerializer(String filename) throws IOException {
-        bw = new BufferedWriter(new FileWriter(filename));
+    /**
+     * The objects written so far, by key, for resolving references sent
+     * back. Only kept by the side that sends changes, since the other side
+     * only refers to objects it was sent.
+     */
+    final Map<Long, TrackableObject> getObjects() {
+        return objects;
     }
 
-    public void write(String value) {
+    /**
+     * Forgets the objects sent so far and what was sent of them, when a new
+     * game starts. The {@link TrackableDeserializer} on the other side has to
+     * be reset at the same point of the stream.
+     */
+    public void reset() {
+        objects.clear();
+        sent.clear();
+    }
+
+    public void begin(final OutputStream out0) {
+        out = out0 instanceof DataOutputStream ? (DataOutputStream) out0 : new DataOutputStream(out0);
+    }
+
+    /**
+     * Writes the properties of the objects written since {@link #begin}
+     * that changed since they were last sent, and ends the message.
+     */
+    public void end() {
+        if (sendChanges) {
+            while (!toVisit.isEmpty()) {
+                writeChanges(toVisit.poll());
+            }
+        }
+        toVisit.clear();
+        writeVarInt(0);
+        visited.clear();
+        out = null;
+    }
+
+    public void write(final String value) {
+        if (value == null) {
+            writeVarInt(STRING_NULL);
+            return;
+        }
+        final Integer index = strings.get(value);
+        if (index != null) {
+            writeVarInt(STRING_TABLE + index);
+        }
+        else if (value.length() <= MAX_INTERNED_LENGTH && strings.size() < MAX_INTERNED_STRINGS) {
+            strings.put(value, strings.size());
+            writeVarInt(STRING_INTERNED);
+            writeUTF(value);
+        }
+        else {
+            writeVarInt(STRING_LITERAL);
+            writeUTF(value);
+        }
+    }
+    public void write(final boolean value) {
+        writeVarInt(value ? 1 : 0);
+    }
+    public void write(final int value) {
+        writeVarInt((value << 1) ^ (value >> 31));
+    }
+    public void write(final byte value) {
         try {
-            bw.write(value + DELIMITER);
+            out.writeByte(value);
+        }
+        catch (final IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+    public void write(final long value) {
+        writeVarLong((value << 1) ^ (value >> 63));
+    }
+    public void write(final float value) {
+        write(Float.floatToIntBits(value));
+    }
+    public void write(final double value) {
+        write(Double.doubleToLongBits(value));
+    }
+    public void write(final TrackableObject value) {
+        if (value == null) {
+            writeVarInt(0);
+            return;
+        }
+        final TrackableKind kind = TrackableKind.of(value);
+        writeVarInt(kind.ordinal() + 1);
+        write(value.getId());
+        if (kind == TrackableKind.CardState) {
+            writeVarInt(TrackableKind.getStateOrdinal(value));
+        }
+        if (sendChanges) {
+            final long key = kind.getKey(value);
+            objects.put(key, value);
+            if (visited.add(key)) {
+                toVisit.add(value);
+            }
+        }
+    }
+    public void write(final TrackableCollection<? extends TrackableObject> collection) {
+        writeVarInt(collection.size());
+        for (final TrackableObject o : collection) {
+            write(o);
+        }
+    }
+
+    /**
+     * Writes any value that can be sent: trackable objects and collections
+     * and maps of them, strings, numbers, enums and the other types used by
+     * trackable properties. Anything else is written with Java serialization,
+     * with the trackable objects it refers to still written as references.
+     */
+    public void writeValue(final Object value) {
+        writeValue(value, null);
+    }
+
+    private void writeValue(final Object value, final Object lastSent) {
+        if (value == null) {
+            writeVarInt(NULL);
+        }
+        else if (value instanceof Boolean) {
+            writeVarInt((Boolean) value ? TRUE : FALSE);
+        }
+        else if (value instanceof Integer) {
+            writeVarInt(INTEGER);
+            write((int) (Integer) value);
+        }
+        else if (value instanceof Long) {
+            writeVarInt(LONG);
+            write((long) (Long) value);
+        }
+        else if (value instanceof Byte) {
+            writeVarInt(BYTE);
+            write((byte) (Byte) value);
+        }
+        else if (value instanceof String) {
+            writeVarInt(STRING);
+            write((String) value);
+        }
+        else if (value instanceof Enum) {
+            writeVarInt(ENUM);
+            write(((Enum<?>) value).getDeclaringClass().getName());
+            writeVarInt(((Enum<?>) value).ordinal());
+        }
+        else if (value instanceof TrackableObject) {
+            writeVarInt(OBJECT);
+            write((TrackableObject) value);
+        }
+        else if (value instanceof TrackableCollection) {
+            writeVarInt(TRACKABLE_COLLECTION);
+            write((TrackableCollection<?>) value);
+        }
+        else if (value instanceof FCollection) {
+            writeVarInt(FCOLLECTION);
+            writeElements((Collection<?>) value);
+        }
+        else if (value instanceof Multiset) {
+            writeVarInt(MULTISET);
+            writeElements((Collection<?>) value);
+        }
+        else if (value instanceof List) {
+            writeVarInt(LIST);
+            writeElements((Collection<?>) value);
+        }
+        else if (value instanceof Set) {
+            writeVarInt(SET);
+            writeElements((Collection<?>) value);
+        }
+        else if (value instanceof Map) {
+            writeVarInt(MAP);
+            final Map<?, ?> map = (Map<?, ?>) value;
+            writeVarInt(map.size());
+            for (final Entry<?, ?> e : map.entrySet()) {
+                writeValue(e.getKey());
+                writeValue(e.getValue());
+            }
+        }
+        else if (value instanceof ManaCost) {
+            writeVarInt(MANA_COST);
+            write(ManaCost.serialize((ManaCost) value));
+        }
+        else if (value instanceof ColorSet) {
+            writeVarInt(COLOR_SET);
+            write((int) ((ColorSet) value).getColor());
+        }
+        else if (value instanceof CardTypeView) {
+            writeVarInt(CARD_TYPE);
+            write(value.toString());
+        }
+        else if (value instanceof GameLog) {
+            // the log only grows, so only send the entries added since it was last sent
+            final GameLog log = (GameLog) value;
+            final int from = lastSent instanceof Integer && (Integer) lastSent <= log.size() ? (Integer) lastSent : 0;
+            writeVarInt(GAME_LOG);
+            writeVarInt(from);
+            final List<GameLogEntry> entries = log.getEntriesFrom(from);
+            writeVarInt(entries.size());
+            for (final GameLogEntry entry : entries) {
+                writeVarInt(entry.type.ordinal());
+                write(entry.message);
+            }
+        }
+        else if (value instanceof Serializable) {
+            writeVarInt(SERIALIZED);
+            writeSerialized(value);
+        }
+        else {
+            throw new IllegalArgumentException("Can't serialize " + value.getClass().getName());
         }
-        catch (Exception e) {}
     }
-    public void write(boolean value) {
-        write(value ? "1" : "0");
+
+    private void writeElements(final Collection<?> collection) {
+        writeVarInt(collection.size());
+        for (final Object o : collection) {
+            writeValue(o);
+        }
     }
-    public void write(int value) {
-        write(Integer.toString(value));
+
+    private void writeSerialized(final Object value) {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try {
+            final ObjectOutputStream oos = new ObjectOutputStream(bytes) {
+                {
+                    enableReplaceObject(true);
+                }
+                @Override
+                protected Object replaceObject(final Object obj) {
+                    if (obj instanceof TrackableObject) {
+                        final TrackableObject o = (TrackableObject) obj;
+                        final TrackableKind kind = TrackableKind.of(o);
+                        final long key = kind.getKey(o);
+                        if (sendChanges) {
+                            objects.put(key, o);
+                            if (visited.add(key)) {
+                                toVisit.add(o);
+                            }
+                        }
+                        return new TrackableKind.Ref(key);
+                    }
+                    return obj;
+                }
+            };
+            oos.writeObject(value);
+            oos.close();
+        }
+        catch (final IOException e) {
+            throw new RuntimeException(e);
+        }
+        writeVarInt(bytes.size());
+        try {
+            bytes.writeTo(out);
+        }
+        catch (final IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Writes the properties of an object that changed since it was last
+     * sent, and queues the objects its properties refer to.
+     */
+    private void writeChanges(final TrackableObject o) {
+        final Map<TrackableProperty, Object> props = o.getProps();
+        for (final Object value : props.values()) {
+            visitObjectsIn(value);
+        }
+
+        final TrackableKind kind = TrackableKind.of(o);
+        final long key = kind.getKey(o);
+        EnumMap<TrackableProperty, Object> last = sent.get(key);
+        if (last == null) {
+            last = new EnumMap<TrackableProperty, Object>(TrackableProperty.class);
+            sent.put(key, last);
+        }
+
+        final List<TrackableProperty> changed = new ArrayList<TrackableProperty>();
+        for (final Entry<TrackableProperty, Object> e : props.entrySet()) {
+            if (!last.containsKey(e.getKey()) || !isUnchanged(e.getValue(), last.get(e.getKey()))) {
+                changed.add(e.getKey());
+            }
+        }
+        for (final TrackableProperty prop : last.keySet()) {
+            if (!props.containsKey(prop)) {
+                changed.add(prop);
+            }
+        }
+        if (changed.isEmpty()) {
+            return;
+        }
+
+        writeVarInt(kind.ordinal() + 1);
+        write(o.getId());
+        if (kind == TrackableKind.CardState) {
+            writeVarInt(TrackableKind.getStateOrdinal(o));
+        }
+        writeVarInt(changed.size());
+        for (final TrackableProperty prop : changed) {
+            final Object value = props.get(prop);
+            if (value == null) {
+                // reset to the default value
+                writeVarInt(TrackableProperty.serialize(prop) << 1 | 1);
+                last.remove(prop);
+            }
+            else {
+                writeVarInt(TrackableProperty.serialize(prop) << 1);
+                writeValue(value, last.get(prop));
+                last.put(prop, snapshot(value));
+            }
+        }
     }
-    public void write(byte value) {
-        write(Byte.toString(value));
+
+    private void visitObjectsIn(final Object value) {
+        if (value instanceof TrackableObject) {
+            final TrackableObject o = (TrackableObject) value;
+            final long key = TrackableKind.of(o).getKey(o);
+            if (visited.add(key)) {
+                objects.put(key, o);
+                toVisit.add(o);
+            }
+        }
+        else if (value instanceof Collection) {
+            for (final Object item : (Collection<?>) value) {
+                visitObjectsIn(item);
+            }
+        }
+        else if (value instanceof Map) {
+            for (final Entry<?, ?> e : ((Map<?, ?>) value).entrySet()) {
+                visitObjectsIn(e.getKey());
+                visitObjectsIn(e.getValue());
+            }
+        }
     }
-    public void write(long value) {
-        write(Long.toString(value));
+
+    /**
+     * Returns what to remember of a value that was sent, to tell later
+     * whether it changed. Collections and maps are changed in place, so
+     * they're copied; trackable objects are compared by identity.
+     */
+    private static Object snapshot(final Object value) {
+        if (value instanceof GameLog) {
+            return ((GameLog) value).size();
+        }
+        if (value instanceof Collection) {
+            final List<Object> copy = new ArrayList<Object>(((Collection<?>) value).size());
+            for (final Object item : (Collection<?>) value) {
+                copy.add(snapshot(item));
+            }
+            return copy;
+        }
+        if (value instanceof Map) {
+            final Map<Object, Object> copy = new LinkedHashMap<Object, Object>();
+            for (final Entry<?, ?> e : ((Map<?, ?>) value).entrySet()) {
+                copy.put(e.getKey(), snapshot(e.getValue()));
+            }
+            return copy;
+        }
+        return value;
     }
-    public void write(float value) {
-        write(Float.toString(value));
+
+    private static boolean isUnchanged(final Object value, final Object snapshot) {
+        if (value == snapshot) {
+            return true;
+        }
+        if (value == null || snapshot == null || value instanceof TrackableObject) {
+            return false;
+        }
+        if (value instanceof GameLog) {
+            return snapshot.equals(((GameLog) value).size());
+        }
+        if (value instanceof Collection) {
+            if (!(snapshot instanceof List) || ((List<?>) snapshot).size() != ((Collection<?>) value).size()) {
+                return false;
+            }
+            final Iterator<?> it = ((List<?>) snapshot).iterator();
+            for (final Object item : (Collection<?>) value) {
+                if (!isUnchanged(item, it.next())) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        if (value instanceof Map) {
+            if (!(snapshot instanceof Map) || ((Map<?, ?>) snapshot).size() != ((Map<?, ?>) value).size()) {
+                return false;
+            }
+            final Map<?, ?> last = (Map<?, ?>) snapshot;
+            for (final Entry<?, ?> e : ((Map<?, ?>) value).entrySet()) {
+                if (!last.containsKey(e.getKey()) || !isUnchanged(e.getValue(), last.get(e.getKey()))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        return value.equals(snapshot);
     }
-    public void write(double value) {
-        write(Double.toString(value));
+
+    void writeVarInt(int value) {
+        try {
+            while ((value & ~0x7F) != 0) {
+                out.writeByte((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            out.writeByte(value);
+        }
+        catch (final IOException e) {
+            throw new RuntimeException(e);
+        }
     }
-    public void write(TrackableIndex<? extends TrackableObject> index) {
-        write(index.size());
-        for (TrackableObject o : index.values()) {
-            o.serialize(this);
+
+    private void writeVarLong(long value) {
+        try {
+            while ((value & ~0x7FL) != 0) {
+                out.writeByte((int) (value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            out.writeByte((int) value);
+        }
+        catch (final IOException e) {
+            throw new RuntimeException(e);
         }
     }
-    public void write(TrackableCollection<? extends TrackableObject> collection) {
-        write(collection.size());
-        for (TrackableObject o : collection) {
-            write(o.getId()); //only write id as index will store all other information about object
+
+    private void writeUTF(final String value) {
+        try {
+            final byte[] bytes = value.getBytes("UTF-8");
+            writeVarInt(bytes.length);
+            out.write(bytes);
+        }
+        catch (final IOException e) {
+            throw new RuntimeException(e);
         }
     }
 }
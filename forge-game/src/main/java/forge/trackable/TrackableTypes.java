@@ -17,6 +17,7 @@ import forge.game.GameEntityView;
 import forge.game.card.CardView;
 import forge.game.card.CardView.CardStateView;
 import forge.game.card.CounterType;
+import forge.game.combat.CombatView;
 import forge.game.keyword.KeywordCollection.KeywordCollectionView;
 import forge.game.player.PlayerView;
 import forge.game.spellability.StackItemView;
@@ -213,16 +214,12 @@ public class TrackableTypes {
 
         @Override
         protected CardView deserialize(TrackableDeserializer td, CardView oldValue) {
-            int id = td.readInt();
-            if (id == -1) {
-                return null;
-            }
-            return oldValue; //TODO: return index lookup
+            return td.readObject();
         }
 
         @Override
         protected void serialize(TrackableSerializer ts, CardView value) {
-            ts.write(value == null ? -1 : value.getId()); //just write ID for lookup via index when deserializing
+            ts.write(value); //just write ID for lookup when deserializing
         }
     };
     public static final TrackableCollectionType<CardView> CardViewCollectionType = new TrackableCollectionType<CardView>(CardViewType) {
@@ -249,18 +246,12 @@ public class TrackableTypes {
 
         @Override
         protected CardStateView deserialize(TrackableDeserializer td, CardStateView oldValue) {
-            oldValue.deserialize(td); //TODO handle old value being null or changing to null
-            return oldValue;
+            return td.readObject();
         }
 
         @Override
         protected void serialize(TrackableSerializer ts, CardStateView value) {
-            if (value == null) {
-                ts.write(-1);
-            }
-            else {
-                value.serialize(ts); //serialize card state views here since they won't be stored in an index
-            }
+            ts.write(value); //card state views are written with the ID of their card and the state
         }
     };
     public static final TrackableType<CardTypeView> CardTypeViewType = new TrackableType<CardTypeView>() {
@@ -271,18 +262,12 @@ public class TrackableTypes {
 
         @Override
         protected CardTypeView deserialize(TrackableDeserializer td, CardTypeView oldValue) {
-            //TODO deserialize this
-            return oldValue;
+            return CardType.parse(td.readString());
         }
 
         @Override
         protected void serialize(TrackableSerializer ts, CardTypeView value) {
-            if (value == null) {
-                ts.write(-1);
-            }
-            else {
-                //TODO serialize this
-            }
+            ts.write(value.toString());
         }
     };
     public static final TrackableObjectType<PlayerView> PlayerViewType = new TrackableObjectType<PlayerView>() {
@@ -293,16 +278,12 @@ public class TrackableTypes {
 
         @Override
         protected PlayerView deserialize(TrackableDeserializer td, PlayerView oldValue) {
-            int id = td.readInt();
-            if (id == -1) {
-                return null;
-            }
-            return oldValue; //TODO: return index lookup
+            return td.readObject();
         }
 
         @Override
         protected void serialize(TrackableSerializer ts, PlayerView value) {
-            ts.write(value == null ? -1 : value.getId()); //just write ID for lookup via index when deserializing
+            ts.write(value); //just write ID for lookup when deserializing
         }
     };
     public static final TrackableCollectionType<PlayerView> PlayerViewCollectionType = new TrackableCollectionType<PlayerView>(PlayerViewType) {
@@ -329,31 +310,12 @@ public class TrackableTypes {
 
         @Override
         protected GameEntityView deserialize(TrackableDeserializer td, GameEntityView oldValue) {
-            switch (td.readInt()) {
-            case 0:
-                //int cardId = td.readInt();
-                return oldValue; //TODO: lookup card by ID
-            case 1:
-                //int playerId = td.readInt();
-                return oldValue; //TODO: lookup player by ID
-            }
-            return null;
+            return td.readObject();
         }
 
         @Override
         protected void serialize(TrackableSerializer ts, GameEntityView value) {
-            //just write ID for lookup via index when deserializing, with an additional value to indicate type
-            if (value instanceof CardView) {
-                ts.write(0);
-                ts.write(value.getId());
-            }
-            if (value instanceof PlayerView) {
-                ts.write(1);
-                ts.write(value.getId());
-            }
-            else {
-                ts.write(-1);
-            }
+            ts.write(value); //the written reference says whether it's a card or a player
         }
     };
     public static final TrackableObjectType<StackItemView> StackItemViewType = new TrackableObjectType<StackItemView>() {
@@ -364,18 +326,12 @@ public class TrackableTypes {
 
         @Override
         protected StackItemView deserialize(TrackableDeserializer td, StackItemView oldValue) {
-            oldValue.deserialize(td); //TODO handle old value being null or changing to null
-            return oldValue;
+            return td.readObject();
         }
 
         @Override
         protected void serialize(TrackableSerializer ts, StackItemView value) {
-            if (value == null) {
-                ts.write(-1);
-            }
-            else {
-                value.serialize(ts); //serialize card state views here since they won't be stored in an index
-            }
+            ts.write(value);
         }
     };
     public static final TrackableCollectionType<StackItemView> StackItemViewListType = new TrackableCollectionType<StackItemView>(StackItemViewType) {
@@ -394,6 +350,22 @@ public class TrackableTypes {
             ts.write(value);
         }
     };
+    public static final TrackableType<CombatView> CombatViewType = new TrackableType<CombatView>() {
+        @Override
+        protected CombatView getDefaultValue() {
+            return null;
+        }
+
+        @Override
+        protected CombatView deserialize(TrackableDeserializer td, CombatView oldValue) {
+            return td.readObject();
+        }
+
+        @Override
+        protected void serialize(TrackableSerializer ts, CombatView value) {
+            ts.write(value);
+        }
+    };
     public static final TrackableType<ManaCost> ManaCostType = new TrackableType<ManaCost>() {
         @Override
         public ManaCost getDefaultValue() {
@@ -427,7 +399,7 @@ public class TrackableTypes {
 
         @Override
         public void serialize(TrackableSerializer ts, ColorSet value) {
-            ts.write(value.getColor());
+            ts.write((int) value.getColor());
         }
     };
     public static final TrackableType<List<String>> StringListType = new TrackableType<List<String>>() {
@@ -604,12 +576,12 @@ public class TrackableTypes {
 
         @Override
         protected KeywordCollectionView deserialize(TrackableDeserializer td, KeywordCollectionView oldValue) {
-            return oldValue; //TODO
+            return (KeywordCollectionView) td.readValue();
         }
 
         @Override
         protected void serialize(TrackableSerializer ts, KeywordCollectionView value) {
-          //TODO
+            ts.writeValue(value);
         }
     };
     public static final TrackableType<Map<Object, Object>> GenericMapType = new TrackableType<Map<Object, Object>>() {
@@ -619,12 +591,14 @@ public class TrackableTypes {
         }
 
         @Override
+        @SuppressWarnings("unchecked")
         public Map<Object, Object> deserialize(TrackableDeserializer td, Map<Object, Object> oldValue) {
-            return null; //TODO
+            return (Map<Object, Object>) td.readValue();
         }
 
         @Override
         public void serialize(TrackableSerializer ts, Map<Object, Object> value) {
+            ts.writeValue(value);
         }
     };
 }
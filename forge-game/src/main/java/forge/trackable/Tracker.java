@@ -4,8 +4,12 @@ import java.util.List;
 
 import com.google.common.collect.Lists;
 
+import forge.game.zone.ZoneType;
+
 public class Tracker {
     private int freezeCounter = 0;
+    private int changeCount = 0;
+    private final int[] zoneChangeCounts = new int[ZoneType.values().length];
     private final List<DelayedPropChange> delayedPropChanges = Lists.newArrayList();
 
     public final boolean isFrozen() {
@@ -27,7 +31,38 @@ public class Tracker {
         delayedPropChanges.clear();
     }
 
+    /**
+     * Returns the number of property changes made so far, which can be
+     * compared with an earlier count to tell whether anything changed since.
+     * Changes made while frozen are counted as they're queued.
+     */
+    public final int getChangeCount() {
+        return changeCount;
+    }
+
+    /**
+     * Returns the number of changes made so far to the cards in zones of the
+     * given type: cards coming and going, and property changes of the cards
+     * in them.
+     */
+    public final int getChangeCount(final ZoneType zone) {
+        return zoneChangeCounts[zone.ordinal()];
+    }
+
+    /** Count a change to the cards in zones of the given type, if any. */
+    public final void countChange(final ZoneType zone) {
+        if (zone != null) {
+            zoneChangeCounts[zone.ordinal()]++;
+        }
+    }
+
+    final void countChange(final TrackableObject object) {
+        changeCount++;
+        countChange(object.getZoneForChanges());
+    }
+
     public void addDelayedPropChange(final TrackableObject object, final TrackableProperty prop, final Object value) {
+        countChange(object);
         delayedPropChanges.add(new DelayedPropChange(object, prop, value));
     }
 
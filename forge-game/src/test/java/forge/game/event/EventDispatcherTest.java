@@ -0,0 +1,47 @@
+package forge.game.event;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import junit.framework.TestCase;
+
+import com.google.common.eventbus.Subscribe;
+
+public class EventDispatcherTest extends TestCase {
+    private static final class Ping extends Event {
+    }
+    private static final class Echo extends Event {
+    }
+
+    public void testEventsPostedByHandlersAreDeliveredAfterTheCurrentOne() {
+        final EventDispatcher dispatcher = new EventDispatcher("Test events");
+        final List<String> received = new ArrayList<String>();
+        final Object first = new Object() {
+            @Subscribe
+            public void receivePing(final Ping ping) {
+                received.add("first ping");
+                dispatcher.post(new Echo());
+            }
+            @Subscribe
+            public void receiveEcho(final Echo echo) {
+                received.add("first echo");
+            }
+        };
+        dispatcher.register(first);
+        dispatcher.register(new Object() {
+            @Subscribe
+            public void receiveEvent(final Event event) {
+                received.add("second " + (event instanceof Ping ? "ping" : "echo"));
+            }
+        });
+        assertTrue(dispatcher.hasHandlers(Ping.class));
+
+        dispatcher.post(new Ping());
+        assertEquals("[first ping, second ping, first echo, second echo]", received.toString());
+
+        dispatcher.unregister(first);
+        received.clear();
+        dispatcher.post(new Echo());
+        assertEquals("[second echo]", received.toString());
+    }
+}
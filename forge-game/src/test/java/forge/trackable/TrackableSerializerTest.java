@@ -0,0 +1,127 @@
+package forge.trackable;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+
+import junit.framework.TestCase;
+
+import forge.game.card.CardView;
+import forge.game.phase.PhaseType;
+import forge.game.player.PlayerView;
+
+public class TrackableSerializerTest extends TestCase {
+    private final TrackableSerializer serializer = new TrackableSerializer(true);
+    private final TrackableDeserializer deserializer = new TrackableDeserializer();
+
+    private byte[] send(final Object value) {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        serializer.begin(bytes);
+        serializer.writeValue(value);
+        serializer.end();
+        return bytes.toByteArray();
+    }
+
+    private Object receive(final byte[] bytes) {
+        deserializer.begin(new ByteArrayInputStream(bytes));
+        final Object value = deserializer.readValue();
+        final Tracker changes = deserializer.end();
+        if (changes != null) {
+            changes.unfreeze();
+        }
+        return value;
+    }
+
+    public void testRoundTripSendsOnlyChanges() {
+        final Tracker tracker = new Tracker();
+        final PlayerView player = new PlayerView(1, tracker);
+        final CardView bear = new CardView(5, tracker, "Grizzly Bears", player, "grizzly_bears");
+        final CardView bolt = new CardView(6, tracker, "Lightning Bolt", player, "lightning_bolt");
+        final TrackableCollection<CardView> hand = new TrackableCollection<CardView>();
+        hand.add(bear);
+        hand.add(bolt);
+        player.set(TrackableProperty.Life, 20);
+        player.set(TrackableProperty.Hand, hand);
+
+        final byte[] first = send(player);
+        final PlayerView received = (PlayerView) receive(first);
+        assertEquals(1, received.getId());
+        assertEquals(20, received.getLife());
+        assertEquals(2, received.getHandSize());
+        final CardView receivedBear = received.getHand().get(0);
+        assertEquals(5, receivedBear.getId());
+        assertEquals("Grizzly Bears", receivedBear.getName());
+        assertSame(received, receivedBear.getOwner());
+        assertEquals("Lightning Bolt", received.getHand().get(1).getName());
+
+        // only the life total and the hand changed, and the hand in place
+        player.set(TrackableProperty.Life, 18);
+        hand.remove(bolt);
+        final byte[] delta = send(player);
+        assertTrue(delta.length < first.length);
+        assertSame(received, receive(delta));
+        assertEquals(18, received.getLife());
+        assertEquals(1, received.getHandSize());
+        assertSame(receivedBear, received.getHand().get(0));
+
+        // nothing changed, so nothing but the reference is sent
+        final byte[] unchanged = send(player);
+        deserializer.begin(new ByteArrayInputStream(unchanged));
+        assertSame(received, deserializer.readValue());
+        assertNull(deserializer.end());
+
+        // a property reset to its default is sent as well
+        player.set(TrackableProperty.Hand, null);
+        assertSame(received, receive(send(player)));
+        assertEquals(0, received.getHandSize());
+    }
+
+    public void testResetForgetsObjects() {
+        final Tracker tracker = new Tracker();
+        final PlayerView player = new PlayerView(1, tracker);
+        player.set(TrackableProperty.Life, 20);
+        final PlayerView received = (PlayerView) receive(send(player));
+
+        serializer.reset();
+        deserializer.reset();
+        final PlayerView next = new PlayerView(1, tracker);
+        next.set(TrackableProperty.Life, 7);
+        final PlayerView receivedNext = (PlayerView) receive(send(next));
+        assertNotSame(received, receivedNext);
+        assertEquals(7, receivedNext.getLife());
+        assertEquals(20, received.getLife());
+    }
+
+    public void testEnumsMustBeAllowed() {
+        assertSame(PhaseType.MAIN2, receive(send(PhaseType.MAIN2)));
+        try {
+            receive(send(TrackableProperty.Life));
+            fail("an enum that wasn't allowed was read");
+        }
+        catch (final IllegalStateException e) {
+            // expected
+        }
+    }
+
+    public void testLengthsAreChecked() {
+        // a literal string said to be 100 bytes long, but only 2 follow
+        final byte[] bytes = { TrackableSerializer.STRING, TrackableSerializer.STRING_LITERAL, 100, 'h', 'i', 0 };
+        try {
+            receive(bytes);
+            fail("a string longer than the message was read");
+        }
+        catch (final IllegalStateException e) {
+            // expected
+        }
+    }
+
+    public void testSerializedClassesAreFiltered() {
+        assertTrue(TrackableDeserializer.isAllowedClass("java.lang.Integer"));
+        assertTrue(TrackableDeserializer.isAllowedClass("java.util.ArrayList"));
+        assertTrue(TrackableDeserializer.isAllowedClass("forge.trackable.TrackableKind$Ref"));
+        assertTrue(TrackableDeserializer.isAllowedClass("[I"));
+        assertTrue(TrackableDeserializer.isAllowedClass("[[Ljava.lang.String;"));
+        assertFalse(TrackableDeserializer.isAllowedClass("java.lang.Runtime"));
+        assertFalse(TrackableDeserializer.isAllowedClass("org.apache.commons.collections.functors.InvokerTransformer"));
+        assertFalse(TrackableDeserializer.isAllowedClass("[Ljavax.management.BadAttributeValueExpException;"));
+    }
+}
@@ -17,20 +17,34 @@
  */
 package forge;
 
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.Transparency;
 import java.awt.image.BufferedImage;
+import java.awt.image.DataBuffer;
 import java.io.File;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import javax.imageio.ImageIO;
+import javax.swing.SwingUtilities;
 
 import org.apache.commons.lang3.StringUtils;
 
+import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
 import com.google.common.cache.CacheLoader.InvalidCacheLoadException;
 import com.google.common.cache.LoadingCache;
-import com.mortennobel.imagescaling.ResampleOp;
+import com.google.common.cache.Weigher;
 
 import forge.assets.FSkinProp;
 import forge.game.card.CardView;
@@ -44,24 +58,59 @@ import forge.toolbox.FSkin.SkinIcon;
 import forge.util.ImageUtil;
 
 /**
- * This class stores ALL card images in a cache with soft values. this means
- * that the images may be collected when they are not needed any more, but will
- * be kept as long as possible.
+ * This class stores ALL card images in two caches, each holding at most a
+ * set number of bytes and dropping the images used least recently first:
+ * one for the images as read from their files, and one for the scaled
+ * images made from them.
  * <p/>
- * The keys are the following:
- * <ul>
- * <li>Keys start with the file name, extension is skipped</li>
- * <li>The key without suffix belongs to the unmodified image from the file</li>
- * </ul>
+ * An image is scaled down by halving it until it's less than twice the size
+ * asked for, and then scaling it once more. The halvings are cached with the
+ * scaled images, as the other sizes of the same image are made from them too.
+ * <p/>
+ * The images are read and scaled on the thread asking for them, or with
+ * {@link #getImageAsync} on a small pool of background threads, so that the
+ * event dispatch thread doesn't wait for the disk.
  * 
  * @author Forge
  * @version $Id: ImageCache.java 25093 2014-03-08 05:36:37Z drdev $
  */
 public class ImageCache {
-    // short prefixes to save memory
+    // an eighth of the heap for each of the caches
+    private static final long ORIGINALS_BUDGET = Runtime.getRuntime().maxMemory() / 8;
+    private static final long SCALED_BUDGET = Runtime.getRuntime().maxMemory() / 8;
+    private static final String DEFAULT_KEY = "__DEFAULT__";
+
+    private static final Weigher<Object, BufferedImage> BYTES = new Weigher<Object, BufferedImage>() {
+        @Override
+        public int weigh(final Object key, final BufferedImage image) {
+            final DataBuffer buffer = image.getRaster().getDataBuffer();
+            final long bytes = (long) buffer.getSize() * buffer.getNumBanks() * DataBuffer.getDataTypeSize(buffer.getDataType()) / 8;
+            return (int) Math.min(Integer.MAX_VALUE, bytes);
+        }
+    };
 
     private static final Set<String> _missingIconKeys = new HashSet<String>();
-    private static final LoadingCache<String, BufferedImage> _CACHE = CacheBuilder.newBuilder().softValues().build(new ImageLoader());
+    // keys found to have no image file while scaling; see getImageAsync
+    private static final Set<String> _missingImageKeys = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+    // a single segment, so that the whole budget is there for the largest images
+    private static final LoadingCache<String, BufferedImage> _ORIGINALS = CacheBuilder.newBuilder()
+            .concurrencyLevel(1).maximumWeight(ORIGINALS_BUDGET).weigher(BYTES).build(new ImageLoader());
+    private static final Cache<ScaledKey, BufferedImage> _SCALED = CacheBuilder.newBuilder()
+            .concurrencyLevel(1).maximumWeight(SCALED_BUDGET).weigher(BYTES).<ScaledKey, BufferedImage>build();
+
+    // images being scaled in the background, and who to tell once they're ready; only used on the EDT
+    private static final Map<ScaledKey, Set<ImageFetcher.Callback>> _pending = new HashMap<ScaledKey, Set<ImageFetcher.Callback>>();
+    private static final ExecutorService _decoder = Executors.newFixedThreadPool(2, new ThreadFactory() {
+        private final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public Thread newThread(final Runnable r) {
+            final Thread thread = new Thread(r, "Image decoder " + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    });
+
     private static final BufferedImage _defaultImage;
     static {
         BufferedImage defImage = null;
@@ -75,8 +124,10 @@ public class ImageCache {
     }
 
     public static void clear() {
-        _CACHE.invalidateAll();
+        _ORIGINALS.invalidateAll();
+        _SCALED.invalidateAll();
         _missingIconKeys.clear();
+        _missingImageKeys.clear();
     }
 
     /**
@@ -106,6 +157,66 @@ public class ImageCache {
         return scaleImage(ii.getImageKey(false), width, height, true);
     }
 
+    /**
+     * Same as getImage(), but if the image isn't in the cache yet it's read
+     * and scaled in the background, and null is returned for now. The
+     * callback is told on the event dispatch thread once the image is ready,
+     * to ask for it again.
+     * <p>
+     * Items without an image file get the default image, until the cache is
+     * cleared, even if their image gets downloaded in the meantime.
+     */
+    public static BufferedImage getImageAsync(final InventoryItem ii, final int width, final int height, final ImageFetcher.Callback callback) {
+        FThreads.assertExecutedByEdt(true);
+        final String key = ii.getImageKey(false);
+        if (isTooSmall(key, width, height)) {
+            return null;
+        }
+
+        final ScaledKey scaledKey = new ScaledKey(key, width, height, 0);
+        final BufferedImage cached = _SCALED.getIfPresent(scaledKey);
+        if (null != cached) {
+            return cached;
+        }
+        if (_missingImageKeys.contains(key)) {
+            final BufferedImage cachedDefault = _SCALED.getIfPresent(new ScaledKey(DEFAULT_KEY, width, height, 0));
+            if (null != cachedDefault) {
+                return cachedDefault;
+            }
+        }
+
+        Set<ImageFetcher.Callback> observers = _pending.get(scaledKey);
+        if (observers != null) {
+            observers.add(callback);
+            return null;
+        }
+        observers = new HashSet<ImageFetcher.Callback>();
+        observers.add(callback);
+        _pending.put(scaledKey, observers);
+
+        final Runnable notifyObservers = new Runnable() {
+            @Override
+            public void run() {
+                for (final ImageFetcher.Callback o : _pending.remove(scaledKey)) {
+                    o.onImageFetched();
+                }
+            }
+        };
+        _decoder.submit(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    scaleImage(key, width, height, true);
+                } catch (final RuntimeException ex) {
+                    ex.printStackTrace();
+                } finally {
+                    SwingUtilities.invokeLater(notifyObservers);
+                }
+            }
+        });
+        return null;
+    }
+
     /**
      * retrieve an icon from the cache.  returns the current skin's ICO_UNKNOWN if the icon image is not found
      * in the cache and cannot be loaded from disk.
@@ -156,15 +267,19 @@ public class ImageCache {
         return original;
     }
 
+    private static boolean isTooSmall(final String key, final int width, final int height) {
+        return StringUtils.isEmpty(key) || (3 > width && -1 != width) || (3 > height && -1 != height);
+    }
+
     private static BufferedImage scaleImage(String key, final int width, final int height, boolean useDefaultImage) {
-        if (StringUtils.isEmpty(key) || (3 > width && -1 != width) || (3 > height && -1 != height)) {
+        if (isTooSmall(key, width, height)) {
             // picture too small or key not defined; return a blank
             return null;
         }
 
-        String resizedKey = String.format("%s#%dx%d", key, width, height);
+        ScaledKey resizedKey = new ScaledKey(key, width, height, 0);
 
-        final BufferedImage cached = _CACHE.getIfPresent(resizedKey);
+        final BufferedImage cached = _SCALED.getIfPresent(resizedKey);
         if (null != cached) {
             //System.out.println("found cached image: " + resizedKey);
             return cached;
@@ -178,8 +293,10 @@ public class ImageCache {
             // Instead, cache it under its own key, to avoid duplication of the
             // default image and to remove the need to invalidate the cache when
             // an image gets downloaded.
-            resizedKey = String.format("__DEFAULT__#%dx%d", width, height);
-            final BufferedImage cachedDefault = _CACHE.getIfPresent(resizedKey);
+            _missingImageKeys.add(key);
+            key = DEFAULT_KEY;
+            resizedKey = new ScaledKey(key, width, height, 0);
+            final BufferedImage cachedDefault = _SCALED.getIfPresent(resizedKey);
             if (null != cachedDefault) {
                 return cachedDefault;
             }
@@ -201,13 +318,47 @@ public class ImageCache {
             
             int destWidth  = (int)(original.getWidth()  * bestFitScale);
             int destHeight = (int)(original.getHeight() * bestFitScale);
-                         
-            ResampleOp resampler = new ResampleOp(destWidth, destHeight);
-            result = resampler.filter(original, null);
+
+            result = scale(key, original, Math.max(1, destWidth), Math.max(1, destHeight));
         }
         
         //System.out.println("caching image: " + resizedKey);
-        _CACHE.put(resizedKey, result);
+        _SCALED.put(resizedKey, result);
+        return result;
+    }
+
+    /**
+     * Halves the image for as long as it stays at least as large as asked
+     * for, taking the halvings from the cache if they were made before, and
+     * then scales the last one to the size asked for.
+     */
+    private static BufferedImage scale(final String key, final BufferedImage original, final int destWidth, final int destHeight) {
+        BufferedImage source = original;
+        int halvings = 0;
+        while (source.getWidth() / 2 >= destWidth && source.getHeight() / 2 >= destHeight) {
+            halvings++;
+            final ScaledKey halfKey = new ScaledKey(key, -1, -1, halvings);
+            BufferedImage half = _SCALED.getIfPresent(halfKey);
+            if (null == half) {
+                half = resize(source, source.getWidth() / 2, source.getHeight() / 2);
+                _SCALED.put(halfKey, half);
+            }
+            source = half;
+        }
+        if (source.getWidth() == destWidth && source.getHeight() == destHeight) {
+            return source;
+        }
+        return resize(source, destWidth, destHeight);
+    }
+
+    private static BufferedImage resize(final BufferedImage source, final int width, final int height) {
+        final int type = source.getTransparency() == Transparency.OPAQUE ? BufferedImage.TYPE_INT_RGB : BufferedImage.TYPE_INT_ARGB;
+        final BufferedImage result = new BufferedImage(width, height, type);
+        final Graphics2D g = result.createGraphics();
+        g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+        g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+        g.drawImage(source, 0, 0, width, height, null);
+        g.dispose();
         return result;
     }
 
@@ -215,9 +366,8 @@ public class ImageCache {
      * Returns the Image corresponding to the key.
      */
     private static BufferedImage getImage(final String key) {
-        FThreads.assertExecutedByEdt(true);
         try {
-            return ImageCache._CACHE.get(key);
+            return ImageCache._ORIGINALS.get(key);
         } catch (final ExecutionException ex) {
             if (ex.getCause() instanceof NullPointerException) {
                 return null;
@@ -229,4 +379,39 @@ public class ImageCache {
             return null;
         }
     }
+
+    /** An image scaled to a size, or halved a number of times. */
+    private static final class ScaledKey {
+        private final String imageKey;
+        private final int width;
+        private final int height;
+        private final int halvings;
+
+        private ScaledKey(final String imageKey, final int width, final int height, final int halvings) {
+            this.imageKey = imageKey;
+            this.width = width;
+            this.height = height;
+            this.halvings = halvings;
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (!(o instanceof ScaledKey)) {
+                return false;
+            }
+            final ScaledKey other = (ScaledKey) o;
+            return width == other.width && height == other.height && halvings == other.halvings
+                    && imageKey.equals(other.imageKey);
+        }
+
+        @Override
+        public int hashCode() {
+            return ((imageKey.hashCode() * 31 + width) * 31 + height) * 31 + halvings;
+        }
+
+        @Override
+        public String toString() {
+            return halvings == 0 ? String.format("%s#%dx%d", imageKey, width, height) : imageKey + "/" + (1 << halvings);
+        }
+    }
 }
@@ -2,7 +2,14 @@ package forge.view;
 
 import java.io.File;
 import java.io.FilenameFilter;
+import java.io.IOException;
 import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import forge.LobbyPlayer;
 import forge.deck.DeckGroup;
@@ -24,10 +31,11 @@ import forge.game.player.RegisteredPlayer;
 import forge.model.FModel;
 import forge.player.GamePlayerUtil;
 import forge.util.Lang;
+import forge.util.MyRandom;
 
 public class SimulateMatch {
     public static void simulate(String[] args) {
-        FModel.initialize(null);
+        FModel.initialize(null, true);
 
         System.out.println("Simulation mode");
         if(args.length < 4) {
@@ -80,6 +88,19 @@ public class SimulateMatch {
             type = GameType.valueOf(WordUtils.capitalize(params.get("f").get(0)));
         }
 
+        int threads = 1;
+        if (params.containsKey("j")) {
+            // Number of games to play at once, 0 for one per core
+            threads = Integer.parseInt(params.get("j").get(0));
+            if (threads <= 0) {
+                threads = Runtime.getRuntime().availableProcessors();
+            }
+        }
+
+        // Each game is seeded from this, so a run can be repeated
+        long seed = params.containsKey("s") ? Long.parseLong(params.get("s").get(0)) : new Random().nextLong();
+        MyRandom.setSeed(seed);
+
         GameRules rules = new GameRules(type);
         rules.setAppliedVariants(EnumSet.of(type));
 
@@ -87,13 +108,36 @@ public class SimulateMatch {
             rules.setGamesPerMatch(matchSize);
         }
 
-        if (params.containsKey("t")) {
-            simulateTournament(params, rules, outputGamelog);
-            System.out.flush();
+        SimulationStats stats;
+        try {
+            stats = new SimulationStats(seed, threads, params.containsKey("csv") ? new File(params.get("csv").get(0)) : null);
+        } catch (IOException e) {
+            System.err.println("Could not write statistics - " + e.getMessage());
             return;
         }
 
-        List<RegisteredPlayer> pp = new ArrayList<>();
+        if (params.containsKey("t")) {
+            simulateTournament(params, rules, outputGamelog, threads, seed, stats);
+        } else {
+            simulateGames(params, rules, type, nGames, matchSize, outputGamelog, threads, seed, stats);
+        }
+
+        stats.close();
+        System.out.println(stats.getSummary());
+        if (params.containsKey("json")) {
+            try {
+                stats.writeJson(new File(params.get("json").get(0)));
+            } catch (IOException e) {
+                System.err.println("Could not write statistics - " + e.getMessage());
+            }
+        }
+        System.out.flush();
+    }
+
+    private static void simulateGames(Map<String, List<String>> params, final GameRules rules, final GameType type, int nGames,
+            int matchSize, final boolean outputGamelog, int threads, final long seed, final SimulationStats stats) {
+        final List<Deck> decks = new ArrayList<>();
+        final List<String> names = new ArrayList<>();
         StringBuilder sb = new StringBuilder();
 
         int i = 1;
@@ -110,16 +154,8 @@ public class SimulateMatch {
                 }
                 String name = String.format("Ai(%s)-%s", i, d.getName());
                 sb.append(name);
-
-                RegisteredPlayer rp;
-
-                if (type.equals(GameType.Commander)) {
-                    rp = RegisteredPlayer.forCommander(d);
-                } else {
-                    rp = new RegisteredPlayer(d);
-                }
-                rp.setPlayer(GamePlayerUtil.createAiPlayer(name, i - 1));
-                pp.add(rp);
+                decks.add(d);
+                names.add(name);
                 i++;
             }
         }
@@ -128,26 +164,74 @@ public class SimulateMatch {
 
         System.out.println(sb.toString());
 
-        Match mc = new Match(rules, pp, "Test");
-
         if (matchSize != 0) {
+            // the games of a match depend on each other, so they're played one after another
+            Match mc = new Match(rules, registerPlayers(decks, names, type), "Test");
             int iGame = 0;
             while(!mc.isMatchOver()) {
                 // play games until the match ends
-                simulateSingleMatch(mc, iGame, outputGamelog);
+                System.out.println(simulateSingleMatch(mc, iGame, outputGamelog, seed, stats));
                 iGame++;
             }
-        } else {
-            for (int iGame = 0; iGame < nGames; iGame++) {
-                simulateSingleMatch(mc, iGame, outputGamelog);
+            return;
+        }
+
+        // every game gets its own match, so they can be played on any thread in any order
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        for (int iGame = 0; iGame < nGames; iGame++) {
+            final int gameNumber = iGame;
+            pool.submit(new Runnable() {
+                @Override
+                public void run() {
+                    long gameSeed = seed + gameNumber;
+                    MyRandom.setSeed(gameSeed);
+                    Match mc = new Match(rules, registerPlayers(decks, names, type), "Test");
+                    String result;
+                    try {
+                        result = simulateSingleMatch(mc, gameNumber, outputGamelog, gameSeed, stats);
+                    } catch (Exception e) {
+                        stats.addError();
+                        result = String.format("Game %d (seed %d) threw %s", 1 + gameNumber, gameSeed, e);
+                    }
+                    System.out.println(result);
+                }
+            });
+        }
+        awaitTermination(pool);
+    }
+
+    private static List<RegisteredPlayer> registerPlayers(List<Deck> decks, List<String> names, GameType type) {
+        List<RegisteredPlayer> pp = new ArrayList<>();
+        for (int i = 0; i < decks.size(); i++) {
+            // games running at the same time each get their own copy of the decks
+            Deck d = new Deck(decks.get(i));
+            RegisteredPlayer rp;
+
+            if (type.equals(GameType.Commander)) {
+                rp = RegisteredPlayer.forCommander(d);
+            } else {
+                rp = new RegisteredPlayer(d);
             }
+            rp.setPlayer(GamePlayerUtil.createAiPlayer(names.get(i), i));
+            pp.add(rp);
         }
+        return pp;
+    }
 
-        System.out.flush();
+    private static void awaitTermination(ExecutorService pool) {
+        pool.shutdown();
+        try {
+            while (!pool.awaitTermination(1, TimeUnit.MINUTES)) {
+                // keep waiting, long runs may take hours
+            }
+        } catch (InterruptedException e) {
+            pool.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
     }
 
     private static void argumentHelp() {
-        System.out.println("Syntax: forge.exe sim -d <deck1[.dck]> ... <deckX[.dck]> -D [D] -n [N] -m [M] -t [T] -p [P] -f [F] -q");
+        System.out.println("Syntax: forge.exe sim -d <deck1[.dck]> ... <deckX[.dck]> -D [D] -n [N] -m [M] -t [T] -p [P] -f [F] -j [J] -s [S] -csv [file] -json [file] -q");
         System.out.println("\tsim - stands for simulation mode");
         System.out.println("\tdeck1 (or deck2,...,X) - constructed deck name or filename (has to be quoted when contains multiple words)");
         System.out.println("\tdeck is treated as file if it ends with a dot followed by three numbers or letters");
@@ -157,10 +241,14 @@ public class SimulateMatch {
         System.out.println("\tT - Type of tournament to run with all provided decks (Bracket, RoundRobin, Swiss)");
         System.out.println("\tP - Amount of players per match (used only with Tournaments, defaults to 2)");
         System.out.println("\tF - format of games, defaults to constructed");
+        System.out.println("\tJ - number of games (or tournament matches) to play at once, 0 for one per cpu core, defaults to 1");
+        System.out.println("\tS - seed for the random numbers of the games, to repeat a run (defaults to a random one)");
+        System.out.println("\tcsv - file to write the result of each game to as it ends");
+        System.out.println("\tjson - file to write the summary of all games to");
         System.out.println("\tq - Quiet flag. Output just the game result, not the entire game log.");
     }
 
-    private static void simulateSingleMatch(Match mc, int iGame, boolean outputGamelog) {
+    private static String simulateSingleMatch(Match mc, int iGame, boolean outputGamelog, long seed, SimulationStats stats) {
         StopWatch sw = new StopWatch();
         sw.start();
 
@@ -176,14 +264,23 @@ public class SimulateMatch {
             log = g1.getGameLog().getLogEntries(GameLogEntryType.MATCH_RESULTS);
         }
         Collections.reverse(log);
+        // games may end on several threads at once, so their output is printed in one piece
+        StringBuilder sb = new StringBuilder();
         for(GameLogEntry l : log) {
-            System.out.println(l);
+            sb.append(l).append('\n');
         }
 
-        System.out.println(String.format("\nGame %d ended in %d ms. %s has won!\n", 1+iGame, sw.getTime(), g1.getOutcome().getWinningLobbyPlayer().getName()));
+        stats.addGame(1 + iGame, seed, g1.getOutcome(), sw.getTime());
+        if (g1.getOutcome().isDraw()) {
+            sb.append(String.format("\nGame %d ended in %d ms. It's a draw!\n", 1+iGame, sw.getTime()));
+        } else {
+            sb.append(String.format("\nGame %d ended in %d ms. %s has won!\n", 1+iGame, sw.getTime(), g1.getOutcome().getWinningLobbyPlayer().getName()));
+        }
+        return sb.toString();
     }
 
-    private static void simulateTournament(Map<String, List<String>> params, GameRules rules, boolean outputGamelog) {
+    private static void simulateTournament(Map<String, List<String>> params, final GameRules rules, final boolean outputGamelog,
+            int threads, long seed, final SimulationStats stats) {
         String tournament = params.get("t").get(0);
         AbstractTournament tourney = null;
         int matchPlayers = params.containsKey("p") ? Integer.parseInt(params.get("p").get(0)) : 2;
@@ -251,6 +348,7 @@ public class SimulateMatch {
 
         String lastWinner = "";
         int curRound = 0;
+        int nMatches = 0;
         System.out.println(String.format("Starting a %s tournament with %d players over %d rounds", tournament,
                 numPlayers, tourney.getTotalRounds()));
         while(!tourney.isTournamentOver()) {
@@ -268,51 +366,86 @@ public class SimulateMatch {
                 System.out.println("");
             }
 
-            TournamentPairing pairing = tourney.getNextPairing();
-            List<RegisteredPlayer> regPlayers = AbstractTournament.registerTournamentPlayers(pairing, deckGroup);
-
-            StringBuilder sb = new StringBuilder();
-            sb.append("Round ").append(tourney.getActiveRound()).append(" - ");
-            sb.append(pairing.outputHeader());
-            System.out.println(sb.toString());
-
-            if (!pairing.isBye()) {
-                Match mc = new Match(rules, regPlayers, "TourneyMatch");
-
-                int exceptions = 0;
-                int iGame = 0;
-                while (!mc.isMatchOver()) {
-                    // play games until the match ends
-                    try{
-                        simulateSingleMatch(mc, iGame, outputGamelog);
-                        iGame++;
-                    } catch(Exception e) {
-                        exceptions++;
-                        System.out.println(e.toString());
-                        if (exceptions > 5) {
-                            System.out.println("Exceeded number of exceptions thrown. Abandoning match...");
+            // the matches of a round don't depend on each other, so they're all played at once
+            List<TournamentPairing> pairings = new ArrayList<>(tourney.getActivePairings());
+            List<Match> matches = new ArrayList<>();
+            List<Future<String>> results = new ArrayList<>();
+            ExecutorService pool = Executors.newFixedThreadPool(threads);
+            for (TournamentPairing pairing : pairings) {
+                if (pairing.isBye()) {
+                    matches.add(null);
+                    results.add(null);
+                    continue;
+                }
+                final Match mc = new Match(rules, AbstractTournament.registerTournamentPlayers(pairing, deckGroup), "TourneyMatch");
+                final long matchSeed = seed + nMatches++;
+                matches.add(mc);
+                results.add(pool.submit(new Callable<String>() {
+                    @Override
+                    public String call() {
+                        MyRandom.setSeed(matchSeed);
+                        return simulateTournamentMatch(mc, outputGamelog, matchSeed, stats);
+                    }
+                }));
+            }
+            awaitTermination(pool);
+
+            for (int i = 0; i < pairings.size(); i++) {
+                TournamentPairing pairing = pairings.get(i);
+
+                StringBuilder sb = new StringBuilder();
+                sb.append("Round ").append(tourney.getActiveRound()).append(" - ");
+                sb.append(pairing.outputHeader());
+                System.out.println(sb.toString());
+
+                if (!pairing.isBye()) {
+                    try {
+                        System.out.print(results.get(i).get());
+                    } catch (InterruptedException | ExecutionException e) {
+                        throw new RuntimeException(e);
+                    }
+
+                    LobbyPlayer winner = matches.get(i).getWinner().getPlayer();
+                    for (TournamentPlayer tp : pairing.getPairedPlayers()) {
+                        if (winner.equals(tp.getPlayer())) {
+                            pairing.setWinner(tp);
+                            lastWinner = winner.getName();
+                            System.out.println(String.format("Match Winner - %s!", lastWinner));
+                            System.out.println("");
                             break;
-                        } else {
-                            System.out.println("Game threw exception. Abandoning game and continuing...");
                         }
                     }
-
                 }
-                LobbyPlayer winner = mc.getWinner().getPlayer();
-                for (TournamentPlayer tp : pairing.getPairedPlayers()) {
-                    if (winner.equals(tp.getPlayer())) {
-                        pairing.setWinner(tp);
-                        lastWinner = winner.getName();
-                        System.out.println(String.format("Match Winner - %s!", lastWinner));
-                        System.out.println("");
-                        break;
-                    }
+
+                tourney.reportMatchCompletion(pairing);
+            }
+        }
+        tourney.outputTournamentResults();
+    }
+
+    private static String simulateTournamentMatch(Match mc, boolean outputGamelog, long seed, SimulationStats stats) {
+        StringBuilder sb = new StringBuilder();
+        int exceptions = 0;
+        int iGame = 0;
+        while (!mc.isMatchOver()) {
+            // play games until the match ends
+            try{
+                sb.append(simulateSingleMatch(mc, iGame, outputGamelog, seed, stats)).append('\n');
+                iGame++;
+            } catch(Exception e) {
+                exceptions++;
+                stats.addError();
+                sb.append(e.toString()).append('\n');
+                if (exceptions > 5) {
+                    sb.append("Exceeded number of exceptions thrown. Abandoning match...\n");
+                    break;
+                } else {
+                    sb.append("Game threw exception. Abandoning game and continuing...\n");
                 }
             }
 
-            tourney.reportMatchCompletion(pairing);
         }
-        tourney.outputTournamentResults();
+        return sb.toString();
     }
 
     public static Match simulateOffthreadGame(List<Deck> decks, GameType format, int games) {
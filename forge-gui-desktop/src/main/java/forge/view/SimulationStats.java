@@ -0,0 +1,193 @@
+package forge.view;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.tuple.Pair;
+
+import forge.LobbyPlayer;
+import forge.game.GameOutcome;
+import forge.game.player.PlayerStatistics;
+
+/**
+ * Collects the results of simulated games, which may finish on several
+ * threads at once: wins per player with a 95% confidence interval, the
+ * average number of turns and time per game, and games per second.
+ * <p>
+ * Each game is written to a CSV file as soon as it's recorded, if one was
+ * given, so long runs can be watched (or cut short) without losing results.
+ */
+public class SimulationStats {
+    private static final double Z_95 = 1.96;
+
+    private final long startTime = System.currentTimeMillis();
+    private final long seed;
+    private final int threads;
+    private final PrintWriter csv;
+
+    private final Map<String, int[]> players = new LinkedHashMap<>(); // name -> {games, wins}
+    private int games;
+    private int draws;
+    private int errors;
+    private long totalTurns;
+    private long totalGameTime;
+
+    public SimulationStats(final long seed0, final int threads0, final File csvFile) throws IOException {
+        seed = seed0;
+        threads = threads0;
+        if (csvFile != null) {
+            csv = new PrintWriter(new FileWriter(csvFile));
+            csv.println("game,seed,players,winner,turns,ms");
+            csv.flush();
+        } else {
+            csv = null;
+        }
+    }
+
+    public synchronized void addGame(final int iGame, final long gameSeed, final GameOutcome outcome, final long time) {
+        games++;
+        totalTurns += outcome.getLastTurnNumber();
+        totalGameTime += time;
+
+        final StringBuilder names = new StringBuilder();
+        for (final Pair<LobbyPlayer, PlayerStatistics> p : outcome) {
+            final String name = p.getKey().getName();
+            int[] counts = players.get(name);
+            if (counts == null) {
+                counts = new int[2];
+                players.put(name, counts);
+            }
+            counts[0]++;
+            if (names.length() > 0) {
+                names.append(" vs ");
+            }
+            names.append(name);
+        }
+
+        final String winner;
+        if (outcome.isDraw()) {
+            draws++;
+            winner = "";
+        } else {
+            winner = outcome.getWinningLobbyPlayer().getName();
+            players.get(winner)[1]++;
+        }
+
+        if (csv != null) {
+            csv.println(String.format("%d,%d,%s,%s,%d,%d", iGame, gameSeed, csvField(names.toString()), csvField(winner),
+                    outcome.getLastTurnNumber(), time));
+            csv.flush();
+        }
+    }
+
+    public synchronized void addError() {
+        errors++;
+    }
+
+    public synchronized void close() {
+        if (csv != null) {
+            csv.close();
+        }
+    }
+
+    public synchronized String getSummary() {
+        final long elapsed = System.currentTimeMillis() - startTime;
+        final StringBuilder sb = new StringBuilder();
+        sb.append(String.format(Locale.ENGLISH, "%d games (%d draws, %d failed) in %.1f s on %d thread(s), %.2f games/s, seed %d%n",
+                games, draws, errors, elapsed / 1000.0, threads, getGamesPerSecond(elapsed), seed));
+        sb.append(String.format(Locale.ENGLISH, "Average game: %.1f turns, %d ms%n", getAverageTurns(), getAverageGameTime()));
+        for (final Map.Entry<String, int[]> e : players.entrySet()) {
+            final int played = e.getValue()[0];
+            final int won = e.getValue()[1];
+            final double[] ci = getConfidenceInterval(won, played);
+            sb.append(String.format(Locale.ENGLISH, "%s: won %d of %d (%.1f%%, 95%% CI %.1f%% - %.1f%%)%n",
+                    e.getKey(), won, played, 100.0 * won / played, 100 * ci[0], 100 * ci[1]));
+        }
+        return sb.toString();
+    }
+
+    public synchronized void writeJson(final File file) throws IOException {
+        final long elapsed = System.currentTimeMillis() - startTime;
+        try (PrintWriter out = new PrintWriter(new FileWriter(file))) {
+            out.println("{");
+            out.println(String.format(Locale.ENGLISH, "  \"games\": %d,", games));
+            out.println(String.format(Locale.ENGLISH, "  \"draws\": %d,", draws));
+            out.println(String.format(Locale.ENGLISH, "  \"failed\": %d,", errors));
+            out.println(String.format(Locale.ENGLISH, "  \"seed\": %d,", seed));
+            out.println(String.format(Locale.ENGLISH, "  \"threads\": %d,", threads));
+            out.println(String.format(Locale.ENGLISH, "  \"elapsedMs\": %d,", elapsed));
+            out.println(String.format(Locale.ENGLISH, "  \"gamesPerSecond\": %.3f,", getGamesPerSecond(elapsed)));
+            out.println(String.format(Locale.ENGLISH, "  \"averageTurns\": %.3f,", getAverageTurns()));
+            out.println(String.format(Locale.ENGLISH, "  \"averageGameMs\": %d,", getAverageGameTime()));
+            out.println("  \"players\": [");
+            int i = 0;
+            for (final Map.Entry<String, int[]> e : players.entrySet()) {
+                final int played = e.getValue()[0];
+                final int won = e.getValue()[1];
+                final double[] ci = getConfidenceInterval(won, played);
+                out.print(String.format(Locale.ENGLISH,
+                        "    {\"name\": %s, \"games\": %d, \"wins\": %d, \"winRate\": %.4f, \"ci95Low\": %.4f, \"ci95High\": %.4f}",
+                        jsonString(e.getKey()), played, won, (double) won / played, ci[0], ci[1]));
+                out.println(++i < players.size() ? "," : "");
+            }
+            out.println("  ]");
+            out.println("}");
+        }
+    }
+
+    private double getGamesPerSecond(final long elapsed) {
+        return elapsed == 0 ? 0 : games * 1000.0 / elapsed;
+    }
+
+    private double getAverageTurns() {
+        return games == 0 ? 0 : (double) totalTurns / games;
+    }
+
+    private long getAverageGameTime() {
+        return games == 0 ? 0 : totalGameTime / games;
+    }
+
+    /**
+     * Returns the Wilson score interval for the given number of wins, which
+     * unlike the normal approximation stays within 0 and 1 and is still
+     * sensible for few games or lopsided results.
+     */
+    static double[] getConfidenceInterval(final int wins, final int n) {
+        if (n == 0) {
+            return new double[] { 0, 1 };
+        }
+        final double p = (double) wins / n;
+        final double z2 = Z_95 * Z_95;
+        final double denominator = 1 + z2 / n;
+        final double center = (p + z2 / (2 * n)) / denominator;
+        final double margin = Z_95 * Math.sqrt(p * (1 - p) / n + z2 / (4.0 * n * n)) / denominator;
+        return new double[] { Math.max(0, center - margin), Math.min(1, center + margin) };
+    }
+
+    private static String csvField(final String value) {
+        if (StringUtils.containsAny(value, ",\"\r\n")) {
+            return "\"" + value.replace("\"", "\"\"") + "\"";
+        }
+        return value;
+    }
+
+    private static String jsonString(final String value) {
+        final StringBuilder sb = new StringBuilder("\"");
+        for (final char c : value.toCharArray()) {
+            if (c == '"' || c == '\\') {
+                sb.append('\\').append(c);
+            } else if (c < ' ') {
+                sb.append(String.format("\\u%04x", (int) c));
+            } else {
+                sb.append(c);
+            }
+        }
+        return sb.append('"').toString();
+    }
+}
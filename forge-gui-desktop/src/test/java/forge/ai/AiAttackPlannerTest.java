@@ -0,0 +1,63 @@
+package forge.ai;
+
+import java.util.List;
+
+import com.google.common.collect.Lists;
+
+import forge.game.Game;
+import forge.game.card.Card;
+import forge.game.phase.PhaseType;
+import forge.game.player.Player;
+
+public class AiAttackPlannerTest extends AiTestBase {
+    @Override
+    protected Card addCard(String name, Player p) {
+        Card c = super.addCard(name, p);
+        c.setSickness(false);
+        return c;
+    }
+
+    private List<Card> plan(Player ai, Player opp) {
+        AiAttackPlanner planner = new AiAttackPlanner(ai, opp, Lists.<Card>newArrayList(),
+                ai.getCreaturesInPlay(), opp.getCreaturesInPlay(), 0);
+        return planner.plan();
+    }
+
+    public void testAttacksWithEveryoneForLethal() {
+        Game game = initAndCreateGame();
+        Player ai = game.getPlayers().get(1);
+        Player opp = game.getPlayers().get(0);
+        addCard("Grizzly Bears", ai);
+        addCard("Grizzly Bears", ai);
+        addCard("Grizzly Bears", ai);
+        addCard("Hill Giant", opp);
+        opp.setLife(4, null);
+        game.getPhaseHandler().devModeSet(PhaseType.MAIN1, ai);
+
+        // one bear gets blocked, the other two are enough
+        assertEquals(3, plan(ai, opp).size());
+    }
+
+    public void testDoesNotAttackIntoBiggerBlocker() {
+        Game game = initAndCreateGame();
+        Player ai = game.getPlayers().get(1);
+        Player opp = game.getPlayers().get(0);
+        addCard("Grizzly Bears", ai);
+        addCard("Hill Giant", opp);
+        game.getPhaseHandler().devModeSet(PhaseType.MAIN1, ai);
+
+        assertTrue(plan(ai, opp).isEmpty());
+    }
+
+    public void testFirstStrikerAttacksIntoBlockerItKills() {
+        Game game = initAndCreateGame();
+        Player ai = game.getPlayers().get(1);
+        Player opp = game.getPlayers().get(0);
+        Card knight = addCard("White Knight", ai);
+        addCard("Grizzly Bears", opp);
+        game.getPhaseHandler().devModeSet(PhaseType.MAIN1, ai);
+
+        // the bears can't survive a block, so the knight gets through either way
+        assertEquals(Lists.newArrayList(knight), plan(ai, opp));
+    }
+}
@@ -0,0 +1,60 @@
+package forge.ai;
+
+import forge.game.Game;
+import forge.game.card.Card;
+import forge.game.combat.Combat;
+import forge.game.phase.PhaseType;
+import forge.game.player.Player;
+
+public class AiCombatMatrixTest extends AiTestBase {
+    @Override
+    protected Card addCard(String name, Player p) {
+        Card c = super.addCard(name, p);
+        c.setSickness(false);
+        return c;
+    }
+
+    public void testAgreesWithCombatPredictions() {
+        Game game = initAndCreateGame();
+        Player attacking = game.getPlayers().get(1);
+        Player blocking = game.getPlayers().get(0);
+        Card corpse = addCard("Walking Corpse", attacking);
+        Card giant = addCard("Hill Giant", blocking);
+        game.getPhaseHandler().devModeSet(PhaseType.COMBAT_DECLARE_ATTACKERS, attacking);
+        Combat combat = new Combat(attacking);
+        combat.addAttacker(corpse, blocking);
+
+        AiCombatMatrix matrix = new AiCombatMatrix();
+        for (int i = 0; i < 2; i++) {
+            assertEquals(ComputerUtilCombat.canDestroyAttacker(blocking, corpse, giant, combat, false),
+                    matrix.canDestroyAttacker(blocking, corpse, giant, combat, false));
+            assertEquals(ComputerUtilCombat.canDestroyBlocker(blocking, giant, corpse, combat, false),
+                    matrix.canDestroyBlocker(blocking, giant, corpse, combat, false));
+        }
+        assertTrue(matrix.canDestroyAttacker(blocking, corpse, giant, combat, false));
+        assertFalse(matrix.canDestroyBlocker(blocking, giant, corpse, combat, false));
+
+        // trying out a block doesn't change what the pair does to each other
+        combat.addBlocker(corpse, giant);
+        assertFalse(matrix.canDestroyBlocker(blocking, giant, corpse, combat, false));
+    }
+
+    public void testForgetsWhenTheBoardChanges() {
+        Game game = initAndCreateGame();
+        Player attacking = game.getPlayers().get(1);
+        Player blocking = game.getPlayers().get(0);
+        Card corpse = addCard("Walking Corpse", attacking);
+        Card giant = addCard("Hill Giant", blocking);
+        game.getPhaseHandler().devModeSet(PhaseType.COMBAT_DECLARE_ATTACKERS, attacking);
+        Combat combat = new Combat(attacking);
+        combat.addAttacker(corpse, blocking);
+
+        AiCombatMatrix matrix = new AiCombatMatrix();
+        assertFalse(matrix.canDestroyBlocker(blocking, giant, corpse, combat, false));
+
+        // black creatures get +1/+1, so the corpse now has 3 power
+        addCard("Bad Moon", attacking);
+        game.getAction().checkStateEffects(true);
+        assertTrue(matrix.canDestroyBlocker(blocking, giant, corpse, combat, false));
+    }
+}
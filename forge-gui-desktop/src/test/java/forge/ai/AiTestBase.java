@@ -0,0 +1,63 @@
+package forge.ai;
+
+import java.util.List;
+
+import junit.framework.TestCase;
+
+import com.google.common.collect.Lists;
+
+import forge.GuiBase;
+import forge.GuiDesktop;
+import forge.deck.Deck;
+import forge.game.Game;
+import forge.game.GameRules;
+import forge.game.GameStage;
+import forge.game.GameType;
+import forge.game.Match;
+import forge.game.card.Card;
+import forge.game.player.Player;
+import forge.game.player.RegisteredPlayer;
+import forge.game.zone.ZoneType;
+import forge.item.IPaperCard;
+import forge.model.FModel;
+
+/**
+ * Sets up games between two AI players, with the cards put straight into
+ * their zones, for the tests of the AI.
+ */
+public abstract class AiTestBase extends TestCase {
+    private static boolean initialized = false;
+
+    protected Game initAndCreateGame() {
+        List<RegisteredPlayer> players = Lists.newArrayList();
+        Deck d1 = new Deck();
+        players.add(new RegisteredPlayer(d1).setPlayer(new LobbyPlayerAi("p2", null)));
+        players.add(new RegisteredPlayer(d1).setPlayer(new LobbyPlayerAi("p1", null)));
+        GameRules rules = new GameRules(GameType.Constructed);
+        Match match = new Match(rules, players, "Test");
+        Game game = new Game(players, rules, match);
+        game.setAge(GameStage.Play);
+
+        if (!initialized) {
+            GuiBase.setInterface(new GuiDesktop());
+            FModel.initialize(null);
+            initialized = true;
+        }
+        return game;
+    }
+
+    protected Card createCard(String name, Player p) {
+        IPaperCard paperCard = FModel.getMagicDb().getCommonCards().getCard(name);
+        return Card.fromPaperCard(paperCard, p);
+    }
+
+    protected Card addCardToZone(String name, Player p, ZoneType zone) {
+        Card c = createCard(name, p);
+        p.getZone(zone).add(c);
+        return c;
+    }
+
+    protected Card addCard(String name, Player p) {
+        return addCardToZone(name, p, ZoneType.Battlefield);
+    }
+}
@@ -0,0 +1,87 @@
+package forge.ai;
+
+import forge.game.Game;
+import forge.game.UndoJournal;
+import forge.game.card.Card;
+import forge.game.phase.PhaseType;
+import forge.game.player.Player;
+import forge.game.spellability.SpellAbility;
+import forge.game.zone.ZoneType;
+
+public class ComputerUtilManaTest extends AiTestBase {
+    private SpellAbility spellInHand(String name, Player p) {
+        SpellAbility sa = addCardToZone(name, p, ZoneType.Hand).getFirstSpellAbility();
+        sa.setActivatingPlayer(p);
+        return sa;
+    }
+
+    public void testPaysEveryColorWithDualLand() {
+        Game game = initAndCreateGame();
+        Player p = game.getPlayers().get(1);
+        Card tundra = addCardToZone("Tundra", p, ZoneType.Battlefield);
+        Card plains = addCardToZone("Plains", p, ZoneType.Battlefield);
+        SpellAbility charm = spellInHand("Azorius Charm", p);
+        game.getPhaseHandler().devModeSet(PhaseType.MAIN1, p);
+
+        assertTrue(ComputerUtilMana.canPayManaCost(charm, p, 0));
+        // asking again gives the same answer
+        assertTrue(ComputerUtilMana.canPayManaCost(charm, p, 0));
+        assertTrue(ComputerUtilMana.payManaCost(p, charm));
+        assertTrue(tundra.isTapped());
+        assertTrue(plains.isTapped());
+    }
+
+    public void testCannotPayTwiceFromOneDualLand() {
+        Game game = initAndCreateGame();
+        Player p = game.getPlayers().get(1);
+        addCardToZone("Tundra", p, ZoneType.Battlefield);
+        addCardToZone("Plains", p, ZoneType.Battlefield);
+        SpellAbility counterspell = spellInHand("Counterspell", p);
+        game.getPhaseHandler().devModeSet(PhaseType.MAIN1, p);
+
+        assertFalse(ComputerUtilMana.canPayManaCost(counterspell, p, 0));
+
+        // until the game changes
+        addCardToZone("Island", p, ZoneType.Battlefield);
+        assertTrue(ComputerUtilMana.canPayManaCost(counterspell, p, 0));
+    }
+
+    public void testKeepsSourceForGenericManaWhenPayingLife() {
+        Game game = initAndCreateGame();
+        Player p = game.getPlayers().get(1);
+        Card swamp = addCardToZone("Swamp", p, ZoneType.Battlefield);
+        SpellAbility dismember = spellInHand("Dismember", p);
+        game.getPhaseHandler().devModeSet(PhaseType.MAIN1, p);
+
+        assertTrue(ComputerUtilMana.canPayManaCost(dismember, p, 0));
+        assertTrue(ComputerUtilMana.payManaCost(p, dismember));
+        assertTrue(swamp.isTapped());
+        assertEquals(16, p.getLife());
+    }
+
+    public void testRollbackDoesNotReuseOutcome() {
+        Game game = initAndCreateGame();
+        Player p = game.getPlayers().get(1);
+        Card mountain = addCardToZone("Mountain", p, ZoneType.Battlefield);
+        SpellAbility bolt = spellInHand("Lightning Bolt", p);
+        game.getPhaseHandler().devModeSet(PhaseType.MAIN1, p);
+        UndoJournal journal = new UndoJournal();
+        game.setUndoJournal(journal);
+        int mark = journal.mark();
+
+        assertTrue(ComputerUtilMana.canPayManaCost(bolt, p, 0));
+        assertTrue(ComputerUtilMana.payManaCost(p, bolt));
+        assertTrue(mountain.isTapped());
+        assertFalse(ComputerUtilMana.canPayManaCost(bolt, p, 0));
+        int tappedVersion = game.getStateVersion();
+
+        // the version moves on when rolling back, so the outcome for the tapped mountain isn't used
+        journal.rollbackTo(mark);
+        assertFalse(mountain.isTapped());
+        assertTrue(game.getStateVersion() > tappedVersion);
+        assertTrue(ComputerUtilMana.canPayManaCost(bolt, p, 0));
+        assertTrue(ComputerUtilMana.payManaCost(p, bolt));
+        assertTrue(mountain.isTapped());
+        game.setUndoJournal(null);
+    }
+}
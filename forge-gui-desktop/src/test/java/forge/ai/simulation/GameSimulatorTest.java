@@ -2,54 +2,25 @@ package forge.ai.simulation;
 
 import java.util.List;
 
-import junit.framework.TestCase;
-
+import com.google.common.collect.Iterables;
 import com.google.common.collect.Lists;
 
-import forge.GuiBase;
-import forge.GuiDesktop;
+import forge.ai.AiTestBase;
 import forge.ai.ComputerUtilAbility;
-import forge.ai.LobbyPlayerAi;
+import forge.ai.simulation.GameStateEvaluator.Score;
 import forge.card.CardStateName;
-import forge.deck.Deck;
 import forge.game.Game;
-import forge.game.GameRules;
-import forge.game.GameStage;
-import forge.game.GameType;
-import forge.game.Match;
+import forge.game.StaticEffect;
 import forge.game.card.Card;
 import forge.game.card.CardCollection;
 import forge.game.card.CardCollectionView;
 import forge.game.card.CounterType;
 import forge.game.phase.PhaseType;
 import forge.game.player.Player;
-import forge.game.player.RegisteredPlayer;
 import forge.game.spellability.SpellAbility;
 import forge.game.zone.ZoneType;
-import forge.item.IPaperCard;
-import forge.model.FModel;
-
-public class GameSimulatorTest extends TestCase {
-    private static boolean initialized = false;
-
-    private Game initAndCreateGame() {
-        List<RegisteredPlayer> players = Lists.newArrayList();
-        Deck d1 = new Deck();
-        players.add(new RegisteredPlayer(d1).setPlayer(new LobbyPlayerAi("p2", null)));
-        players.add(new RegisteredPlayer(d1).setPlayer(new LobbyPlayerAi("p1", null)));
-        GameRules rules = new GameRules(GameType.Constructed);
-        Match match = new Match(rules, players, "Test");
-        Game game = new Game(players, rules, match);
-        game.setAge(GameStage.Play);
-
-        if (!initialized) {
-            GuiBase.setInterface(new GuiDesktop());
-            FModel.initialize(null);
-            initialized = true;
-        }
-        return game;
-    }
-    
+
+public class GameSimulatorTest extends AiTestBase {
     private GameSimulator createSimulator(Game game, Player p) {
         return new GameSimulator(new SimulationController(), game, p);
     }
@@ -90,21 +61,6 @@ public class GameSimulatorTest extends TestCase {
         return null;
     }
 
-    private Card createCard(String name, Player p) {
-        IPaperCard paperCard = FModel.getMagicDb().getCommonCards().getCard(name);
-        return Card.fromPaperCard(paperCard, p);
-    }
-
-    private Card addCardToZone(String name, Player p, ZoneType zone) {
-        Card c = createCard(name, p);
-        p.getZone(zone).add(c);
-        return c;
-    }
-
-    private Card addCard(String name, Player p) {
-        return addCardToZone(name, p, ZoneType.Battlefield);
-    }
-
     public void testActivateAbilityTriggers() {
         Game game = initAndCreateGame();
         Player p = game.getPlayers().get(1);
@@ -196,6 +152,40 @@ public class GameSimulatorTest extends TestCase {
         assertEquals(1, lionCopy.getAmountOfKeyword("Indestructible"));
     }
 
+    public void testStaticAbilitiesOnlyReappliedAfterChanges() {
+        Game game = initAndCreateGame();
+        Player p = game.getPlayers().get(1);
+        Card bear = addCard("Grizzly Bears", p);
+        addCard("Glorious Anthem", p);
+        game.getPhaseHandler().devModeSet(PhaseType.MAIN1, p);
+        game.getAction().checkStateEffects(true);
+        game.getAction().checkStaticAbilities();
+        assertEquals(3, bear.getNetPower());
+
+        // nothing changed, so the anthem's effect is left as it was instead of being removed and applied again
+        StaticEffect effect = Iterables.getOnlyElement(game.getStaticEffects().getEffects());
+        int version = game.getStateVersion();
+        game.getAction().checkStaticAbilities();
+        assertEquals(version, game.getStateVersion());
+        assertSame(effect, Iterables.getOnlyElement(game.getStaticEffects().getEffects()));
+        assertEquals(3, bear.getNetPower());
+
+        // a new creature changes the game, so the effect is applied again and covers it too
+        Card otherBear = addCard("Grizzly Bears", p);
+        assertEquals(2, otherBear.getNetPower());
+        game.getAction().checkStaticAbilities();
+        assertNotSame(effect, Iterables.getOnlyElement(game.getStaticEffects().getEffects()));
+        assertEquals(3, bear.getNetPower());
+        assertEquals(3, otherBear.getNetPower());
+
+        // and so does a change that isn't seen in the views
+        effect = Iterables.getOnlyElement(game.getStaticEffects().getEffects());
+        game.getAction().invalidateStaticAbilities();
+        game.getAction().checkStaticAbilities();
+        assertNotSame(effect, Iterables.getOnlyElement(game.getStaticEffects().getEffects()));
+        assertEquals(3, bear.getNetPower());
+    }
+
     public void testEquippedAbilities() {
         String bearCardName = "Runeclaw Bear";
         Game game = initAndCreateGame();
@@ -531,4 +521,143 @@ public class GameSimulatorTest extends TestCase {
         assertNull(strSimGame, findCardWithName(simGame, "Thespian's Stage"));
         assertNotNull(strSimGame, findCardWithName(simGame, "Marit Lage"));
     }
+
+    public void testGameStateHash() {
+        Game game = initAndCreateGame();
+        Player p = game.getPlayers().get(1);
+        addCard("Plains", p);
+        Card bear = addCard("Runeclaw Bear", p);
+        bear.setSickness(false);
+        addCardToZone("Grizzly Bears", p, ZoneType.Hand);
+        game.getPhaseHandler().devModeSet(PhaseType.MAIN1, p);
+        game.getAction().checkStateEffects(true);
+
+        Game copy1 = new GameCopier(game).makeCopy();
+        Game copy2 = new GameCopier(game).makeCopy();
+        assertEquals(GameStateHash.of(copy1), GameStateHash.of(copy2));
+
+        findCardWithName(copy2, "Runeclaw Bear").setTapped(true);
+        assertFalse(GameStateHash.of(copy1) == GameStateHash.of(copy2));
+        findCardWithName(copy2, "Runeclaw Bear").setTapped(false);
+        assertEquals(GameStateHash.of(copy1), GameStateHash.of(copy2));
+
+        copy2.getPlayers().get(1).setLife(19, null);
+        assertFalse(GameStateHash.of(copy1) == GameStateHash.of(copy2));
+    }
+
+    public void testGameStateHashCoversAttachmentsAndActivations() {
+        Game game = initAndCreateGame();
+        Player p = game.getPlayers().get(1);
+        addCard("Plains", p);
+        addCard("Runeclaw Bear", p);
+        addCard("Bonesplitter", p);
+        game.getPhaseHandler().devModeSet(PhaseType.MAIN1, p);
+        game.getAction().checkStateEffects(true);
+
+        Game copy1 = new GameCopier(game).makeCopy();
+        Game copy2 = new GameCopier(game).makeCopy();
+        assertEquals(GameStateHash.of(copy1), GameStateHash.of(copy2));
+
+        // static abilities aren't applied again, so only the attachment differs
+        findCardWithName(copy2, "Bonesplitter").equipCard(findCardWithName(copy2, "Runeclaw Bear"));
+        long equipped = GameStateHash.of(copy2);
+        assertFalse(GameStateHash.of(copy1) == equipped);
+
+        for (SpellAbility sa : findCardWithName(copy2, "Bonesplitter").getSpellAbilities()) {
+            if (sa.isAbility()) {
+                sa.getRestrictions().abilityActivated();
+            }
+        }
+        assertFalse(equipped == GameStateHash.of(copy2));
+    }
+
+    public void testTranspositionTableReturnsStoredScore() {
+        Game game = initAndCreateGame();
+        Player p = game.getPlayers().get(1);
+        addCard("Forest", p);
+        addCard("Forest", p);
+        addCardToZone("Runeclaw Bear", p, ZoneType.Hand);
+        game.getPhaseHandler().devModeSet(PhaseType.MAIN2, p);
+        game.getAction().checkStateEffects(true);
+
+        SimulationController controller = new SimulationController();
+        GameSimulator sim = new GameSimulator(controller, game, p);
+        SpellAbility bearSA = p.getCardsIn(ZoneType.Hand).get(0).getFirstSpellAbility();
+        Score first = sim.simulateSpellAbility(bearSA);
+        int hits = controller.getTranspositions().getHits();
+
+        // the same play leads to the same position
+        Score second = sim.simulateSpellAbility(bearSA);
+        assertEquals(hits + 1, controller.getTranspositions().getHits());
+        assertTrue(first.equals(second));
+
+        long key = controller.getPositionKey(GameStateHash.of(sim.getSimulatedGameState()));
+        TranspositionTable table = new TranspositionTable(4);
+        table.put(key, first);
+        assertSame(first, table.get(key));
+        assertNull(table.get(key + 1));
+    }
+
+    public void testRollbackRestoresGame() {
+        Game game = initAndCreateGame();
+        Player p = game.getPlayers().get(1);
+        addCard("Mountain", p);
+        addCard("Forest", p);
+        addCard("Swamp", p);
+        Card lavaclaw = addCard("Lavaclaw Reaches", p);
+        Card sneakAttack = addCard("Sneak Attack", p);
+        Card bear = addCard("Runeclaw Bear", p);
+        bear.setSickness(false);
+        addCardToZone("Grizzly Bears", p, ZoneType.Hand);
+        Card giantGrowth = addCardToZone("Giant Growth", p, ZoneType.Hand);
+        game.getPhaseHandler().devModeSet(PhaseType.MAIN1, p);
+        game.getAction().checkStateEffects(true);
+
+        Game fresh = new GameCopier(game).makeCopy();
+        GameStateEvaluator eval = new GameStateEvaluator();
+        Score freshScore = eval.getScoreForGameState(fresh, fresh.getPlayers().get(1));
+
+        GameSimulator sim = createSimulator(game, p);
+        Game simGame = sim.getSimulatedGameState();
+
+        // remembers the creature, gives it an SVar and leaves a delayed trigger behind
+        SpellAbility sneakSA = findSAWithPrefix(sneakAttack, "{R}: You may put a creature card");
+        assertNotNull(sneakSA);
+        sim.simulateSpellAbility(sneakSA);
+        assertNotNull(findCardWithName(simGame, "Grizzly Bears"));
+        assertTrue(simGame.getTriggerHandler().hasDelayedTriggers());
+
+        sim.resetSimulatedGame();
+        assertSame(simGame, sim.getSimulatedGameState());
+        assertFalse(simGame.getTriggerHandler().hasDelayedTriggers());
+        assertEquals(GameStateHash.of(fresh), GameStateHash.of(simGame));
+        assertTrue(freshScore.equals(eval.getScoreForGameState(simGame, simGame.getPlayers().get(1))));
+
+        // leaves an "until end of turn" command behind
+        SpellAbility growthSA = giantGrowth.getFirstSpellAbility();
+        growthSA.getTargets().add(bear);
+        sim.simulateSpellAbility(growthSA);
+        assertEquals(5, findCardWithName(simGame, "Runeclaw Bear").getNetPower());
+        assertTrue(simGame.getEndOfTurn().getCommandCount() > 0);
+
+        sim.resetSimulatedGame();
+        assertSame(simGame, sim.getSimulatedGameState());
+        assertEquals(0, simGame.getEndOfTurn().getCommandCount());
+        assertEquals(GameStateHash.of(fresh), GameStateHash.of(simGame));
+        assertTrue(freshScore.equals(eval.getScoreForGameState(simGame, simGame.getPlayers().get(1))));
+
+        // gives the land an ability
+        int abilities = lavaclaw.getSpellAbilities().size();
+        SpellAbility animateSA = findSAWithPrefix(lavaclaw, "{1}{B}{R}: Until end of turn");
+        assertNotNull(animateSA);
+        sim.simulateSpellAbility(animateSA);
+        Card animated = findCardWithName(simGame, "Lavaclaw Reaches");
+        assertNotNull(findSAWithPrefix(animated, "{X}: This creature gets +X/+0"));
+        assertFalse(GameStateHash.of(fresh) == GameStateHash.of(simGame));
+
+        sim.resetSimulatedGame();
+        assertEquals(abilities, animated.getSpellAbilities().size());
+        assertNull(findSAWithPrefix(animated, "{X}: This creature gets +X/+0"));
+        assertEquals(GameStateHash.of(fresh), GameStateHash.of(simGame));
+    }
 }
@@ -0,0 +1,54 @@
+package forge.ai.simulation;
+
+import java.util.List;
+
+import forge.ai.AiTestBase;
+import forge.ai.ComputerUtilAbility;
+import forge.game.Game;
+import forge.game.card.Card;
+import forge.game.phase.PhaseType;
+import forge.game.player.Player;
+import forge.game.spellability.SpellAbility;
+import forge.game.zone.ZoneType;
+import forge.util.MyRandom;
+
+public class SpellAbilityPickerTest extends AiTestBase {
+    @Override
+    protected Card addCardToZone(String name, Player p, ZoneType zone) {
+        Card c = super.addCardToZone(name, p, zone);
+        c.setSickness(false);
+        return c;
+    }
+
+    private String pick(Game game, Player p, int parallelism) {
+        MyRandom.setSeed(7);
+        SpellAbilityPicker picker = new SpellAbilityPicker(game, p);
+        picker.setParallelism(parallelism);
+        List<SpellAbility> all = ComputerUtilAbility.getSpellAbilities(ComputerUtilAbility.getAvailableCards(game, p), p);
+        SpellAbility sa = picker.chooseSpellAbilityToPlay(null, all, true);
+        return SpellAbilityPicker.abilityToString(sa) + " " + picker.getScoreForChosenAbility().value;
+    }
+
+    public void testParallelSearchPicksTheSameAbility() {
+        Game game = initAndCreateGame();
+        Player p = game.getPlayers().get(1);
+        Player opponent = game.getPlayers().get(0);
+        addCardToZone("Mountain", p, ZoneType.Battlefield);
+        addCardToZone("Mountain", p, ZoneType.Battlefield);
+        addCardToZone("Forest", p, ZoneType.Battlefield);
+        addCardToZone("Runeclaw Bear", p, ZoneType.Battlefield);
+        addCardToZone("Lightning Bolt", p, ZoneType.Hand);
+        addCardToZone("Giant Growth", p, ZoneType.Hand);
+        addCardToZone("Grizzly Bears", p, ZoneType.Hand);
+        addCardToZone("Hill Giant", opponent, ZoneType.Battlefield);
+        addCardToZone("Grizzly Bears", opponent, ZoneType.Battlefield);
+        game.getPhaseHandler().devModeSet(PhaseType.MAIN2, p);
+        game.getAction().checkStateEffects(true);
+
+        String sequential = pick(game, p, 1);
+        assertFalse(sequential.startsWith("N/A"));
+        assertEquals(sequential, pick(game, p, 4));
+        // and the original game was left alone
+        assertEquals(sequential, pick(game, p, 1));
+    }
+}
@@ -0,0 +1,74 @@
+package forge.util.collect;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+@Test(groups = { "UnitTest", "fast" })
+public class FCollectionTest {
+
+    @Test
+    public void testKeepsOrderAndUniqueness() {
+        FCollection<Integer> c = new FCollection<>(new Integer[] { 3, 1, 2, 1, 3 });
+        Assert.assertEquals(c, new FCollection<>(Arrays.asList(3, 1, 2)));
+        Assert.assertEquals(c.toString(), "[3, 1, 2]");
+        Assert.assertFalse(c.add(2));
+        Assert.assertEquals(c.size(), 3);
+
+        c.add(0, 2); // moves an element that is already there
+        Assert.assertEquals(new ArrayList<>(c), Arrays.asList(2, 3, 1));
+        c.add(3, 2);
+        Assert.assertEquals(new ArrayList<>(c), Arrays.asList(3, 1, 2));
+    }
+
+    @Test
+    public void testMatchesListWhenIndexed() {
+        // enough elements for the hash index to be used, with removals in between
+        Random random = new Random(42);
+        FCollection<Integer> c = new FCollection<>();
+        List<Integer> expected = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            Integer e = random.nextInt(200);
+            if (random.nextInt(3) == 0) {
+                Assert.assertEquals(c.remove(e), expected.remove(e));
+            } else if (!expected.contains(e)) {
+                Assert.assertTrue(c.add(e));
+                expected.add(e);
+            } else {
+                Assert.assertFalse(c.add(e));
+            }
+            Assert.assertEquals(c.size(), expected.size());
+        }
+        for (int i = 0; i < expected.size(); i++) {
+            Assert.assertEquals(c.get(i), expected.get(i));
+        }
+        for (int e = 0; e < 200; e++) {
+            Assert.assertEquals(c.contains(e), expected.contains(e));
+            Assert.assertEquals(c.indexOf(e), expected.indexOf(e));
+        }
+        Assert.assertEquals(c.hashCode(), expected.hashCode());
+    }
+
+    @Test
+    public void testIteratorRemove() {
+        FCollection<Integer> c = new FCollection<>();
+        for (int i = 0; i < 20; i++) {
+            c.add(i);
+        }
+        for (Iterator<Integer> it = c.iterator(); it.hasNext();) {
+            if (it.next() % 2 == 0) {
+                it.remove();
+            }
+        }
+        Assert.assertEquals(c.size(), 10);
+        Assert.assertFalse(c.contains(4));
+        Assert.assertTrue(c.contains(5));
+        Assert.assertEquals(c.getFirst(), Integer.valueOf(1));
+        Assert.assertEquals(c.getLast(), Integer.valueOf(19));
+    }
+}
@@ -266,9 +266,15 @@ public class BoosterDraft implements IBoosterDraft {
             return null;
         }
 
-        final List<List<PaperCard>> list = new ArrayList<>();
-        for (int i = 0; i < 8; i++) {
-            list.add(this.product.get(this.nextBoosterGroup).get());
+        final Supplier<List<PaperCard>> packs = this.product.get(this.nextBoosterGroup);
+        final List<List<PaperCard>> list;
+        if (packs instanceof UnOpenedProduct) {
+            list = ((UnOpenedProduct) packs).get(8);
+        } else {
+            list = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                list.add(packs.get());
+            }
         }
 
         this.nextBoosterGroup++;
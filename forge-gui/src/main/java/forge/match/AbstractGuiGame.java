@@ -70,6 +70,9 @@ public abstract class AbstractGuiGame implements IGuiGame, IMayViewCards {
     }
     @Override
     public void setGameView(final GameView gameView0) {
+        if (gameView0 == gameView) {
+            return; //already up to date, as when the changes to it were received over the network
+        }
         if (gameView == null || gameView0 == null) {
             if (gameView0 != null) {
                 //ensure lookup dictionaries are reset before each game
@@ -91,7 +91,19 @@ public final class FModel {
     private static IStorage<QuestWorld> worlds;
     private static GameFormat.Collection formats;
 
+    // how many cards' full rules headless runs keep in memory, enough for a few decks and the tokens they make
+    private static final int LAZY_CARD_RULES_CACHE_SIZE = 2000;
+
     public static void initialize(final IProgressBar progressBar) {
+        initialize(progressBar, false);
+    }
+
+    /**
+     * @param lazyCardRules
+     *            whether to only read each card's full rules when it's used,
+     *            for headless runs that only need a few cards
+     */
+    public static void initialize(final IProgressBar progressBar, final boolean lazyCardRules) {
         ImageKeys.initializeDirs(
                 ForgeConstants.CACHE_CARD_PICS_DIR, ForgeConstants.CACHE_CARD_PICS_SUBDIR,
                 ForgeConstants.CACHE_TOKEN_PICS_DIR, ForgeConstants.CACHE_ICON_PICS_DIR,
@@ -137,7 +149,8 @@ public final class FModel {
             }
         };
 
-        final CardStorageReader reader = new CardStorageReader(ForgeConstants.CARD_DATA_DIR, progressBarBridge, null);
+        final CardStorageReader reader = new CardStorageReader(ForgeConstants.CARD_DATA_DIR, progressBarBridge, null, ForgeConstants.CARD_SNAPSHOT_FILE,
+                lazyCardRules ? LAZY_CARD_RULES_CACHE_SIZE : 0);
         magicDb = new StaticData(reader, ForgeConstants.EDITIONS_DIR, ForgeConstants.BLOCK_DATA_DIR);
 
         //create profile dirs if they don't already exist
@@ -50,6 +50,7 @@ public abstract class GameProtocolHandler<T> extends ChannelInboundHandlerAdapte
             final Class<?> returnType = protocolMethod.getReturnType();
             final Runnable toRun = new Runnable() {
                 @Override public final void run() {
+                    event.applyChanges();
                     if (returnType.equals(Void.TYPE)) {
                         try {
                             method.invoke(toInvoke, args);
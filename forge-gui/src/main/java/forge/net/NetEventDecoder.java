@@ -0,0 +1,77 @@
+package forge.net;
+
+import java.io.Serializable;
+import java.util.List;
+
+import forge.assets.FSkinProp;
+import forge.match.LobbySlotType;
+import forge.match.NextGameDecision;
+import forge.net.event.GuiGameEvent;
+import forge.net.event.ReplyEvent;
+import forge.trackable.TrackableDeserializer;
+import forge.trackable.Tracker;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufInputStream;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.handler.codec.MessageToMessageDecoder;
+
+/**
+ * Reads the events written by a {@link NetEventEncoder}, one per frame.
+ */
+public final class NetEventDecoder extends MessageToMessageDecoder<ByteBuf> {
+    /** The longest frame accepted, the same as the old object decoder's limit. */
+    public static final int MAX_FRAME_LENGTH = 1 << 20;
+
+    private static final ProtocolMethod[] methods = ProtocolMethod.values();
+
+    static {
+        TrackableDeserializer.allowEnums(FSkinProp.class, NextGameDecision.class, LobbySlotType.class);
+    }
+
+    private final TrackableDeserializer deserializer;
+
+    public NetEventDecoder(final TrackableDeserializer deserializer0) {
+        deserializer = deserializer0;
+    }
+
+    @Override
+    protected void decode(final ChannelHandlerContext ctx, final ByteBuf msg, final List<Object> out) {
+        deserializer.begin(new ByteBufInputStream(msg));
+        final Object event;
+        switch (deserializer.readInt()) {
+        case NetEventEncoder.GUI_GAME_EVENT:
+            final int id = deserializer.readInt();
+            final ProtocolMethod method = methods[deserializer.readInt()];
+            final int count = deserializer.readInt();
+            if (count < 0 || count > msg.readableBytes()) {
+                throw new IllegalStateException("Invalid argument count " + count);
+            }
+            final Object[] args = new Object[count];
+            for (int i = 0; i < args.length; i++) {
+                args[i] = deserializer.readValue();
+            }
+            if (NetEventEncoder.startsNewGame(method, args)) {
+                deserializer.reset();
+            }
+            event = new GuiGameEvent(id, method, args);
+            break;
+        case NetEventEncoder.REPLY_EVENT:
+            final int index = deserializer.readInt();
+            event = new ReplyEvent(index, (Serializable) deserializer.readValue());
+            break;
+        default:
+            event = deserializer.readValue();
+            break;
+        }
+
+        final Tracker changes = deserializer.end();
+        if (event instanceof GuiGameEvent) {
+            //apply changes right before the event is handled, so they don't show up early
+            ((GuiGameEvent) event).setChanges(changes);
+        }
+        else if (changes != null) {
+            changes.unfreeze();
+        }
+        out.add(event);
+    }
+}
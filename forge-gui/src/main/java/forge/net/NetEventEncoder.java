@@ -0,0 +1,65 @@
+package forge.net;
+
+import forge.net.event.GuiGameEvent;
+import forge.net.event.NetEvent;
+import forge.net.event.ReplyEvent;
+import forge.trackable.TrackableSerializer;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufOutputStream;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.handler.codec.MessageToByteEncoder;
+
+/**
+ * Writes events sent over a connection with a {@link TrackableSerializer},
+ * so the game views passed with them only send what changed since they were
+ * last sent. Read by a {@link NetEventDecoder} on the other side.
+ */
+public final class NetEventEncoder extends MessageToByteEncoder<NetEvent> {
+    static final int GUI_GAME_EVENT = 0;
+    static final int REPLY_EVENT = 1;
+    static final int OTHER_EVENT = 2;
+
+    private final TrackableSerializer serializer;
+
+    public NetEventEncoder(final TrackableSerializer serializer0) {
+        serializer = serializer0;
+    }
+
+    @Override
+    protected void encode(final ChannelHandlerContext ctx, final NetEvent msg, final ByteBuf out) {
+        serializer.begin(new ByteBufOutputStream(out));
+        if (msg instanceof GuiGameEvent) {
+            final GuiGameEvent event = (GuiGameEvent) msg;
+            if (startsNewGame(event.getMethod(), event.getObjects())) {
+                serializer.reset();
+            }
+            serializer.write(GUI_GAME_EVENT);
+            serializer.write(event.getId());
+            serializer.write(event.getMethod().ordinal());
+            final Object[] args = event.getObjects();
+            serializer.write(args.length);
+            for (final Object arg : args) {
+                serializer.writeValue(arg);
+            }
+        }
+        else if (msg instanceof ReplyEvent) {
+            final ReplyEvent event = (ReplyEvent) msg;
+            serializer.write(REPLY_EVENT);
+            serializer.write(event.getIndex());
+            serializer.writeValue(event.getReply());
+        }
+        else {
+            serializer.write(OTHER_EVENT);
+            serializer.writeValue(msg);
+        }
+        serializer.end();
+    }
+
+    /**
+     * Whether an event clears the game view before a new game's is set, so
+     * the objects of the last game can be forgotten on both sides.
+     */
+    static boolean startsNewGame(final ProtocolMethod method, final Object[] args) {
+        return method == ProtocolMethod.setGameView && args.length > 0 && args[0] == null;
+    }
+}
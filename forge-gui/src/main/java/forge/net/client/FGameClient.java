@@ -11,9 +11,8 @@ import io.netty.channel.EventLoopGroup;
 import io.netty.channel.nio.NioEventLoopGroup;
 import io.netty.channel.socket.SocketChannel;
 import io.netty.channel.socket.nio.NioSocketChannel;
-import io.netty.handler.codec.serialization.ClassResolvers;
-import io.netty.handler.codec.serialization.ObjectDecoder;
-import io.netty.handler.codec.serialization.ObjectEncoder;
+import io.netty.handler.codec.LengthFieldBasedFrameDecoder;
+import io.netty.handler.codec.LengthFieldPrepender;
 
 import java.util.List;
 import java.util.concurrent.TimeoutException;
@@ -23,11 +22,15 @@ import com.google.common.collect.Lists;
 import forge.game.player.PlayerView;
 import forge.interfaces.IGuiGame;
 import forge.interfaces.ILobbyListener;
+import forge.net.NetEventDecoder;
+import forge.net.NetEventEncoder;
 import forge.net.ReplyPool;
 import forge.net.event.IdentifiableNetEvent;
 import forge.net.event.LobbyUpdateEvent;
 import forge.net.event.MessageEvent;
 import forge.net.event.NetEvent;
+import forge.trackable.TrackableDeserializer;
+import forge.trackable.TrackableSerializer;
 
 public class FGameClient implements IToServer {
 
@@ -58,8 +61,10 @@ public class FGameClient implements IToServer {
                 public void initChannel(final SocketChannel ch) throws Exception {
                     final ChannelPipeline pipeline = ch.pipeline();
                     pipeline.addLast(
-                            new ObjectEncoder(),
-                            new ObjectDecoder(ClassResolvers.cacheDisabled(null)),
+                            new LengthFieldPrepender(4),
+                            new NetEventEncoder(new TrackableSerializer(false)),
+                            new LengthFieldBasedFrameDecoder(NetEventDecoder.MAX_FRAME_LENGTH, 0, 4, 0, 4),
+                            new NetEventDecoder(new TrackableDeserializer()),
                             new MessageHandler(),
                             new LobbyUpdateHandler(),
                             new GameClientHandler(FGameClient.this));
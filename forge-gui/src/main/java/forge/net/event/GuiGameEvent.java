@@ -2,6 +2,7 @@ package forge.net.event;
 
 import forge.net.ProtocolMethod;
 import forge.net.server.RemoteClient;
+import forge.trackable.Tracker;
 
 public final class GuiGameEvent implements IdentifiableNetEvent {
     private static final long serialVersionUID = 6223690008522514574L;
@@ -10,9 +11,14 @@ public final class GuiGameEvent implements IdentifiableNetEvent {
     private final int id;
     private final ProtocolMethod method;
     private final Object[] objects;
+    private transient Tracker changes;
 
     public GuiGameEvent(final ProtocolMethod method, final Object ... objects) {
-        this.id = staticId++;
+        this(staticId++, method, objects);
+    }
+
+    public GuiGameEvent(final int id, final ProtocolMethod method, final Object ... objects) {
+        this.id = id;
         this.method = method;
         this.objects = objects == null ? new Object[0] : objects;
     }
@@ -38,4 +44,19 @@ public final class GuiGameEvent implements IdentifiableNetEvent {
     public Object[] getObjects() {
         return objects;
     }
+
+    /**
+     * Sets the changes to the game view received along with this event,
+     * to be applied when it's handled.
+     */
+    public void setChanges(final Tracker changes0) {
+        changes = changes0;
+    }
+
+    public void applyChanges() {
+        if (changes != null) {
+            changes.unfreeze();
+            changes = null;
+        }
+    }
 }
@@ -6,6 +6,8 @@ import forge.interfaces.IGuiGame;
 import forge.interfaces.ILobbyListener;
 import forge.match.LobbySlot;
 import forge.match.LobbySlotType;
+import forge.net.NetEventDecoder;
+import forge.net.NetEventEncoder;
 import forge.net.event.LobbyUpdateEvent;
 import forge.net.event.LoginEvent;
 import forge.net.event.LogoutEvent;
@@ -13,6 +15,8 @@ import forge.net.event.MessageEvent;
 import forge.net.event.NetEvent;
 import forge.net.event.UpdateLobbyPlayerEvent;
 import forge.properties.ForgeConstants;
+import forge.trackable.TrackableDeserializer;
+import forge.trackable.TrackableSerializer;
 import io.netty.bootstrap.ServerBootstrap;
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelFuture;
@@ -24,9 +28,8 @@ import io.netty.channel.EventLoopGroup;
 import io.netty.channel.nio.NioEventLoopGroup;
 import io.netty.channel.socket.SocketChannel;
 import io.netty.channel.socket.nio.NioServerSocketChannel;
-import io.netty.handler.codec.serialization.ClassResolvers;
-import io.netty.handler.codec.serialization.ObjectDecoder;
-import io.netty.handler.codec.serialization.ObjectEncoder;
+import io.netty.handler.codec.LengthFieldBasedFrameDecoder;
+import io.netty.handler.codec.LengthFieldPrepender;
 import io.netty.handler.logging.LogLevel;
 import io.netty.handler.logging.LoggingHandler;
 
@@ -95,9 +98,12 @@ public final class FServerManager {
             .childHandler(new ChannelInitializer<SocketChannel>() {
                 @Override public final void initChannel(final SocketChannel ch) {
                     final ChannelPipeline p = ch.pipeline();
+                    final TrackableSerializer serializer = new TrackableSerializer(true);
                     p.addLast(
-                            new ObjectEncoder(),
-                            new ObjectDecoder(ClassResolvers.cacheDisabled(null)),
+                            new LengthFieldPrepender(4),
+                            new NetEventEncoder(serializer),
+                            new LengthFieldBasedFrameDecoder(NetEventDecoder.MAX_FRAME_LENGTH, 0, 4, 0, 4),
+                            new NetEventDecoder(new TrackableDeserializer(serializer)),
                             new MessageHandler(),
                             new RegisterClientHandler(),
                             new LobbyInputHandler(),